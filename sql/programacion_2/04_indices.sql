@@ -0,0 +1,37 @@
+-- =====================================================================
+-- SCRIPT DE CREACIÓN DE ÍNDICES (Programación II)
+-- Ejecutar después de 01_esquema.sql (y opcionalmente de la carga masiva).
+-- =====================================================================
+USE GestionPacientes;
+
+-- =====================================================================
+-- ÍNDICES PARA PAGINACIÓN POR CLAVE (KEYSET / SEEK)
+-- =====================================================================
+-- Los listados de pacientes se ordenan por (apellido, nombre, id) y se
+-- paginan con "WHERE (apellido, nombre, id) > (?, ?, ?) LIMIT n" en lugar
+-- de OFFSET. Este índice permite que cada página (incluso las más
+-- profundas) se resuelva como un rango del índice, leyendo solo n filas.
+-- InnoDB agrega la clave primaria (id) al final de todo índice secundario,
+-- por lo que el orden completo (eliminado, apellido, nombre, id) queda
+-- cubierto sin necesidad de incluirla explícitamente.
+CREATE INDEX idx_paciente_eliminado_apellido_nombre ON Paciente (eliminado, apellido, nombre);
+
+-- Las historias clínicas se paginan por su clave primaria (id), que ya es
+-- un índice: no requieren un índice adicional.
+
+-- =====================================================================
+-- ÍNDICES PARA BÚSQUEDA DE PACIENTES POR NOMBRE / APELLIDO
+-- =====================================================================
+-- Búsqueda por PREFIJO ("Gonz*"): "apellido LIKE 'Gonz%' OR nombre LIKE 'Gonz%'".
+-- La columna apellido ya está cubierta por idx_paciente_eliminado_apellido_nombre;
+-- este índice cubre nombre, de modo que el OR se resuelve con una unión de
+-- rangos de índice (index_merge) en lugar de un recorrido completo.
+-- No se usa LOWER(): la collation por defecto (utf8mb4_0900_ai_ci) ya compara
+-- sin distinguir mayúsculas ni acentos, y LOWER() impediría usar el índice.
+CREATE INDEX idx_paciente_eliminado_nombre ON Paciente (eliminado, nombre);
+
+-- Búsqueda por TEXTO COMPLETO (subcadena en cualquier posición, ej: "ález"):
+-- el parser ngram indexa todas las subcadenas de ngram_token_size caracteres
+-- (2 por defecto), por lo que MATCH ... AGAINST encuentra coincidencias en
+-- el medio de la palabra sin recorrer la tabla.
+CREATE FULLTEXT INDEX ftx_paciente_nombre_apellido ON Paciente (nombre, apellido) WITH PARSER ngram;
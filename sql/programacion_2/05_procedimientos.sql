@@ -0,0 +1,65 @@
+-- =====================================================================
+-- SCRIPT DE PROCEDIMIENTOS ALMACENADOS (Programación II)
+-- Ejecutar después de 01_esquema.sql. Es opcional: la aplicación solo lo
+-- usa con db.write.mode=pipeline y, si no existe, vuelve al modo
+-- transaccional (una sentencia por viaje).
+-- =====================================================================
+USE GestionPacientes;
+
+DROP PROCEDURE IF EXISTS sp_insertar_paciente_con_historia;
+
+DELIMITER $$
+
+-- =====================================================================
+-- ALTA DE PACIENTE CON SU HISTORIA CLÍNICA NUEVA (UN SOLO VIAJE)
+-- =====================================================================
+-- Inserta la HistoriaClinica, encadena su ID generado (LAST_INSERT_ID())
+-- como FK del Paciente y lo inserta, todo en una transacción propia. La
+-- aplicación lo invoca con un único "CALL" (un viaje de red en lugar de
+-- SET autocommit + INSERT HC + INSERT Paciente + COMMIT).
+--
+-- Ante cualquier error (ej: DNI o número de historia duplicado) hace
+-- ROLLBACK y re-lanza el error original (RESIGNAL), de modo que la
+-- aplicación recibe el mismo código 1062 que con el modo transaccional.
+--
+-- Devuelve una fila con los IDs generados: (historia_id, paciente_id).
+CREATE PROCEDURE sp_insertar_paciente_con_historia (
+    IN p_nro_historia VARCHAR(20),
+    IN p_grupo_sanguineo_id INT,
+    IN p_antecedentes TEXT,
+    IN p_medicacion_actual TEXT,
+    IN p_observaciones TEXT,
+    IN p_nombre VARCHAR(80),
+    IN p_apellido VARCHAR(80),
+    IN p_dni VARCHAR(15),
+    IN p_fecha_nacimiento DATE
+)
+BEGIN
+    DECLARE v_historia_id INT;
+
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    START TRANSACTION;
+
+    INSERT INTO HistoriaClinica
+        (nro_historia, grupo_sanguineo_id, antecedentes, medicacion_actual, observaciones)
+    VALUES
+        (p_nro_historia, p_grupo_sanguineo_id, p_antecedentes, p_medicacion_actual, p_observaciones);
+
+    SET v_historia_id = LAST_INSERT_ID();
+
+    INSERT INTO Paciente
+        (nombre, apellido, dni, fecha_nacimiento, historia_clinica_id)
+    VALUES
+        (p_nombre, p_apellido, p_dni, p_fecha_nacimiento, v_historia_id);
+
+    COMMIT;
+
+    SELECT v_historia_id AS historia_id, LAST_INSERT_ID() AS paciente_id;
+END$$
+
+DELIMITER ;
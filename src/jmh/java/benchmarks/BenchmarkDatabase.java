@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import config.DatabaseConnection;
+
+/**
+ * Prepara la base de datos en memoria (H2 en modo MySQL) usada por los
+ * benchmarks de persistencia.
+ * <p>
+ * La conexión se obtiene con {@link DatabaseConnection} (y su pool), igual
+ * que la aplicación: el <code>db.properties</code> del source set
+ * <code>jmh</code> apunta a H2 en lugar de MySQL.
+ * </p>
+ *
+ * @author alpha team
+ */
+final class BenchmarkDatabase {
+
+    /**
+     * Script con el esquema compatible con H2 (en <code>src/jmh/resources</code>).
+     */
+    private static final String SCHEMA_SCRIPT = "bench-schema.sql";
+
+    private static boolean initialized;
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private BenchmarkDatabase() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Crea las tablas y el catálogo de grupos sanguíneos (una sola vez por
+     * JVM; JMH usa una JVM nueva por benchmark).
+     *
+     * @throws SQLException Si falla la ejecución del script.
+     * @throws IOException  Si no se encuentra el script.
+     */
+    static synchronized void ensureSchema() throws SQLException, IOException {
+        if (initialized) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement()) {
+            for (String sentencia : loadScript().split(";")) {
+                if (!sentencia.isBlank()) {
+                    stmt.execute(sentencia);
+                }
+            }
+        }
+        initialized = true;
+    }
+
+    /**
+     * Lee el script de esquema, sin las líneas de comentario.
+     *
+     * @return El contenido del script.
+     * @throws IOException Si no se encuentra el script.
+     */
+    private static String loadScript() throws IOException {
+        try (InputStream input = BenchmarkDatabase.class.getClassLoader().getResourceAsStream(SCHEMA_SCRIPT)) {
+            if (input == null) {
+                throw new IOException("No se encontró " + SCHEMA_SCRIPT + " en el classpath.");
+            }
+            StringBuilder sql = new StringBuilder();
+            for (String linea : new String(input.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (!linea.trim().startsWith("--")) {
+                    sql.append(linea).append('\n');
+                }
+            }
+            return sql.toString();
+        }
+    }
+}
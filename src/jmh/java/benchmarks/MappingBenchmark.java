@@ -0,0 +1,169 @@
+package benchmarks;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import config.DatabaseConnection;
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+import models.GrupoSanguineo;
+import models.HistoriaClinica;
+import models.Paciente;
+
+/**
+ * Benchmarks del mapeo entre JDBC y las entidades: <code>mapEntity</code>
+ * (ResultSet → objeto) y <code>setEntityParameters</code> (objeto →
+ * PreparedStatement) de {@link PacienteDAO}.
+ * <p>
+ * <code>mapEntity</code> lee de un <code>ResultSet</code> en memoria (sin
+ * BD), por lo que mide solo el costo del mapeo. <code>setEntityParameters</code>
+ * usa un <code>PreparedStatement</code> real de H2 que nunca se ejecuta.
+ * </p>
+ *
+ * @author alpha team
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    /**
+     * Misma sentencia que <code>PacienteDAO.INSERT_SQL</code>.
+     */
+    private static final String INSERT_PACIENTE_SQL = """
+                INSERT INTO Paciente
+                (nombre, apellido, dni, fecha_nacimiento, historia_clinica_id)
+                VALUES (?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Misma sentencia que <code>HistoriaClinicaDAO.INSERT_SQL</code>.
+     */
+    private static final String INSERT_HISTORIA_SQL = """
+                INSERT INTO HistoriaClinica
+                    (nro_historia, grupo_sanguineo_id, antecedentes,
+                    medicacion_actual, observaciones)
+                VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private PacienteDAO pacienteDAO;
+    private HistoriaClinicaDAO historiaClinicaDAO;
+
+    private SimpleResultSet filaConHistoria;
+    private SimpleResultSet filaSinHistoria;
+
+    private Paciente paciente;
+    private HistoriaClinica historia;
+
+    private Connection conn;
+    private PreparedStatement insertPaciente;
+    private PreparedStatement insertHistoria;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.ensureSchema();
+
+        historiaClinicaDAO = new HistoriaClinicaDAO();
+        pacienteDAO = new PacienteDAO(historiaClinicaDAO);
+
+        filaConHistoria = pacienteRow(1, 10);
+        filaSinHistoria = pacienteRow(2, null);
+
+        historia = new HistoriaClinica(10, "HC-00000010", GrupoSanguineo.A_PLUS,
+                "Hipertensión arterial", "Enalapril 10mg", "Control mensual");
+        paciente = new Paciente(1, "Juan", "Pérez", "30123456", LocalDate.of(1980, 5, 17), historia);
+
+        conn = DatabaseConnection.getConnection();
+        insertPaciente = conn.prepareStatement(INSERT_PACIENTE_SQL);
+        insertHistoria = conn.prepareStatement(INSERT_HISTORIA_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insertPaciente.close();
+        insertHistoria.close();
+        conn.close();
+    }
+
+    @Benchmark
+    public Paciente mapEntityConHistoria() throws SQLException {
+        filaConHistoria.beforeFirst();
+        filaConHistoria.next();
+        return pacienteDAO.mapEntity(filaConHistoria);
+    }
+
+    @Benchmark
+    public Paciente mapEntitySinHistoria() throws SQLException {
+        filaSinHistoria.beforeFirst();
+        filaSinHistoria.next();
+        return pacienteDAO.mapEntity(filaSinHistoria);
+    }
+
+    @Benchmark
+    public PreparedStatement setEntityParametersPaciente() throws SQLException {
+        pacienteDAO.setEntityParameters(insertPaciente, paciente);
+        return insertPaciente;
+    }
+
+    @Benchmark
+    public PreparedStatement setEntityParametersHistoria() throws SQLException {
+        historiaClinicaDAO.setEntityParameters(insertHistoria, historia);
+        return insertHistoria;
+    }
+
+    /**
+     * Crea un <code>ResultSet</code> en memoria con las mismas columnas que
+     * la consulta base de {@link PacienteDAO}.
+     *
+     * @param pacienteId El ID del paciente.
+     * @param hcId       El ID de la HC, o <code>null</code> si no tiene.
+     * @return El ResultSet (reutilizable con <code>beforeFirst()</code>).
+     */
+    private static SimpleResultSet pacienteRow(int pacienteId, Integer hcId) {
+        SimpleResultSet rs = new SimpleResultSet();
+        rs.setAutoClose(false);
+        rs.addColumn("paciente_id", Types.INTEGER, 10, 0);
+        rs.addColumn("nombre", Types.VARCHAR, 80, 0);
+        rs.addColumn("apellido", Types.VARCHAR, 80, 0);
+        rs.addColumn("dni", Types.VARCHAR, 15, 0);
+        rs.addColumn("fecha_nacimiento", Types.DATE, 10, 0);
+        rs.addColumn("historia_clinica_id", Types.INTEGER, 10, 0);
+        rs.addColumn("hc_id", Types.INTEGER, 10, 0);
+        rs.addColumn("nro_historia", Types.VARCHAR, 20, 0);
+        rs.addColumn("nombre_enum", Types.VARCHAR, 8, 0);
+        rs.addColumn("antecedentes", Types.VARCHAR, 1000, 0);
+        rs.addColumn("medicacion_actual", Types.VARCHAR, 1000, 0);
+        rs.addColumn("observaciones", Types.VARCHAR, 1000, 0);
+
+        boolean conHistoria = hcId != null;
+        rs.addRow(pacienteId, "Juan", "Pérez", "30123456", Date.valueOf("1980-05-17"), hcId, hcId,
+                conHistoria ? "HC-00000010" : null,
+                conHistoria ? "A_PLUS" : null,
+                conHistoria ? "Hipertensión arterial" : null,
+                conHistoria ? "Enalapril 10mg" : null,
+                conHistoria ? "Control mensual" : null);
+        return rs;
+    }
+}
@@ -0,0 +1,130 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dao.GrupoSanguineoCatalog;
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+import models.GrupoSanguineo;
+import models.HistoriaClinica;
+import models.Paciente;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Benchmarks de extremo a extremo (Servicio → DAO → pool → JDBC) contra H2 en
+ * memoria en modo MySQL.
+ * <p>
+ * H2 no reproduce la latencia de red ni el optimizador de MySQL: estos
+ * números sirven para comparar el costo de la aplicación (mapeo, validación,
+ * pool, cantidad de sentencias) entre commits, no para estimar tiempos en
+ * producción.
+ * </p>
+ *
+ * @author alpha team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    /**
+     * Pacientes precargados para los benchmarks de lectura.
+     */
+    private static final int PACIENTES_PRECARGADOS = 1_000;
+
+    /**
+     * Genera DNI y números de historia únicos entre invocaciones (y entre
+     * hilos).
+     */
+    private final AtomicLong secuencia = new AtomicLong(10_000_000L);
+
+    private PacienteDAO pacienteDAO;
+    private PacienteService pacienteService;
+    private int[] idsPrecargados;
+    private final AtomicLong lecturas = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.ensureSchema();
+        GrupoSanguineoCatalog.shared().refresh();
+
+        HistoriaClinicaDAO historiaClinicaDAO = new HistoriaClinicaDAO();
+        pacienteDAO = new PacienteDAO(historiaClinicaDAO);
+        pacienteService = new PacienteService(pacienteDAO, new HistoriaClinicaService(historiaClinicaDAO));
+
+        idsPrecargados = new int[PACIENTES_PRECARGADOS];
+        for (int i = 0; i < PACIENTES_PRECARGADOS; i++) {
+            Paciente paciente = nuevoPaciente();
+            pacienteService.insert(paciente);
+            idsPrecargados[i] = paciente.getId();
+        }
+    }
+
+    /**
+     * Alta completa: paciente con HC nueva (validación, INSERT de la HC,
+     * INSERT del paciente y commit).
+     */
+    @Benchmark
+    public Paciente insertPacienteConHistoria() throws Exception {
+        Paciente paciente = nuevoPaciente();
+        pacienteService.insert(paciente);
+        return paciente;
+    }
+
+    /**
+     * Lectura por ID directa al DAO (siempre consulta la BD).
+     */
+    @Benchmark
+    public Paciente selectByIdDao() throws Exception {
+        return pacienteDAO.selectByIdWithStatus(siguienteId(), false);
+    }
+
+    /**
+     * Lectura por ID a través del servicio (validación, mapeo y consulta).
+     * La caché de entidades está desactivada en el <code>db.properties</code>
+     * de los benchmarks, así que cada invocación llega a la BD.
+     */
+    @Benchmark
+    public Paciente selectByIdServicio() throws Exception {
+        return pacienteService.selectById(siguienteId(), false);
+    }
+
+    /**
+     * Crea un paciente nuevo con una HC nueva y claves únicas.
+     *
+     * @return El paciente (sin persistir).
+     */
+    private Paciente nuevoPaciente() {
+        long n = secuencia.incrementAndGet();
+        HistoriaClinica historia = new HistoriaClinica("HC-" + n, GrupoSanguineo.values()[(int) (n % 8)],
+                "Antecedentes " + n, "Medicación " + n, "Observaciones " + n);
+        return new Paciente("Nombre", "Apellido", String.valueOf(n), LocalDate.of(1980, 1, 1), historia);
+    }
+
+    /**
+     * Recorre los pacientes precargados en orden circular.
+     *
+     * @return El ID a leer.
+     */
+    private int siguienteId() {
+        return idsPrecargados[(int) (lecturas.getAndIncrement() % idsPrecargados.length)];
+    }
+}
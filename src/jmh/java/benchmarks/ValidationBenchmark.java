@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+import exceptions.ValidationException;
+import models.GrupoSanguineo;
+import models.Paciente;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Benchmarks de la lógica de negocio que no accede a la BD: validación de
+ * pacientes (expresiones regulares, fechas) y compatibilidad de grupos
+ * sanguíneos.
+ *
+ * @author alpha team
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private static final GrupoSanguineo[] GRUPOS = GrupoSanguineo.values();
+
+    private PacienteService pacienteService;
+    private Paciente paciente;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HistoriaClinicaDAO historiaClinicaDAO = new HistoriaClinicaDAO();
+        pacienteService = new PacienteService(new PacienteDAO(historiaClinicaDAO),
+                new HistoriaClinicaService(historiaClinicaDAO));
+        paciente = new Paciente("Juan Carlos", "Pérez Gómez", "30.123.456", LocalDate.of(1980, 5, 17));
+    }
+
+    /**
+     * Valida un paciente correcto. El DNI se restablece en cada invocación
+     * porque <code>validateEntity</code> lo normaliza (quita los puntos).
+     */
+    @Benchmark
+    public Paciente validateEntity() throws ValidationException {
+        paciente.setDni("30.123.456");
+        pacienteService.validateEntity(paciente);
+        return paciente;
+    }
+
+    /**
+     * Evalúa las 64 combinaciones donante/receptor.
+     */
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public void puedeDonarA(Blackhole bh) {
+        for (GrupoSanguineo donante : GRUPOS) {
+            for (GrupoSanguineo receptor : GRUPOS) {
+                bh.consume(donante.puedeDonarA(receptor));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- =====================================================================
+-- ESQUEMA PARA BENCHMARKS (H2 en modo MySQL)
+-- =====================================================================
+-- Mismas tablas, columnas y restricciones UNIQUE que
+-- sql/programacion_2/01_esquema.sql, sin las construcciones propias de
+-- MySQL que H2 no soporta (ENUM, columnas generadas, CHECK con RLIKE).
+CREATE TABLE IF NOT EXISTS GrupoSanguineo (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    tipo_grupo VARCHAR(2) NOT NULL,
+    factor_rh VARCHAR(1) NOT NULL,
+    nombre_enum VARCHAR(8) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS HistoriaClinica (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    eliminado BOOLEAN DEFAULT FALSE,
+    nro_historia VARCHAR(20) NOT NULL UNIQUE,
+    grupo_sanguineo_id INT NULL,
+    antecedentes TEXT NULL,
+    medicacion_actual TEXT NULL,
+    observaciones TEXT NULL,
+    CONSTRAINT fk_hc_grupo_sanguineo_id FOREIGN KEY (grupo_sanguineo_id) REFERENCES GrupoSanguineo (id) ON DELETE SET NULL
+);
+
+CREATE TABLE IF NOT EXISTS Paciente (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    eliminado BOOLEAN DEFAULT FALSE,
+    nombre VARCHAR(80) NOT NULL,
+    apellido VARCHAR(80) NOT NULL,
+    dni VARCHAR(15) UNIQUE NOT NULL,
+    fecha_nacimiento DATE NULL,
+    historia_clinica_id INT UNIQUE NULL,
+    CONSTRAINT fk_paciente_historia_clinica_id FOREIGN KEY (historia_clinica_id) REFERENCES HistoriaClinica (id) ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_paciente_eliminado_apellido_nombre ON Paciente (eliminado, apellido, nombre);
+
+INSERT INTO GrupoSanguineo (tipo_grupo, factor_rh, nombre_enum)
+SELECT * FROM (VALUES
+    ('A', '+', 'A_PLUS'),
+    ('A', '-', 'A_MINUS'),
+    ('B', '+', 'B_PLUS'),
+    ('B', '-', 'B_MINUS'),
+    ('AB', '+', 'AB_PLUS'),
+    ('AB', '-', 'AB_MINUS'),
+    ('O', '+', 'O_PLUS'),
+    ('O', '-', 'O_MINUS')
+) AS catalogo (tipo_grupo, factor_rh, nombre_enum)
+WHERE NOT EXISTS (SELECT 1 FROM GrupoSanguineo);
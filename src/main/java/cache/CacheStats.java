@@ -0,0 +1,34 @@
+package cache;
+
+/**
+ * Instantánea inmutable de los contadores de una {@link EntityCache}.
+ *
+ * @param name        Nombre de la caché (ej: "Paciente").
+ * @param size        Entradas almacenadas actualmente.
+ * @param maxSize     Capacidad máxima (entradas).
+ * @param hits        Lecturas resueltas desde la caché.
+ * @param misses      Lecturas que debieron consultar la base de datos.
+ * @param evictions   Entradas descartadas por falta de capacidad (LRU).
+ * @param expirations Entradas descartadas por superar el TTL.
+ * @author alpha team
+ * @see EntityCache#stats()
+ */
+public record CacheStats(String name, int size, int maxSize, long hits, long misses,
+        long evictions, long expirations) {
+
+    /**
+     * Devuelve la proporción de lecturas resueltas desde la caché.
+     *
+     * @return Un valor entre 0 y 1 (0 si todavía no hubo lecturas).
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Caché %s: %d/%d entradas, %d aciertos, %d fallos (%.1f%%), %d desalojos, %d expiradas",
+                name, size, maxSize, hits, misses, hitRate() * 100, evictions, expirations);
+    }
+}
@@ -0,0 +1,501 @@
+package cache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import config.DatabaseConnection;
+import models.Base;
+
+/**
+ * Caché de lectura (<i>read-through</i>) acotada para entidades del dominio.
+ * <p>
+ * Evita consultar la base de datos cuando el mismo registro se lee varias
+ * veces seguidas (ej: el flujo de actualización de la UI busca el registro,
+ * valida y lo vuelve a leer). La usan {@link service.PacienteService} y
+ * {@link service.HistoriaClinicaService}.
+ * </p>
+ *
+ * <h3>Características:</h3>
+ * <ul>
+ * <li><b>Clave principal:</b> el ID de la entidad.</li>
+ * <li><b>Clave secundaria:</b> una clave de negocio única (DNI o número de
+ * historia) que apunta al ID.</li>
+ * <li><b>Desalojo LRU:</b> al superar la capacidad se descarta la entrada
+ * usada hace más tiempo (<code>LinkedHashMap</code> en orden de
+ * acceso).</li>
+ * <li><b>TTL:</b> cada entrada expira luego de un tiempo fijo desde su
+ * carga, lo que acota la antigüedad de los datos si la BD se modifica por
+ * fuera de la aplicación.</li>
+ * <li><b>Copias defensivas:</b> guarda y devuelve <b>copias</b> de las
+ * entidades (son mutables), por lo que modificar el objeto devuelto no
+ * altera la caché.</li>
+ * </ul>
+ *
+ * <h3>Invalidación:</h3>
+ * <p>
+ * Los servicios invalidan las entradas afectadas por sus propias
+ * escrituras. Para evitar que una lectura concurrente vuelva a guardar un
+ * valor anterior a la escritura, cada invalidación incrementa una
+ * <b>versión</b>: el valor leído de la BD solo se guarda si la versión no
+ * cambió durante la lectura.
+ * </p>
+ *
+ * <h3>Configuración (<code>db.properties</code>):</h3>
+ * <ul>
+ * <li><code>db.cache.maxSize</code>: entradas por caché (defecto
+ * {@value #DEFAULT_MAX_SIZE}; <code>0</code> la desactiva).</li>
+ * <li><code>db.cache.ttlMs</code>: tiempo de vida en milisegundos (defecto
+ * {@value #DEFAULT_TTL_MS}; <code>0</code> la desactiva).</li>
+ * </ul>
+ *
+ * @param <T> Tipo de la entidad (debe extender {@link Base}).
+ * @author alpha team
+ * @see CacheStats
+ */
+public final class EntityCache<T extends Base> {
+
+    /**
+     * Capacidad por defecto (entradas).
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /**
+     * Tiempo de vida por defecto de una entrada (1 minuto).
+     */
+    public static final long DEFAULT_TTL_MS = 60_000;
+
+    /**
+     * Obtiene la entidad desde la base de datos cuando no está en la caché.
+     *
+     * @param <T> Tipo de la entidad.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        /**
+         * Lee la entidad de la base de datos.
+         *
+         * @return La entidad, o <code>null</code> si no existe (los
+         *         resultados <code>null</code> no se guardan).
+         * @throws SQLException Si ocurre un error de acceso a datos.
+         */
+        T load() throws SQLException;
+    }
+
+    /**
+     * Obtiene desde la base de datos, en una sola lectura, las entidades que
+     * no están en la caché.
+     *
+     * @param <K> Tipo de la clave (ID o clave secundaria).
+     * @param <T> Tipo de la entidad.
+     */
+    @FunctionalInterface
+    public interface BulkLoader<K, T> {
+
+        /**
+         * Lee las entidades de la base de datos.
+         *
+         * @param missing Las claves que no están en la caché.
+         * @return Las entidades encontradas por clave (las claves inexistentes
+         *         se omiten).
+         * @throws SQLException Si ocurre un error de acceso a datos.
+         */
+        Map<K, T> load(Collection<K> missing) throws SQLException;
+    }
+
+    /**
+     * Entrada de la caché: la copia guardada, su clave secundaria y su
+     * instante de expiración.
+     */
+    private record Entry<T>(T value, String secondaryKey, long expiresAt) {
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Function<T, String> secondaryKeyOf;
+    private final UnaryOperator<T> copier;
+
+    /**
+     * ID → entrada, en orden de acceso (la primera es la menos usada).
+     */
+    private final LinkedHashMap<Integer, Entry<T>> entries;
+
+    /**
+     * Clave secundaria → ID.
+     */
+    private final Map<String, Integer> idsBySecondaryKey = new HashMap<>();
+
+    /**
+     * Se incrementa en cada invalidación (ver "Invalidación" arriba).
+     */
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Crea una caché.
+     *
+     * @param name           Nombre (para estadísticas y mensajes).
+     * @param maxSize        Capacidad máxima en entradas (<code>0</code> la
+     *                       desactiva).
+     * @param ttlMs          Tiempo de vida de cada entrada en milisegundos
+     *                       (<code>0</code> la desactiva).
+     * @param secondaryKeyOf Función que obtiene la clave secundaria de una
+     *                       entidad (puede devolver <code>null</code>).
+     * @param copier         Función que crea una copia independiente de una
+     *                       entidad (ej: un constructor de copia).
+     */
+    public EntityCache(String name, int maxSize, long ttlMs,
+            Function<T, String> secondaryKeyOf, UnaryOperator<T> copier) {
+
+        this.name = name;
+        this.maxSize = Math.max(0, maxSize);
+        this.ttlNanos = Math.max(0, ttlMs) * 1_000_000L;
+        this.secondaryKeyOf = secondaryKeyOf;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Crea una caché con la capacidad y el TTL configurados en
+     * <code>db.properties</code> (<code>db.cache.maxSize</code>,
+     * <code>db.cache.ttlMs</code>).
+     *
+     * @param <T>            Tipo de la entidad.
+     * @param name           Nombre de la caché.
+     * @param secondaryKeyOf Función que obtiene la clave secundaria.
+     * @param copier         Función de copia.
+     * @return La caché configurada.
+     */
+    public static <T extends Base> EntityCache<T> fromConfig(String name,
+            Function<T, String> secondaryKeyOf, UnaryOperator<T> copier) {
+
+        return new EntityCache<>(name,
+                DatabaseConnection.getIntProperty("db.cache.maxSize", DEFAULT_MAX_SIZE),
+                DatabaseConnection.getLongProperty("db.cache.ttlMs", DEFAULT_TTL_MS),
+                secondaryKeyOf, copier);
+    }
+
+    // ============ LECTURA ============
+
+    /**
+     * Devuelve la entidad con el ID indicado, desde la caché o (si no está)
+     * desde la base de datos mediante el <code>loader</code>.
+     *
+     * @param id     El ID de la entidad.
+     * @param loader Lectura desde la BD (se ejecuta fuera del bloqueo).
+     * @return Una copia de la entidad, o <code>null</code> si no existe.
+     * @throws SQLException Si falla la lectura desde la BD.
+     */
+    public T getById(int id, Loader<T> loader) throws SQLException {
+
+        long versionLeida;
+        synchronized (this) {
+            T cached = lookup(id);
+            if (cached != null) {
+                return cached;
+            }
+            versionLeida = version;
+        }
+        return loadAndStore(loader, versionLeida);
+    }
+
+    /**
+     * Devuelve la entidad con la clave secundaria indicada (DNI o número de
+     * historia), desde la caché o desde la base de datos.
+     *
+     * @param key    La clave secundaria.
+     * @param loader Lectura desde la BD (se ejecuta fuera del bloqueo).
+     * @return Una copia de la entidad, o <code>null</code> si no existe.
+     * @throws SQLException Si falla la lectura desde la BD.
+     */
+    public T getBySecondaryKey(String key, Loader<T> loader) throws SQLException {
+
+        long versionLeida;
+        synchronized (this) {
+            T cached = lookupBySecondaryKey(key);
+            if (cached != null) {
+                return cached;
+            }
+            versionLeida = version;
+        }
+        return loadAndStore(loader, versionLeida);
+    }
+
+    /**
+     * Devuelve las entidades con los IDs indicados: las que están en la caché
+     * se toman de ella y el resto se lee con una sola llamada al
+     * <code>loader</code>.
+     *
+     * @param ids    Los IDs (los repetidos se consultan una vez).
+     * @param loader Lectura de los IDs faltantes (fuera del bloqueo).
+     * @return Copias de las entidades por ID, en el orden de
+     *         <code>ids</code> (sin los IDs inexistentes).
+     * @throws SQLException Si falla la lectura desde la BD.
+     */
+    public Map<Integer, T> getAllById(Collection<Integer> ids, BulkLoader<Integer, T> loader)
+            throws SQLException {
+        return getAll(ids, this::lookup, loader);
+    }
+
+    /**
+     * Devuelve las entidades con las claves secundarias indicadas (DNI o
+     * número de historia): las que están en la caché se toman de ella y el
+     * resto se lee con una sola llamada al <code>loader</code>.
+     *
+     * @param keys   Las claves secundarias.
+     * @param loader Lectura de las claves faltantes (fuera del bloqueo).
+     * @return Copias de las entidades por clave, en el orden de
+     *         <code>keys</code> (sin las claves inexistentes).
+     * @throws SQLException Si falla la lectura desde la BD.
+     */
+    public Map<String, T> getAllBySecondaryKey(Collection<String> keys, BulkLoader<String, T> loader)
+            throws SQLException {
+        return getAll(keys, this::lookupBySecondaryKey, loader);
+    }
+
+    // ============ INVALIDACIÓN ============
+
+    /**
+     * Descarta la entrada de una entidad (luego de modificarla en la BD).
+     *
+     * @param id El ID de la entidad.
+     */
+    public synchronized void invalidate(int id) {
+        version++;
+        removeEntry(id);
+    }
+
+    /**
+     * Descarta todas las entradas cuyas entidades cumplan la condición (ej:
+     * los pacientes que contienen una HC modificada).
+     *
+     * @param condition La condición, evaluada sobre las copias guardadas.
+     */
+    public synchronized void invalidateIf(Predicate<T> condition) {
+        version++;
+        Iterator<Entry<T>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry<T> entry = it.next();
+            if (condition.test(entry.value())) {
+                it.remove();
+                removeSecondaryKey(entry);
+            }
+        }
+    }
+
+    /**
+     * Descarta todas las entradas.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+        idsBySecondaryKey.clear();
+    }
+
+    // ============ ESTADÍSTICAS ============
+
+    /**
+     * Indica si la caché está activa (capacidad y TTL mayores a cero).
+     *
+     * @return <code>true</code> si la caché guarda entradas.
+     */
+    public boolean isEnabled() {
+        return maxSize > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * Devuelve una instantánea de los contadores.
+     *
+     * @return Las estadísticas de la caché.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(name, entries.size(), maxSize, hits, misses, evictions, expirations);
+    }
+
+    @Override
+    public String toString() {
+        return stats().toString();
+    }
+
+    // ============ MÉTODOS PRIVADOS ============
+
+    /**
+     * Busca una entrada vigente y cuenta el acierto o el fallo (requiere el
+     * bloqueo).
+     *
+     * @param id El ID de la entidad.
+     * @return Una copia de la entidad, o <code>null</code> si no está o
+     *         expiró.
+     */
+    private T lookup(int id) {
+        Entry<T> entry = entries.get(id);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            removeEntry(id);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return copier.apply(entry.value());
+    }
+
+    /**
+     * Busca una entrada vigente por clave secundaria y cuenta el acierto o el
+     * fallo (requiere el bloqueo).
+     *
+     * @param key La clave secundaria (puede ser <code>null</code>).
+     * @return Una copia de la entidad, o <code>null</code> si no está o
+     *         expiró.
+     */
+    private T lookupBySecondaryKey(String key) {
+        Integer id = (key != null) ? idsBySecondaryKey.get(key) : null;
+        if (id == null) {
+            misses++;
+            return null;
+        }
+        return lookup(id);
+    }
+
+    /**
+     * Lectura por muchas claves: separa aciertos y faltantes bajo el bloqueo,
+     * lee los faltantes de una vez y los guarda si no hubo invalidaciones
+     * durante la lectura (como {@link #loadAndStore}).
+     *
+     * @param <K>    Tipo de la clave.
+     * @param keys   Las claves pedidas.
+     * @param lookup Búsqueda en la caché por clave (requiere el bloqueo).
+     * @param loader Lectura de las claves faltantes.
+     * @return Las entidades por clave, en el orden de <code>keys</code>.
+     * @throws SQLException Si falla la lectura.
+     */
+    private <K> Map<K, T> getAll(Collection<K> keys, Function<K, T> lookup, BulkLoader<K, T> loader)
+            throws SQLException {
+
+        Map<K, T> encontrados = new LinkedHashMap<>();
+        List<K> faltantes = new ArrayList<>();
+        long versionLeida;
+
+        synchronized (this) {
+            for (K key : keys) {
+                if (key == null || encontrados.containsKey(key)) {
+                    continue;
+                }
+                T cached = lookup.apply(key);
+                if (cached != null) {
+                    encontrados.put(key, cached);
+                } else {
+                    encontrados.put(key, null); // Reserva la posición en el orden pedido
+                    faltantes.add(key);
+                }
+            }
+            versionLeida = version;
+        }
+
+        if (!faltantes.isEmpty()) {
+            Map<K, T> leidos = loader.load(faltantes);
+            if (isEnabled() && !leidos.isEmpty()) {
+                synchronized (this) {
+                    if (version == versionLeida) {
+                        for (T loaded : leidos.values()) {
+                            store(copier.apply(loaded));
+                        }
+                    }
+                }
+            }
+            encontrados.putAll(leidos);
+        }
+
+        encontrados.values().removeIf(valor -> valor == null);
+        return encontrados;
+    }
+
+    /**
+     * Lee desde la BD y guarda el resultado si no hubo invalidaciones durante
+     * la lectura.
+     *
+     * @param loader       Lectura desde la BD.
+     * @param versionLeida La versión anterior a la lectura.
+     * @return La entidad leída (el objeto del loader, no la copia guardada).
+     * @throws SQLException Si falla la lectura.
+     */
+    private T loadAndStore(Loader<T> loader, long versionLeida) throws SQLException {
+
+        T loaded = loader.load();
+        if (loaded == null || !isEnabled()) {
+            return loaded;
+        }
+
+        synchronized (this) {
+            if (version == versionLeida) {
+                store(copier.apply(loaded));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Guarda una entrada y desaloja la menos usada si se supera la capacidad
+     * (requiere el bloqueo).
+     *
+     * @param value La copia a guardar.
+     */
+    private void store(T value) {
+        removeEntry(value.getId());
+
+        Entry<T> entry = new Entry<>(value, secondaryKeyOf.apply(value), System.nanoTime() + ttlNanos);
+        entries.put(value.getId(), entry);
+        if (entry.secondaryKey() != null) {
+            idsBySecondaryKey.put(entry.secondaryKey(), value.getId());
+        }
+
+        while (entries.size() > maxSize) {
+            Iterator<Entry<T>> eldest = entries.values().iterator();
+            Entry<T> desalojada = eldest.next();
+            eldest.remove();
+            removeSecondaryKey(desalojada);
+            evictions++;
+        }
+    }
+
+    /**
+     * Quita una entrada y su clave secundaria (requiere el bloqueo).
+     *
+     * @param id El ID de la entidad.
+     */
+    private void removeEntry(int id) {
+        Entry<T> anterior = entries.remove(id);
+        if (anterior != null) {
+            removeSecondaryKey(anterior);
+        }
+    }
+
+    /**
+     * Quita la clave secundaria de una entrada, si todavía apunta a ella
+     * (requiere el bloqueo).
+     *
+     * @param entry La entrada quitada.
+     */
+    private void removeSecondaryKey(Entry<T> entry) {
+        if (entry.secondaryKey() != null) {
+            idsBySecondaryKey.remove(entry.secondaryKey(), entry.value().getId());
+        }
+    }
+}
@@ -0,0 +1,1021 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool de conexiones JDBC acotado (bounded), sin dependencias externas.
+ * <p>
+ * Mantiene un conjunto de conexiones <b>físicas</b> abiertas y las
+ * <b>presta</b> a los DAOs. La {@link Connection} devuelta por
+ * {@link #acquire()} es un <i>proxy</i>: su método <code>close()</code> no
+ * cierra el socket, sino que devuelve la conexión al pool. De esta forma, el
+ * código existente (<code>try (Connection conn = ...)</code>) sigue siendo
+ * correcto sin cambios.
+ * </p>
+ *
+ * <h3>Políticas:</h3>
+ * <ul>
+ * <li><b>Tamaño:</b> nunca abre más de <code>maxSize</code> conexiones. Si no
+ * hay ninguna libre, el hilo espera hasta <code>acquireTimeoutMs</code> y luego
+ * lanza {@link SQLTimeoutException}.</li>
+ * <li><b>Validación:</b> una conexión ociosa por más de
+ * <code>validationIntervalMs</code> se valida (con <code>validationQuery</code>
+ * o <code>isValid()</code>) antes de prestarse.</li>
+ * <li><b>Vencimiento:</b> las conexiones con más de <code>maxLifetimeMs</code>
+ * de vida, o más de <code>idleTimeoutMs</code> sin uso (por encima de
+ * <code>minSize</code>), se cierran.</li>
+ * <li><b>Limpieza al devolver:</b> si la conexión vuelve con
+ * <code>autoCommit=false</code> (transacción olvidada), se hace
+ * <code>rollback()</code> y se restablece <code>autoCommit=true</code>.</li>
+ * <li><b>Caché de sentencias:</b> cada conexión física guarda hasta
+ * <code>statementCacheSize</code> <code>PreparedStatement</code> por texto
+ * SQL. Cerrar la sentencia obtenida con <code>prepareStatement(sql)</code> la
+ * devuelve a la caché en lugar de cerrarla, de modo que el siguiente
+ * <code>prepareStatement</code> con el mismo SQL sobre esa conexión no vuelve
+ * a prepararla (ni en el driver ni, con <code>useServerPrepStmts</code>, en el
+ * servidor).</li>
+ * </ul>
+ *
+ * <p>
+ * Las conexiones se reutilizan en orden <b>LIFO</b> (la más recientemente
+ * devuelta primero), lo que mantiene "calientes" unas pocas conexiones y deja
+ * vencer naturalmente al resto.
+ * </p>
+ *
+ * @author alpha team
+ * @see DatabaseConnection
+ * @see PoolStats
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Fábrica de conexiones físicas (normalmente
+     * <code>DriverManager.getConnection</code>).
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        /**
+         * Abre una nueva conexión física.
+         *
+         * @return La conexión abierta.
+         * @throws SQLException Si no se puede conectar.
+         */
+        Connection create() throws SQLException;
+    }
+
+    /**
+     * Parámetros de configuración del pool (ver <code>db.properties</code>).
+     *
+     * @param minSize              Conexiones que se mantienen abiertas aunque
+     *                             estén ociosas.
+     * @param maxSize              Máximo de conexiones físicas simultáneas.
+     * @param idleTimeoutMs        Tiempo máximo de inactividad antes de cerrar
+     *                             una conexión (por encima de minSize).
+     * @param maxLifetimeMs        Tiempo máximo de vida de una conexión física.
+     * @param acquireTimeoutMs     Tiempo máximo de espera por una conexión.
+     * @param validationIntervalMs Inactividad a partir de la cual se valida una
+     *                             conexión antes de prestarla.
+     * @param validationQuery      Consulta de validación (vacía para usar
+     *                             <code>Connection.isValid()</code>).
+     * @param statementCacheSize   Sentencias preparadas que se guardan por
+     *                             conexión física (<code>0</code> desactiva la
+     *                             caché).
+     */
+    public record Settings(
+            int minSize,
+            int maxSize,
+            long idleTimeoutMs,
+            long maxLifetimeMs,
+            long acquireTimeoutMs,
+            long validationIntervalMs,
+            String validationQuery,
+            int statementCacheSize) {
+
+        /**
+         * Constructor compacto: valida la coherencia de los parámetros.
+         */
+        public Settings {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("db.pool.maxSize debe ser mayor a cero.");
+            }
+            if (minSize < 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("db.pool.minSize debe estar entre 0 y db.pool.maxSize.");
+            }
+            if (acquireTimeoutMs <= 0) {
+                throw new IllegalArgumentException("db.pool.acquireTimeoutMs debe ser mayor a cero.");
+            }
+            if (statementCacheSize < 0) {
+                throw new IllegalArgumentException("db.pool.statementCacheSize no puede ser negativo.");
+            }
+        }
+    }
+
+    /**
+     * Segundos de espera para <code>Connection.isValid()</code>.
+     */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+
+    /**
+     * Lock que protege <code>idle</code>, <code>total</code>,
+     * <code>waiters</code> y <code>closed</code>.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int total;
+    private int waiters;
+    private boolean closed;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+
+    /**
+     * Hilo daemon que cierra conexiones vencidas y repone el mínimo.
+     */
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * Crea el pool. <b>No</b> abre conexiones en el constructor: el mínimo se
+     * completa en segundo plano, de modo que la aplicación puede arrancar
+     * aunque la base de datos todavía no esté disponible.
+     *
+     * @param factory  Fábrica de conexiones físicas.
+     * @param settings Parámetros del pool.
+     */
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+
+        if (factory == null || settings == null) {
+            throw new IllegalArgumentException("La fábrica y la configuración del pool no pueden ser nulas.");
+        }
+        this.factory = factory;
+        this.settings = settings;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long periodo = Math.max(1_000L, Math.min(settings.idleTimeoutMs(), 30_000L) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    // ============ PRÉSTAMO Y DEVOLUCIÓN ============
+    /**
+     * Obtiene una conexión del pool (bloqueando si es necesario).
+     * <p>
+     * Orden de preferencia: 1) una conexión ociosa (validada si hace falta),
+     * 2) una conexión física nueva si <code>total &lt; maxSize</code>, 3) esperar
+     * a que otro hilo devuelva una, hasta <code>acquireTimeoutMs</code>.
+     * </p>
+     *
+     * @return Un proxy de {@link Connection} cuyo <code>close()</code> la
+     *         devuelve al pool.
+     * @throws SQLTimeoutException Si se agotó el tiempo de espera.
+     * @throws SQLException        Si el pool está cerrado o no se pudo abrir una
+     *                             conexión física.
+     */
+    public Connection acquire() throws SQLException {
+
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(settings.acquireTimeoutMs());
+
+        while (true) {
+            PooledConnection candidata;
+            boolean crear = false;
+
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new SQLException("El pool de conexiones está cerrado.");
+                }
+
+                candidata = idle.pollFirst();
+
+                if (candidata == null) {
+                    if (total < settings.maxSize()) {
+                        // Reservamos el cupo ANTES de abrir la conexión (fuera del lock)
+                        total++;
+                        crear = true;
+                    } else {
+                        long restante = limite - System.nanoTime();
+                        if (restante <= 0) {
+                            timeouts.increment();
+                            throw new SQLTimeoutException("Tiempo de espera agotado ("
+                                    + settings.acquireTimeoutMs() + " ms) obteniendo una conexión del pool. "
+                                    + "Conexiones activas: " + (total - idle.size()) + "/" + settings.maxSize());
+                        }
+                        waiters++;
+                        try {
+                            available.awaitNanos(restante);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrumpido mientras se esperaba una conexión del pool.", e);
+                        } finally {
+                            waiters--;
+                        }
+                        continue;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (crear) {
+                candidata = openPhysical();
+            } else if (!isUsable(candidata)) {
+                destroy(candidata);
+                continue;
+            }
+
+            acquired.increment();
+            acquireLatency.record(System.nanoTime() - inicio);
+            return candidata.lease();
+        }
+    }
+
+    /**
+     * Devuelve una conexión física al pool (llamado por el proxy al cerrar).
+     *
+     * @param pc La conexión física devuelta.
+     */
+    private void release(PooledConnection pc) {
+
+        boolean reutilizable = !pc.broken && resetState(pc)
+                && !isExpired(pc, System.currentTimeMillis());
+
+        if (!reutilizable) {
+            destroy(pc);
+            return;
+        }
+
+        pc.lastUsedAt = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.addFirst(pc);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // El pool se cerró mientras la conexión estaba prestada
+        destroy(pc);
+    }
+
+    // ============ ESTADÍSTICAS ============
+    /**
+     * Devuelve una instantánea de las estadísticas del pool.
+     *
+     * @return Las estadísticas actuales.
+     */
+    public PoolStats stats() {
+
+        lock.lock();
+        try {
+            int ociosas = idle.size();
+            return new PoolStats(total - ociosas, ociosas, total, waiters,
+                    acquired.sum(), timeouts.sum(), created.sum(), destroyed.sum(),
+                    acquireLatency.snapshot(),
+                    statementHits.sum(), statementMisses.sum(), statementEvictions.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve la configuración con la que se creó el pool.
+     *
+     * @return Los parámetros del pool.
+     */
+    public Settings settings() {
+        return settings;
+    }
+
+    // ============ CIERRE ============
+    /**
+     * Cierra el pool: cierra todas las conexiones ociosas y detiene el hilo de
+     * mantenimiento. Las conexiones prestadas se cierran al ser devueltas.
+     */
+    @Override
+    public void close() {
+
+        List<PooledConnection> aCerrar;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            aCerrar = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        housekeeper.shutdownNow();
+        aCerrar.forEach(this::destroy);
+    }
+
+    // ============ MÉTODOS HELPER (Ciclo de vida) ============
+    /**
+     * Abre una conexión física. El cupo en <code>total</code> ya fue reservado
+     * por el llamador; si la apertura falla, se libera.
+     *
+     * @return La nueva conexión envuelta.
+     * @throws SQLException Si la fábrica falla.
+     */
+    private PooledConnection openPhysical() throws SQLException {
+
+        try {
+            PooledConnection pc = new PooledConnection(factory.create());
+            created.increment();
+            return pc;
+
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra una conexión física y libera su cupo.
+     *
+     * @param pc La conexión a destruir.
+     */
+    private void destroy(PooledConnection pc) {
+
+        try {
+            pc.physical.close();
+        } catch (SQLException e) {
+            // Se ignora: la conexión se descarta de todas formas
+        }
+        destroyed.increment();
+
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica si una conexión ociosa puede prestarse (no vencida y, si estuvo
+     * inactiva más de <code>validationIntervalMs</code>, válida).
+     *
+     * @param pc La conexión candidata.
+     * @return <code>true</code> si puede usarse.
+     */
+    private boolean isUsable(PooledConnection pc) {
+
+        long ahora = System.currentTimeMillis();
+        if (isExpired(pc, ahora)) {
+            return false;
+        }
+        if (ahora - pc.lastUsedAt < settings.validationIntervalMs()) {
+            return true;
+        }
+
+        try {
+            String query = settings.validationQuery();
+            if (query == null || query.isBlank()) {
+                return pc.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement stmt = pc.physical.createStatement()) {
+                stmt.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                stmt.execute(query);
+            }
+            return true;
+
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indica si la conexión superó su tiempo máximo de vida.
+     *
+     * @param pc    La conexión.
+     * @param ahora El instante actual (ms).
+     * @return <code>true</code> si debe cerrarse.
+     */
+    private boolean isExpired(PooledConnection pc, long ahora) {
+        return settings.maxLifetimeMs() > 0 && ahora - pc.createdAt >= settings.maxLifetimeMs();
+    }
+
+    /**
+     * Deja la conexión en su estado "limpio" antes de volver al pool.
+     *
+     * @param pc La conexión devuelta.
+     * @return <code>false</code> si la conexión quedó inutilizable.
+     */
+    private boolean resetState(PooledConnection pc) {
+
+        try {
+            if (pc.physical.isClosed()) {
+                return false;
+            }
+            if (!pc.physical.getAutoCommit()) {
+                // Transacción abandonada: nunca debe "filtrarse" al próximo usuario
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            pc.physical.clearWarnings();
+            return true;
+
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tarea periódica: cierra conexiones vencidas u ociosas de más (por encima
+     * de <code>minSize</code>) y repone el mínimo de conexiones abiertas.
+     */
+    private void housekeep() {
+
+        List<PooledConnection> aCerrar = new ArrayList<>();
+        int aCrear = 0;
+        long ahora = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            int restantes = total;
+            Iterator<PooledConnection> it = idle.descendingIterator(); // las más viejas primero
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                boolean ociosaDeMas = settings.idleTimeoutMs() > 0
+                        && ahora - pc.lastUsedAt >= settings.idleTimeoutMs()
+                        && restantes > settings.minSize();
+
+                if (isExpired(pc, ahora) || ociosaDeMas) {
+                    it.remove();
+                    aCerrar.add(pc);
+                    restantes--;
+                }
+            }
+
+            if (total - aCerrar.size() < settings.minSize()) {
+                aCrear = settings.minSize() - (total - aCerrar.size());
+                total += aCrear; // reserva de cupos
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        aCerrar.forEach(this::destroy);
+
+        for (int i = 0; i < aCrear; i++) {
+            try {
+                release(openPhysical());
+            } catch (SQLException | RuntimeException e) {
+                // La BD no está disponible: se reintentará en la próxima pasada.
+                // openPhysical() ya liberó el cupo de esta conexión; liberamos el resto.
+                lock.lock();
+                try {
+                    total -= (aCrear - i - 1);
+                    available.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    // ============ CONEXIÓN FÍSICA Y PROXY ============
+    /**
+     * Conexión física administrada por el pool.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final long createdAt;
+        private volatile long lastUsedAt;
+
+        /**
+         * Sentencias preparadas libres de esta conexión (<code>null</code> si la
+         * caché está desactivada). Solo la usa el hilo que tiene la conexión
+         * prestada.
+         */
+        private final StatementCache statements;
+
+        /**
+         * Marcada cuando se detecta un error de comunicación (SQLState 08xxx):
+         * la conexión se descarta al devolverse.
+         */
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsedAt = this.createdAt;
+            this.statements = settings.statementCacheSize() > 0 ? new StatementCache(this) : null;
+        }
+
+        /**
+         * Crea un nuevo proxy "de préstamo". Cada préstamo tiene su propio proxy,
+         * de modo que una referencia vieja no pueda usar la conexión después de
+         * haberla devuelto.
+         *
+         * @return El proxy de la conexión.
+         */
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Lease(this));
+        }
+    }
+
+    /**
+     * Manejador del proxy de una conexión prestada.
+     * <p>
+     * <code>unwrap</code> devuelve el propio proxy para {@link Connection} (y
+     * sus supertipos) y lanza {@link SQLException} para cualquier otro subtipo
+     * de <code>Connection</code>; el resto de los tipos se delega a la conexión
+     * física.
+     * </p>
+     */
+    private final class Lease implements InvocationHandler {
+
+        private final PooledConnection pc;
+
+        /**
+         * Se lee desde las sentencias del préstamo, que pueden quedar en manos
+         * de otro hilo después de devolver la conexión.
+         */
+        private volatile boolean returned;
+
+        private Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(pc);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pc.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pc.physical + "]";
+                }
+                case "unwrap" -> {
+                    // Nunca la conexión física: se podría cerrar o reconfigurar fuera del pool.
+                    // Otros tipos (ej: MemoryTransaction con db.backend=memory) se delegan.
+                    Class<?> iface = (Class<?>) args[0];
+                    if (iface.isInstance(proxy)) {
+                        return proxy;
+                    }
+                    if (Connection.class.isAssignableFrom(iface)) {
+                        throw new SQLException("La conexión del pool no expone la conexión física (" + iface + ").");
+                    }
+                }
+                case "isWrapperFor" -> {
+                    Class<?> iface = (Class<?>) args[0];
+                    if (iface.isInstance(proxy)) {
+                        return true;
+                    }
+                    if (Connection.class.isAssignableFrom(iface)) {
+                        return false;
+                    }
+                }
+                default -> {
+                    // sigue abajo
+                }
+            }
+
+            if (returned) {
+                throw new SQLException("La conexión ya fue devuelta al pool.");
+            }
+
+            if (pc.statements != null && StatementKey.isCacheable(method, args)) {
+                return pc.statements.checkout(StatementKey.of(args), this, (Connection) proxy);
+            }
+
+            Object resultado = invokeTracking(pc, pc.physical, method, args);
+            if (resultado instanceof Statement stmt) {
+                // createStatement(), prepareCall() y prepareStatement() no cacheados
+                return Proxy.newProxyInstance(
+                        Statement.class.getClassLoader(),
+                        new Class<?>[] { method.getReturnType() },
+                        new LeasedStatement(this, stmt, (Connection) proxy));
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Manejador del proxy de una sentencia <b>no</b> cacheada: como
+     * {@link CachedStatement}, nunca entrega la conexión física y deja de
+     * funcionar cuando el préstamo se devuelve. <code>unwrap</code> lanza
+     * {@link SQLException} para los tipos de <code>java.sql</code> que el proxy
+     * no implementa (ver {@link #unwrapStatement}).
+     */
+    private final class LeasedStatement implements InvocationHandler {
+
+        private final Lease lease;
+        private final Statement target;
+        private final Connection connectionProxy;
+
+        private LeasedStatement(Lease lease, Statement target, Connection connectionProxy) {
+            this.lease = lease;
+            this.target = target;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "getConnection" -> {
+                    return connectionProxy; // Nunca la conexión física
+                }
+                case "close" -> {
+                    return invokeTracking(lease.pc, target, method, args);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    // sigue abajo
+                }
+            }
+
+            if (lease.returned) {
+                throw new SQLException("La conexión ya fue devuelta al pool.");
+            }
+            return switch (method.getName()) {
+                case "unwrap" -> unwrapStatement(proxy, target, (Class<?>) args[0]);
+                case "isWrapperFor" -> isWrapperForStatement(proxy, target, (Class<?>) args[0]);
+                default -> invokeTracking(lease.pc, target, method, args);
+            };
+        }
+    }
+
+    /**
+     * <code>unwrap</code> de una sentencia prestada: devuelve el propio proxy
+     * si implementa el tipo pedido, y delega solo los tipos del driver (ej:
+     * <code>com.mysql.cj.jdbc.JdbcStatement</code>, que usa la carga con
+     * <code>LOAD DATA</code>). Los tipos de <code>java.sql</code> nunca
+     * devuelven la sentencia física, cuya <code>getConnection()</code> es la
+     * conexión física.
+     *
+     * @throws SQLException Si se pide un tipo de <code>java.sql</code> que el
+     *                      proxy no implementa, o el driver no lo envuelve.
+     */
+    private static Object unwrapStatement(Object proxy, Statement target, Class<?> iface) throws SQLException {
+        if (iface.isInstance(proxy)) {
+            return proxy;
+        }
+        if (iface.getPackageName().equals("java.sql")) {
+            throw new SQLException("La sentencia del pool no expone la sentencia física (" + iface + ").");
+        }
+        return target.unwrap(iface);
+    }
+
+    /**
+     * <code>isWrapperFor</code> de una sentencia prestada, con el mismo
+     * criterio que {@link #unwrapStatement}.
+     */
+    private static boolean isWrapperForStatement(Object proxy, Statement target, Class<?> iface)
+            throws SQLException {
+        if (iface.isInstance(proxy)) {
+            return true;
+        }
+        return !iface.getPackageName().equals("java.sql") && target.isWrapperFor(iface);
+    }
+
+    /**
+     * Invoca un método sobre la conexión física (o una de sus sentencias) y, si
+     * falla por un error de comunicación (SQLState 08xxx), marca la conexión
+     * para descartarla al devolverse.
+     */
+    private static Object invokeTracking(PooledConnection pc, Object target, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+
+        } catch (InvocationTargetException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof SQLException sqle && sqle.getSQLState() != null
+                    && sqle.getSQLState().startsWith("08")) {
+                pc.broken = true;
+            }
+            throw causa;
+        }
+    }
+
+    // ============ CACHÉ DE SENTENCIAS ============
+    /**
+     * Clave de la caché de sentencias: el texto SQL y, si se pidió, el modo de
+     * claves generadas (<code>prepareStatement(sql, autoGeneratedKeys)</code>).
+     *
+     * @param sql               El texto SQL.
+     * @param autoGeneratedKeys El modo de claves generadas, o <code>-1</code>
+     *                          para <code>prepareStatement(sql)</code>.
+     */
+    private record StatementKey(String sql, int autoGeneratedKeys) {
+
+        /**
+         * Indica si la llamada se puede atender desde la caché: solo
+         * <code>prepareStatement(String)</code> y
+         * <code>prepareStatement(String, int)</code>. Las variantes con tipo de
+         * cursor (lecturas por streaming) o columnas se preparan siempre.
+         */
+        private static boolean isCacheable(Method method, Object[] args) {
+            if (!method.getName().equals("prepareStatement") || args[0] == null) {
+                return false;
+            }
+            Class<?>[] tipos = method.getParameterTypes();
+            return tipos.length == 1 || (tipos.length == 2 && tipos[1] == int.class);
+        }
+
+        private static StatementKey of(Object[] args) {
+            return new StatementKey((String) args[0], args.length == 2 ? (Integer) args[1] : -1);
+        }
+    }
+
+    /**
+     * Sentencias preparadas libres de una conexión física, en orden de uso (la
+     * primera es la usada hace más tiempo).
+     * <p>
+     * Al pedir una sentencia se <b>retira</b> de la caché y se entrega envuelta
+     * en un proxy; al cerrar el proxy se limpian sus parámetros y vuelve a la
+     * caché. Así, si el mismo SQL se prepara dos veces sin cerrar la primera
+     * (ej: consultas anidadas), la segunda es una sentencia nueva y no se
+     * comparte. Las sentencias que no se devuelven se cierran junto con la
+     * conexión física.
+     * </p>
+     * <p>
+     * La clave es solo el SQL, así que la configuración que un préstamo deja
+     * en la sentencia (<code>setMaxRows</code>, <code>setFetchSize</code>,
+     * etc.) no debe llegar al siguiente: al devolverla se restablecen los
+     * valores por defecto de JDBC, o se descarta si no se pueden restablecer.
+     * </p>
+     */
+    private final class StatementCache {
+
+        /**
+         * Configuración de la sentencia que {@link #checkin} restablece.
+         */
+        private static final Set<String> RESETTABLE_SETTERS = Set.of("setMaxRows", "setLargeMaxRows",
+                "setQueryTimeout", "setFetchSize", "setFetchDirection", "setEscapeProcessing", "setMaxFieldSize");
+
+        /**
+         * Configuración sin un valor por defecto que se pueda restablecer: la
+         * sentencia se descarta al devolverse.
+         */
+        private static final Set<String> DISCARDING_SETTERS = Set.of("setCursorName", "closeOnCompletion",
+                "setPoolable");
+
+        private final PooledConnection pc;
+        private final LinkedHashMap<StatementKey, PreparedStatement> libres = new LinkedHashMap<>(16, 0.75f, true);
+
+        private StatementCache(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        /**
+         * Entrega una sentencia para el SQL indicado, desde la caché si hay una
+         * libre o preparándola en la conexión física.
+         *
+         * @param key             El SQL (y modo de claves generadas).
+         * @param lease           El préstamo que pide la sentencia.
+         * @param connectionProxy El proxy del préstamo (lo que devuelve
+         *                        <code>getConnection()</code>).
+         * @return El proxy de la sentencia.
+         * @throws SQLException Si falla la preparación.
+         */
+        private PreparedStatement checkout(StatementKey key, Lease lease, Connection connectionProxy)
+                throws SQLException {
+
+            PreparedStatement stmt = libres.remove(key);
+            if (stmt != null) {
+                statementHits.increment();
+            } else {
+                statementMisses.increment();
+                try {
+                    stmt = key.autoGeneratedKeys() < 0 ? pc.physical.prepareStatement(key.sql())
+                            : pc.physical.prepareStatement(key.sql(), key.autoGeneratedKeys());
+                } catch (SQLException e) {
+                    if (e.getSQLState() != null && e.getSQLState().startsWith("08")) {
+                        pc.broken = true;
+                    }
+                    throw e;
+                }
+            }
+
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    new CachedStatement(this, key, stmt, lease, connectionProxy));
+        }
+
+        /**
+         * Devuelve una sentencia a la caché (limpia) y cierra la usada hace más
+         * tiempo si se supera <code>statementCacheSize</code>.
+         *
+         * @param key    El SQL de la sentencia.
+         * @param stmt   La sentencia física.
+         * @param estado La configuración que cambió el préstamo.
+         */
+        private void checkin(StatementKey key, PreparedStatement stmt, StatementState estado) {
+
+            if (pc.broken || estado == StatementState.DISCARD || libres.containsKey(key)) {
+                // Conexión a descartar, configuración no restablecible u otra copia libre del mismo SQL
+                closeQuietly(stmt);
+                return;
+            }
+            try {
+                stmt.clearParameters();
+                stmt.clearBatch();
+                if (estado == StatementState.CONFIGURED) {
+                    // Valores por defecto de JDBC (setMaxRows(0) también anula setLargeMaxRows)
+                    stmt.setMaxRows(0);
+                    stmt.setQueryTimeout(0);
+                    stmt.setFetchSize(0);
+                    stmt.setFetchDirection(ResultSet.FETCH_FORWARD);
+                    stmt.setEscapeProcessing(true);
+                    stmt.setMaxFieldSize(0);
+                }
+            } catch (SQLException e) {
+                closeQuietly(stmt);
+                return;
+            }
+
+            libres.put(key, stmt);
+            if (libres.size() > settings.statementCacheSize()) {
+                Iterator<PreparedStatement> it = libres.values().iterator();
+                closeQuietly(it.next());
+                it.remove();
+                statementEvictions.increment();
+            }
+        }
+
+        private void closeQuietly(PreparedStatement stmt) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                // Se ignora: la sentencia se descarta de todas formas
+            }
+        }
+    }
+
+    /**
+     * Qué cambió un préstamo en la configuración de una sentencia cacheada.
+     */
+    private enum StatementState {
+        /** Solo parámetros y lotes, que {@link StatementCache#checkin} limpia siempre. */
+        CLEAN,
+        /** Configuración con valor por defecto: se restablece al devolverla. */
+        CONFIGURED,
+        /** Configuración no restablecible: la sentencia se cierra al devolverla. */
+        DISCARD
+    }
+
+    /**
+     * Manejador del proxy de una sentencia obtenida de la {@link StatementCache}.
+     * Cada entrega tiene su propio proxy, de modo que una referencia vieja no
+     * pueda usar la sentencia después de cerrarla ni después de devolver la
+     * conexión. <code>unwrap</code> lanza
+     * {@link SQLException} para los tipos de <code>java.sql</code> que el proxy
+     * no implementa (ver {@link #unwrapStatement}).
+     */
+    private final class CachedStatement implements InvocationHandler {
+
+        private final StatementCache cache;
+        private final StatementKey key;
+        private final PreparedStatement target;
+        private final Lease lease;
+        private final Connection connectionProxy;
+        private StatementState estado = StatementState.CLEAN;
+        private boolean closed;
+
+        private CachedStatement(StatementCache cache, StatementKey key, PreparedStatement target, Lease lease,
+                Connection connectionProxy) {
+            this.cache = cache;
+            this.key = key;
+            this.target = target;
+            this.lease = lease;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        // Devuelta la conexión, la caché es de otro hilo: la sentencia se
+                        // abandona y se cierra junto con la conexión física
+                        if (!lease.returned) {
+                            cache.checkin(key, target, estado);
+                        }
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || lease.returned || target.isClosed();
+                }
+                case "getConnection" -> {
+                    return connectionProxy; // Nunca la conexión física
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    // sigue abajo
+                }
+            }
+
+            if (closed) {
+                throw new SQLException("La sentencia ya fue cerrada.");
+            }
+            if (lease.returned) {
+                throw new SQLException("La conexión ya fue devuelta al pool.");
+            }
+            if (StatementCache.DISCARDING_SETTERS.contains(method.getName())) {
+                estado = StatementState.DISCARD;
+            } else if (estado == StatementState.CLEAN
+                    && StatementCache.RESETTABLE_SETTERS.contains(method.getName())) {
+                estado = StatementState.CONFIGURED;
+            }
+            return switch (method.getName()) {
+                case "unwrap" -> unwrapStatement(proxy, target, (Class<?>) args[0]);
+                case "isWrapperFor" -> isWrapperForStatement(proxy, target, (Class<?>) args[0]);
+                default -> invokeTracking(cache.pc, target, method, args);
+            };
+        }
+    }
+}
@@ -7,6 +7,8 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
+import memory.MemoryDatabase;
+
 /**
  * Clase utilitaria para gestionar la conexión a la base de datos MySQL.
  * <p>
@@ -26,8 +28,17 @@ import java.util.Properties;
  * aplicación fallará inmediatamente con un <code>RuntimeException</code>,
  * evitando errores posteriores.</li>
  * <li><strong>Provisión de Conexiones:</strong> Ofrece un método estático
- * {@link #getConnection()} que actúa como una fábrica para crear nuevas
- * conexiones a la base de datos.</li>
+ * {@link #getConnection()} que presta conexiones desde un
+ * {@link ConnectionPool} acotado. Cerrar la conexión (ej: al salir del
+ * <code>try-with-resources</code>) la <b>devuelve al pool</b> en lugar de
+ * cerrar el socket, evitando el costo de TCP + autenticación en cada
+ * operación.</li>
+ * <li><strong>Configuración del Pool:</strong> Lee las claves
+ * <code>db.pool.*</code> (tamaño mínimo/máximo, timeouts, consulta de
+ * validación). Todas son opcionales y tienen valores por defecto.</li>
+ * <li><strong>Backend:</strong> con <code>db.backend=memory</code> (ver
+ * {@link StorageBackend}) no se carga el driver y el pool presta conexiones
+ * de {@link MemoryDatabase} en lugar de conexiones JDBC.</li>
  * </ul>
  *
  * <h3>Uso:</h3>
@@ -44,6 +55,7 @@ import java.util.Properties;
  * @author alpha team
  * @see java.sql.DriverManager
  * @see java.util.Properties
+ * @see ConnectionPool
  */
 public class DatabaseConnection {
 
@@ -53,11 +65,36 @@ public class DatabaseConnection {
      */
     private static final Properties PROPS = new Properties();
 
+    /**
+     * Prefijo de las claves de <code>db.properties</code> que se pasan tal cual
+     * al driver JDBC (ej: <code>db.driver.useSSL=false</code>).
+     */
+    private static final String DRIVER_PREFIX = "db.driver.";
+
     /**
      * Flag para activar/desactivar los mensajes de depuración.
      */
     private static boolean debug = false;
 
+    /**
+     * Pool de conexiones compartido por toda la aplicación. Se crea en el bloque
+     * estático, pero no abre conexiones hasta el primer uso (o hasta que el hilo
+     * de mantenimiento complete <code>db.pool.minSize</code>).
+     */
+    private static final ConnectionPool POOL;
+
+    /**
+     * Backend configurado en <code>db.backend</code>.
+     */
+    private static final StorageBackend BACKEND;
+
+    /**
+     * Detector de consultas lentas (<code>null</code> si
+     * <code>db.slowQuery.thresholdMs</code> es 0). Sus <code>EXPLAIN</code>
+     * usan conexiones del pool sin vigilar.
+     */
+    private static final SlowQueryLog SLOW_QUERIES;
+
     static {
         /**
          * Bloque de inicialización estático (se ejecuta una sola vez).
@@ -67,8 +104,12 @@ public class DatabaseConnection {
          * 1. Busca "db.properties" en el classpath.
          * 2. Si no lo encuentra, lanza RuntimeException (la app no puede funcionar).
          * 3. Carga las propiedades (URL, user, pass, driver).
-         * 4. Carga la clase del driver (Class.forName).
+         * 4. Carga la clase del driver (Class.forName), salvo con el backend en
+         *    memoria (db.backend=memory), que no lo usa.
          * 5. Si no encuentra el driver (falta el JAR), lanza RuntimeException.
+         * 6. Crea el pool de conexiones (sin conectar todavía) y registra un
+         *    shutdown hook para cerrarlo al terminar la JVM.
+         * 7. Crea el detector de consultas lentas, si está configurado.
          */
         try (InputStream input = DatabaseConnection.class.getClassLoader()
                 .getResourceAsStream("db.properties")) {
@@ -82,9 +123,13 @@ public class DatabaseConnection {
             // Cargar las propiedades
             PROPS.load(input);
 
+            BACKEND = StorageBackend.fromConfig();
+
             // Paso 1: Cargar la clase del Controlador JDBC de MySQL.
-            Class.forName(PROPS.getProperty("db.driverClass"));
-            log("✅ El Controlador JDBC de MySQL fué registrado correctamente!");
+            if (BACKEND == StorageBackend.MYSQL) {
+                Class.forName(PROPS.getProperty("db.driverClass"));
+                log("✅ El Controlador JDBC de MySQL fué registrado correctamente!");
+            }
 
         } catch (IOException | ClassNotFoundException e) {
 
@@ -93,6 +138,15 @@ public class DatabaseConnection {
             error("No se encontró el controlador JDBC de MySQL.", e);
             throw new RuntimeException("¡No se encuentra el controlador en la ruta de clases!", e);
         }
+
+        POOL = BACKEND == StorageBackend.MEMORY
+                ? new ConnectionPool(MemoryDatabase.shared()::connect, memoryPoolSettings(loadPoolSettings()))
+                : new ConnectionPool(DatabaseConnection::openPhysicalConnection, loadPoolSettings());
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::close, "db-pool-shutdown"));
+        // El EXPLAIN usa su propia conexión física: no compite con la aplicación por un pool saturado
+        SLOW_QUERIES = SlowQueryLog.fromConfig(BACKEND == StorageBackend.MEMORY
+                ? MemoryDatabase.shared()::connect
+                : DatabaseConnection::openPhysicalConnection);
     }
 
     /**
@@ -104,14 +158,179 @@ public class DatabaseConnection {
     }
 
     /**
-     * Obtiene una nueva conexión a la base de datos.
+     * Obtiene una conexión a la base de datos desde el pool.
+     * <p>
+     * La {@link Connection} devuelta es un préstamo: el llamador (caller) es
+     * responsable de cerrarla, preferiblemente usando un bloque
+     * <code>try-with-resources</code>. Al cerrarla, la conexión física vuelve al
+     * pool (con <code>autoCommit=true</code> restablecido) y queda disponible
+     * para el siguiente llamador.
+     * </p>
+     * <p>
+     * Si las <code>db.pool.maxSize</code> conexiones están en uso, el hilo
+     * espera hasta <code>db.pool.acquireTimeoutMs</code> antes de fallar.
+     * </p>
+     * <p>
+     * Con <code>db.slowQuery.thresholdMs</code> configurado, la conexión se
+     * devuelve vigilada por el {@link SlowQueryLog}.
+     * </p>
+     *
+     * @return Una {@link Connection} activa y lista para ser usada.
+     * @throws SQLException Si las credenciales (URL, usuario, contraseña) son
+     *                      inválidas, si no se puede establecer comunicación con
+     *                      la base de datos, o si se agotó el tiempo de espera
+     *                      del pool ({@link java.sql.SQLTimeoutException}).
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection conn = POOL.acquire();
+        return SLOW_QUERIES == null ? conn : SLOW_QUERIES.wrap(conn);
+    }
+
+    /**
+     * Devuelve el backend de almacenamiento configurado
+     * (<code>db.backend</code>).
+     *
+     * @return El backend.
+     */
+    public static StorageBackend getBackend() {
+        return BACKEND;
+    }
+
+    /**
+     * Devuelve una instantánea de las estadísticas del pool de conexiones
+     * (activas, ociosas, en espera, timeouts y latencia de obtención).
+     *
+     * @return Las estadísticas actuales del pool.
+     */
+    public static PoolStats getPoolStats() {
+        return POOL.stats();
+    }
+
+    /**
+     * Abre una conexión física <b>fuera del pool</b> con
+     * <code>allowLoadLocalInfile=true</code>, para las cargas masivas con
+     * <code>LOAD DATA LOCAL INFILE</code> ({@link ingest.BulkImporter}).
      * <p>
-     * Este método actúa como una fábrica. Cada llamada retorna una
-     * <strong>nueva instancia</strong> de {@link Connection}.
-     * El llamador (caller) es responsable de cerrar esta conexión,
-     * preferiblemente usando un bloque <code>try-with-resources</code>.
+     * Las conexiones del pool no habilitan esa opción: con ella, el servidor
+     * puede pedirle al cliente cualquier archivo local. El llamador debe
+     * cerrar la conexión (se cierra de verdad, no vuelve al pool).
      * </p>
      *
+     * @return Una conexión física nueva.
+     * @throws SQLException Si el backend no es MySQL o no se puede conectar.
+     */
+    public static Connection openBulkLoadConnection() throws SQLException {
+        if (BACKEND != StorageBackend.MYSQL) {
+            throw new SQLException("La carga masiva con LOAD DATA requiere db.backend=mysql (actual: "
+                    + BACKEND.getDescripcion() + ").");
+        }
+        Properties extra = new Properties();
+        extra.setProperty("allowLoadLocalInfile", "true");
+        return openPhysicalConnection(extra);
+    }
+
+    /**
+     * Devuelve la cantidad máxima de conexiones físicas del pool
+     * (<code>db.pool.maxSize</code>): el límite real de operaciones de BD que
+     * pueden ejecutarse en paralelo.
+     *
+     * @return El tamaño máximo del pool.
+     */
+    public static int getPoolMaxSize() {
+        return POOL.settings().maxSize();
+    }
+
+    /**
+     * Cierra el pool de conexiones. Se invoca automáticamente al terminar la
+     * JVM, pero puede llamarse explícitamente al salir de la aplicación.
+     */
+    public static void shutdown() {
+        POOL.close();
+    }
+
+    // ============ MÉTODOS DE CONFIGURACIÓN ============
+    /**
+     * Devuelve una propiedad de <code>db.properties</code>.
+     *
+     * @param key          La clave de la propiedad.
+     * @param defaultValue Valor a usar si la clave no existe o está vacía.
+     * @return El valor configurado (sin espacios) o el valor por defecto.
+     */
+    public static String getProperty(String key, String defaultValue) {
+        String value = PROPS.getProperty(key);
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Devuelve una propiedad entera de <code>db.properties</code>.
+     *
+     * @param key          La clave de la propiedad.
+     * @param defaultValue Valor a usar si la clave no existe.
+     * @return El valor configurado o el valor por defecto.
+     * @throws IllegalArgumentException Si el valor no es un número válido.
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        return (int) getLongProperty(key, defaultValue);
+    }
+
+    /**
+     * Devuelve una propiedad numérica (long) de <code>db.properties</code>.
+     *
+     * @param key          La clave de la propiedad.
+     * @param defaultValue Valor a usar si la clave no existe.
+     * @return El valor configurado o el valor por defecto.
+     * @throws IllegalArgumentException Si el valor no es un número válido.
+     */
+    public static long getLongProperty(String key, long defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El valor de '" + key + "' no es un número válido: " + value, e);
+        }
+    }
+
+    /**
+     * Devuelve una propiedad booleana de <code>db.properties</code>.
+     *
+     * @param key          La clave de la propiedad.
+     * @param defaultValue Valor a usar si la clave no existe.
+     * @return El valor configurado o el valor por defecto.
+     */
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        String value = getProperty(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Devuelve la cantidad de filas por lote para las operaciones JDBC Batch
+     * (clave <code>db.batch.size</code>, por defecto 500).
+     *
+     * @return El tamaño de lote (siempre mayor a cero).
+     */
+    public static int getBatchSize() {
+        return Math.max(1, getIntProperty("db.batch.size", 500));
+    }
+
+    /**
+     * Devuelve la cantidad de filas que se traen por viaje en las lecturas por
+     * streaming (clave <code>db.fetch.size</code>, por defecto 1000).
+     *
+     * @return El tamaño de fetch (siempre mayor a cero).
+     */
+    public static int getFetchSize() {
+        return Math.max(1, getIntProperty("db.fetch.size", 1000));
+    }
+
+    // ============ MÉTODOS HELPER (Pool) ============
+    /**
+     * Abre una nueva conexión <b>física</b> mediante {@link DriverManager}. Es
+     * la fábrica que usa el {@link ConnectionPool}; el resto de la aplicación
+     * debe usar {@link #getConnection()}.
+     *
      * <h3>Validaciones:</h3>
      * <p>
      * Antes de intentar conectar, este método valida que las propiedades
@@ -120,12 +339,24 @@ public class DatabaseConnection {
      * sí puede ser vacío).
      * </p>
      *
-     * @return Una {@link Connection} activa y lista para ser usada.
-     * @throws SQLException Si las credenciales (URL, usuario, contraseña) son
-     *                      inválidas, o si no se puede establecer comunicación con
-     *                      la base de datos.
+     * @return Una nueva conexión física.
+     * @throws SQLException Si las credenciales son inválidas o no se puede
+     *                      establecer comunicación con la base de datos.
      */
-    public static Connection getConnection() throws SQLException {
+    private static Connection openPhysicalConnection() throws SQLException {
+        return openPhysicalConnection(new Properties());
+    }
+
+    /**
+     * Abre una nueva conexión física con propiedades del driver adicionales
+     * (que reemplazan a las de {@link #buildDriverProperties}).
+     *
+     * @param extra Las propiedades adicionales.
+     * @return Una nueva conexión física.
+     * @throws SQLException Si las credenciales son inválidas o no se puede
+     *                      establecer comunicación con la base de datos.
+     */
+    private static Connection openPhysicalConnection(Properties extra) throws SQLException {
 
         // Se leen las propiedades directamente del objeto PROPS
         String URL = PROPS.getProperty("db.url");
@@ -151,12 +382,105 @@ public class DatabaseConnection {
             throw new SQLException("La contraseña de la base de datos no puede ser nula.");
         }
 
-        Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        Properties driverProps = buildDriverProperties(URL, USER, PASSWORD);
+        driverProps.putAll(extra);
+        Connection connection = DriverManager.getConnection(URL, driverProps);
         log("✅ Conexión a la base de datos establecida correctamente!");
 
         return connection;
     }
 
+    /**
+     * Construye las propiedades que se pasan al driver JDBC.
+     * <p>
+     * Además de las credenciales, copia toda clave <code>db.driver.*</code> de
+     * <code>db.properties</code> (sin el prefijo) como propiedad del driver. Para
+     * URLs <code>jdbc:mysql:</code> activa por defecto
+     * <code>rewriteBatchedStatements=true</code>, que convierte los lotes de
+     * <code>INSERT</code> (<code>executeBatch()</code>) en sentencias multi-fila,
+     * y <code>useCursorFetch=true</code>, que hace que las consultas con
+     * <code>setFetchSize()</code> usen un cursor del servidor. También activa
+     * <code>useServerPrepStmts=true</code> (el servidor analiza cada SQL una
+     * sola vez y luego solo recibe los parámetros) y
+     * <code>cachePrepStmts=true</code>, que conserva esas sentencias del
+     * servidor cuando la caché del pool (<code>db.pool.statementCacheSize</code>)
+     * desaloja una. Si la URL ya define alguna de estas propiedades, se
+     * respeta.
+     * </p>
+     *
+     * @param url      La URL de conexión.
+     * @param user     El usuario.
+     * @param password La contraseña.
+     * @return Las propiedades para {@link DriverManager#getConnection(String, Properties)}.
+     */
+    private static Properties buildDriverProperties(String url, String user, String password) {
+
+        Properties driverProps = new Properties();
+
+        if (url.startsWith("jdbc:mysql:")) {
+            if (!url.contains("rewriteBatchedStatements")) {
+                driverProps.setProperty("rewriteBatchedStatements", "true");
+            }
+            // Solo afecta a los statements con setFetchSize() > 0 (lecturas por streaming)
+            if (!url.contains("useCursorFetch")) {
+                driverProps.setProperty("useCursorFetch", "true");
+            }
+            // Sentencias preparadas en el servidor, reutilizadas por conexión
+            if (!url.contains("useServerPrepStmts")) {
+                driverProps.setProperty("useServerPrepStmts", "true");
+            }
+            if (!url.contains("cachePrepStmts")) {
+                driverProps.setProperty("cachePrepStmts", "true");
+                driverProps.setProperty("prepStmtCacheSize", "256");
+                // Las consultas IN de 256 claves superan el límite por defecto (256 caracteres)
+                driverProps.setProperty("prepStmtCacheSqlLimit", "4096");
+            }
+        }
+
+        for (String key : PROPS.stringPropertyNames()) {
+            if (key.startsWith(DRIVER_PREFIX) && key.length() > DRIVER_PREFIX.length()) {
+                driverProps.setProperty(key.substring(DRIVER_PREFIX.length()), PROPS.getProperty(key).trim());
+            }
+        }
+
+        driverProps.setProperty("user", user);
+        driverProps.setProperty("password", password);
+        return driverProps;
+    }
+
+    /**
+     * Construye la configuración del pool a partir de las claves
+     * <code>db.pool.*</code> de <code>db.properties</code>.
+     *
+     * @return La configuración del pool.
+     */
+    private static ConnectionPool.Settings loadPoolSettings() {
+        // No se usa getProperty(): un valor vacío es válido y significa "usar isValid()"
+        String validationQuery = PROPS.getProperty("db.pool.validationQuery", "SELECT 1").trim();
+        return new ConnectionPool.Settings(
+                getIntProperty("db.pool.minSize", 1),
+                getIntProperty("db.pool.maxSize", 10),
+                getLongProperty("db.pool.idleTimeoutMs", 600_000L),
+                getLongProperty("db.pool.maxLifetimeMs", 1_800_000L),
+                getLongProperty("db.pool.acquireTimeoutMs", 5_000L),
+                getLongProperty("db.pool.validationIntervalMs", 5_000L),
+                validationQuery,
+                getIntProperty("db.pool.statementCacheSize", 64));
+    }
+
+    /**
+     * Adapta la configuración del pool al backend en memoria: las conexiones
+     * no ejecutan SQL, así que se validan con <code>isValid()</code> en lugar
+     * de la consulta de validación, y no usan caché de sentencias.
+     *
+     * @param settings La configuración leída de <code>db.pool.*</code>.
+     * @return La configuración para las conexiones en memoria.
+     */
+    private static ConnectionPool.Settings memoryPoolSettings(ConnectionPool.Settings settings) {
+        return new ConnectionPool.Settings(settings.minSize(), settings.maxSize(), settings.idleTimeoutMs(),
+                settings.maxLifetimeMs(), settings.acquireTimeoutMs(), settings.validationIntervalMs(), null, 0);
+    }
+
     // ============ MÉTODOS AUXILIARES PARA DEPURACIÓN ============
     /**
      * Habilita o deshabilita el modo de depuración (debug).
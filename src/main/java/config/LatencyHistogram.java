@@ -0,0 +1,210 @@
+package config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias concurrente, de tamaño fijo y sin asignaciones en el
+ * camino caliente.
+ * <p>
+ * Registra duraciones (en nanosegundos) agrupándolas en <b>buckets
+ * log-lineales</b> sobre microsegundos: los valores menores a 16 µs tienen un
+ * bucket propio cada uno y, a partir de allí, cada potencia de 2 se divide en
+ * 8 sub-buckets lineales. El error relativo de cualquier percentil estimado es,
+ * por lo tanto, menor al 12,5%, con un costo de memoria constante (~300
+ * contadores) sin importar cuántos valores se registren.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * long inicio = System.nanoTime();
+ * // ... operación medida ...
+ * histograma.record(System.nanoTime() - inicio);
+ *
+ * LatencyHistogram.Snapshot s = histograma.snapshot();
+ * s.percentileMicros(0.99); // p99 aproximado en µs
+ * </pre>
+ *
+ * @author alpha team
+ * @see ConnectionPool
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Cantidad de valores (µs) con bucket propio antes de pasar a la escala
+     * logarítmica.
+     */
+    private static final int LINEAR_LIMIT = 16;
+
+    /**
+     * Bits de sub-bucket por cada potencia de 2 (3 bits = 8 sub-buckets).
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * Exponente máximo representable (2^40 µs ≈ 12 días). Valores mayores se
+     * acumulan en el último bucket.
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    /**
+     * Cantidad total de buckets.
+     */
+    private static final int BUCKET_COUNT = LINEAR_LIMIT
+            + (MAX_EXPONENT - 4 + 1) * (1 << SUB_BUCKET_BITS);
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Registra una duración.
+     *
+     * @param nanos La duración medida, en nanosegundos (valores negativos se
+     *              registran como 0).
+     */
+    public void record(long nanos) {
+
+        long micros = Math.max(0L, nanos / 1_000L);
+        buckets.incrementAndGet(indexOf(micros));
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    /**
+     * Devuelve una copia inmutable y consistente "a grandes rasgos" del estado
+     * actual (los contadores se leen sin bloquear a los escritores).
+     *
+     * @return La instantánea del histograma.
+     */
+    public Snapshot snapshot() {
+
+        long[] copia = new long[BUCKET_COUNT];
+        // El total se suma de los buckets: así coincide con los percentiles de la instantánea
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copia[i] = buckets.get(i);
+            total += copia[i];
+        }
+        return new Snapshot(copia, total, sumMicros.sum(), maxMicros.get());
+    }
+
+    /**
+     * Reinicia todos los contadores a cero.
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0L);
+        }
+        sumMicros.reset();
+        maxMicros.reset();
+    }
+
+    // ============ MÉTODOS HELPER (Buckets) ============
+    /**
+     * Calcula el índice del bucket para un valor en microsegundos.
+     *
+     * @param micros El valor (no negativo).
+     * @return El índice del bucket (0 .. BUCKET_COUNT-1).
+     */
+    static int indexOf(long micros) {
+
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+
+        int sub = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1));
+        return LINEAR_LIMIT + (exponent - 4) * (1 << SUB_BUCKET_BITS) + sub;
+    }
+
+    /**
+     * Devuelve el límite superior (exclusivo) en microsegundos de un bucket.
+     *
+     * @param index El índice del bucket.
+     * @return El valor máximo (µs) que puede contener el bucket.
+     */
+    static long upperBoundMicros(int index) {
+
+        if (index < LINEAR_LIMIT) {
+            return index + 1L;
+        }
+
+        int relative = index - LINEAR_LIMIT;
+        int exponent = 4 + relative / (1 << SUB_BUCKET_BITS);
+        int sub = relative % (1 << SUB_BUCKET_BITS);
+        long base = 1L << exponent;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return base + (sub + 1L) * width;
+    }
+
+    // ============ SNAPSHOT ============
+    /**
+     * Copia inmutable del histograma en un instante dado.
+     *
+     * @param buckets   Contadores por bucket.
+     * @param count     Cantidad total de valores registrados.
+     * @param sumMicros Suma de todos los valores (µs).
+     * @param maxMicros Valor máximo observado (µs).
+     */
+    public record Snapshot(long[] buckets, long count, long sumMicros, long maxMicros) {
+
+        /**
+         * Estima un percentil.
+         *
+         * @param quantile Cuantil entre 0.0 y 1.0 (ej: 0.99 para el p99).
+         * @return El límite superior del bucket que contiene el percentil, en
+         *         µs (0 si no hay registros).
+         */
+        public long percentileMicros(double quantile) {
+
+            if (count == 0) {
+                return 0;
+            }
+
+            long objetivo = (long) Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * count);
+            long acumulado = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                acumulado += buckets[i];
+                if (acumulado >= Math.max(1, objetivo)) {
+                    return Math.min(upperBoundMicros(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+
+        /**
+         * Devuelve el promedio de los valores registrados.
+         *
+         * @return El promedio en µs (0 si no hay registros).
+         */
+        public double meanMicros() {
+            return count == 0 ? 0.0 : (double) sumMicros / count;
+        }
+
+        /**
+         * Devuelve el límite superior (µs) del bucket indicado. Útil para
+         * exportar el histograma en formatos acumulativos.
+         *
+         * @param index El índice del bucket.
+         * @return El límite superior en µs.
+         */
+        public long bucketUpperBoundMicros(int index) {
+            return upperBoundMicros(index);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d, media=%.1fµs, p50=%dµs, p95=%dµs, p99=%dµs, max=%dµs",
+                    count, meanMicros(), percentileMicros(0.50), percentileMicros(0.95),
+                    percentileMicros(0.99), maxMicros);
+        }
+    }
+}
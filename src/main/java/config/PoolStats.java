@@ -0,0 +1,74 @@
+package config;
+
+/**
+ * Instantánea inmutable de las estadísticas del {@link ConnectionPool}.
+ * <p>
+ * Se obtiene con {@link DatabaseConnection#getPoolStats()} y sirve para
+ * diagnosticar la saturación del pool (ej: muchos <code>waiters</code> o
+ * <code>timeouts</code> indican que <code>db.pool.maxSize</code> es bajo para
+ * la carga actual).
+ * </p>
+ *
+ * @param active             Conexiones prestadas (en uso por algún DAO/Service).
+ * @param idle               Conexiones abiertas disponibles en el pool.
+ * @param total              Conexiones físicas abiertas (activas + ociosas + en
+ *                           creación).
+ * @param waiters            Hilos bloqueados esperando una conexión.
+ * @param acquired           Total de préstamos exitosos desde el arranque.
+ * @param timeouts           Total de préstamos que vencieron por
+ *                           <code>db.pool.acquireTimeoutMs</code>.
+ * @param created            Total de conexiones físicas creadas.
+ * @param destroyed          Total de conexiones físicas cerradas (por vencimiento,
+ *                           inactividad o falla de validación).
+ * @param acquireLatency     Histograma de la latencia de obtención de conexiones.
+ * @param statementHits      Sentencias preparadas entregadas desde la caché de
+ *                           sentencias (sin volver a prepararlas).
+ * @param statementMisses    Sentencias preparadas que no estaban en la caché.
+ * @param statementEvictions Sentencias cerradas por superar
+ *                           <code>db.pool.statementCacheSize</code>.
+ * @author alpha team
+ * @see ConnectionPool
+ */
+public record PoolStats(
+        int active,
+        int idle,
+        int total,
+        int waiters,
+        long acquired,
+        long timeouts,
+        long created,
+        long destroyed,
+        LatencyHistogram.Snapshot acquireLatency,
+        long statementHits,
+        long statementMisses,
+        long statementEvictions) {
+
+    /**
+     * Devuelve la proporción de <code>prepareStatement</code> atendidos por la
+     * caché de sentencias.
+     *
+     * @return Un valor entre 0 y 1 (0 si todavía no hubo ninguno).
+     */
+    public double statementHitRate() {
+        long total = statementHits + statementMisses;
+        return total == 0 ? 0.0 : (double) statementHits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{"
+                + "activas=" + active
+                + ", ociosas=" + idle
+                + ", total=" + total
+                + ", esperando=" + waiters
+                + ", prestamos=" + acquired
+                + ", timeouts=" + timeouts
+                + ", creadas=" + created
+                + ", destruidas=" + destroyed
+                + ", latenciaObtencion=[" + acquireLatency + "]"
+                + ", sentencias=" + statementHits + "/" + (statementHits + statementMisses)
+                + String.format(" (%.1f%%)", statementHitRate() * 100)
+                + ", sentenciasDesalojadas=" + statementEvictions
+                + '}';
+    }
+}
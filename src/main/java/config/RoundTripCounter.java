@@ -0,0 +1,156 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Cuenta los <b>viajes de red</b> (round trips) que una operación hace a la
+ * base de datos a través de una conexión.
+ * <p>
+ * {@link #wrap(Connection)} devuelve un proxy de la conexión que cuenta como
+ * un viaje cada ejecución de sentencia (<code>execute*</code>, incluido
+ * <code>executeBatch</code>, que con <code>rewriteBatchedStatements</code>
+ * viaja como una sola sentencia), cada <code>commit</code>/
+ * <code>rollback</code> y cada <code>setAutoCommit</code> que cambia el
+ * modo. Preparar una sentencia no se cuenta: aunque se prepara en el
+ * servidor (<code>useServerPrepStmts</code>), la caché de sentencias del
+ * {@link ConnectionPool} lo hace una sola vez por conexión y SQL.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * RoundTripCounter viajes = new RoundTripCounter();
+ * try (TransactionManager tm = TransactionManager.begin(viajes)) {
+ *     // ... operaciones con tm.getConnection() ...
+ *     tm.commit();
+ * }
+ * viajes.get(); // ej: 5 (SET autocommit, INSERT, INSERT, COMMIT, SET autocommit)
+ * </pre>
+ *
+ * <p>
+ * Un contador pertenece a una sola operación (un hilo): no es thread-safe.
+ * </p>
+ *
+ * @author alpha team
+ * @see TransactionManager#begin(RoundTripCounter)
+ */
+public final class RoundTripCounter {
+
+    private int count;
+
+    /**
+     * Devuelve un proxy de la conexión que cuenta sus viajes en este contador.
+     * Cerrar el proxy cierra (devuelve al pool) la conexión original.
+     *
+     * @param conn La conexión a medir.
+     * @return El proxy que cuenta los viajes.
+     */
+    public Connection wrap(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new ConnectionHandler(conn));
+    }
+
+    /**
+     * Suma viajes hechos por fuera de una conexión envuelta.
+     *
+     * @param roundTrips Cantidad de viajes a sumar.
+     */
+    public void add(int roundTrips) {
+        count += roundTrips;
+    }
+
+    /**
+     * Devuelve la cantidad de viajes contados hasta el momento.
+     *
+     * @return Los viajes a la BD.
+     */
+    public int get() {
+        return count;
+    }
+
+    /**
+     * Invoca el método sobre el objeto real, propagando la excepción
+     * original (y no la {@link InvocationTargetException} de la reflexión).
+     */
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Manejador del proxy de la conexión.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "commit", "rollback" -> count++;
+                case "setAutoCommit" -> {
+                    if (target.getAutoCommit() != (Boolean) args[0]) {
+                        count++;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    // sigue abajo
+                }
+            }
+
+            Object result = invokeTarget(target, method, args);
+
+            if (result instanceof Statement statement) {
+                return wrapStatement(statement, method.getReturnType(), (Connection) proxy);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Envuelve una sentencia creada por la conexión medida, conservando su
+     * interfaz (<code>Statement</code>, <code>PreparedStatement</code> o
+     * <code>CallableStatement</code>).
+     */
+    private Object wrapStatement(Statement statement, Class<?> type, Connection connectionProxy) {
+        Class<?> iface = CallableStatement.class.isAssignableFrom(type) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(type) ? PreparedStatement.class
+                        : Statement.class;
+
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] { iface },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        count++;
+                    } else if (name.equals("getConnection")) {
+                        return connectionProxy; // Las consultas auxiliares también se cuentan
+                    }
+                    return invokeTarget(statement, method, args);
+                });
+    }
+}
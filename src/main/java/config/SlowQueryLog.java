@@ -0,0 +1,613 @@
+package config;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detector de <b>consultas lentas</b> con captura automática del plan de
+ * ejecución.
+ * <p>
+ * Con <code>db.slowQuery.thresholdMs</code> mayor a 0,
+ * {@link DatabaseConnection#getConnection()} devuelve la conexión envuelta
+ * (ver {@link #wrap(Connection)}), de modo que cubre todas las sentencias de
+ * los DAOs (incluidas las de {@link TransactionManager}). Cada
+ * <code>execute*</code> que supera el umbral se registra con:
+ * </p>
+ * <ul>
+ * <li>el SQL (con los espacios normalizados) y la operación JDBC;</li>
+ * <li>los parámetros, con los datos personales enmascarados (ver
+ * {@link SqlParameterMasker});</li>
+ * <li>si se ejecutó dentro de una transacción y el hilo;</li>
+ * <li>si falló, la excepción (<code>error</code>): las esperas de bloqueo
+ * vencidas, los deadlocks y las consultas canceladas suelen ser las más
+ * lentas;</li>
+ * <li>la salida de <code>EXPLAIN FORMAT=JSON</code> de la misma sentencia
+ * con los mismos parámetros (la misma técnica de
+ * <code>sql/db_1/05_explain.sql</code>), para <code>SELECT</code>,
+ * <code>INSERT</code>, <code>UPDATE</code>, <code>DELETE</code> y
+ * <code>REPLACE</code>.</li>
+ * </ul>
+ *
+ * <h3>Costo:</h3>
+ * <p>
+ * Con el umbral en 0 (por defecto) las conexiones no se envuelven. Activado,
+ * cada sentencia guarda sus parámetros en un arreglo y mide su ejecución; el
+ * <code>EXPLAIN</code> y la escritura se hacen en un hilo de fondo, para no
+ * demorar (ni interferir con la transacción de) la operación lenta. El
+ * <code>EXPLAIN</code> usa una única conexión propia, fuera del pool: las
+ * consultas lentas suelen coincidir con un pool saturado, y el log no
+ * compite con los pedidos de la aplicación. Si el hilo de fondo no da abasto,
+ * los registros excedentes se descartan; la cantidad se informa en
+ * <code>System.err</code> y en el campo <code>discarded</code> del siguiente
+ * registro escrito.
+ * </p>
+ *
+ * <h3>Archivo:</h3>
+ * <p>
+ * Un registro JSON por línea (NDJSON) en <code>db.slowQuery.file</code> (por
+ * defecto <code>slow-queries.log</code>). Al superar
+ * <code>db.slowQuery.maxBytes</code> el archivo rota a <code>.1</code>,
+ * <code>.2</code>, ... hasta <code>db.slowQuery.maxFiles</code>. El resumen
+ * de los peores casos se obtiene con {@link main.SlowQueryReport}.
+ * </p>
+ *
+ * @author alpha team
+ * @see main.SlowQueryReport
+ */
+public final class SlowQueryLog {
+
+    /**
+     * Registros pendientes de escribir antes de empezar a descartar.
+     */
+    private static final int QUEUE_CAPACITY = 256;
+
+    /**
+     * Sentencias a las que se les puede pedir el plan con
+     * <code>EXPLAIN</code>.
+     */
+    private static final Set<String> EXPLAINABLE = Set.of("SELECT", "INSERT", "UPDATE", "DELETE", "REPLACE");
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final SqlParameterMasker masker;
+    private final ConnectionPool.ConnectionFactory explainConnections;
+
+    /**
+     * Conexión propia del <code>EXPLAIN</code>: se abre en el primer uso y la
+     * reutiliza el hilo de fondo (solo él la usa).
+     */
+    private Connection explainConnection;
+
+    /**
+     * Registros descartados por la cola llena y todavía no informados.
+     */
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * Hilo de fondo que ejecuta los <code>EXPLAIN</code> y escribe el
+     * archivo (un solo hilo: las escrituras no se intercalan).
+     */
+    private final ThreadPoolExecutor writer;
+
+    /**
+     * Crea el detector.
+     *
+     * @param thresholdMs        Duración (ms) a partir de la cual una
+     *                           sentencia es lenta.
+     * @param explain            <code>true</code> para capturar el plan.
+     * @param file               Archivo de log.
+     * @param maxBytes           Tamaño a partir del cual rota el archivo.
+     * @param maxFiles           Archivos rotados que se conservan.
+     * @param sensitiveColumns   Columnas cuyos valores se enmascaran.
+     * @param explainConnections Origen de la conexión del
+     *                           <code>EXPLAIN</code> (sin envolver y fuera
+     *                           del pool: se abre una sola y se reutiliza).
+     * @throws IllegalArgumentException Si el umbral no es positivo.
+     */
+    public SlowQueryLog(long thresholdMs, boolean explain, Path file, long maxBytes, int maxFiles,
+            Set<String> sensitiveColumns, ConnectionPool.ConnectionFactory explainConnections) {
+
+        if (thresholdMs <= 0) {
+            throw new IllegalArgumentException("El umbral de consultas lentas debe ser mayor a cero.");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.explain = explain;
+        this.file = file;
+        this.maxBytes = Math.max(1, maxBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.masker = new SqlParameterMasker(sensitiveColumns);
+        this.explainConnections = explainConnections;
+
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, "db-slow-query-log");
+                    t.setDaemon(true);
+                    return t;
+                }, (tarea, executor) -> discarded.incrementAndGet());
+    }
+
+    /**
+     * Crea el detector según <code>db.properties</code>.
+     *
+     * @param explainConnections Origen de la conexión del
+     *                           <code>EXPLAIN</code> (fuera del pool).
+     * @return El detector, o <code>null</code> si
+     *         <code>db.slowQuery.thresholdMs</code> es 0 (desactivado).
+     */
+    static SlowQueryLog fromConfig(ConnectionPool.ConnectionFactory explainConnections) {
+
+        long umbral = DatabaseConnection.getLongProperty("db.slowQuery.thresholdMs", 0L);
+        if (umbral <= 0) {
+            return null;
+        }
+
+        Set<String> columnas = new HashSet<>();
+        for (String columna : DatabaseConnection.getProperty("db.slowQuery.maskColumns", "dni,nombre,apellido")
+                .split(",")) {
+            if (!columna.isBlank()) {
+                columnas.add(columna.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return new SlowQueryLog(umbral,
+                DatabaseConnection.getBooleanProperty("db.slowQuery.explain", true),
+                Path.of(DatabaseConnection.getProperty("db.slowQuery.file", "slow-queries.log")),
+                DatabaseConnection.getLongProperty("db.slowQuery.maxBytes", 10L * 1024 * 1024),
+                DatabaseConnection.getIntProperty("db.slowQuery.maxFiles", 5),
+                columnas, explainConnections);
+    }
+
+    /**
+     * Devuelve un proxy de la conexión que mide sus sentencias. Cerrar el
+     * proxy cierra (devuelve al pool) la conexión original.
+     *
+     * @param conn La conexión a vigilar.
+     * @return El proxy.
+     */
+    public Connection wrap(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new ConnectionHandler(conn));
+    }
+
+    // ============ DETECCIÓN ============
+    /**
+     * Manejador del proxy de la conexión: envuelve cada sentencia creada.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    // sigue abajo
+                }
+            }
+
+            Object result = invokeTarget(target, method, args);
+
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return wrapStatement(statement, sql, method.getReturnType(), target, (Connection) proxy);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Envuelve una sentencia, conservando su interfaz
+     * (<code>Statement</code>, <code>PreparedStatement</code> o
+     * <code>CallableStatement</code>).
+     */
+    private Object wrapStatement(Statement statement, String sql, Class<?> type, Connection conn,
+            Connection connectionProxy) {
+
+        Class<?> iface = CallableStatement.class.isAssignableFrom(type) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(type) ? PreparedStatement.class
+                        : Statement.class;
+
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] { iface },
+                new StatementHandler(statement, sql, conn, connectionProxy));
+    }
+
+    /**
+     * Manejador del proxy de una sentencia: recuerda los parámetros
+     * establecidos y mide cada ejecución.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final Connection conn;
+        private final Connection connectionProxy;
+
+        /**
+         * Parámetros por posición (índice 0 = parámetro 1).
+         */
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+        private int batchSize;
+
+        private StatementHandler(Statement target, String sql, Connection conn, Connection connectionProxy) {
+            this.target = target;
+            this.sql = sql;
+            this.conn = conn;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            String name = method.getName();
+
+            if (name.startsWith("execute")) {
+                long inicio = System.nanoTime();
+                Throwable error = null;
+                try {
+                    return invokeTarget(target, method, args);
+                } catch (Throwable t) {
+                    error = t;
+                    throw t;
+                } finally {
+                    // También las fallidas: un lock wait timeout es lento justamente por fallar
+                    long duracion = System.nanoTime() - inicio;
+                    if (duracion >= thresholdNanos) {
+                        String ejecutado = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                        report(ejecutado, name, duracion, inTransaction(), error);
+                    }
+                    if (name.equals("executeBatch")) {
+                        batchSize = 0;
+                    }
+                }
+            }
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && method.getDeclaringClass() != Statement.class) {
+                remember(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+                parameterCount = 0;
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("getConnection")) {
+                return connectionProxy;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        /**
+         * Guarda el valor de un parámetro.
+         */
+        private void remember(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        /**
+         * Encola el registro de una ejecución lenta (copiando los parámetros,
+         * que la sentencia puede cambiar enseguida).
+         */
+        private void report(String ejecutado, String operation, long nanos, boolean inTransaction,
+                Throwable error) {
+            if (ejecutado == null) {
+                return;
+            }
+            List<Object> valores = new ArrayList<>(Arrays.asList(parameters).subList(0, parameterCount));
+            String descripcion = error != null ? error.getClass().getSimpleName() + ": " + error.getMessage() : null;
+            SlowQuery consulta = new SlowQuery(Instant.now(), Thread.currentThread().getName(), operation,
+                    nanos, inTransaction, normalizeSql(ejecutado), valores, batchSize, descripcion);
+            writer.execute(() -> write(consulta));
+        }
+
+        /**
+         * Indica si la conexión está dentro de una transacción. Si la conexión
+         * ya no responde (ej: tras un error), se informa <code>false</code>
+         * para no ocultar la excepción original.
+         */
+        private boolean inTransaction() {
+            try {
+                return !conn.getAutoCommit();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Una ejecución lenta, tal como se detectó.
+     */
+    private record SlowQuery(Instant timestamp, String thread, String operation, long nanos,
+            boolean inTransaction, String sql, List<Object> parameters, int batchSize, String error) {
+    }
+
+    // ============ EXPLAIN Y ESCRITURA (hilo de fondo) ============
+    /**
+     * Captura el plan, arma la línea JSON y la agrega al archivo.
+     */
+    private void write(SlowQuery consulta) {
+
+        long descartados = discarded.getAndSet(0);
+        if (descartados > 0) {
+            System.err.println("Log de consultas lentas: " + descartados + " registros descartados (cola de "
+                    + QUEUE_CAPACITY + " llena).");
+        }
+
+        List<String> parametros = masker.mask(consulta.sql(), consulta.parameters());
+
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"timestamp\":").append(quote(consulta.timestamp().toString()));
+        json.append(",\"durationMs\":").append(String.format(Locale.ROOT, "%.3f", consulta.nanos() / 1_000_000.0));
+        json.append(",\"operation\":").append(quote(consulta.operation()));
+        json.append(",\"inTransaction\":").append(consulta.inTransaction());
+        json.append(",\"thread\":").append(quote(consulta.thread()));
+        if (consulta.batchSize() > 0) {
+            json.append(",\"batchSize\":").append(consulta.batchSize());
+        }
+        if (descartados > 0) {
+            json.append(",\"discarded\":").append(descartados);
+        }
+        json.append(",\"sql\":").append(quote(consulta.sql()));
+        json.append(",\"params\":[");
+        for (int i = 0; i < parametros.size(); i++) {
+            boolean nulo = consulta.parameters().get(i) == null;
+            json.append(i > 0 ? "," : "").append(nulo ? "null" : quote(parametros.get(i)));
+        }
+        json.append(']');
+        if (consulta.error() != null) {
+            json.append(",\"error\":").append(quote(consulta.error()));
+        }
+
+        if (explain && isExplainable(consulta.sql())) {
+            try {
+                String plan = maskPlan(explain(consulta), consulta);
+                String recortado = plan.trim();
+                boolean esJson = recortado.startsWith("{") && recortado.endsWith("}");
+                json.append(",\"explain\":").append(esJson ? recortado : quote(recortado));
+            } catch (SQLException e) {
+                json.append(",\"explainError\":").append(quote(e.getMessage()));
+            }
+        }
+        json.append("}\n");
+
+        try {
+            append(json.toString());
+        } catch (IOException e) {
+            System.err.println("Error al escribir el log de consultas lentas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ejecuta <code>EXPLAIN FORMAT=JSON</code> de la sentencia con sus
+     * parámetros originales, en la conexión propia del log.
+     *
+     * @return El plan (las filas devueltas, unidas por saltos de línea).
+     * @throws SQLException Si el <code>EXPLAIN</code> falla (ej: BD sin
+     *                      <code>FORMAT=JSON</code>).
+     */
+    private String explain(SlowQuery consulta) throws SQLException {
+
+        StringBuilder plan = new StringBuilder();
+
+        if (explainConnection == null) {
+            explainConnection = explainConnections.create();
+        }
+        Connection conn = explainConnection;
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN FORMAT=JSON " + consulta.sql())) {
+
+            List<Object> valores = consulta.parameters();
+            for (int i = 0; i < valores.size(); i++) {
+                stmt.setObject(i + 1, valores.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(plan.length() > 0 ? "\n" : "").append(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            discardExplainConnection(conn);
+            throw e;
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Cierra la conexión del <code>EXPLAIN</code> si ya no responde, para
+     * abrir otra en el próximo uso (un error de la sentencia no la descarta).
+     */
+    private void discardExplainConnection(Connection conn) {
+        try {
+            if (conn.isValid(1)) {
+                return;
+            }
+        } catch (SQLException e) {
+            // Se descarta
+        }
+        explainConnection = null;
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Se ignora: la conexión ya no responde
+        }
+    }
+
+    /**
+     * Oculta en el plan los valores de parámetros sensibles (MySQL incluye los
+     * valores en las condiciones del plan, ej: <code>(p.dni = '30123456')</code>).
+     */
+    private String maskPlan(String plan, SlowQuery consulta) {
+        List<String> columnas = masker.columnsOf(consulta.sql());
+        List<Object> valores = consulta.parameters();
+        String resultado = plan;
+        for (int i = 0; i < valores.size(); i++) {
+            Object valor = valores.get(i);
+            if (masker.isSensitive(i < columnas.size() ? columnas.get(i) : null, valor)) {
+                String texto = String.valueOf(valor);
+                if (!texto.isEmpty()) {
+                    resultado = resultado.replace(texto, SqlParameterMasker.mask(texto));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Agrega una línea al archivo, rotándolo antes si superó
+     * <code>maxBytes</code>.
+     */
+    private void append(String linea) throws IOException {
+
+        Path absoluto = file.toAbsolutePath();
+        if (Files.exists(absoluto) && Files.size(absoluto) >= maxBytes) {
+            rotate(absoluto);
+        }
+        Path carpeta = absoluto.getParent();
+        if (carpeta != null) {
+            Files.createDirectories(carpeta);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(absoluto, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(linea);
+        }
+    }
+
+    /**
+     * Rota los archivos: <code>log.(n-1)</code> → <code>log.n</code>, ...,
+     * <code>log</code> → <code>log.1</code> (el más viejo se descarta).
+     */
+    private void rotate(Path absoluto) throws IOException {
+        Files.deleteIfExists(rotated(absoluto, maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path origen = rotated(absoluto, i);
+            if (Files.exists(origen)) {
+                Files.move(origen, rotated(absoluto, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(absoluto, rotated(absoluto, 1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Devuelve la ruta del archivo rotado número <code>n</code>.
+     *
+     * @param file El archivo de log.
+     * @param n    Número de rotación (1 = el más reciente).
+     * @return La ruta <code>file.n</code>.
+     */
+    public static Path rotated(Path file, int n) {
+        return file.resolveSibling(file.getFileName() + "." + n);
+    }
+
+    // ============ HELPERS ============
+    /**
+     * Indica si la sentencia admite <code>EXPLAIN</code>.
+     */
+    private static boolean isExplainable(String sql) {
+        int fin = 0;
+        while (fin < sql.length() && Character.isLetter(sql.charAt(fin))) {
+            fin++;
+        }
+        return EXPLAINABLE.contains(sql.substring(0, fin).toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Colapsa los espacios y saltos de línea del SQL (los text blocks de los
+     * DAOs) en un solo espacio, para que cada sentencia ocupe una línea y se
+     * pueda agrupar por texto.
+     */
+    private static String normalizeSql(String sql) {
+        return sql.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Escribe un texto como literal JSON (entre comillas y escapado).
+     *
+     * @param texto El texto.
+     * @return El literal JSON.
+     */
+    static String quote(String texto) {
+        if (texto == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(texto.length() + 2).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Invoca el método sobre el objeto real, propagando la excepción
+     * original (y no la {@link InvocationTargetException} de la reflexión).
+     */
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Enmascara los parámetros de una sentencia que contienen datos personales
+ * (PII) antes de escribirlos en el {@link SlowQueryLog}.
+ * <p>
+ * Para cada <code>?</code> del SQL deduce la columna a la que se asigna o con
+ * la que se compara:
+ * </p>
+ * <ul>
+ * <li><code>col = ?</code>, <code>col &gt; ?</code>, <code>col LIKE ?</code>,
+ * <code>col IN (?, ?)</code> (con o sin alias de tabla).</li>
+ * <li><code>INSERT INTO t (c1, c2) VALUES (?, ?)</code>, por posición.</li>
+ * <li><code>MATCH(c1, c2) AGAINST (?)</code>: sensible si alguna columna lo
+ * es.</li>
+ * </ul>
+ * <p>
+ * Se enmascaran los valores de las columnas sensibles
+ * (<code>db.slowQuery.maskColumns</code>) y, por prudencia, <b>todo</b> texto
+ * cuya columna no se pudo deducir (ej: los parámetros de un
+ * <code>CALL</code>). Los números, booleanos y fechas de columnas conocidas
+ * se muestran tal cual.
+ * </p>
+ *
+ * @author alpha team
+ * @see SlowQueryLog
+ */
+final class SqlParameterMasker {
+
+    /**
+     * <code>INSERT INTO tabla (columnas) VALUES (</code>.
+     */
+    private static final Pattern INSERT = Pattern.compile(
+            "INSERT\\s+INTO\\s+[\\w.]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Columna y operador inmediatamente anteriores a un <code>?</code>
+     * (incluye los <code>?</code> previos de una lista <code>IN</code>).
+     */
+    private static final Pattern COMPARISON = Pattern.compile(
+            "([\\w.]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\bLIKE|\\bIN\\s*\\((?:\\s*\\?\\s*,)*)\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * <code>MATCH(columnas) AGAINST (</code> inmediatamente anterior a un
+     * <code>?</code>.
+     */
+    private static final Pattern MATCH_AGAINST = Pattern.compile(
+            "MATCH\\s*\\(([^)]*)\\)\\s*AGAINST\\s*\\(\\s*$", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Caracteres anteriores a un <code>?</code> que se analizan.
+     */
+    private static final int LOOKBEHIND = 200;
+
+    private final Set<String> sensitiveColumns;
+
+    /**
+     * Crea un enmascarador.
+     *
+     * @param sensitiveColumns Nombres de columna sensibles, en minúsculas y
+     *                         sin alias de tabla (ej: <code>dni</code>).
+     */
+    SqlParameterMasker(Set<String> sensitiveColumns) {
+        this.sensitiveColumns = Set.copyOf(sensitiveColumns);
+    }
+
+    /**
+     * Devuelve los parámetros listos para registrar.
+     *
+     * @param sql        La sentencia.
+     * @param parameters Los valores por posición (índice 0 = parámetro 1;
+     *                   puede haber <code>null</code>).
+     * @return Los valores como texto, enmascarados donde corresponde.
+     */
+    List<String> mask(String sql, List<Object> parameters) {
+
+        List<String> columnas = columnsOf(sql);
+        List<String> salida = new ArrayList<>(parameters.size());
+
+        for (int i = 0; i < parameters.size(); i++) {
+            Object valor = parameters.get(i);
+            String columna = i < columnas.size() ? columnas.get(i) : null;
+            salida.add(isSensitive(columna, valor) ? mask(String.valueOf(valor)) : String.valueOf(valor));
+        }
+        return salida;
+    }
+
+    /**
+     * Indica si el valor de un parámetro debe enmascararse.
+     *
+     * @param columna La columna deducida (o <code>null</code>).
+     * @param valor   El valor.
+     * @return <code>true</code> si hay que ocultarlo.
+     */
+    boolean isSensitive(String columna, Object valor) {
+        if (valor == null) {
+            return false;
+        }
+        if (columna == null) {
+            return valor instanceof CharSequence;
+        }
+        for (String parte : columna.split(",")) {
+            if (sensitiveColumns.contains(parte)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Oculta un valor conservando su primer carácter y su longitud (ej:
+     * <code>"30123456"</code> → <code>"3*******"</code>).
+     *
+     * @param valor El valor original.
+     * @return El valor enmascarado.
+     */
+    static String mask(String valor) {
+        if (valor.length() <= 1) {
+            return "*";
+        }
+        return valor.charAt(0) + "*".repeat(valor.length() - 1);
+    }
+
+    /**
+     * Deduce la columna de cada <code>?</code> de la sentencia.
+     *
+     * @param sql La sentencia.
+     * @return Una columna por parámetro, en orden (<code>null</code> si no se
+     *         pudo deducir; varias columnas separadas por coma para
+     *         <code>MATCH</code>).
+     */
+    List<String> columnsOf(String sql) {
+
+        List<Integer> posiciones = placeholders(sql);
+        List<String> columnas = new ArrayList<>(posiciones.size());
+
+        // INSERT ... (columnas) VALUES (?, ?, ...): asignación por posición
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.find()) {
+            String[] nombres = insert.group(1).split(",");
+            int enValues = 0;
+            for (int posicion : posiciones) {
+                if (posicion >= insert.end() && enValues < nombres.length) {
+                    columnas.add(normalize(nombres[enValues++]));
+                } else {
+                    columnas.add(null);
+                }
+            }
+            return columnas;
+        }
+
+        for (int posicion : posiciones) {
+            String previo = sql.substring(Math.max(0, posicion - LOOKBEHIND), posicion);
+
+            Matcher comparacion = COMPARISON.matcher(previo);
+            Matcher match = MATCH_AGAINST.matcher(previo);
+            if (comparacion.find()) {
+                columnas.add(normalize(comparacion.group(1)));
+            } else if (match.find()) {
+                List<String> nombres = new ArrayList<>();
+                for (String nombre : match.group(1).split(",")) {
+                    nombres.add(normalize(nombre));
+                }
+                columnas.add(String.join(",", nombres));
+            } else {
+                columnas.add(null);
+            }
+        }
+        return columnas;
+    }
+
+    /**
+     * Devuelve la posición de cada <code>?</code> que no está dentro de un
+     * literal de texto.
+     */
+    private static List<Integer> placeholders(String sql) {
+        List<Integer> posiciones = new ArrayList<>();
+        char comilla = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (comilla != 0) {
+                if (c == comilla) {
+                    comilla = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                comilla = c;
+            } else if (c == '?') {
+                posiciones.add(i);
+            }
+        }
+        return posiciones;
+    }
+
+    /**
+     * Quita el alias de tabla y los espacios, y pasa a minúsculas (ej:
+     * <code>" p.DNI"</code> → <code>"dni"</code>).
+     */
+    private static String normalize(String columna) {
+        String limpia = columna.trim().replace("`", "");
+        int punto = limpia.lastIndexOf('.');
+        return (punto >= 0 ? limpia.substring(punto + 1) : limpia).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,63 @@
+package config;
+
+/**
+ * Almacenamiento sobre el que trabajan los DAOs de la aplicación.
+ * <p>
+ * Se configura con la clave <code>db.backend</code> de
+ * <code>db.properties</code> (<code>mysql</code> por defecto).
+ * </p>
+ *
+ * <h3>Backends:</h3>
+ * <ul>
+ * <li>{@link #MYSQL}: {@link dao.PacienteDAO} e {@link dao.HistoriaClinicaDAO}
+ * contra el servidor MySQL configurado en <code>db.url</code>.</li>
+ * <li>{@link #MEMORY}: {@link memory.MemoryPacienteDAO} y
+ * {@link memory.MemoryHistoriaClinicaDAO} sobre las tablas en memoria de
+ * {@link memory.MemoryDatabase}. No requiere servidor ni driver JDBC: el
+ * pool entrega conexiones en memoria que solo controlan las transacciones
+ * (<code>commit</code>/<code>rollback</code>). Los datos se pierden al
+ * terminar la JVM.</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see DatabaseConnection#getBackend()
+ * @see metrics.Instrumented
+ */
+public enum StorageBackend {
+
+    MYSQL("MySQL (JDBC)"),
+    MEMORY("en memoria (sin servidor de BD)");
+
+    private final String descripcion;
+
+    StorageBackend(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Lee el backend configurado en <code>db.backend</code>
+     * (<code>mysql</code> o <code>memory</code>, sin distinguir mayúsculas).
+     *
+     * @return El backend configurado.
+     * @throws IllegalArgumentException Si el valor no es un backend válido.
+     */
+    public static StorageBackend fromConfig() {
+        String valor = DatabaseConnection.getProperty("db.backend", "mysql").trim();
+        for (StorageBackend backend : values()) {
+            if (backend.name().equalsIgnoreCase(valor)) {
+                return backend;
+            }
+        }
+        throw new IllegalArgumentException("db.backend inválido: " + valor
+                + " (valores posibles: mysql, memory).");
+    }
+
+    /**
+     * Devuelve la descripción legible del backend.
+     *
+     * @return La descripción.
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,53 @@
+package config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de <b>Java Flight Recorder</b> (JFR) que abarca una transacción de
+ * {@link TransactionManager}, desde <code>startTransaction()</code> hasta el
+ * <code>commit()</code> o el <code>rollback()</code>.
+ * <p>
+ * Los eventos {@link dao.DaoQueryEvent} del mismo hilo que caen dentro de su
+ * intervalo son las sentencias de la transacción. Sin una grabación activa no
+ * tiene costo (ver {@link dao.DaoQueryEvent}).
+ * </p>
+ *
+ * @author alpha team
+ * @see TransactionManager
+ */
+@Name("gestion.Transaction")
+@Label("Transacción")
+@Category({ "Gestión de Pacientes", "Base de Datos" })
+@Description("Transacción JDBC gestionada por TransactionManager")
+@StackTrace(false)
+public final class TransactionEvent extends Event {
+
+    @Label("Confirmada")
+    @Description("true si terminó con commit, false si con rollback")
+    boolean committed;
+
+    @Label("Acciones posteriores")
+    @Description("Acciones registradas con afterCommit (cachés, índices)")
+    int afterCommitActions;
+
+    /**
+     * Termina de medir y emite el evento (si hay una grabación que lo pida).
+     *
+     * @param committed          <code>true</code> si la transacción se
+     *                           confirmó.
+     * @param afterCommitActions Cantidad de acciones posteriores al commit.
+     */
+    void finish(boolean committed, int afterCommitActions) {
+        end();
+        if (shouldCommit()) {
+            this.committed = committed;
+            this.afterCommitActions = afterCommitActions;
+            commit();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package config;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Gestiona el ciclo de vida de las transacciones JDBC.
@@ -52,6 +54,24 @@ import java.sql.SQLException;
  * // 'close()' llama a 'rollback()' antes de cerrar la conexión.
  * </pre>
  *
+ * <p>
+ * <b>Unidad de trabajo:</b> {@link #begin()} resume los pasos 1 a 3 (una
+ * única conexión del pool, ya con la transacción iniciada). Los efectos que
+ * solo deben ocurrir si los datos quedaron confirmados (actualizar cachés o
+ * índices en memoria) se registran con {@link #afterCommit(Runnable)}: se
+ * ejecutan después del <code>commit()</code> y se descartan en el
+ * <code>rollback()</code>.
+ * </p>
+ *
+ * <pre>
+ * try (TransactionManager tm = TransactionManager.begin()) {
+ *     historiaDAO.insertTx(historia, tm.getConnection());
+ *     pacienteDAO.insertTx(paciente, tm.getConnection());
+ *     tm.afterCommit(() -&gt; cache.invalidate(paciente.getId()));
+ *     tm.commit();
+ * }
+ * </pre>
+ *
  * @see AutoCloseable
  * @see java.sql.Connection
  */
@@ -68,6 +88,67 @@ public class TransactionManager implements AutoCloseable {
      */
     private boolean transactionActive;
 
+    /**
+     * Acciones registradas con {@link #afterCommit(Runnable)} durante la
+     * transacción en curso, en orden de registro.
+     */
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+
+    /**
+     * Evento JFR de la transacción en curso (ver {@link TransactionEvent}).
+     */
+    private TransactionEvent event;
+
+    /**
+     * Obtiene una conexión de {@link DatabaseConnection} e inicia una
+     * transacción sobre ella (unidad de trabajo).
+     * <p>
+     * La conexión se devuelve al pool en {@link #close()}; si no se llegó a
+     * llamar a {@link #commit()}, antes se hace rollback.
+     * </p>
+     *
+     * @return Un <code>TransactionManager</code> con la transacción activa.
+     * @throws SQLException Si no se puede obtener la conexión o iniciar la
+     *                      transacción.
+     */
+    public static TransactionManager begin() throws SQLException {
+
+        return begin(DatabaseConnection.getConnection());
+    }
+
+    /**
+     * Igual que {@link #begin()}, pero contando en <code>counter</code> los
+     * viajes a la BD de la unidad de trabajo (incluidos el inicio, el
+     * <code>commit</code> y el restablecimiento de <code>autoCommit</code> en
+     * {@link #close()}).
+     *
+     * @param counter El contador de viajes de la operación.
+     * @return Un <code>TransactionManager</code> con la transacción activa.
+     * @throws SQLException Si no se puede obtener la conexión o iniciar la
+     *                      transacción.
+     */
+    public static TransactionManager begin(RoundTripCounter counter) throws SQLException {
+
+        return begin(counter.wrap(DatabaseConnection.getConnection()));
+    }
+
+    /**
+     * Inicia la transacción sobre una conexión recién obtenida; si falla, la
+     * devuelve al pool.
+     */
+    private static TransactionManager begin(Connection conn) throws SQLException {
+
+        try {
+            TransactionManager tm = new TransactionManager(conn);
+            tm.startTransaction();
+            return tm;
+
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
     /**
      * Constructor. Recibe una conexión existente.
      *
@@ -98,6 +179,9 @@ public class TransactionManager implements AutoCloseable {
             throw new SQLException("No se puede iniciar la transacción: conexión no disponible.");
         }
 
+        event = new TransactionEvent();
+        event.begin();
+
         conn.setAutoCommit(false);
         transactionActive = true;
     }
@@ -121,6 +205,28 @@ public class TransactionManager implements AutoCloseable {
 
         conn.commit();
         transactionActive = false;
+        event.finish(true, afterCommitActions.size());
+        runAfterCommitActions();
+    }
+
+    /**
+     * Registra una acción a ejecutar cuando la transacción en curso se
+     * confirme. Si la transacción se revierte, la acción se descarta.
+     * <p>
+     * Pensado para efectos en memoria (cachés, índices): no deben lanzar
+     * excepciones ni acceder a la BD con esta conexión.
+     * </p>
+     *
+     * @param action La acción a ejecutar después del <code>commit()</code>.
+     * @throws IllegalStateException Si no hay una transacción activa.
+     */
+    public void afterCommit(Runnable action) {
+
+        if (!transactionActive) {
+            throw new IllegalStateException("No hay una transacción activa para registrar la acción.");
+        }
+
+        afterCommitActions.add(action);
     }
 
     /**
@@ -138,8 +244,11 @@ public class TransactionManager implements AutoCloseable {
 
             try {
                 // Intenta revertir los cambios
+                int descartadas = afterCommitActions.size();
+                afterCommitActions.clear();
                 conn.rollback();
                 transactionActive = false;
+                event.finish(false, descartadas);
 
             } catch (SQLException e) {
                 // Imprime el error de rollback pero no lanza una excepción
@@ -187,7 +296,8 @@ public class TransactionManager implements AutoCloseable {
      * (esto previene "commits fantasma").
      * 3. Restablece `autoCommit` a `true` (devuelve la conexión a su estado
      * normal).
-     * 4. Cierra la conexión física (`conn.close()`).
+     * 4. Cierra la conexión (`conn.close()`), que la devuelve al pool de
+     * {@link DatabaseConnection}.
      * </p>
      */
     @Override
@@ -221,4 +331,24 @@ public class TransactionManager implements AutoCloseable {
             }
         }
     }
+
+    /**
+     * Ejecuta (y descarta) las acciones registradas con
+     * {@link #afterCommit(Runnable)}. Los datos ya están confirmados: un error
+     * en una acción se informa, pero no impide ejecutar las siguientes.
+     */
+    private void runAfterCommitActions() {
+
+        List<Runnable> actions = new ArrayList<>(afterCommitActions);
+        afterCommitActions.clear();
+
+        for (Runnable action : actions) {
+            try {
+                action.run();
+
+            } catch (RuntimeException e) {
+                System.err.println("Error en una acción posterior al commit: " + e.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import config.DatabaseConnection;
+import models.Base;
+
+/**
+ * Utilidad interna de los DAOs para ejecutar operaciones <b>JDBC Batch</b>.
+ * <p>
+ * Centraliza la lógica común de <code>insertBatch</code> y
+ * <code>updateBatch</code> (Patrón DRY): agrupa las sentencias con
+ * <code>addBatch()</code>, las envía en lotes de
+ * {@link DatabaseConnection#getBatchSize()} filas con
+ * <code>executeBatch()</code> y sincroniza los IDs generados.
+ * </p>
+ *
+ * <h3>Rendimiento:</h3>
+ * <p>
+ * Con <code>rewriteBatchedStatements=true</code> (activado por defecto para
+ * MySQL en {@link DatabaseConnection}), el driver reescribe cada lote de
+ * <code>INSERT</code> como un único <code>INSERT ... VALUES (...), (...)</code>
+ * multi-fila: un viaje a la BD por lote en lugar de uno por fila.
+ * </p>
+ *
+ * <h3>Transacciones:</h3>
+ * <p>
+ * Igual que los métodos <code>*Tx</code>, estos métodos <b>NO</b> abren,
+ * cierran ni confirman la conexión: la transacción es responsabilidad de la
+ * capa de Servicio.
+ * </p>
+ *
+ * @author alpha team
+ * @see GenericDAO#insertBatch(List, Connection)
+ * @see GenericDAO#updateBatch(List, Connection)
+ */
+final class BatchSupport {
+
+    /**
+     * Establece los parámetros de una fila del lote.
+     *
+     * @param <T> Tipo de la entidad.
+     */
+    @FunctionalInterface
+    interface ParameterBinder<T> {
+
+        /**
+         * Establece los parámetros (<code>?</code>) para una entidad.
+         *
+         * @param stmt   El PreparedStatement del lote.
+         * @param entity La entidad de donde se obtienen los datos.
+         * @throws SQLException Si ocurre un error al establecer los parámetros.
+         */
+        void bind(PreparedStatement stmt, T entity) throws SQLException;
+    }
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private BatchSupport() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Inserta las entidades en lotes y asigna a cada una su ID generado.
+     * <p>
+     * Las claves generadas se devuelven en el mismo orden en que se agregaron
+     * las filas al lote, por lo que se asignan posicionalmente.
+     * </p>
+     *
+     * @param <T>        Tipo de la entidad.
+     * @param conn       La conexión transaccional (no se cierra).
+     * @param sql        La sentencia <code>INSERT</code>.
+     * @param entities   Las entidades a insertar (con <code>id=0</code>).
+     * @param binder     Función que establece los parámetros de cada fila.
+     * @param entityName Nombre de la entidad para los mensajes de error.
+     * @throws SQLException Si falla algún lote o no se obtienen todos los IDs.
+     */
+    static <T extends Base> void insertBatch(Connection conn, String sql, List<T> entities,
+            ParameterBinder<T> binder, String entityName) throws SQLException {
+
+        if (entities == null || entities.isEmpty()) {
+            return;
+        }
+
+        int batchSize = DatabaseConnection.getBatchSize();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            for (int desde = 0; desde < entities.size(); desde += batchSize) {
+                List<T> lote = entities.subList(desde, Math.min(desde + batchSize, entities.size()));
+
+                for (T entity : lote) {
+                    binder.bind(stmt, entity);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                // Sincroniza los IDs de la BD con los objetos Java (en orden)
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    int i = 0;
+                    while (i < lote.size() && generatedKeys.next()) {
+                        lote.get(i++).setId(generatedKeys.getInt(1));
+                    }
+                    if (i != lote.size()) {
+                        throw new SQLException("La inserción por lotes de " + entityName
+                                + " falló! Se esperaban " + lote.size() + " IDs generados y se obtuvieron " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Actualiza las entidades en lotes.
+     * <p>
+     * Verifica el conteo de filas afectadas de cada sentencia: un
+     * <code>0</code> indica que el ID no existe. El valor
+     * {@link Statement#SUCCESS_NO_INFO} (que el driver puede devolver al
+     * reescribir el lote) se considera exitoso.
+     * </p>
+     *
+     * @param <T>        Tipo de la entidad.
+     * @param conn       La conexión transaccional (no se cierra).
+     * @param sql        La sentencia <code>UPDATE</code>.
+     * @param entities   Las entidades a actualizar (con <code>id &gt; 0</code>).
+     * @param binder     Función que establece <b>todos</b> los parámetros de cada
+     *                   fila (incluido el <code>WHERE id = ?</code>).
+     * @param entityName Nombre de la entidad para los mensajes de error.
+     * @throws SQLException Si falla algún lote o algún ID no existe.
+     */
+    static <T extends Base> void updateBatch(Connection conn, String sql, List<T> entities,
+            ParameterBinder<T> binder, String entityName) throws SQLException {
+
+        if (entities == null || entities.isEmpty()) {
+            return;
+        }
+
+        int batchSize = DatabaseConnection.getBatchSize();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int desde = 0; desde < entities.size(); desde += batchSize) {
+                List<T> lote = entities.subList(desde, Math.min(desde + batchSize, entities.size()));
+
+                for (T entity : lote) {
+                    binder.bind(stmt, entity);
+                    stmt.addBatch();
+                }
+
+                int[] rowsAffected = stmt.executeBatch();
+                for (int i = 0; i < rowsAffected.length && i < lote.size(); i++) {
+                    if (rowsAffected[i] == 0) {
+                        throw new SQLException("Error en updateBatch: No se encontró " + entityName
+                                + " con ID: " + lote.get(i).getId());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidad para reconocer violaciones de restricciones <code>UNIQUE</code>
+ * en las excepciones de JDBC.
+ * <p>
+ * La capa de Servicio ya no consulta la BD antes de cada escritura para
+ * validar la unicidad (DNI, número de historia): escribe directamente y, si
+ * la BD rechaza la fila por una clave duplicada, traduce el error a
+ * {@link exceptions.DuplicateEntityException}. Esta clase centraliza esa
+ * detección (Patrón DRY).
+ * </p>
+ *
+ * <h3>Detección:</h3>
+ * <ul>
+ * <li>MySQL: código de error {@value #ER_DUP_ENTRY} (los
+ * <code>SQLIntegrityConstraintViolationException</code> también incluyen
+ * violaciones de claves foráneas y <code>CHECK</code>, que no son
+ * duplicados).</li>
+ * <li>Estándar SQL: <code>SQLState</code> {@value #SQLSTATE_UNIQUE_VIOLATION}
+ * (ej: H2).</li>
+ * </ul>
+ * <p>
+ * Los DAOs envuelven las <code>SQLException</code> con mensajes propios, por
+ * lo que se recorre toda la cadena de causas.
+ * </p>
+ *
+ * @author alpha team
+ * @see exceptions.DuplicateEntityException
+ */
+public final class ConstraintViolations {
+
+    /**
+     * Código de error de MySQL "Duplicate entry ... for key ...".
+     */
+    public static final int ER_DUP_ENTRY = 1062;
+
+    /**
+     * SQLState estándar de violación de unicidad.
+     */
+    public static final String SQLSTATE_UNIQUE_VIOLATION = "23505";
+
+    /**
+     * Extrae el nombre del índice del mensaje de MySQL (ej:
+     * <code>for key 'Paciente.dni'</code> o <code>for key 'dni'</code>).
+     */
+    private static final Pattern MYSQL_KEY = Pattern.compile("for key '(?:[^'.]+\\.)?([^']+)'");
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private ConstraintViolations() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Indica si la excepción (o alguna de sus causas) es una violación de
+     * una restricción <code>UNIQUE</code>.
+     *
+     * @param e La excepción a analizar.
+     * @return <code>true</code> si se trata de una clave duplicada.
+     */
+    public static boolean isDuplicateKey(Throwable e) {
+        return findDuplicateKey(e) != null;
+    }
+
+    /**
+     * Devuelve el nombre de la restricción <code>UNIQUE</code> violada (ej:
+     * <code>"dni"</code>, <code>"nro_historia"</code>,
+     * <code>"historia_clinica_id"</code>). En el esquema, las restricciones
+     * declaradas en la columna toman el nombre de la columna.
+     *
+     * @param e La excepción a analizar.
+     * @return El nombre de la restricción, o <code>null</code> si no es una
+     *         clave duplicada o el driver no lo informa.
+     */
+    public static String violatedKey(Throwable e) {
+        SQLException duplicate = findDuplicateKey(e);
+        if (duplicate == null || duplicate.getMessage() == null) {
+            return null;
+        }
+        Matcher matcher = MYSQL_KEY.matcher(duplicate.getMessage());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Busca en la cadena de causas la <code>SQLException</code> original de
+     * clave duplicada.
+     *
+     * @param e La excepción a analizar.
+     * @return La excepción de clave duplicada, o <code>null</code>.
+     */
+    private static SQLException findDuplicateKey(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlEx
+                    && (sqlEx.getErrorCode() == ER_DUP_ENTRY
+                            || SQLSTATE_UNIQUE_VIOLATION.equals(sqlEx.getSQLState()))) {
+                return sqlEx;
+            }
+        }
+        return null;
+    }
+}
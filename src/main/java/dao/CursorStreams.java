@@ -0,0 +1,202 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import config.DatabaseConnection;
+import exceptions.DataAccessException;
+
+/**
+ * Utilidad interna de los DAOs para leer consultas grandes como un
+ * {@link Stream} respaldado por un <b>cursor del servidor</b>.
+ * <p>
+ * A diferencia de los métodos que devuelven una <code>List</code>, las filas
+ * no se materializan todas en memoria: se traen de a bloques de
+ * {@link DatabaseConnection#getFetchSize()} filas a medida que el
+ * <code>Stream</code> se consume. El uso de memoria es constante sin importar
+ * el tamaño de la tabla, y la primera fila está disponible de inmediato.
+ * </p>
+ *
+ * <h3>Ciclo de vida (IMPORTANTE):</h3>
+ * <p>
+ * El <code>Stream</code> mantiene abiertos la {@link Connection}, el
+ * {@link PreparedStatement} y el {@link ResultSet} hasta que se cierra. El
+ * llamador <b>debe</b> usarlo dentro de un <code>try-with-resources</code>:
+ * </p>
+ *
+ * <pre>
+ * try (Stream&lt;Paciente&gt; pacientes = pacienteDAO.streamAllWithStatus(false)) {
+ *     pacientes.forEach(p -&gt; ...);
+ * }
+ * </pre>
+ *
+ * @author alpha team
+ * @see GenericDAO#streamAllWithStatus(boolean)
+ */
+final class CursorStreams {
+
+    /**
+     * Establece los parámetros (<code>?</code>) de la consulta.
+     */
+    @FunctionalInterface
+    interface ParameterBinder {
+
+        /**
+         * Establece los parámetros de la consulta.
+         *
+         * @param stmt El PreparedStatement a completar.
+         * @throws SQLException Si ocurre un error al establecer los parámetros.
+         */
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    /**
+     * Mapea la fila actual del <code>ResultSet</code> a una entidad.
+     *
+     * @param <T> Tipo de la entidad.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+
+        /**
+         * Mapea la fila actual.
+         *
+         * @param rs El ResultSet posicionado en la fila.
+         * @return La entidad mapeada.
+         * @throws SQLException Si una columna esperada no se encuentra.
+         */
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private CursorStreams() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Ejecuta la consulta y devuelve sus filas como un <code>Stream</code>
+     * perezoso (lazy).
+     * <p>
+     * Usa un <code>ResultSet</code> <code>TYPE_FORWARD_ONLY</code> /
+     * <code>CONCUR_READ_ONLY</code> con <code>setFetchSize()</code>; junto con
+     * <code>useCursorFetch=true</code> (activado por defecto para MySQL en
+     * {@link DatabaseConnection}) el servidor entrega las filas por bloques.
+     * Al cerrar el <code>Stream</code> se cierran el ResultSet, el statement y
+     * la conexión (que vuelve al pool).
+     * </p>
+     * <p>
+     * El {@link DaoQueryEvent} del stream abarca desde la apertura hasta el
+     * cierre (incluye el tiempo que el llamador tarda en consumir las filas) e
+     * informa las filas efectivamente leídas (o <code>failed</code> si la
+     * apertura o la lectura de una fila falló).
+     * </p>
+     *
+     * @param <T>          Tipo de la entidad.
+     * @param sqlId        Identificador de la consulta (ver
+     *                     {@link DaoQueryEvent}).
+     * @param sql          La consulta <code>SELECT</code>.
+     * @param binder       Función que establece los parámetros.
+     * @param mapper       Función que mapea cada fila.
+     * @param errorMessage Mensaje de contexto para los errores.
+     * @return Un <code>Stream</code> que debe cerrarse al terminar.
+     * @throws SQLException Si falla la conexión o la ejecución de la consulta.
+     */
+    static <T> Stream<T> stream(String sqlId, String sql, ParameterBinder binder, RowMapper<T> mapper,
+            String errorMessage) throws SQLException {
+
+        DaoQueryEvent evento = DaoQueryEvent.start(sqlId);
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(DatabaseConnection.getFetchSize());
+            binder.bind(stmt);
+            rs = stmt.executeQuery();
+
+        } catch (SQLException e) {
+            closeQuietly(rs, stmt, conn);
+            evento.close();
+            throw new SQLException(errorMessage + ": " + e.getMessage(), e);
+        }
+
+        final Connection streamConn = conn;
+        final PreparedStatement streamStmt = stmt;
+        final ResultSet streamRs = rs;
+
+        final long[] filas = { 0 };
+        final boolean[] fallido = { false };
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!streamRs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(streamRs));
+                    filas[0]++;
+                    return true;
+
+                } catch (SQLException e) {
+                    fallido[0] = true;
+                    throw new DataAccessException(errorMessage + ": " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> {
+                    closeQuietly(streamRs, streamStmt, streamConn);
+                    if (!fallido[0]) {
+                        evento.complete(filas[0]);
+                    }
+                    evento.close();
+                });
+    }
+
+    /**
+     * Cierra los recursos JDBC en orden inverso, ignorando errores.
+     *
+     * @param rs   El ResultSet (puede ser <code>null</code>).
+     * @param stmt El statement (puede ser <code>null</code>).
+     * @param conn La conexión (puede ser <code>null</code>).
+     */
+    private static void closeQuietly(ResultSet rs, PreparedStatement stmt, Connection conn) {
+
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+        } catch (SQLException e) {
+            // Se ignora: se intenta cerrar el resto de los recursos
+        }
+        try {
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            // Se ignora: se intenta cerrar el resto de los recursos
+        }
+        try {
+            if (conn != null) {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar la conexión del stream: " + e.getMessage());
+        }
+    }
+}
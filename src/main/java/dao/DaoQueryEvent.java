@@ -0,0 +1,160 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de <b>Java Flight Recorder</b> (JFR) emitido por cada operación de
+ * {@link PacienteDAO} y {@link HistoriaClinicaDAO}.
+ * <p>
+ * Registra la duración de la operación (desde antes de pedir la conexión
+ * hasta leer la última fila), el identificador de la sentencia
+ * (<code>Entidad.método</code>), las filas leídas o escritas, si se ejecutó
+ * dentro de una transacción ({@link config.TransactionManager}) y si terminó
+ * con una excepción. Como todo
+ * evento JFR, también registra el hilo, lo que permite cruzarlo con las
+ * pausas de GC, los bloqueos y el evento {@link config.TransactionEvent} del
+ * mismo hilo.
+ * </p>
+ *
+ * <h3>Costo:</h3>
+ * <p>
+ * Sin una grabación activa, <code>begin()</code>, <code>end()</code> y
+ * <code>shouldCommit()</code> no hacen nada y el JIT elimina el objeto. Con
+ * una grabación, solo se completan los campos si el evento supera el umbral
+ * configurado. No se captura el stack trace.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * java -XX:StartFlightRecording=filename=gestion.jfr,settings=profile -jar ...
+ * jfr print --events gestion.DaoQuery gestion.jfr
+ * </pre>
+ *
+ * <p>
+ * Los DAOs lo abren como primer recurso del <code>try-with-resources</code>
+ * de cada operación y llaman a {@link #complete(long)} al final del bloque:
+ * </p>
+ *
+ * <pre>
+ * try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.update");
+ *         Connection conn = DatabaseConnection.getConnection(); ...) {
+ *     ...
+ *     evento.complete(rowsAffected);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Si la operación lanza una excepción, el evento se emite igual, con
+ * <code>failed=true</code>: las sentencias con timeout, deadlock o error de
+ * conexión se pueden cruzar con la actividad de GC y de los hilos en ese
+ * momento.
+ * </p>
+ *
+ * @author alpha team
+ * @see config.TransactionEvent
+ */
+@Name("gestion.DaoQuery")
+@Label("Consulta DAO")
+@Category({ "Gestión de Pacientes", "Base de Datos" })
+@Description("Operación de un DAO contra la base de datos")
+@StackTrace(false)
+public final class DaoQueryEvent extends Event implements AutoCloseable {
+
+    @Label("SQL Id")
+    @Description("Entidad y método del DAO que ejecutó la sentencia")
+    String sqlId;
+
+    @Label("Filas")
+    @Description("Filas leídas, insertadas o actualizadas")
+    long rowCount;
+
+    @Label("En transacción")
+    @Description("true si la conexión tenía autoCommit=false")
+    boolean inTransaction;
+
+    @Label("Fallida")
+    @Description("true si la operación terminó con una excepción")
+    boolean failed;
+
+    /**
+     * Conexión recibida del llamador, o <code>null</code> si la operación
+     * abrió la suya (no se graba en el evento).
+     */
+    private transient Connection conn;
+
+    /**
+     * Si la operación llegó a {@link #complete(long)} (no se graba en el
+     * evento).
+     */
+    private transient boolean completed;
+
+    /**
+     * Crea el evento y empieza a medir una operación que abre su propia
+     * conexión (fuera de una transacción).
+     *
+     * @param sqlId Identificador de la sentencia.
+     * @return El evento iniciado.
+     */
+    static DaoQueryEvent start(String sqlId) {
+        DaoQueryEvent evento = new DaoQueryEvent();
+        evento.sqlId = sqlId;
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Igual que {@link #start(String)}, para una operación que usa una
+     * conexión recibida del llamador: al emitir el evento se consulta su
+     * <code>autoCommit</code> para saber si es parte de una transacción.
+     *
+     * @param sqlId Identificador de la sentencia.
+     * @param conn  La conexión usada.
+     * @return El evento iniciado.
+     */
+    static DaoQueryEvent start(String sqlId, Connection conn) {
+        DaoQueryEvent evento = start(sqlId);
+        evento.conn = conn;
+        return evento;
+    }
+
+    /**
+     * Marca la operación como terminada sin errores. Se llama al final del
+     * bloque <code>try</code>; si no se llega a llamar, {@link #close()} emite
+     * el evento con <code>failed=true</code>.
+     *
+     * @param rowCount Filas leídas o escritas.
+     */
+    void complete(long rowCount) {
+        this.rowCount = rowCount;
+        this.completed = true;
+    }
+
+    /**
+     * Termina de medir y emite el evento (si hay una grabación que lo pida).
+     * Nunca lanza excepciones: si la conexión ya no responde, se informa
+     * <code>inTransaction=false</code>, de modo que medir no cambia el
+     * resultado de la operación.
+     */
+    @Override
+    public void close() {
+        end();
+        if (shouldCommit()) {
+            this.failed = !completed;
+            try {
+                this.inTransaction = conn != null && !conn.getAutoCommit();
+            } catch (SQLException e) {
+                this.inTransaction = false;
+            }
+            commit();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interfaz Genérica para el patrón Data Access Object (DAO).
@@ -95,6 +96,35 @@ public interface GenericDAO<T> {
      */
     void updateTx(T entity, Connection conn) throws SQLException;
 
+    /**
+     * Inserta varias entidades usando <b>JDBC Batch</b> y una <b>transacción
+     * existente</b>.
+     * <p>
+     * Las filas se envían en lotes de <code>db.batch.size</code> (ver
+     * {@link config.DatabaseConnection#getBatchSize()}) en lugar de un viaje a la
+     * BD por fila. Al terminar, cada entidad tiene asignado su ID generado.
+     * </p>
+     * <p>
+     * <b>NO</b> hace commit: si falla, la capa de Servicio debe hacer rollback
+     * (los IDs asignados en los lotes previos dejan de ser válidos).
+     * </p>
+     *
+     * @param entities Las entidades a guardar (con <code>id=0</code>).
+     * @param conn     La {@link Connection} transaccional (con autoCommit=false).
+     * @throws SQLException Si falla algún lote (ej: clave duplicada).
+     */
+    void insertBatch(List<T> entities, Connection conn) throws SQLException;
+
+    /**
+     * Actualiza varias entidades usando <b>JDBC Batch</b> y una <b>transacción
+     * existente</b>.
+     *
+     * @param entities Las entidades con los datos actualizados.
+     * @param conn     La {@link Connection} transaccional (con autoCommit=false).
+     * @throws SQLException Si alguna entidad no existe o falla algún lote.
+     */
+    void updateBatch(List<T> entities, Connection conn) throws SQLException;
+
     /**
      * Realiza una "Baja Lógica" (Soft Delete) de una entidad por su ID.
      * <p>
@@ -135,6 +165,17 @@ public interface GenericDAO<T> {
      */
     void recover(int id) throws SQLException;
 
+    /**
+     * Recupera una entidad eliminada lógicamente usando una <b>transacción
+     * existente</b>.
+     *
+     * @param id   El ID de la entidad a recuperar.
+     * @param conn La {@link Connection} transaccional (con autoCommit=false).
+     * @throws SQLException Si la entidad no existe (rowsAffected = 0) o
+     *                      si ocurre un error de BD.
+     */
+    void recoverTx(int id, Connection conn) throws SQLException;
+
     // ============ MÉTODOS SELECT (Lectura) ============
     /**
      * Busca y recupera una entidad por su ID y su estado:
@@ -165,6 +206,49 @@ public interface GenericDAO<T> {
      */
     List<T> selectAllWithStatus(boolean deleted) throws SQLException;
 
+    /**
+     * Variante de <i>streaming</i> de {@link #selectAllWithStatus(boolean)}.
+     * <p>
+     * En lugar de cargar todas las filas en una {@link List}, devuelve un
+     * {@link Stream} perezoso respaldado por un cursor del servidor: el uso de
+     * memoria es constante sin importar el tamaño de la tabla.
+     * </p>
+     * <p>
+     * <b>IMPORTANTE:</b> El <code>Stream</code> mantiene una conexión abierta
+     * hasta que se cierra; debe usarse dentro de un
+     * <code>try-with-resources</code>. Los errores de BD durante el recorrido
+     * se lanzan como {@link exceptions.DataAccessException}.
+     * </p>
+     *
+     * @param deleted <code>false</code> para activas, <code>true</code> para
+     *                eliminadas.
+     * @return Un <code>Stream</code> de entidades, en el mismo orden que
+     *         <code>selectAllWithStatus</code>.
+     * @throws SQLException Si falla la conexión o la ejecución de la consulta.
+     */
+    Stream<T> streamAllWithStatus(boolean deleted) throws SQLException;
+
+    /**
+     * Obtiene una página de entidades usando <b>paginación por clave</b>
+     * (keyset / seek) en lugar de <code>OFFSET</code>.
+     * <p>
+     * La página siguiente se pide "a partir de" la última entidad de la página
+     * anterior ({@link Page#last()}). La consulta salta directamente a esa
+     * posición del índice, por lo que las páginas profundas cuestan lo mismo que
+     * la primera. El orden es el mismo que el de
+     * {@link #selectAllWithStatus(boolean)}, desempatando por <code>id</code>.
+     * </p>
+     *
+     * @param after   La última entidad de la página anterior, o
+     *                <code>null</code> para obtener la primera página.
+     * @param limit   Cantidad máxima de entidades por página (mayor a cero).
+     * @param deleted <code>false</code> para activas, <code>true</code> para
+     *                eliminadas.
+     * @return La página (posiblemente vacía) y si existen más filas.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    Page<T> selectPage(T after, int limit, boolean deleted) throws SQLException;
+
     /**
      * Busca entidades <b>activas</b> que coincidan con un filtro de texto.
      * <p>
@@ -0,0 +1,211 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import config.DatabaseConnection;
+import models.GrupoSanguineo;
+
+/**
+ * Caché en memoria del catálogo <code>GrupoSanguineo</code> (Enum → ID).
+ * <p>
+ * La tabla <code>GrupoSanguineo</code> es un catálogo fijo de 8 filas que
+ * refleja exactamente al <code>Enum</code> {@link GrupoSanguineo}. En lugar de
+ * consultar <code>SELECT id FROM GrupoSanguineo WHERE nombre_enum = ?</code> en
+ * cada <code>INSERT</code>/<code>UPDATE</code>, esta clase carga el catálogo
+ * completo <b>una sola vez</b> y resuelve los IDs en memoria.
+ * </p>
+ *
+ * <h3>Responsabilidades:</h3>
+ * <ul>
+ * <li><b>Carga única:</b> Lee todas las filas del catálogo en el primer uso,
+ * reutilizando la {@link Connection} del llamador (por lo tanto, la carga
+ * ocurre dentro de la misma transacción y no abre una conexión extra).</li>
+ * <li><b>Búsqueda O(1):</b> Guarda los IDs en un arreglo indexado por
+ * {@link GrupoSanguineo#ordinal()}. Las escrituras posteriores no requieren
+ * ningún viaje adicional a la base de datos.</li>
+ * <li><b>Recarga explícita:</b> Si el catálogo se modifica en la BD (ej: se
+ * re-ejecuta el script de catálogos), {@link #refresh()} vuelve a cargarlo.</li>
+ * </ul>
+ *
+ * <h3>Concurrencia:</h3>
+ * <p>
+ * El arreglo de IDs es inmutable una vez publicado y se reemplaza completo en
+ * cada recarga (referencia <code>volatile</code>), por lo que las lecturas no
+ * necesitan sincronización.
+ * </p>
+ *
+ * @author alpha team
+ * @see HistoriaClinicaDAO
+ * @see models.GrupoSanguineo
+ */
+public final class GrupoSanguineoCatalog {
+
+    /**
+     * Query para cargar el catálogo completo.
+     */
+    private static final String SELECT_ALL_SQL = """
+                SELECT id, nombre_enum FROM GrupoSanguineo
+            """;
+
+    /**
+     * Valor que indica "sin ID" en el arreglo (los IDs AUTO_INCREMENT empiezan
+     * en 1).
+     */
+    private static final int NO_ID = 0;
+
+    /**
+     * Instancia compartida por defecto (el catálogo es único en la BD).
+     */
+    private static final GrupoSanguineoCatalog SHARED = new GrupoSanguineoCatalog();
+
+    /**
+     * IDs indexados por <code>ordinal()</code> del Enum. <code>null</code>
+     * mientras el catálogo no fue cargado.
+     */
+    private volatile int[] ids;
+
+    /**
+     * Devuelve la instancia compartida del catálogo.
+     *
+     * @return El catálogo compartido.
+     */
+    public static GrupoSanguineoCatalog shared() {
+        return SHARED;
+    }
+
+    /**
+     * Obtiene el ID (PK) de la tabla <code>GrupoSanguineo</code> para un valor
+     * del <code>Enum</code>.
+     * <p>
+     * Si el catálogo todavía no fue cargado, lo carga usando la conexión
+     * recibida (sin abrir una nueva). A partir de allí, la resolución es en
+     * memoria.
+     * </p>
+     *
+     * @param grupo El <code>Enum</code> (ej: <code>GrupoSanguineo.A_PLUS</code>).
+     * @param conn  La conexión del llamador (usada solo si hay que cargar).
+     * @return El ID del grupo en la BD.
+     * @throws SQLException Si falla la carga, o si el grupo no existe en el
+     *                      catálogo de la BD (BD desincronizada con el Enum).
+     */
+    public int idOf(GrupoSanguineo grupo, Connection conn) throws SQLException {
+
+        int[] actual = ids;
+        if (actual == null) {
+            actual = loadIfAbsent(conn);
+        }
+
+        int id = actual[grupo.ordinal()];
+        if (id == NO_ID) {
+            throw new SQLException("El grupo sanguíneo " + grupo.name()
+                    + " no existe en el catálogo GrupoSanguineo de la base de datos.");
+        }
+        return id;
+    }
+
+    /**
+     * Indica si el catálogo ya fue cargado en memoria.
+     *
+     * @return <code>true</code> si está cargado.
+     */
+    public boolean isLoaded() {
+        return ids != null;
+    }
+
+    /**
+     * Precarga el catálogo al iniciar la aplicación.
+     * <p>
+     * A diferencia de {@link #refresh()}, no propaga el error: si la base de
+     * datos no está disponible al arrancar, se informa una advertencia y el
+     * catálogo se cargará en la primera escritura.
+     * </p>
+     *
+     * @return <code>true</code> si el catálogo quedó cargado.
+     */
+    public boolean preload() {
+
+        try {
+            refresh();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Advertencia: no se pudo precargar el catálogo de grupos sanguíneos: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Vuelve a cargar el catálogo usando una conexión propia del pool.
+     *
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    public void refresh() throws SQLException {
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            refresh(conn);
+        }
+    }
+
+    /**
+     * Vuelve a cargar el catálogo usando la conexión recibida.
+     *
+     * @param conn La conexión a utilizar (no se cierra).
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    public void refresh(Connection conn) throws SQLException {
+        ids = load(conn);
+    }
+
+    // ============ MÉTODOS HELPER (Carga) ============
+    /**
+     * Carga el catálogo solo si ningún otro hilo lo cargó mientras tanto.
+     *
+     * @param conn La conexión a utilizar.
+     * @return El arreglo de IDs cargado.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    private synchronized int[] loadIfAbsent(Connection conn) throws SQLException {
+
+        if (ids == null) {
+            ids = load(conn);
+        }
+        return ids;
+    }
+
+    /**
+     * Lee todas las filas del catálogo y construye el arreglo de IDs.
+     * <p>
+     * Las filas cuyo <code>nombre_enum</code> no corresponde a ningún valor del
+     * <code>Enum</code> se ignoran con una advertencia.
+     * </p>
+     *
+     * @param conn La conexión a utilizar (no se cierra).
+     * @return Un nuevo arreglo de IDs indexado por <code>ordinal()</code>.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    private static int[] load(Connection conn) throws SQLException {
+
+        int[] nuevos = new int[GrupoSanguineo.values().length];
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_SQL);
+                ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                String nombreEnum = rs.getString("nombre_enum");
+                try {
+                    nuevos[GrupoSanguineo.valueOf(nombreEnum).ordinal()] = rs.getInt("id");
+
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    System.err.println("Advertencia: GrupoSanguineo inválido en BD: " + nombreEnum);
+                }
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error al cargar el catálogo de grupos sanguíneos: " + e.getMessage(), e);
+        }
+        return nuevos;
+    }
+}
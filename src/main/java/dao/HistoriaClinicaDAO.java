@@ -7,7 +7,12 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import config.DatabaseConnection;
 import models.GrupoSanguineo;
@@ -27,7 +32,9 @@ import models.HistoriaClinica;
  * <li>Usar <b>PreparedStatement</b> en TODAS las consultas para prevenir SQL
  * Injection.</li>
  * <li>Gestionar el mapeo entre el <code>Enum</code> {@link GrupoSanguineo} y su
- * ID en la tabla <code>GrupoSanguineo</code>.</li>
+ * ID en la tabla <code>GrupoSanguineo</code>, a través del
+ * {@link GrupoSanguineoCatalog} (caché en memoria, sin consultas extra por
+ * escritura).</li>
  * <li>Implementar <b>Baja Lógica (Soft Delete)</b>
  * (<code>eliminado = TRUE</code>).</li>
  * <li>Proveer métodos para operaciones <b>Transaccionales</b> (ej:
@@ -44,6 +51,7 @@ import models.HistoriaClinica;
  *
  * @author alpha team
  * @see GenericDAO
+ * @see GrupoSanguineoCatalog
  * @see main.java.models.HistoriaClinica
  * @see main.java.config.TransactionManager
  */
@@ -111,6 +119,23 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 LEFT JOIN GrupoSanguineo gs ON hc.grupo_sanguineo_id = gs.id
             """;
 
+    /**
+     * <b>Consulta Base de la cabecera</b> (modo de textos diferidos)
+     * <p>
+     * Igual que <code>SELECT_SQL</code>, pero sin las columnas
+     * <code>TEXT</code> (antecedentes, medicación, observaciones), que se leen
+     * después por lotes con {@link HistoriaTextLoader}.
+     * </p>
+     */
+    private static final String SELECT_HEADER_SQL = """
+                SELECT
+                    hc.id,
+                    hc.nro_historia,
+                    gs.nombre_enum
+                FROM HistoriaClinica hc
+                LEFT JOIN GrupoSanguineo gs ON hc.grupo_sanguineo_id = gs.id
+            """;
+
     /**
      * Query para obtener una HistoriaClinica por ID y estado de eliminación.
      * Concatena la consulta base <code>SELECT_SQL</code>.
@@ -119,15 +144,55 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 WHERE hc.id = ? AND hc.eliminado = ?
             """;
 
+    /**
+     * Prefijo de la consulta de HC activas por varios IDs (la lista
+     * <code>(?, ...)</code> la agrega {@link InClause}).
+     */
+    private static final String SELECT_BY_IDS_SQL = SELECT_SQL
+            + "WHERE hc.eliminado = FALSE AND hc.id IN ";
+
+    /**
+     * Condición para obtener todas las HistoriasClinicas por estado de
+     * eliminación.
+     */
+    private static final String ALL_WHERE = """
+                WHERE hc.eliminado = ?
+                ORDER BY hc.id
+            """;
+
     /**
      * Query para obtener todas las HistoriasClinicas por estado de eliminación.
      * Concatena la consulta base <code>SELECT_SQL</code>.
      */
-    private static final String SELECT_ALL_SQL = SELECT_SQL + """
-                WHERE hc.eliminado = ?
+    private static final String SELECT_ALL_SQL = SELECT_SQL + ALL_WHERE;
+
+    /**
+     * Igual que <code>SELECT_ALL_SQL</code>, solo con la cabecera.
+     */
+    private static final String SELECT_ALL_HEADER_SQL = SELECT_HEADER_SQL + ALL_WHERE;
+
+    /**
+     * Condición para obtener la página de HistoriasClinicas siguiente a un ID
+     * (paginación por clave / seek sobre la clave primaria).
+     * Para la primera página se usa <code>hc.id &gt; 0</code>.
+     */
+    private static final String PAGE_AFTER_WHERE = """
+                WHERE hc.eliminado = ? AND hc.id > ?
                 ORDER BY hc.id
+                LIMIT ?
             """;
 
+    /**
+     * Query para obtener una página de HistoriasClinicas.
+     * Concatena la consulta base <code>SELECT_SQL</code>.
+     */
+    private static final String SELECT_PAGE_AFTER_SQL = SELECT_SQL + PAGE_AFTER_WHERE;
+
+    /**
+     * Igual que <code>SELECT_PAGE_AFTER_SQL</code>, solo con la cabecera.
+     */
+    private static final String SELECT_PAGE_AFTER_HEADER_SQL = SELECT_HEADER_SQL + PAGE_AFTER_WHERE;
+
     /**
      * Query para buscar HistoriasClinicas (activas) por filtro de texto.
      * Concatena la consulta base <code>SELECT_SQL</code>.
@@ -149,20 +214,72 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     /**
      * Query para buscar una HistoriaClinica (activa) por nroHistoria (exacto).
      * Concatena la consulta base <code>SELECT_SQL</code>.
-     * Usado para la validación de unicidad (RN-015) en el Service.
      */
     private static final String SELECT_BY_NRO_HISTORIA_SQL = SELECT_SQL + """
                 WHERE hc.nro_historia = ? AND hc.eliminado = FALSE
             """;
 
     /**
-     * Query para obtener el ID de un GrupoSanguineo por su nombre de enum.
-     * Usado para mapear el Enum de Java a la FK de la BD.
+     * Query liviana para saber si un número de historia ya está registrado
+     * (sin JOINs ni columnas). Incluye HC eliminadas, igual que la
+     * restricción <code>UNIQUE</code> de la columna <code>nro_historia</code>.
      */
-    private static final String SELECT_BY_NOMBRE_ENUM_SQL = """
-                SELECT id FROM GrupoSanguineo WHERE nombre_enum = ?
+    private static final String EXISTS_BY_NRO_HISTORIA_SQL = """
+                SELECT 1 FROM HistoriaClinica WHERE nro_historia = ? LIMIT 1
             """;
 
+    // ============ DEPENDENCIAS ============
+    /**
+     * Catálogo en memoria para traducir {@link GrupoSanguineo} a su ID (FK).
+     */
+    private final GrupoSanguineoCatalog grupoSanguineoCatalog;
+
+    /**
+     * Modo de textos diferidos (<code>db.hc.lazyTexts</code>): los listados
+     * ({@link #selectAllWithStatus}, {@link #selectPage}) devuelven solo la
+     * cabecera de cada historia y leen los textos por lotes al primer uso
+     * (ver {@link HistoriaTextLoader}). Las lecturas de una sola historia
+     * siempre traen los textos.
+     */
+    private final boolean lazyTexts;
+
+    /**
+     * Constructor por defecto. Usa el catálogo compartido
+     * ({@link GrupoSanguineoCatalog#shared()}) y el modo de textos configurado
+     * en <code>db.properties</code> (<code>db.hc.lazyTexts</code>, por
+     * defecto <code>false</code>).
+     */
+    public HistoriaClinicaDAO() {
+        this(GrupoSanguineoCatalog.shared(), DatabaseConnection.getBooleanProperty("db.hc.lazyTexts", false));
+    }
+
+    /**
+     * Constructor con inyección del catálogo de grupos sanguíneos.
+     *
+     * @param grupoSanguineoCatalog El catálogo a utilizar.
+     * @throws IllegalArgumentException Si el catálogo es <code>null</code>.
+     */
+    public HistoriaClinicaDAO(GrupoSanguineoCatalog grupoSanguineoCatalog) {
+        this(grupoSanguineoCatalog, false);
+    }
+
+    /**
+     * Constructor con inyección del catálogo y del modo de textos.
+     *
+     * @param grupoSanguineoCatalog El catálogo a utilizar.
+     * @param lazyTexts             <code>true</code> para que los listados
+     *                              difieran la lectura de los textos.
+     * @throws IllegalArgumentException Si el catálogo es <code>null</code>.
+     */
+    public HistoriaClinicaDAO(GrupoSanguineoCatalog grupoSanguineoCatalog, boolean lazyTexts) {
+
+        if (grupoSanguineoCatalog == null) {
+            throw new IllegalArgumentException("GrupoSanguineoCatalog no puede ser null.");
+        }
+        this.grupoSanguineoCatalog = grupoSanguineoCatalog;
+        this.lazyTexts = lazyTexts;
+    }
+
     // ============ MÉTODOS CRUD (Escritura) ============
     /**
      * {@inheritDoc}
@@ -171,15 +288,16 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
      * </p>
      *
      * @param hc La HistoriaClinica a insertar (con <code>id=0</code>).
-     * @throws SQLException Si falla la inserción, la obtención del ID de
-     *                      <code>GrupoSanguineo</code>, o la obtención de claves
+     * @throws SQLException Si falla la inserción, el grupo sanguíneo no existe
+     *                      en el catálogo, o falla la obtención de claves
      *                      generadas.
      */
     @Override
     public void insert(HistoriaClinica hc) throws SQLException {
 
         // try-with-resources asegura que conn y stmt se cierren
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.insert");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(
                         INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -189,6 +307,7 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
 
             // Sincroniza el ID de la BD con el objeto Java
             setGeneratedId(stmt, hc);
+            evento.complete(1);
 
         } catch (SQLException e) {
             throw new SQLException("Error al insertar historia clínica: " + e.getMessage(), e);
@@ -211,15 +330,16 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
 
         // try-with-resources solo para PreparedStatement.
         // NO se cierra la 'conn', es gestionada por el TransactionManager.
-        try (PreparedStatement stmt = conn.prepareStatement(
-                INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.insertTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(
+                        INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            // NOTA: setEntityParameters llamará a getGrupoSanguineoId,
-            // que abre su PROPIA conexión no transaccional.
-            // Ver Javadoc de getGrupoSanguineoId para más detalles.
+            // El ID del GrupoSanguineo se resuelve en memoria (GrupoSanguineoCatalog),
+            // sin abrir conexiones fuera de la transacción.
             setEntityParameters(stmt, hc);
             stmt.executeUpdate();
             setGeneratedId(stmt, hc);
+            evento.complete(1);
         }
         // La SQLException se propaga hacia el Service, que hará rollback.
     }
@@ -237,7 +357,8 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     @Override
     public void update(HistoriaClinica hc) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.update");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
 
             setEntityParameters(stmt, hc);
@@ -249,6 +370,7 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error al actualizar: No se encontró HistoriaClinica con ID: " + hc.getId());
             }
+            evento.complete(rowsAffected);
         } catch (SQLException e) {
             throw new SQLException("Error al actualizar historia clínica: " + e.getMessage(), e);
         }
@@ -269,7 +391,8 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     @Override
     public void updateTx(HistoriaClinica hc, Connection conn) throws SQLException {
 
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.updateTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
 
             setEntityParameters(stmt, hc);
             stmt.setInt(6, hc.getId()); // Parámetro 6 para "WHERE id = ?"
@@ -280,10 +403,53 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error en updateTx: No se encontró HistoriaClinica con ID: " + hc.getId());
             }
+            evento.complete(rowsAffected);
+        }
+        // La SQLException se propaga hacia el Service, que hará rollback.
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reutiliza <code>INSERT_SQL</code> y <code>setEntityParameters</code>; ver
+     * {@link BatchSupport} para los detalles del envío por lotes.
+     * </p>
+     *
+     * @param historias Las entidades a insertar (con <code>id=0</code>).
+     * @param conn      La conexión transaccional (con autoCommit=false).
+     * @throws SQLException Si falla algún lote (ej: clave duplicada).
+     */
+    @Override
+    public void insertBatch(List<HistoriaClinica> historias, Connection conn) throws SQLException {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.insertBatch", conn)) {
+            BatchSupport.insertBatch(conn, INSERT_SQL, historias, this::setEntityParameters, "HistoriaClinica");
+            evento.complete(historias == null ? 0 : historias.size());
         }
         // La SQLException se propaga hacia el Service, que hará rollback.
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reutiliza <code>UPDATE_SQL</code> y <code>setEntityParameters</code>
+     * (parámetro 6 para "WHERE id = ?").
+     * </p>
+     *
+     * @param historias Las entidades con los datos actualizados.
+     * @param conn      La conexión transaccional (con autoCommit=false).
+     * @throws SQLException Si algún ID no se encuentra o falla algún lote.
+     */
+    @Override
+    public void updateBatch(List<HistoriaClinica> historias, Connection conn) throws SQLException {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.updateBatch", conn)) {
+            BatchSupport.updateBatch(conn, UPDATE_SQL, historias, (stmt, historia) -> {
+                setEntityParameters(stmt, historia);
+                stmt.setInt(6, historia.getId());
+            }, "HistoriaClinica");
+            evento.complete(historias == null ? 0 : historias.size());
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -297,7 +463,8 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     @Override
     public void delete(int id) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.delete");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
             stmt.setInt(1, id);
@@ -308,6 +475,7 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error al eliminar: No se encontró HistoriaClinica con ID: " + id);
             }
+            evento.complete(rowsAffected);
         } catch (SQLException e) {
             throw new SQLException("Error al eliminar historia clínica: " + e.getMessage(), e);
         }
@@ -328,7 +496,8 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     @Override
     public void deleteTx(int id, Connection conn) throws SQLException {
 
-        try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.deleteTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
             stmt.setInt(1, id);
 
@@ -338,6 +507,7 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error en deleteTx: No se encontró HistoriaClinica con ID: " + id);
             }
+            evento.complete(rowsAffected);
         }
         // La SQLException se propaga hacia el Service, que hará rollback.
     }
@@ -354,7 +524,8 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     @Override
     public void recover(int id) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.recover");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(RECOVER_SQL)) {
 
             stmt.setInt(1, id);
@@ -365,12 +536,44 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 // Lanza error si el ID no existía o ya estaba activo
                 throw new SQLException("Error al recuperar: No se encontró HistoriaClinica eliminada con ID: " + id);
             }
+            evento.complete(rowsAffected);
 
         } catch (SQLException e) {
             throw new SQLException("Error al recuperar historia clínica: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Esta versión <b>SÍ</b> es transaccional. Utiliza la {@link Connection}
+     * proveída por la capa de Servicio.
+     * </p>
+     *
+     * @param id   El ID de la entidad a recuperar.
+     * @param conn La conexión transaccional (con autoCommit=false).
+     * @throws SQLException Si el ID no se encuentra (rowsAffected=0) o
+     *                      si falla la actualización.
+     */
+    @Override
+    public void recoverTx(int id, Connection conn) throws SQLException {
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.recoverTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(RECOVER_SQL)) {
+
+            stmt.setInt(1, id);
+
+            int rowsAffected = stmt.executeUpdate();
+
+            if (rowsAffected == 0) {
+                // Lanza error si el ID no existía o ya estaba activo
+                throw new SQLException("Error en recoverTx: No se encontró HistoriaClinica eliminada con ID: " + id);
+            }
+            evento.complete(rowsAffected);
+        }
+        // La SQLException se propaga hacia el Service, que hará rollback.
+    }
+
     // ============ MÉTODOS SELECT (Lectura) ============
     /**
      * {@inheritDoc}
@@ -391,17 +594,21 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     @Override
     public HistoriaClinica selectByIdWithStatus(int id, boolean deleted) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.selectByIdWithStatus");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
 
             stmt.setInt(1, id); // Parámetro 1: hc.id = ?
             stmt.setBoolean(2, deleted); // Parámetro2: hc.eliminado = ?
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapEntity(rs);
+                    HistoriaClinica historia = mapEntity(rs);
+                    evento.complete(1);
+                    return historia;
                 }
             }
 
+            evento.complete(0);
         } catch (SQLException e) {
             throw new SQLException("Error al obtener historia clínica por ID: " + e.getMessage(), e);
         }
@@ -411,7 +618,8 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     /**
      * {@inheritDoc}
      * <p>
-     * Selecciona todas las historias clínicas de la base de datos.
+     * Selecciona todas las historias clínicas de la base de datos. En el modo
+     * de textos diferidos, los textos se leen por lotes al primer uso.
      * </p>
      * 
      * @param deleted <code>false</code> para activas.
@@ -424,23 +632,106 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
 
         List<HistoriaClinica> historias = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_SQL)) {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.selectAllWithStatus");
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(lazyTexts ? SELECT_ALL_HEADER_SQL : SELECT_ALL_SQL)) {
 
             stmt.setBoolean(1, deleted); // Parámetro para hc.eliminado = ?
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
 
-                    historias.add(mapEntity(rs));
+                    historias.add(lazyTexts ? mapHeader(rs) : mapEntity(rs));
                 }
             }
+            evento.complete(historias.size());
         } catch (SQLException e) {
             throw new SQLException("Error al obtener todas las historias clínicas: " + e.getMessage(), e);
         }
+        if (lazyTexts) {
+            HistoriaTextLoader.attach(historias);
+        }
         return historias;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reutiliza <code>SELECT_ALL_SQL</code> y <code>mapEntity</code>; ver
+     * {@link CursorStreams} para los detalles del cursor del servidor.
+     * </p>
+     *
+     * @param deleted <code>false</code> para activas.
+     *                <code>true</code> para eliminadas.
+     * @return Stream de historias clínicas (debe cerrarse).
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Stream<HistoriaClinica> streamAllWithStatus(boolean deleted) throws SQLException {
+        return CursorStreams.stream("HistoriaClinica.streamAllWithStatus", SELECT_ALL_SQL,
+                stmt -> stmt.setBoolean(1, deleted), // Parámetro para hc.eliminado = ?
+                this::mapEntity,
+                "Error al recorrer todas las historias clínicas");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ordena por <code>id</code> (clave primaria). Pide <code>limit + 1</code>
+     * filas: si llega la fila extra, existe una página siguiente (y se
+     * descarta).
+     * </p>
+     * <p>
+     * En el modo de textos diferidos, todas las historias de la página
+     * comparten un {@link HistoriaTextLoader}: leer los textos de la página
+     * completa cuesta una sola consulta adicional.
+     * </p>
+     *
+     * @param after   La última historia de la página anterior, o
+     *                <code>null</code> para la primera página.
+     * @param limit   Cantidad máxima de historias por página.
+     * @param deleted <code>false</code> para activas.
+     *                <code>true</code> para eliminadas.
+     * @return La página de historias clínicas.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Page<HistoriaClinica> selectPage(HistoriaClinica after, int limit, boolean deleted)
+            throws SQLException {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero.");
+        }
+
+        List<HistoriaClinica> historias = new ArrayList<>();
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.selectPage");
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(
+                        lazyTexts ? SELECT_PAGE_AFTER_HEADER_SQL : SELECT_PAGE_AFTER_SQL)) {
+
+            stmt.setBoolean(1, deleted); // Parámetro 1: hc.eliminado = ?
+            stmt.setInt(2, after != null ? after.getId() : 0); // Parámetro 2: hc.id > ?
+            stmt.setInt(3, limit + 1); // Una fila extra para saber si hay página siguiente
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    historias.add(lazyTexts ? mapHeader(rs) : mapEntity(rs));
+                }
+            }
+            evento.complete(historias.size());
+        } catch (SQLException e) {
+            throw new SQLException("Error al obtener la página de historias clínicas: " + e.getMessage(), e);
+        }
+
+        boolean hasNext = historias.size() > limit;
+        List<HistoriaClinica> pagina = hasNext ? historias.subList(0, limit) : historias;
+        if (lazyTexts) {
+            HistoriaTextLoader.attach(pagina); // Sin la fila extra
+        }
+        return new Page<>(pagina, hasNext);
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -462,7 +753,8 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
 
         List<HistoriaClinica> historias = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.searchByFilter");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(SEARCH_BY_FILTER_SQL)) {
 
             // Lógica de traducción de UI a BD (ej: "A+" -> "A_PLUS")
@@ -486,12 +778,46 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                     historias.add(mapEntity(rs));
                 }
             }
+            evento.complete(historias.size());
         } catch (SQLException e) {
             throw new SQLException("Error al buscar historias clínicas: " + e.getMessage(), e);
         }
         return historias;
     }
 
+    /**
+     * Obtiene varias historias clínicas <b>activas</b> por ID con consultas
+     * <code>WHERE hc.id IN (...)</code> por bloques (ver {@link InClause}), con
+     * una sola conexión.
+     * <p>
+     * Usado, entre otros, por el índice de búsqueda en memoria de
+     * {@link service.HistoriaClinicaService}, que resuelve la búsqueda de
+     * texto y solo consulta la BD para obtener los registros encontrados.
+     * </p>
+     *
+     * @param ids Los IDs a obtener (los repetidos se consultan una vez).
+     * @return Un mapa ID → HC, en el orden recibido. Los IDs inexistentes o
+     *         eliminados no aparecen en el mapa.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    public Map<Integer, HistoriaClinica> selectByIds(Collection<Integer> ids) throws SQLException {
+
+        List<Integer> claves = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, HistoriaClinica> encontradas = new LinkedHashMap<>();
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.selectByIds");
+                Connection conn = DatabaseConnection.getConnection()) {
+            InClause.query(conn, SELECT_BY_IDS_SQL, "", claves, PreparedStatement::setInt, rs -> {
+                HistoriaClinica historia = mapEntity(rs);
+                encontradas.put(historia.getId(), historia);
+            });
+            evento.complete(encontradas.size());
+        } catch (SQLException e) {
+            throw new SQLException("Error al obtener historias clínicas por IDs: " + e.getMessage(), e);
+        }
+        return InClause.inKeyOrder(claves, encontradas);
+    }
+
     /**
      * Busca una HistoriaClinica <b>activa</b> por <code>nroHistoria</code>
      * (coincidencia exacta).
@@ -507,16 +833,20 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
      */
     public HistoriaClinica selectByNroHistoria(String nroHistoria) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.selectByNroHistoria");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_NRO_HISTORIA_SQL)) {
 
             stmt.setString(1, nroHistoria);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapEntity(rs);
+                    HistoriaClinica historia = mapEntity(rs);
+                    evento.complete(1);
+                    return historia;
                 }
             }
+            evento.complete(0);
         } catch (SQLException e) {
             throw new SQLException("Error al seleccionar historia clínica por número de historia: " + e.getMessage(),
                     e);
@@ -524,6 +854,38 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
         return null;
     }
 
+    /**
+     * Indica si un número de historia ya está registrado (activo o
+     * eliminado), con una consulta liviana que solo lee el índice
+     * <code>UNIQUE</code> de <code>nro_historia</code>.
+     * <p>
+     * Pensado para que la UI avise de un número repetido antes de guardar. No
+     * garantiza la unicidad: la garantía es la restricción <code>UNIQUE</code>
+     * de la BD.
+     * </p>
+     *
+     * @param nroHistoria El número de historia exacto a buscar.
+     * @return <code>true</code> si existe una HC con ese número.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    public boolean existsByNroHistoria(String nroHistoria) throws SQLException {
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.existsByNroHistoria");
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(EXISTS_BY_NRO_HISTORIA_SQL)) {
+
+            stmt.setString(1, nroHistoria);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean existe = rs.next();
+                evento.complete(existe ? 1 : 0);
+                return existe;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error al verificar la existencia del número de historia: " + e.getMessage(), e);
+        }
+    }
+
     // ============ MÉTODOS HELPER (Mapeo y Parámetros) ============
     /**
      * {@inheritDoc}
@@ -549,20 +911,7 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
     public HistoriaClinica mapEntity(ResultSet rs) throws SQLException {
 
         // 1. Mapear GrupoSanguineo
-        GrupoSanguineo grupo = null;
-        String nombreEnum = rs.getString("nombre_enum");
-
-        if (nombreEnum != null) {
-            try {
-                // Convierte el String de la BD (ej: "A_PLUS") al Enum
-                grupo = GrupoSanguineo.valueOf(nombreEnum);
-
-            } catch (IllegalArgumentException e) {
-                // Log de advertencia si el valor de la BD no es un Enum válido
-                System.err.println("Advertencia: GrupoSanguineo inválido en BD: " + nombreEnum);
-                grupo = null;
-            }
-        }
+        GrupoSanguineo grupo = mapGrupoSanguineo(rs);
 
         // 2. Construye el objeto HC con el Enum (o null)
         return new HistoriaClinica(
@@ -574,6 +923,46 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
                 rs.getString("observaciones"));
     }
 
+    /**
+     * Mapea una fila de <code>SELECT_HEADER_SQL</code> (sin textos). El
+     * llamador debe asociar un {@link HistoriaTextLoader} a la historia.
+     *
+     * @param rs El ResultSet posicionado en la fila a mapear.
+     * @return La historia clínica con solo la cabecera.
+     * @throws SQLException Si una columna esperada no se encuentra.
+     */
+    private HistoriaClinica mapHeader(ResultSet rs) throws SQLException {
+        return new HistoriaClinica(
+                rs.getInt("id"),
+                rs.getString("nro_historia"),
+                mapGrupoSanguineo(rs),
+                null, null, null);
+    }
+
+    /**
+     * Convierte <code>gs.nombre_enum</code> (ej: "A_PLUS") al enum
+     * {@link GrupoSanguineo}.
+     *
+     * @param rs El ResultSet posicionado en la fila.
+     * @return El grupo sanguíneo, o <code>null</code> si la columna es NULL o
+     *         no corresponde a un valor válido (se informa una advertencia).
+     * @throws SQLException Si la columna no se encuentra.
+     */
+    private static GrupoSanguineo mapGrupoSanguineo(ResultSet rs) throws SQLException {
+        String nombreEnum = rs.getString("nombre_enum");
+        if (nombreEnum == null) {
+            return null;
+        }
+        try {
+            return GrupoSanguineo.valueOf(nombreEnum);
+
+        } catch (IllegalArgumentException e) {
+            // Log de advertencia si el valor de la BD no es un Enum válido
+            System.err.println("Advertencia: GrupoSanguineo inválido en BD: " + nombreEnum);
+            return null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -589,9 +978,11 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
      * 5: observaciones (String | NULL)
      * </p>
      * <p>
-     * Llama al helper <code>getGrupoSanguineoId()</code> para convertir el
-     * <code>Enum</code> en su <code>ID</code> de la tabla
-     * <code>GrupoSanguineo</code>.
+     * Usa el {@link GrupoSanguineoCatalog} para convertir el <code>Enum</code>
+     * en su <code>ID</code> de la tabla <code>GrupoSanguineo</code>. Si el
+     * catálogo aún no fue cargado, se carga una única vez con la misma conexión
+     * del <code>PreparedStatement</code> (dentro de la transacción del
+     * llamador, si la hay).
      * </p>
      *
      * @param stmt     El PreparedStatement (<code>INSERT</code> o
@@ -604,9 +995,9 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
 
         stmt.setString(1, historia.getNumeroHistoria());
 
-        // Obtiene el ID (Integer) del Enum (GrupoSanguineo)
+        // Obtiene el ID (Integer) del Enum (GrupoSanguineo) desde el catálogo en memoria
         stmt.setObject(2, historia.getGrupoSanguineo() != null
-                ? getGrupoSanguineoId(historia.getGrupoSanguineo())
+                ? grupoSanguineoCatalog.idOf(historia.getGrupoSanguineo(), stmt.getConnection())
                 : null, Types.INTEGER);
 
         stmt.setString(3, historia.getAntecedentes());
@@ -640,60 +1031,4 @@ public class HistoriaClinicaDAO implements GenericDAO<HistoriaClinica> {
         }
     }
 
-    /**
-     * Obtiene el ID (PK) de la tabla <code>GrupoSanguineo</code> basado en el
-     * nombre del <code>Enum</code>.
-     * <p>
-     * Ejecuta: <code>SELECT id FROM GrupoSanguineo WHERE nombre_enum = ?</code>
-     * </p>
-     *
-     * <p>
-     * <b>ADVERTENCIA DE DISEÑO (Performance y Transacciones):</b>
-     * Este método abre y cierra su <b>propia conexión</b> a la base de datos
-     * (<code>DatabaseConnection.getConnection()</code>).
-     * </p>
-     * <p>
-     * Esto significa que:
-     * 1. Es una consulta extra a la BD por cada <code>INSERT</code> o
-     * <code>UPDATE</code>.
-     * 2. Se ejecuta en una <b>conexión separada, no transaccional</b>, incluso si
-     * el método <code>setEntityParameters</code> fue llamado por
-     * <code>insertTx</code> o <code>updateTx</code>.
-     * </p>
-     * <p>
-     * <b>Solución Ideal (Refactorización Futura):</b> Este método debería aceptar
-     * una <code>Connection</code> como parámetro, la cual sería pasada desde
-     * <code>setEntityParameters</code>, que a su vez la recibiría de
-     * <code>insertTx/updateTx</code>.
-     * </p>
-     * <p>
-     * <b>Decisión (TPI):</b> Para el alcance de este proyecto, donde la
-     * concurrencia no es alta y la tabla <code>GrupoSanguineo</code> es pequeña y
-     * estática, esta implementación es <b>aceptable</b>.
-     * </p>
-     *
-     * @param grupo El <code>Enum</code> (ej: <code>GrupoSanguineo.A_PLUS</code>).
-     * @return El <code>Integer</code> ID (PK) de la tabla, o <code>null</code>
-     *         si no se encuentra.
-     * @throws SQLException Si ocurre un error de acceso a la base de datos.
-     */
-    private Integer getGrupoSanguineoId(GrupoSanguineo grupo) throws SQLException {
-
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(
-                        SELECT_BY_NOMBRE_ENUM_SQL)) {
-
-            stmt.setString(1, grupo.name()); // ej: "A_PLUS"
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("id");
-                }
-            }
-        }
-        // Si no se encuentra (no debería pasar si la BD está sincronizada
-        // con el Enum), retorna null.
-        return null;
-    }
-
 }
@@ -0,0 +1,120 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import config.DatabaseConnection;
+import exceptions.DataAccessException;
+import models.HistoriaClinica;
+
+/**
+ * Cargador <b>por lotes</b> de los textos diferidos de un listado de
+ * historias clínicas (ver "Carga diferida de textos" en
+ * {@link HistoriaClinica}).
+ * <p>
+ * {@link HistoriaClinicaDAO} crea un cargador por listado y lo asocia a todas
+ * sus historias. Cuando se usa el primer getter de texto de cualquiera de
+ * ellas, el cargador lee los textos de <b>todo</b> el listado con consultas
+ * <code>WHERE id IN (...)</code> (ver {@link InClause}): una página de 50
+ * historias necesita una sola consulta adicional, no 50. Los textos quedan en
+ * el mapa (pedir dos veces los de una historia devuelve lo mismo) y se liberan
+ * junto con el cargador, cuando ninguna historia lo referencia.
+ * </p>
+ *
+ * @author alpha team
+ * @see HistoriaClinicaDAO#selectPage(HistoriaClinica, int, boolean)
+ */
+final class HistoriaTextLoader implements HistoriaClinica.TextLoader {
+
+    /**
+     * Prefijo de la consulta de textos por varios IDs (incluye eliminadas:
+     * el listado puede ser de la papelera).
+     */
+    private static final String SELECT_TEXTS_BY_IDS_SQL = "SELECT id, antecedentes, medicacion_actual, observaciones "
+            + "FROM HistoriaClinica WHERE id IN ";
+
+    /**
+     * Textos para historias que ya no existen (borradas físicamente entre el
+     * listado y la carga).
+     */
+    private static final HistoriaClinica.Textos SIN_TEXTOS = new HistoriaClinica.Textos(null, null, null);
+
+    private final List<Integer> ids;
+
+    /**
+     * Textos leídos, o <code>null</code> antes de la primera carga.
+     */
+    private Map<Integer, HistoriaClinica.Textos> textos;
+
+    private HistoriaTextLoader(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Difiere los textos de todas las historias del listado a un único
+     * cargador compartido.
+     *
+     * @param historias Las historias del listado (solo con la cabecera).
+     */
+    static void attach(List<HistoriaClinica> historias) {
+        if (historias.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(historias.size());
+        for (HistoriaClinica historia : historias) {
+            ids.add(historia.getId());
+        }
+
+        HistoriaTextLoader loader = new HistoriaTextLoader(ids);
+        for (HistoriaClinica historia : historias) {
+            historia.deferTexts(loader);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * La primera llamada lee los textos de todo el listado.
+     * </p>
+     *
+     * @throws DataAccessException Si falla la lectura.
+     */
+    @Override
+    public synchronized HistoriaClinica.Textos load(int id) {
+        if (textos == null) {
+            textos = selectTexts();
+        }
+        HistoriaClinica.Textos encontrados = textos.get(id);
+        return encontrados != null ? encontrados : SIN_TEXTOS;
+    }
+
+    /**
+     * Lee los textos de todas las historias del listado.
+     *
+     * @return Un mapa ID → textos.
+     * @throws DataAccessException Si ocurre un error de acceso a datos.
+     */
+    private Map<Integer, HistoriaClinica.Textos> selectTexts() {
+
+        Map<Integer, HistoriaClinica.Textos> leidos = new HashMap<>();
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("HistoriaClinica.selectTexts");
+                Connection conn = DatabaseConnection.getConnection()) {
+            InClause.query(conn, SELECT_TEXTS_BY_IDS_SQL, "", ids, PreparedStatement::setInt,
+                    rs -> leidos.put(rs.getInt("id"), new HistoriaClinica.Textos(
+                            rs.getString("antecedentes"),
+                            rs.getString("medicacion_actual"),
+                            rs.getString("observaciones"))));
+            evento.complete(leidos.size());
+        } catch (SQLException e) {
+            throw new DataAccessException("Error al cargar los textos de las historias clínicas: "
+                    + e.getMessage(), e);
+        }
+        return leidos;
+    }
+}
@@ -0,0 +1,193 @@
+package dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilidad interna de los DAOs para consultas por muchas claves con
+ * <code>WHERE col IN (?, ?, ...)</code>.
+ * <p>
+ * Las claves se consultan en bloques de hasta {@value #MAX_SIZE}. Cada bloque
+ * se <b>rellena</b> (repitiendo su última clave, lo que no altera el resultado
+ * de un <code>IN</code>) hasta la potencia de 2 inmediata superior, de modo
+ * que solo existen {@value #SIZE_COUNT} textos SQL distintos por consulta
+ * (1, 2, 4, ... {@value #MAX_SIZE} parámetros):
+ * </p>
+ * <ul>
+ * <li>Dentro de una llamada, cada <code>PreparedStatement</code> se prepara
+ * una sola vez por tamaño y se reutiliza en los bloques siguientes.</li>
+ * <li>Entre llamadas, el texto SQL se repite, lo que aprovecha las cachés de
+ * sentencias del driver y del servidor.</li>
+ * </ul>
+ *
+ * <h3>Transacciones:</h3>
+ * <p>
+ * Igual que {@link BatchSupport}, estos métodos <b>NO</b> abren ni cierran la
+ * conexión.
+ * </p>
+ *
+ * @author alpha team
+ * @see PacienteDAO#selectByIds(java.util.Collection)
+ * @see HistoriaClinicaDAO#selectByIds(java.util.Collection)
+ */
+final class InClause {
+
+    /**
+     * Máximo de claves por consulta.
+     */
+    static final int MAX_SIZE = 256;
+
+    /**
+     * Cantidad de tamaños de bloque posibles (potencias de 2 hasta
+     * {@value #MAX_SIZE}).
+     */
+    static final int SIZE_COUNT = 9;
+
+    /**
+     * Establece una clave como parámetro de la consulta.
+     *
+     * @param <K> Tipo de la clave.
+     */
+    @FunctionalInterface
+    interface KeyBinder<K> {
+
+        /**
+         * Establece el parámetro <code>index</code> con la clave.
+         *
+         * @param stmt  El PreparedStatement del bloque.
+         * @param index Posición del parámetro (base 1).
+         * @param key   La clave.
+         * @throws SQLException Si ocurre un error al establecer el parámetro.
+         */
+        void bind(PreparedStatement stmt, int index, K key) throws SQLException;
+    }
+
+    /**
+     * Procesa cada fila devuelta.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+
+        /**
+         * Procesa la fila actual del <code>ResultSet</code>.
+         *
+         * @param rs El ResultSet posicionado en la fila.
+         * @throws SQLException Si ocurre un error al leer la fila.
+         */
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private InClause() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Ejecuta <code>sqlPrefix + "(?, ..., ?)" + sqlSuffix</code> por bloques
+     * de claves y entrega cada fila al <code>handler</code>.
+     *
+     * @param <K>       Tipo de la clave.
+     * @param conn      La conexión (no se cierra).
+     * @param sqlPrefix El SQL hasta <code>IN</code> inclusive (ej:
+     *                  <code>"... WHERE p.id IN "</code>).
+     * @param sqlSuffix El SQL posterior a la lista (puede ser vacío).
+     * @param keys      Las claves, sin repetir (ni <code>null</code>).
+     * @param binder    Función que establece cada clave como parámetro.
+     * @param handler   Función que procesa cada fila.
+     * @throws SQLException Si falla alguna consulta.
+     */
+    static <K> void query(Connection conn, String sqlPrefix, String sqlSuffix, List<K> keys,
+            KeyBinder<K> binder, RowHandler handler) throws SQLException {
+
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        // Una sentencia por tamaño de bloque, reutilizada en toda la llamada
+        Map<Integer, PreparedStatement> sentencias = new HashMap<>();
+
+        try {
+            for (int desde = 0; desde < keys.size(); desde += MAX_SIZE) {
+                List<K> bloque = keys.subList(desde, Math.min(desde + MAX_SIZE, keys.size()));
+                int tamanio = paddedSize(bloque.size());
+
+                PreparedStatement stmt = sentencias.get(tamanio);
+                if (stmt == null) {
+                    stmt = conn.prepareStatement(sqlPrefix + placeholders(tamanio) + sqlSuffix);
+                    sentencias.put(tamanio, stmt);
+                }
+
+                for (int i = 0; i < tamanio; i++) {
+                    // Relleno: se repite la última clave del bloque
+                    binder.bind(stmt, i + 1, bloque.get(Math.min(i, bloque.size() - 1)));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(rs);
+                    }
+                }
+            }
+        } finally {
+            for (PreparedStatement stmt : sentencias.values()) {
+                stmt.close();
+            }
+        }
+    }
+
+    /**
+     * Reordena los resultados de una consulta por claves según el orden en
+     * que se pidieron (la BD los devuelve en el orden de su plan).
+     *
+     * @param <K>         Tipo de la clave.
+     * @param <T>         Tipo de la entidad.
+     * @param keys        Las claves pedidas, en orden.
+     * @param encontrados Los resultados por clave.
+     * @return Los resultados en el orden de <code>keys</code> (sin las claves
+     *         no encontradas).
+     */
+    static <K, T> Map<K, T> inKeyOrder(List<K> keys, Map<K, T> encontrados) {
+        Map<K, T> ordenados = new LinkedHashMap<>();
+        for (K key : keys) {
+            T valor = encontrados.get(key);
+            if (valor != null) {
+                ordenados.put(key, valor);
+            }
+        }
+        return ordenados;
+    }
+
+    /**
+     * Devuelve la potencia de 2 inmediata superior (o igual) a
+     * <code>count</code>, acotada a {@value #MAX_SIZE}.
+     *
+     * @param count Cantidad de claves del bloque (entre 1 y
+     *              {@value #MAX_SIZE}).
+     * @return El tamaño del bloque con relleno.
+     */
+    static int paddedSize(int count) {
+        int tamanio = 1;
+        while (tamanio < count) {
+            tamanio <<= 1;
+        }
+        return Math.min(tamanio, MAX_SIZE);
+    }
+
+    /**
+     * Genera la lista de parámetros <code>(?, ?, ..., ?)</code>.
+     *
+     * @param count Cantidad de parámetros.
+     * @return La lista entre paréntesis.
+     */
+    private static String placeholders(int count) {
+        return "(" + "?, ".repeat(count - 1) + "?)";
+    }
+}
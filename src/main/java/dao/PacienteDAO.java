@@ -8,12 +8,18 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import config.DatabaseConnection;
 import models.GrupoSanguineo;
 import models.HistoriaClinica;
 import models.Paciente;
+import models.PacienteResumen;
 
 /**
  * Data Access Object (DAO) para la entidad Paciente (Entidad "A").
@@ -35,6 +41,9 @@ import models.Paciente;
  * <code>insertTx</code>) que aceptan una {@link Connection} externa.</li>
  * <li>Mapear <code>ResultSet</code> a objetos <code>Paciente</code> (incluyendo
  * la HC anidada).</li>
+ * <li>Proveer una <b>proyección</b> liviana ({@link PacienteResumen}) para los
+ * listados, con consultas que no traen las columnas <code>TEXT</code> de la
+ * HC.</li>
  * </ul>
  *
  * <h3>Patrón de Diseño:</h3>
@@ -125,6 +134,31 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 LEFT JOIN GrupoSanguineo gs ON hc.grupo_sanguineo_id = gs.id
             """;
 
+    /**
+     * <b>Consulta Base de los listados (proyección)</b>
+     * <p>
+     * Versión angosta de <code>SELECT_SQL</code> para {@link PacienteResumen}:
+     * de la HC solo trae el ID, el número y el grupo sanguíneo, sin las
+     * columnas <code>TEXT</code> (antecedentes, medicación, observaciones),
+     * que pueden ocupar varios KB por fila. La usan el listado paginado y la
+     * búsqueda por nombre.
+     * </p>
+     */
+    private static final String SELECT_RESUMEN_SQL = """
+                SELECT
+                    p.id AS paciente_id,
+                    p.nombre,
+                    p.apellido,
+                    p.dni,
+                    p.fecha_nacimiento,
+                    hc.id AS hc_id,
+                    hc.nro_historia,
+                    gs.nombre_enum
+                FROM Paciente p
+                LEFT JOIN HistoriaClinica hc ON p.historia_clinica_id = hc.id
+                LEFT JOIN GrupoSanguineo gs ON hc.grupo_sanguineo_id = gs.id
+            """;
+
     /**
      * Query para obtener un Paciente por ID y estado de eliminación.
      * Concatena la consulta base <code>SELECT_SQL</code>.
@@ -143,11 +177,45 @@ public class PacienteDAO implements GenericDAO<Paciente> {
             """;
 
     /**
-     * Query para buscar Pacientes (activos) por filtro de texto.
-     * Concatena la consulta base <code>SELECT_SQL</code>.
-     * Busca con <code>LIKE</code> en nombre y apellido.
+     * Condición para obtener la <b>primera página</b> de Pacientes (paginación
+     * por clave). Orden total por (apellido, nombre, id).
+     * Se concatena a <code>SELECT_SQL</code> o a
+     * <code>SELECT_RESUMEN_SQL</code>.
+     */
+    private static final String FIRST_PAGE_WHERE = """
+                WHERE p.eliminado = ?
+                ORDER BY p.apellido, p.nombre, p.id
+                LIMIT ?
+            """;
+
+    /**
+     * Condición para obtener la página <b>siguiente</b> a una clave
+     * (apellido, nombre, id) dada (paginación por clave / seek).
+     * <p>
+     * La comparación de fila <code>(a, b, c) &gt; (?, ?, ?)</code> es exacta; el
+     * predicado redundante <code>p.apellido &gt;= ?</code> garantiza que el
+     * optimizador use un rango del índice
+     * <code>idx_paciente_eliminado_apellido_nombre</code> (ver
+     * <code>04_indices.sql</code>) en lugar de recorrer las filas previas.
+     * </p>
+     */
+    private static final String PAGE_AFTER_WHERE = """
+                WHERE p.eliminado = ?
+                    AND p.apellido >= ?
+                    AND (p.apellido, p.nombre, p.id) > (?, ?, ?)
+                ORDER BY p.apellido, p.nombre, p.id
+                LIMIT ?
+            """;
+
+    /**
+     * Condición de respaldo para buscar Pacientes (activos) por filtro de texto
+     * ({@link SearchMode#SCAN}).
+     * Se concatena a <code>SELECT_SQL</code> o a <code>SELECT_RESUMEN_SQL</code>.
+     * Busca con <code>LIKE '%filtro%'</code> en nombre y apellido: el comodín
+     * inicial impide usar índices (recorrido completo de la tabla). Solo se usa
+     * si el índice <code>FULLTEXT</code> no existe en la BD.
      */
-    private static final String SEARCH_BY_FILTER_SQL = SELECT_SQL + """
+    private static final String SEARCH_BY_FILTER_WHERE = """
                 WHERE p.eliminado = FALSE
                 AND (
                     LOWER(p.nombre) LIKE LOWER(?)
@@ -156,27 +224,117 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 ORDER BY p.apellido, p.nombre
             """;
 
+    /**
+     * Condición para buscar Pacientes (activos) por prefijo
+     * ({@link SearchMode#PREFIX}).
+     * Se concatena a <code>SELECT_SQL</code> o a <code>SELECT_RESUMEN_SQL</code>.
+     * <code>LIKE 'filtro%'</code> sin <code>LOWER()</code> sobre las columnas
+     * (la collation ya es insensible a mayúsculas), por lo que MySQL resuelve
+     * cada condición con un rango sobre los índices
+     * <code>(eliminado, apellido, nombre)</code> y
+     * <code>(eliminado, nombre)</code>.
+     */
+    private static final String SEARCH_BY_PREFIX_WHERE = """
+                WHERE p.eliminado = FALSE
+                AND (
+                    p.apellido LIKE ? ESCAPE '!'
+                    OR p.nombre LIKE ? ESCAPE '!'
+                )
+                ORDER BY p.apellido, p.nombre
+            """;
+
+    /**
+     * Condición para buscar Pacientes (activos) por subcadena
+     * ({@link SearchMode#FULLTEXT}).
+     * Se concatena a <code>SELECT_SQL</code> o a <code>SELECT_RESUMEN_SQL</code>.
+     * Usa el índice <code>ftx_paciente_nombre_apellido</code> (parser ngram)
+     * en modo booleano.
+     */
+    private static final String SEARCH_BY_FULLTEXT_WHERE = """
+                WHERE p.eliminado = FALSE
+                AND MATCH(p.nombre, p.apellido) AGAINST (? IN BOOLEAN MODE)
+                ORDER BY p.apellido, p.nombre
+            """;
+
+    /**
+     * Código de error de MySQL "Can't find FULLTEXT index matching the column
+     * list" (ER_FT_MATCHING_KEY_NOT_FOUND).
+     */
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+
     /**
      * Query para buscar un Paciente (activo) por DNI exacto.
      * Concatena la consulta base <code>SELECT_SQL</code>.
-     * Usado para la validación de unicidad (RN-002) en el Service.
      */
     private static final String SELECT_BY_DNI_SQL = SELECT_SQL + """
                 WHERE p.dni = ? AND p.eliminado = FALSE
             """;
 
     /**
-     * Dependencia inyectada, aunque no se use directamente en este DAO,
-     * es una práctica común en el patrón de inyección de dependencias.
+     * Prefijo de la consulta de pacientes activos por varios IDs (la lista
+     * <code>(?, ...)</code> la agrega {@link InClause}).
+     */
+    private static final String SELECT_BY_IDS_SQL = SELECT_SQL
+            + "WHERE p.eliminado = FALSE AND p.id IN ";
+
+    /**
+     * Prefijo de la consulta de pacientes activos por varios DNI.
+     */
+    private static final String SELECT_BY_DNIS_SQL = SELECT_SQL
+            + "WHERE p.eliminado = FALSE AND p.dni IN ";
+
+    /**
+     * Query liviana para saber si un DNI ya está registrado (sin JOINs ni
+     * columnas). Incluye pacientes eliminados, igual que la restricción
+     * <code>UNIQUE</code> de la columna <code>dni</code>.
+     */
+    private static final String EXISTS_BY_DNI_SQL = """
+                SELECT 1 FROM Paciente WHERE dni = ? LIMIT 1
+            """;
+
+    /**
+     * Indica si la BD tiene el índice <code>FULLTEXT</code> de búsqueda.
+     * Se apaga (una sola vez) si MySQL responde con el error
+     * {@value #ER_FT_MATCHING_KEY_NOT_FOUND}; a partir de entonces las
+     * búsquedas de subcadena usan {@link SearchMode#SCAN} sin reintentar.
+     */
+    private volatile boolean fullTextAvailable = true;
+
+    /**
+     * Llamada al procedimiento almacenado que inserta una HC nueva y su
+     * Paciente en un solo viaje (ver <code>05_procedimientos.sql</code>).
+     * Parámetros: los 5 campos de la HC y luego nombre, apellido, DNI y fecha
+     * de nacimiento. Devuelve una fila <code>(historia_id, paciente_id)</code>.
+     */
+    private static final String CALL_INSERT_CON_HISTORIA_SQL = """
+                CALL sp_insertar_paciente_con_historia(?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Código de error de MySQL "PROCEDURE does not exist"
+     * (ER_SP_DOES_NOT_EXIST).
+     */
+    private static final int ER_SP_DOES_NOT_EXIST = 1305;
+
+    /**
+     * Indica si la BD tiene el procedimiento de alta en un viaje. Se apaga
+     * (una sola vez) si MySQL responde con el error
+     * {@value #ER_SP_DOES_NOT_EXIST}; a partir de entonces
+     * {@link #insertWithHistoria(Paciente, Connection)} devuelve
+     * <code>false</code> sin reintentar.
+     */
+    private volatile boolean insertProcedureAvailable = true;
+
+    /**
+     * DAO de HistoriaClinica (inyectado): se reutiliza su mapeo de parámetros
+     * en el alta de un paciente con su HC en un solo viaje.
      */
     private final HistoriaClinicaDAO historiaClinicaDAO;
 
     /**
      * Constructor con Inyección de Dependencias.
      *
-     * @param historiaClinicaDAO Una instancia de {@link HistoriaClinicaDAO}
-     *                           (aunque no se use activamente en esta clase, se
-     *                           inyecta para seguir el patrón).
+     * @param historiaClinicaDAO Una instancia de {@link HistoriaClinicaDAO}.
      */
     public PacienteDAO(HistoriaClinicaDAO historiaClinicaDAO) {
         this.historiaClinicaDAO = historiaClinicaDAO;
@@ -197,7 +355,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
     public void insert(Paciente paciente) throws SQLException {
 
         // try-with-resources asegura que conn y stmt se cierren
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.insert");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(
                         INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -208,6 +367,7 @@ public class PacienteDAO implements GenericDAO<Paciente> {
 
             // Sincroniza el ID de la BD con el objeto Java
             setGeneratedId(stmt, paciente);
+            evento.complete(1);
         }
     }
 
@@ -227,16 +387,83 @@ public class PacienteDAO implements GenericDAO<Paciente> {
 
         // try-with-resources solo para PreparedStatement.
         // NO se cierra la 'conn', es gestionada por el TransactionManager.
-        try (PreparedStatement stmt = conn.prepareStatement(
-                INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.insertTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(
+                        INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
             setEntityParameters(stmt, paciente);
             stmt.executeUpdate();
             setGeneratedId(stmt, paciente);
+            evento.complete(1);
         }
         // La SQLException se propaga hacia el Service, que hará rollback.
     }
 
+    /**
+     * Inserta un paciente y su HistoriaClinica <b>nueva</b> en un solo viaje a
+     * la BD, llamando al procedimiento
+     * <code>sp_insertar_paciente_con_historia</code>.
+     * <p>
+     * El procedimiento encadena el ID de la HC con <code>LAST_INSERT_ID()</code>
+     * y confirma (o revierte) ambas filas en su propia transacción, por lo que
+     * la conexión debe estar en <code>autoCommit=true</code>. Si la BD no tiene
+     * el procedimiento, no inserta nada y devuelve <code>false</code> (el
+     * llamador debe usar los métodos <code>*Tx</code>).
+     * </p>
+     *
+     * @param paciente El paciente a insertar (con <code>id=0</code>) y con su
+     *                 HC nueva (con <code>id=0</code>).
+     * @param conn     La conexión (no se cierra).
+     * @return <code>true</code> si se insertó; <code>false</code> si el
+     *         procedimiento no existe.
+     * @throws SQLException Si falla la inserción (ej: DNI duplicado).
+     */
+    public boolean insertWithHistoria(Paciente paciente, Connection conn) throws SQLException {
+
+        if (!insertProcedureAvailable) {
+            return false;
+        }
+
+        DaoQueryEvent evento = DaoQueryEvent.start("Paciente.insertWithHistoria", conn);
+        HistoriaClinica historia = paciente.getHistoriaClinica();
+
+        try (PreparedStatement stmt = conn.prepareStatement(CALL_INSERT_CON_HISTORIA_SQL)) {
+
+            // Parámetros 1 a 5: la HC (mismo mapeo que HistoriaClinicaDAO.insert)
+            historiaClinicaDAO.setEntityParameters(stmt, historia);
+
+            // Parámetros 6 a 9: el paciente (la FK la resuelve el procedimiento)
+            stmt.setString(6, paciente.getNombre());
+            stmt.setString(7, paciente.getApellido());
+            stmt.setString(8, paciente.getDni());
+            if (paciente.getFechaNacimiento() != null) {
+                stmt.setDate(9, Date.valueOf(paciente.getFechaNacimiento()));
+            } else {
+                stmt.setNull(9, Types.DATE);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("La inserción del paciente falló, el procedimiento no devolvió los IDs.");
+                }
+                historia.setId(rs.getInt("historia_id"));
+                paciente.setId(rs.getInt("paciente_id"));
+            }
+            evento.complete(2);
+            return true;
+
+        } catch (SQLException e) {
+            if (!isMissingProcedure(e)) {
+                throw e;
+            }
+            insertProcedureAvailable = false;
+            evento.complete(0); // Falta el procedimiento: no es una operación fallida
+            return false;
+        } finally {
+            evento.close();
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -249,7 +476,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
      */
     @Override
     public void update(Paciente paciente) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.update");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
 
             setEntityParameters(stmt, paciente);
@@ -261,6 +489,7 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error al actualizar: No se encontró Paciente con ID: " + paciente.getId());
             }
+            evento.complete(rowsAffected);
         }
     }
 
@@ -278,7 +507,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
      */
     @Override
     public void updateTx(Paciente paciente, Connection conn) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.updateTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
 
             setEntityParameters(stmt, paciente);
             stmt.setInt(6, paciente.getId()); // Parámetro 6 para "WHERE id = ?"
@@ -289,10 +519,53 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error en updateTx: No se encontró Paciente con ID: " + paciente.getId());
             }
+            evento.complete(rowsAffected);
+        }
+        // La SQLException se propaga hacia el Service, que hará rollback.
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reutiliza <code>INSERT_SQL</code> y <code>setEntityParameters</code>; ver
+     * {@link BatchSupport} para los detalles del envío por lotes.
+     * </p>
+     *
+     * @param pacientes Las entidades a insertar (con <code>id=0</code>).
+     * @param conn      La conexión transaccional (con autoCommit=false).
+     * @throws SQLException Si falla algún lote (ej: clave duplicada).
+     */
+    @Override
+    public void insertBatch(List<Paciente> pacientes, Connection conn) throws SQLException {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.insertBatch", conn)) {
+            BatchSupport.insertBatch(conn, INSERT_SQL, pacientes, this::setEntityParameters, "Paciente");
+            evento.complete(pacientes == null ? 0 : pacientes.size());
         }
         // La SQLException se propaga hacia el Service, que hará rollback.
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reutiliza <code>UPDATE_SQL</code> y <code>setEntityParameters</code>
+     * (parámetro 6 para "WHERE id = ?").
+     * </p>
+     *
+     * @param pacientes Las entidades con los datos actualizados.
+     * @param conn      La conexión transaccional (con autoCommit=false).
+     * @throws SQLException Si algún ID no se encuentra o falla algún lote.
+     */
+    @Override
+    public void updateBatch(List<Paciente> pacientes, Connection conn) throws SQLException {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.updateBatch", conn)) {
+            BatchSupport.updateBatch(conn, UPDATE_SQL, pacientes, (stmt, paciente) -> {
+                setEntityParameters(stmt, paciente);
+                stmt.setInt(6, paciente.getId());
+            }, "Paciente");
+            evento.complete(pacientes == null ? 0 : pacientes.size());
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -306,7 +579,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
     @Override
     public void delete(int id) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.delete");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
             stmt.setInt(1, id);
@@ -317,6 +591,7 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error al eliminar: No se encontró Paciente con ID: " + id);
             }
+            evento.complete(rowsAffected);
         }
     }
 
@@ -334,7 +609,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
      */
     @Override
     public void deleteTx(int id, Connection conn) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.deleteTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
             stmt.setInt(1, id);
 
@@ -344,6 +620,7 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 // Lanza error si el ID no existía o ya estaba eliminado
                 throw new SQLException("Error en deleteTx: No se encontró Paciente con ID: " + id);
             }
+            evento.complete(rowsAffected);
         }
         // La SQLException se propaga hacia el Service, que hará rollback.
     }
@@ -360,7 +637,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
     @Override
     public void recover(int id) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.recover");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(RECOVER_SQL)) {
 
             stmt.setInt(1, id);
@@ -371,9 +649,41 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 // Lanza error si el ID no existía o ya estaba activo
                 throw new SQLException("Error al recuperar: No se encontró Paciente eliminado con ID: " + id);
             }
+            evento.complete(rowsAffected);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Esta versión <b>SÍ</b> es transaccional. Utiliza la {@link Connection}
+     * proveída por la capa de Servicio.
+     * </p>
+     *
+     * @param id   El ID de la entidad a recuperar.
+     * @param conn La conexión transaccional (con autoCommit=false).
+     * @throws SQLException Si el ID no se encuentra (rowsAffected=0) o
+     *                      si falla la actualización.
+     */
+    @Override
+    public void recoverTx(int id, Connection conn) throws SQLException {
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.recoverTx", conn);
+                PreparedStatement stmt = conn.prepareStatement(RECOVER_SQL)) {
+
+            stmt.setInt(1, id);
+
+            int rowsAffected = stmt.executeUpdate();
+
+            if (rowsAffected == 0) {
+                // Lanza error si el ID no existía o ya estaba activo
+                throw new SQLException("Error en recoverTx: No se encontró Paciente eliminado con ID: " + id);
+            }
+            evento.complete(rowsAffected);
+        }
+        // La SQLException se propaga hacia el Service, que hará rollback.
+    }
+
     // ============ MÉTODOS SELECT (Lectura) ============
     /**
      * {@inheritDoc}
@@ -394,7 +704,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
     @Override
     public Paciente selectByIdWithStatus(int id, boolean deleted) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.selectByIdWithStatus");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
 
             stmt.setInt(1, id); // Parámetro 1: p.id = ?
@@ -402,9 +713,12 @@ public class PacienteDAO implements GenericDAO<Paciente> {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapEntity(rs);
+                    Paciente paciente = mapEntity(rs);
+                    evento.complete(1);
+                    return paciente;
                 }
             }
+            evento.complete(0);
         } catch (SQLException e) {
             throw new SQLException("Error al seleccionar paciente por ID: " + e.getMessage(), e);
         }
@@ -427,7 +741,8 @@ public class PacienteDAO implements GenericDAO<Paciente> {
 
         List<Paciente> pacientes = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.selectAllWithStatus");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_SQL)) {
 
             stmt.setBoolean(1, deleted); // Parámetro para p.eliminado = ?
@@ -439,6 +754,7 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                     pacientes.add(mapEntity(rs));
                 }
             }
+            evento.complete(pacientes.size());
         } catch (SQLException e) {
             throw new SQLException("Error al seleccionar todos los pacientes: " + e.getMessage(), e);
         }
@@ -448,8 +764,124 @@ public class PacienteDAO implements GenericDAO<Paciente> {
     /**
      * {@inheritDoc}
      * <p>
-     * Busca en las columnas <code>nombre</code> y <code>apellido</code> usando
-     * <code>LIKE '%filtro%'</code>. Solo busca en pacientes <b>activos</b>.
+     * Reutiliza <code>SELECT_ALL_SQL</code> y <code>mapEntity</code>; ver
+     * {@link CursorStreams} para los detalles del cursor del servidor.
+     * </p>
+     *
+     * @param deleted <code>false</code> para activas.
+     *                <code>true</code> para eliminadas.
+     * @return Stream de pacientes (debe cerrarse).
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Stream<Paciente> streamAllWithStatus(boolean deleted) throws SQLException {
+        return CursorStreams.stream("Paciente.streamAllWithStatus", SELECT_ALL_SQL,
+                stmt -> stmt.setBoolean(1, deleted), // Parámetro para p.eliminado = ?
+                this::mapEntity,
+                "Error al recorrer todos los pacientes");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ordena por (apellido, nombre, id). Pide <code>limit + 1</code> filas: si
+     * llega la fila extra, existe una página siguiente (y se descarta).
+     * </p>
+     *
+     * @param after   El último paciente de la página anterior, o
+     *                <code>null</code> para la primera página.
+     * @param limit   Cantidad máxima de pacientes por página.
+     * @param deleted <code>false</code> para activos.
+     *                <code>true</code> para eliminados.
+     * @return La página de pacientes.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    @Override
+    public Page<Paciente> selectPage(Paciente after, int limit, boolean deleted) throws SQLException {
+        return selectPage("Paciente.selectPage", SELECT_SQL, this::mapEntity,
+                after != null ? PacienteResumen.of(after) : null, limit, deleted);
+    }
+
+    /**
+     * Obtiene una página del listado de pacientes como {@link PacienteResumen}
+     * (misma paginación por clave que {@link #selectPage}, con
+     * <code>SELECT_RESUMEN_SQL</code>: sin las columnas <code>TEXT</code> de
+     * la HC).
+     *
+     * @param after   El último resumen de la página anterior, o
+     *                <code>null</code> para la primera página.
+     * @param limit   Cantidad máxima de pacientes por página.
+     * @param deleted <code>false</code> para activos.
+     *                <code>true</code> para eliminados.
+     * @return La página de resúmenes.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    public Page<PacienteResumen> selectResumenPage(PacienteResumen after, int limit, boolean deleted)
+            throws SQLException {
+        return selectPage("Paciente.selectResumenPage", SELECT_RESUMEN_SQL, PacienteDAO::mapResumen,
+                after, limit, deleted);
+    }
+
+    /**
+     * Ejecuta la paginación por clave con la consulta base y el mapeo de la
+     * proyección pedida.
+     *
+     * @param <T>       Tipo de la fila (entidad o resumen).
+     * @param sqlId     Identificador de la consulta (ver {@link DaoQueryEvent}).
+     * @param selectSql La consulta base (<code>SELECT_SQL</code> o
+     *                  <code>SELECT_RESUMEN_SQL</code>).
+     * @param mapper    El mapeo de cada fila.
+     * @param after     La clave (apellido, nombre, id) de la última fila de
+     *                  la página anterior, o <code>null</code>.
+     * @param limit     Cantidad máxima de filas por página.
+     * @param deleted   Estado de eliminación.
+     * @return La página.
+     * @throws SQLException Si ocurre un error al ejecutar la consulta.
+     */
+    private <T> Page<T> selectPage(String sqlId, String selectSql, CursorStreams.RowMapper<T> mapper,
+            PacienteResumen after, int limit, boolean deleted) throws SQLException {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero.");
+        }
+
+        List<T> filas = new ArrayList<>();
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start(sqlId);
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(
+                        selectSql + (after == null ? FIRST_PAGE_WHERE : PAGE_AFTER_WHERE))) {
+
+            int i = 1;
+            stmt.setBoolean(i++, deleted); // Parámetro para p.eliminado = ?
+            if (after != null) {
+                // Clave de la última fila de la página anterior
+                stmt.setString(i++, after.apellido());
+                stmt.setString(i++, after.apellido());
+                stmt.setString(i++, after.nombre());
+                stmt.setInt(i++, after.id());
+            }
+            stmt.setInt(i, limit + 1); // Una fila extra para saber si hay página siguiente
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    filas.add(mapper.map(rs));
+                }
+            }
+            evento.complete(filas.size());
+        } catch (SQLException e) {
+            throw new SQLException("Error al obtener la página de pacientes: " + e.getMessage(), e);
+        }
+
+        boolean hasNext = filas.size() > limit;
+        return new Page<>(hasNext ? filas.subList(0, limit) : filas, hasNext);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Busca en las columnas <code>nombre</code> y <code>apellido</code>. Solo
+     * busca en pacientes <b>activos</b>. Delega en {@link #search(String)}.
      * </p>
      * 
      * @param filter filtro de búsqueda.
@@ -458,29 +890,206 @@ public class PacienteDAO implements GenericDAO<Paciente> {
      */
     @Override
     public List<Paciente> searchByFilter(String filter) throws SQLException {
+        return search(filter).items();
+    }
 
-        List<Paciente> pacientes = new ArrayList<>();
+    /**
+     * Busca pacientes <b>activos</b> por nombre o apellido eligiendo el camino
+     * de acceso según la forma del filtro ({@link SearchMode#forFilter}).
+     * <ul>
+     * <li>{@link SearchMode#PREFIX} ("Gonz*" o una sola letra): coincidencia
+     * al inicio de nombre o apellido, resuelta con índices B-tree.</li>
+     * <li>{@link SearchMode#FULLTEXT} (resto de los casos): coincidencia en
+     * cualquier posición, resuelta con el índice <code>FULLTEXT</code> ngram.
+     * Si el filtro tiene varias palabras, <b>todas</b> deben aparecer.</li>
+     * <li>{@link SearchMode#SCAN}: respaldo si la BD no tiene el índice
+     * <code>FULLTEXT</code> (ver <code>04_indices.sql</code>).</li>
+     * </ul>
+     *
+     * @param filter filtro de búsqueda (no nulo ni vacío).
+     * @return Los pacientes encontrados y el modo de búsqueda utilizado.
+     * @throws SQLException Si ocurre un error durante la operación.
+     */
+    public SearchResult<Paciente> search(String filter) throws SQLException {
+        return search("Paciente.search", filter, SELECT_SQL, this::mapEntity);
+    }
+
+    /**
+     * Igual que {@link #search(String)}, pero devuelve cada paciente como
+     * {@link PacienteResumen} (consulta <code>SELECT_RESUMEN_SQL</code>, sin
+     * las columnas <code>TEXT</code> de la HC). La usan los listados de
+     * resultados.
+     *
+     * @param filter filtro de búsqueda (no nulo ni vacío).
+     * @return Los resúmenes encontrados y el modo de búsqueda utilizado.
+     * @throws SQLException Si ocurre un error durante la operación.
+     */
+    public SearchResult<PacienteResumen> searchResumen(String filter) throws SQLException {
+        return search("Paciente.searchResumen", filter, SELECT_RESUMEN_SQL, PacienteDAO::mapResumen);
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(SEARCH_BY_FILTER_SQL)) {
+    /**
+     * Elige el camino de acceso de la búsqueda (ver {@link #search(String)})
+     * y la ejecuta con la consulta base y el mapeo de la proyección pedida.
+     *
+     * @param <T>       Tipo de la fila (entidad o resumen).
+     * @param sqlId     Identificador de la consulta (se le agrega el modo de
+     *                  búsqueda; ver {@link DaoQueryEvent}).
+     * @param filter    filtro de búsqueda (no nulo ni vacío).
+     * @param selectSql La consulta base.
+     * @param mapper    El mapeo de cada fila.
+     * @return Las filas encontradas y el modo de búsqueda utilizado.
+     * @throws SQLException Si ocurre un error durante la operación.
+     */
+    private <T> SearchResult<T> search(String sqlId, String filter, String selectSql,
+            CursorStreams.RowMapper<T> mapper) throws SQLException {
+
+        String limpio = filter.trim();
+        SearchMode mode = SearchMode.forFilter(limpio);
+
+        if (mode == SearchMode.PREFIX) {
+            String prefijo = limpio.endsWith(SearchMode.PREFIX_WILDCARD)
+                    ? limpio.substring(0, limpio.length() - SearchMode.PREFIX_WILDCARD.length()).trim()
+                    : limpio;
+            String patron = escapeLike(prefijo) + "%";
+            return new SearchResult<>(
+                    executeSearch(sqlId + ".prefix", selectSql + SEARCH_BY_PREFIX_WHERE, mapper, patron, patron),
+                    mode);
+        }
 
-            String wildcard = "%" + filter.trim() + "%";
+        String booleanQuery = toBooleanQuery(limpio);
+        if (fullTextAvailable && booleanQuery != null) {
+            try {
+                return new SearchResult<>(
+                        executeSearch(sqlId + ".fulltext", selectSql + SEARCH_BY_FULLTEXT_WHERE, mapper,
+                                booleanQuery),
+                        SearchMode.FULLTEXT);
+            } catch (SQLException e) {
+                if (!isMissingFullTextIndex(e)) {
+                    throw e;
+                }
+                fullTextAvailable = false;
+                System.err.println("ADVERTENCIA: No existe el índice FULLTEXT de Paciente "
+                        + "(ver sql/programacion_2/04_indices.sql). La búsqueda usará un recorrido completo.");
+            }
+        }
 
-            stmt.setString(1, wildcard); // Para 'nombre'
-            stmt.setString(2, wildcard); // Para 'apellido'
+        String wildcard = "%" + limpio + "%";
+        return new SearchResult<>(
+                executeSearch(sqlId + ".scan", selectSql + SEARCH_BY_FILTER_WHERE, mapper, wildcard, wildcard),
+                SearchMode.SCAN);
+    }
+
+    /**
+     * Ejecuta una consulta de búsqueda y mapea los pacientes encontrados.
+     *
+     * @param <T>        Tipo de la fila (entidad o resumen).
+     * @param sqlId      Identificador de la consulta (ver {@link DaoQueryEvent}).
+     * @param sql        La consulta de búsqueda.
+     * @param mapper     El mapeo de cada fila.
+     * @param parametros Los valores de los parámetros (<code>?</code>), en orden.
+     * @return Lista de pacientes encontrados.
+     * @throws SQLException Si ocurre un error durante la consulta.
+     */
+    private <T> List<T> executeSearch(String sqlId, String sql, CursorStreams.RowMapper<T> mapper,
+            String... parametros) throws SQLException {
+
+        List<T> pacientes = new ArrayList<>();
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start(sqlId);
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setString(i + 1, parametros[i]);
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-
-                    pacientes.add(mapEntity(rs));
+                    pacientes.add(mapper.map(rs));
                 }
             }
+            evento.complete(pacientes.size());
         } catch (SQLException e) {
-            throw new SQLException("Error al buscar pacientes por nombre o apellido: " + e.getMessage(), e);
+            throw new SQLException("Error al buscar pacientes por nombre o apellido: " + e.getMessage(),
+                    e.getSQLState(), e.getErrorCode(), e);
         }
         return pacientes;
     }
 
+    /**
+     * Escapa los comodines de <code>LIKE</code> (<code>%</code>,
+     * <code>_</code>) y el carácter de escape (<code>!</code>) para que el
+     * filtro se compare de forma literal.
+     *
+     * @param texto El texto ingresado por el usuario.
+     * @return El texto escapado.
+     */
+    private static String escapeLike(String texto) {
+        return texto.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Convierte el filtro en una consulta <code>FULLTEXT</code> en modo
+     * booleano donde <b>cada palabra es obligatoria</b> y se busca como frase
+     * (<code>+"gonz" +"juan"</code>).
+     * <p>
+     * Se descartan los operadores del modo booleano (<code>+ - &lt; &gt; ( ) ~ * " @</code>)
+     * para que el texto del usuario no altere la consulta, y las palabras de
+     * menos de {@value SearchMode#MIN_FULLTEXT_LENGTH} caracteres (que el
+     * parser ngram no indexa).
+     * </p>
+     *
+     * @param filtro El filtro ingresado por el usuario.
+     * @return La consulta booleana, o <code>null</code> si no queda ninguna
+     *         palabra utilizable.
+     */
+    private static String toBooleanQuery(String filtro) {
+
+        StringBuilder query = new StringBuilder();
+        for (String palabra : filtro.replaceAll("[+\\-<>()~*\"@]", " ").trim().split("\\s+")) {
+            if (palabra.length() >= SearchMode.MIN_FULLTEXT_LENGTH) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append("+\"").append(palabra).append('"');
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    /**
+     * Indica si el error se debe a que no existe el índice
+     * <code>FULLTEXT</code> requerido por <code>MATCH ... AGAINST</code>.
+     *
+     * @param e La excepción a analizar.
+     * @return <code>true</code> si falta el índice FULLTEXT.
+     */
+    private static boolean isMissingFullTextIndex(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlEx && sqlEx.getErrorCode() == ER_FT_MATCHING_KEY_NOT_FOUND) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el error se debe a que no existe el procedimiento almacenado
+     * invocado.
+     *
+     * @param e La excepción a analizar.
+     * @return <code>true</code> si falta el procedimiento.
+     */
+    private static boolean isMissingProcedure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlEx && sqlEx.getErrorCode() == ER_SP_DOES_NOT_EXIST) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Busca un paciente <b>activo</b> por DNI (coincidencia exacta).
      * <p>
@@ -495,22 +1104,115 @@ public class PacienteDAO implements GenericDAO<Paciente> {
      */
     public Paciente selectByDni(String dni) throws SQLException {
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.selectByDni");
+                Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_DNI_SQL)) {
 
             stmt.setString(1, dni);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapEntity(rs);
+                    Paciente paciente = mapEntity(rs);
+                    evento.complete(1);
+                    return paciente;
                 }
             }
+            evento.complete(0);
         } catch (SQLException e) {
             throw new SQLException("Error al seleccionar paciente por DNI: " + e.getMessage(), e);
         }
         return null;
     }
 
+    /**
+     * Obtiene varios pacientes <b>activos</b> por ID con consultas
+     * <code>WHERE p.id IN (...)</code> por bloques (ver {@link InClause}), con
+     * una sola conexión.
+     *
+     * @param ids Los IDs a obtener (los repetidos se consultan una vez).
+     * @return Un mapa ID → paciente, en el orden recibido. Los IDs inexistentes
+     *         o eliminados no aparecen en el mapa.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    public Map<Integer, Paciente> selectByIds(Collection<Integer> ids) throws SQLException {
+
+        List<Integer> claves = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, Paciente> encontrados = new LinkedHashMap<>();
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.selectByIds");
+                Connection conn = DatabaseConnection.getConnection()) {
+            InClause.query(conn, SELECT_BY_IDS_SQL, "", claves, PreparedStatement::setInt, rs -> {
+                Paciente paciente = mapEntity(rs);
+                encontrados.put(paciente.getId(), paciente);
+            });
+            evento.complete(encontrados.size());
+        } catch (SQLException e) {
+            throw new SQLException("Error al seleccionar pacientes por IDs: " + e.getMessage(), e);
+        }
+        return InClause.inKeyOrder(claves, encontrados);
+    }
+
+    /**
+     * Obtiene varios pacientes <b>activos</b> por DNI (coincidencia exacta) con
+     * consultas <code>WHERE p.dni IN (...)</code> por bloques, con una sola
+     * conexión.
+     *
+     * @param dnis Los DNI a obtener (los repetidos se consultan una vez).
+     * @return Un mapa DNI → paciente, en el orden recibido. Los DNI
+     *         inexistentes o eliminados no aparecen en el mapa.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    public Map<String, Paciente> selectByDnis(Collection<String> dnis) throws SQLException {
+
+        List<String> claves = new ArrayList<>(new LinkedHashSet<>(dnis));
+        Map<String, Paciente> encontrados = new LinkedHashMap<>();
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.selectByDnis");
+                Connection conn = DatabaseConnection.getConnection()) {
+            InClause.query(conn, SELECT_BY_DNIS_SQL, "", claves, PreparedStatement::setString, rs -> {
+                Paciente paciente = mapEntity(rs);
+                encontrados.put(paciente.getDni(), paciente);
+            });
+            evento.complete(encontrados.size());
+        } catch (SQLException e) {
+            throw new SQLException("Error al seleccionar pacientes por DNI: " + e.getMessage(), e);
+        }
+        return InClause.inKeyOrder(claves, encontrados);
+    }
+
+    /**
+     * Indica si un DNI ya está registrado (activo o eliminado), con una
+     * consulta liviana que solo lee el índice <code>UNIQUE</code> de
+     * <code>dni</code>.
+     * <p>
+     * Pensado para que la UI avise de un DNI repetido <b>antes</b> de pedir el
+     * resto de los datos. No garantiza la unicidad (otra escritura puede
+     * ocurrir entre la consulta y el <code>INSERT</code>): la garantía es la
+     * restricción <code>UNIQUE</code> de la BD.
+     * </p>
+     *
+     * @param dni El DNI exacto a buscar.
+     * @return <code>true</code> si existe un paciente con ese DNI.
+     * @throws SQLException Si ocurre un error de acceso a la base de datos.
+     */
+    public boolean existsByDni(String dni) throws SQLException {
+
+        try (DaoQueryEvent evento = DaoQueryEvent.start("Paciente.existsByDni");
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(EXISTS_BY_DNI_SQL)) {
+
+            stmt.setString(1, dni);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean existe = rs.next();
+                evento.complete(existe ? 1 : 0);
+                return existe;
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error al verificar la existencia del DNI: " + e.getMessage(), e);
+        }
+    }
+
     // ============ MÉTODOS HELPER (Mapeo y Parámetros) ============
     /**
      * {@inheritDoc}
@@ -541,20 +1243,7 @@ public class PacienteDAO implements GenericDAO<Paciente> {
     public Paciente mapEntity(ResultSet rs) throws SQLException {
 
         // 1. Mapear GrupoSanguineo (el nivel más profundo)
-        GrupoSanguineo grupo = null;
-        String nombreEnum = rs.getString("nombre_enum");
-
-        if (nombreEnum != null) {
-            try {
-                // Convierte el String de la BD (ej: "A_PLUS") al Enum
-                grupo = GrupoSanguineo.valueOf(nombreEnum);
-
-            } catch (IllegalArgumentException e) {
-                // Log de advertencia si el valor de la BD no es un Enum válido
-                System.err.println("Advertencia: GrupoSanguineo inválido en BD: " + nombreEnum);
-                grupo = null;
-            }
-        }
+        GrupoSanguineo grupo = mapGrupoSanguineo(rs);
 
         // 2. Mapear HistoriaClinica (depende de GrupoSanguineo)
         // Se usa rs.getObject() para comprobar de forma segura si la FK fue NULL
@@ -583,6 +1272,51 @@ public class PacienteDAO implements GenericDAO<Paciente> {
                 historiaClinica); // Asocia la HC (o null)
     }
 
+    /**
+     * Mapea una fila de <code>SELECT_RESUMEN_SQL</code> a un
+     * {@link PacienteResumen} (sin construir la {@link HistoriaClinica}).
+     *
+     * @param rs El ResultSet posicionado en la fila a mapear.
+     * @return El resumen del paciente.
+     * @throws SQLException Si una columna esperada no se encuentra.
+     */
+    private static PacienteResumen mapResumen(ResultSet rs) throws SQLException {
+        Date fechaNacimiento = rs.getDate("fecha_nacimiento");
+        return new PacienteResumen(
+                rs.getInt("paciente_id"),
+                rs.getString("dni"),
+                rs.getString("nombre"),
+                rs.getString("apellido"),
+                fechaNacimiento != null ? fechaNacimiento.toLocalDate() : null,
+                rs.getObject("hc_id") != null ? rs.getInt("hc_id") : null,
+                rs.getString("nro_historia"),
+                mapGrupoSanguineo(rs));
+    }
+
+    /**
+     * Convierte la columna <code>nombre_enum</code> (ej: "A_PLUS") al enum
+     * {@link GrupoSanguineo}.
+     *
+     * @param rs El ResultSet posicionado en la fila.
+     * @return El grupo sanguíneo, o <code>null</code> si la columna es NULL o
+     *         no corresponde a un valor válido (se informa una advertencia).
+     * @throws SQLException Si la columna no se encuentra.
+     */
+    private static GrupoSanguineo mapGrupoSanguineo(ResultSet rs) throws SQLException {
+        String nombreEnum = rs.getString("nombre_enum");
+        if (nombreEnum == null) {
+            return null;
+        }
+        try {
+            return GrupoSanguineo.valueOf(nombreEnum);
+
+        } catch (IllegalArgumentException e) {
+            // Log de advertencia si el valor de la BD no es un Enum válido
+            System.err.println("Advertencia: GrupoSanguineo inválido en BD: " + nombreEnum);
+            return null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -0,0 +1,57 @@
+package dao;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una consulta paginada por clave (keyset / seek).
+ * <p>
+ * A diferencia de la paginación con <code>OFFSET</code>, la siguiente página
+ * no se pide por número sino "a partir de" la última entidad de la página
+ * actual ({@link #last()}). Por eso cada página cuesta lo mismo que la
+ * primera, sin importar cuán profunda sea.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * Page&lt;Paciente&gt; pagina = pacienteDAO.selectPage(null, 20, false); // primera
+ * while (pagina.hasNext()) {
+ *     pagina = pacienteDAO.selectPage(pagina.last(), 20, false);
+ * }
+ * </pre>
+ *
+ * @param <T>     El tipo de la entidad.
+ * @param items   Las entidades de la página (como máximo <code>limit</code>).
+ * @param hasNext <code>true</code> si existen más filas después de esta
+ *                página.
+ * @author alpha team
+ * @see GenericDAO#selectPage(Object, int, boolean)
+ */
+public record Page<T>(List<T> items, boolean hasNext) {
+
+    /**
+     * Constructor compacto: guarda una copia inmutable de los elementos.
+     */
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    /**
+     * Devuelve la última entidad de la página, que se usa como clave
+     * ("a partir de") para pedir la página siguiente.
+     *
+     * @return La última entidad, o <code>null</code> si la página está vacía.
+     */
+    public T last() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+
+    /**
+     * Indica si la página no tiene elementos.
+     *
+     * @return <code>true</code> si está vacía.
+     */
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
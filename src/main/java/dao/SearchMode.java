@@ -0,0 +1,80 @@
+package dao;
+
+/**
+ * Estrategia (camino de acceso) usada para resolver una búsqueda de texto.
+ * <p>
+ * La búsqueda de pacientes por nombre/apellido elige el modo según la
+ * <b>forma del filtro</b> ingresado (ver {@link #forFilter(String)}) e informa
+ * el modo efectivamente usado en el {@link SearchResult}.
+ * </p>
+ *
+ * <h3>Modos:</h3>
+ * <ul>
+ * <li>{@link #PREFIX}: <code>col LIKE 'texto%'</code>. Usa el índice B-tree
+ * (rango), por lo que solo lee las filas que coinciden.</li>
+ * <li>{@link #FULLTEXT}: <code>MATCH ... AGAINST</code> sobre un índice
+ * <code>FULLTEXT</code> con parser <b>ngram</b>, que encuentra el texto en
+ * cualquier posición de la palabra sin recorrer la tabla.</li>
+ * <li>{@link #SCAN}: <code>LIKE '%texto%'</code> sin índice (recorrido completo
+ * de la tabla). Solo se usa como respaldo si el índice <code>FULLTEXT</code> no
+ * existe en la base de datos.</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see SearchResult
+ * @see PacienteDAO#search(String)
+ */
+public enum SearchMode {
+
+    PREFIX("prefijo (índice B-tree)"),
+    FULLTEXT("texto completo (índice FULLTEXT ngram)"),
+    SCAN("recorrido completo (sin índice)");
+
+    /**
+     * Sufijo que fuerza la búsqueda por prefijo (ej: "Gonz*").
+     */
+    public static final String PREFIX_WILDCARD = "*";
+
+    /**
+     * Longitud mínima de un término para la búsqueda FULLTEXT. Coincide con el
+     * valor por defecto de <code>ngram_token_size</code> de MySQL (2): un
+     * término de un solo carácter no genera ningún token.
+     */
+    public static final int MIN_FULLTEXT_LENGTH = 2;
+
+    private final String descripcion;
+
+    SearchMode(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Elige el modo de búsqueda según la forma del filtro.
+     * <ul>
+     * <li>Termina en <code>*</code> (ej: "Gonz*") → {@link #PREFIX}.</li>
+     * <li>Tiene menos de {@value #MIN_FULLTEXT_LENGTH} caracteres (ej: "G") →
+     * {@link #PREFIX}.</li>
+     * <li>En cualquier otro caso → {@link #FULLTEXT}.</li>
+     * </ul>
+     *
+     * @param filter El filtro ingresado por el usuario (no nulo).
+     * @return El modo a utilizar.
+     */
+    public static SearchMode forFilter(String filter) {
+
+        String limpio = filter.trim();
+        if (limpio.endsWith(PREFIX_WILDCARD) || limpio.length() < MIN_FULLTEXT_LENGTH) {
+            return PREFIX;
+        }
+        return FULLTEXT;
+    }
+
+    /**
+     * Devuelve una descripción legible del camino de acceso.
+     *
+     * @return La descripción (ej: "prefijo (índice B-tree)").
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,28 @@
+package dao;
+
+import java.util.List;
+
+/**
+ * Resultado de una búsqueda de texto junto con el camino de acceso usado.
+ * <p>
+ * Permite a la capa de UI (y a quien diagnostique el rendimiento) saber si la
+ * búsqueda se resolvió con un índice ({@link SearchMode#PREFIX},
+ * {@link SearchMode#FULLTEXT}) o con un recorrido completo
+ * ({@link SearchMode#SCAN}).
+ * </p>
+ *
+ * @param <T>   El tipo de la entidad.
+ * @param items Las entidades encontradas.
+ * @param mode  El modo de búsqueda efectivamente utilizado.
+ * @author alpha team
+ * @see SearchMode
+ */
+public record SearchResult<T>(List<T> items, SearchMode mode) {
+
+    /**
+     * Constructor compacto: guarda una copia inmutable de los elementos.
+     */
+    public SearchResult {
+        items = List.copyOf(items);
+    }
+}
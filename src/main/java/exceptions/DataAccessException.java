@@ -0,0 +1,27 @@
+package exceptions;
+
+/**
+ * Excepción <b>no verificada</b> (unchecked) para errores de acceso a datos que
+ * ocurren dentro de código que no puede declarar <code>SQLException</code>.
+ * <p>
+ * Se usa principalmente en la lectura por <i>streaming</i>
+ * ({@link java.util.stream.Stream}): los métodos de <code>Iterator</code>,
+ * <code>Spliterator</code> y las lambdas de <code>forEach</code> no pueden
+ * lanzar excepciones verificadas, por lo que el error de la BD se envuelve en
+ * esta excepción. La causa original siempre se conserva.
+ * </p>
+ *
+ * <h3>Ejemplos:</h3>
+ * <ul>
+ * <li>Se pierde la conexión mientras se recorre un cursor del servidor.</li>
+ * <li>Falla el mapeo de una fila durante <code>Stream.forEach</code>.</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see dao.GenericDAO#streamAllWithStatus(boolean)
+ */
+public class DataAccessException extends RuntimeException {
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -22,4 +22,8 @@ public class DuplicateEntityException extends Exception {
     public DuplicateEntityException(String message) {
         super(message);
     }
+
+    public DuplicateEntityException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
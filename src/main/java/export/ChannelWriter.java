@@ -0,0 +1,117 @@
+package export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escritor de texto UTF-8 sobre un {@link FileChannel}, con compresión gzip
+ * opcional.
+ * <p>
+ * El texto se codifica en un único buffer de bytes reutilizado (sin crear un
+ * <code>byte[]</code> por bloque) que se vuelca al canal, o al compresor,
+ * cada vez que se llena. La memoria usada es la misma sin importar el tamaño
+ * del archivo.
+ * </p>
+ *
+ * @author alpha team
+ * @see DataExporter
+ */
+final class ChannelWriter implements Closeable {
+
+    /**
+     * Tamaño del buffer de bytes (y del buffer del compresor).
+     */
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    private final FileChannel channel;
+    private final GZIPOutputStream gzip;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    // En el heap: el compresor necesita el arreglo
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Crea (o reemplaza) el archivo.
+     *
+     * @param destino   El archivo de salida.
+     * @param comprimir <code>true</code> para escribir en formato gzip.
+     * @throws IOException Si no se puede crear el archivo.
+     */
+    ChannelWriter(Path destino, boolean comprimir) throws IOException {
+        this.channel = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        try {
+            this.gzip = comprimir ? new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE) : null;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Codifica y agrega el texto. Cada llamada debe contener registros
+     * completos (no cortar un par sustituto entre dos llamadas).
+     *
+     * @param texto El texto a agregar.
+     * @throws IOException Si falla la escritura.
+     */
+    void write(CharSequence texto) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(texto);
+        encoder.reset();
+        while (true) {
+            CoderResult resultado = encoder.encode(chars, bytes, true);
+            if (resultado.isOverflow()) {
+                drain();
+            } else if (resultado.isUnderflow()) {
+                return;
+            } else {
+                resultado.throwException();
+            }
+        }
+    }
+
+    /**
+     * Vuelca los bytes pendientes, termina el formato gzip y cierra el
+     * archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        } finally {
+            if (gzip != null) {
+                gzip.close(); // cierra también el canal
+            } else {
+                channel.close();
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        if (gzip != null) {
+            gzip.write(bytes.array(), 0, bytes.limit());
+        } else {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,292 @@
+package export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import exceptions.DataAccessException;
+import exceptions.ServiceException;
+import generator.CsvSink;
+import models.HistoriaClinica;
+import models.Paciente;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Exporta pacientes (con su historia clínica) o historias clínicas a un
+ * archivo CSV o NDJSON, opcionalmente comprimido con gzip.
+ * <p>
+ * A diferencia de <code>selectAll</code>, que carga toda la tabla en una
+ * <code>List</code>, las filas se leen con
+ * {@link PacienteService#streamAll(boolean)} (cursor del servidor con
+ * <code>db.fetch.size</code> filas por bloque), se formatean en un
+ * <code>StringBuilder</code> reutilizado y se escriben por bloques en un
+ * <code>FileChannel</code>. La memoria usada no depende de la cantidad de
+ * filas: exportar 10 millones de pacientes usa lo mismo que exportar mil.
+ * </p>
+ *
+ * <h3>Columnas:</h3>
+ * <ul>
+ * <li>Pacientes: <code>nombre, apellido, dni, fecha_nacimiento,
+ * nro_historia, grupo_sanguineo, antecedentes, medicacion_actual,
+ * observaciones</code> (los campos de la HC vacíos si no tiene). En NDJSON la
+ * HC es un objeto anidado <code>historia_clinica</code> (o
+ * <code>null</code>).</li>
+ * <li>Historias clínicas: <code>nro_historia, grupo_sanguineo, antecedentes,
+ * medicacion_actual, observaciones</code>.</li>
+ * </ul>
+ * <p>
+ * No se exportan IDs: las claves naturales permiten volver a cargar un CSV
+ * exportado con {@link ingest.BulkImporter} en otra base. El grupo sanguíneo
+ * es el nombre del enum (ej: <code>O_PLUS</code>).
+ * </p>
+ *
+ * @author alpha team
+ * @see ExportFormat
+ */
+public class DataExporter {
+
+    /**
+     * Recibe el avance de una exportación.
+     */
+    @FunctionalInterface
+    public interface Progress {
+
+        /**
+         * Informa el avance.
+         *
+         * @param filas           Filas escritas hasta el momento.
+         * @param filasPorSegundo Velocidad promedio desde el inicio.
+         */
+        void report(long filas, double filasPorSegundo);
+    }
+
+    /**
+     * Da formato a un registro.
+     *
+     * @param <T> Tipo de la entidad.
+     */
+    @FunctionalInterface
+    private interface RecordFormatter<T> {
+        void append(StringBuilder sb, T entidad);
+    }
+
+    /**
+     * Cada cuántas filas se informa el progreso.
+     */
+    public static final int PROGRESS_INTERVAL = 100_000;
+
+    /**
+     * Caracteres acumulados antes de codificarlos y escribirlos.
+     */
+    private static final int FLUSH_CHARS = 1 << 16;
+
+    private static final String PACIENTES_HEADER = "nombre,apellido,dni,fecha_nacimiento,nro_historia,"
+            + "grupo_sanguineo,antecedentes,medicacion_actual,observaciones\n";
+    private static final String HISTORIAS_HEADER =
+            "nro_historia,grupo_sanguineo,antecedentes,medicacion_actual,observaciones\n";
+
+    private final PacienteService pacienteService;
+    private final HistoriaClinicaService historiaClinicaService;
+    private final ExportFormat formato;
+    private final boolean gzip;
+    private final Progress progress;
+
+    /**
+     * Crea el exportador.
+     *
+     * @param pacienteService        Servicio para recorrer los pacientes.
+     * @param historiaClinicaService Servicio para recorrer las HC.
+     * @param formato                Formato de salida.
+     * @param gzip                   <code>true</code> para comprimir la
+     *                               salida.
+     * @param progress               Recibe el avance cada
+     *                               {@value #PROGRESS_INTERVAL} filas y al
+     *                               terminar.
+     * @throws IllegalArgumentException Si algún parámetro es nulo.
+     */
+    public DataExporter(PacienteService pacienteService, HistoriaClinicaService historiaClinicaService,
+            ExportFormat formato, boolean gzip, Progress progress) {
+        if (pacienteService == null || historiaClinicaService == null || formato == null || progress == null) {
+            throw new IllegalArgumentException(
+                    "Los servicios, el formato y el receptor de progreso no pueden ser null.");
+        }
+        this.pacienteService = pacienteService;
+        this.historiaClinicaService = historiaClinicaService;
+        this.formato = formato;
+        this.gzip = gzip;
+        this.progress = progress;
+    }
+
+    /**
+     * Exporta los pacientes, con su historia clínica.
+     *
+     * @param destino El archivo de salida (se reemplaza).
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @return La cantidad de pacientes exportados.
+     * @throws IOException      Si falla la escritura.
+     * @throws ServiceException Si falla la lectura de la BD (el archivo queda
+     *                          incompleto).
+     */
+    public long exportPacientes(Path destino, boolean deleted) throws IOException, ServiceException {
+        try (Stream<Paciente> pacientes = pacienteService.streamAll(deleted)) {
+            return export(destino, pacientes, PACIENTES_HEADER,
+                    formato == ExportFormat.CSV ? DataExporter::csvPaciente : DataExporter::jsonPaciente);
+        }
+    }
+
+    /**
+     * Exporta las historias clínicas.
+     *
+     * @param destino El archivo de salida (se reemplaza).
+     * @param deleted <code>false</code> para activas, <code>true</code> para
+     *                eliminadas.
+     * @return La cantidad de historias exportadas.
+     * @throws IOException      Si falla la escritura.
+     * @throws ServiceException Si falla la lectura de la BD (el archivo queda
+     *                          incompleto).
+     */
+    public long exportHistorias(Path destino, boolean deleted) throws IOException, ServiceException {
+        try (Stream<HistoriaClinica> historias = historiaClinicaService.streamAll(deleted)) {
+            return export(destino, historias, HISTORIAS_HEADER,
+                    formato == ExportFormat.CSV ? DataExporter::csvHistoria : DataExporter::jsonHistoria);
+        }
+    }
+
+    // ============ ESCRITURA ============
+    private <T> long export(Path destino, Stream<T> entidades, String header, RecordFormatter<T> formatter)
+            throws IOException, ServiceException {
+
+        long inicio = System.nanoTime();
+        long filas = 0;
+        StringBuilder sb = new StringBuilder(FLUSH_CHARS + 4096);
+
+        try (ChannelWriter out = new ChannelWriter(destino, gzip)) {
+            if (formato == ExportFormat.CSV) {
+                sb.append(header);
+            }
+            // Iterator y no forEach: permite lanzar IOException
+            Iterator<T> it = entidades.iterator();
+            while (it.hasNext()) {
+                formatter.append(sb, it.next());
+                filas++;
+                if (sb.length() >= FLUSH_CHARS) {
+                    out.write(sb);
+                    sb.setLength(0);
+                }
+                if (filas % PROGRESS_INTERVAL == 0) {
+                    report(filas, inicio);
+                }
+            }
+            out.write(sb);
+        } catch (DataAccessException e) {
+            throw new ServiceException("Error al exportar a " + destino + ": " + e.getMessage(), e);
+        }
+
+        report(filas, inicio);
+        return filas;
+    }
+
+    private void report(long filas, long inicio) {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        progress.report(filas, segundos > 0 ? filas / segundos : 0);
+    }
+
+    // ============ FORMATO ============
+    private static void csvPaciente(StringBuilder sb, Paciente paciente) {
+        CsvSink.appendField(sb, paciente.getNombre()).append(',');
+        CsvSink.appendField(sb, paciente.getApellido()).append(',');
+        CsvSink.appendField(sb, paciente.getDni()).append(',');
+        if (paciente.getFechaNacimiento() != null) {
+            sb.append(paciente.getFechaNacimiento());
+        }
+        sb.append(',');
+        HistoriaClinica hc = paciente.getHistoriaClinica();
+        if (hc != null) {
+            csvHistoria(sb, hc);
+        } else {
+            sb.append(",,,,\n");
+        }
+    }
+
+    private static void csvHistoria(StringBuilder sb, HistoriaClinica hc) {
+        CsvSink.appendField(sb, hc.getNumeroHistoria()).append(',');
+        if (hc.getGrupoSanguineo() != null) {
+            sb.append(hc.getGrupoSanguineo().name());
+        }
+        sb.append(',');
+        CsvSink.appendField(sb, hc.getAntecedentes()).append(',');
+        CsvSink.appendField(sb, hc.getMedicacionActual()).append(',');
+        CsvSink.appendField(sb, hc.getObservaciones()).append('\n');
+    }
+
+    private static void jsonPaciente(StringBuilder sb, Paciente paciente) {
+        sb.append("{\"nombre\":");
+        appendJson(sb, paciente.getNombre());
+        sb.append(",\"apellido\":");
+        appendJson(sb, paciente.getApellido());
+        sb.append(",\"dni\":");
+        appendJson(sb, paciente.getDni());
+        sb.append(",\"fecha_nacimiento\":");
+        appendJson(sb, paciente.getFechaNacimiento() != null ? paciente.getFechaNacimiento().toString() : null);
+        sb.append(",\"historia_clinica\":");
+        if (paciente.getHistoriaClinica() != null) {
+            jsonHistoriaObject(sb, paciente.getHistoriaClinica());
+        } else {
+            sb.append("null");
+        }
+        sb.append("}\n");
+    }
+
+    private static void jsonHistoria(StringBuilder sb, HistoriaClinica hc) {
+        jsonHistoriaObject(sb, hc);
+        sb.append('\n');
+    }
+
+    private static void jsonHistoriaObject(StringBuilder sb, HistoriaClinica hc) {
+        sb.append("{\"nro_historia\":");
+        appendJson(sb, hc.getNumeroHistoria());
+        sb.append(",\"grupo_sanguineo\":");
+        appendJson(sb, hc.getGrupoSanguineo() != null ? hc.getGrupoSanguineo().name() : null);
+        sb.append(",\"antecedentes\":");
+        appendJson(sb, hc.getAntecedentes());
+        sb.append(",\"medicacion_actual\":");
+        appendJson(sb, hc.getMedicacionActual());
+        sb.append(",\"observaciones\":");
+        appendJson(sb, hc.getObservaciones());
+        sb.append('}');
+    }
+
+    /**
+     * Agrega un valor como literal JSON (entre comillas y escapado);
+     * <code>null</code> es <code>null</code>.
+     */
+    private static void appendJson(StringBuilder sb, String valor) {
+        if (valor == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(Character.forDigit(c >> 4, 16))
+                                .append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,60 @@
+package export;
+
+/**
+ * Formatos de salida de {@link DataExporter}.
+ *
+ * @author alpha team
+ */
+public enum ExportFormat {
+
+    /**
+     * CSV (RFC 4180) con encabezado, con las mismas columnas que acepta
+     * {@link ingest.BulkImporter}.
+     */
+    CSV("csv"),
+
+    /**
+     * Un objeto JSON por línea (NDJSON).
+     */
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Devuelve la extensión de archivo habitual del formato.
+     *
+     * @return La extensión, sin punto (ej: <code>csv</code>).
+     */
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Deduce el formato y la compresión a partir del nombre de un archivo:
+     * <code>.csv</code>, <code>.ndjson</code> o <code>.jsonl</code>,
+     * opcionalmente seguidos de <code>.gz</code>.
+     *
+     * @param nombre El nombre del archivo.
+     * @return El formato.
+     * @throws IllegalArgumentException Si la extensión no corresponde a
+     *                                  ningún formato.
+     */
+    public static ExportFormat fromFileName(String nombre) {
+        String base = nombre.toLowerCase();
+        if (base.endsWith(".gz")) {
+            base = base.substring(0, base.length() - 3);
+        }
+        if (base.endsWith(".csv")) {
+            return CSV;
+        }
+        if (base.endsWith(".ndjson") || base.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Extensión desconocida (se espera .csv, .ndjson o .jsonl, "
+                + "con .gz opcional): " + nombre);
+    }
+}
@@ -0,0 +1,25 @@
+package generator;
+
+import java.util.List;
+
+import models.HistoriaClinica;
+import models.Paciente;
+
+/**
+ * Bloque de filas generadas por {@link DataGenerator}: las historias clínicas
+ * y los pacientes de un rango contiguo de números de secuencia.
+ * <p>
+ * Cada paciente con historia clínica referencia a un objeto de
+ * <code>historias</code> (sin ID: se asigna al insertarla). Los bloques se
+ * numeran desde 0; el contenido de un bloque depende solo de la semilla y de
+ * su número, no de qué hilo lo generó.
+ * </p>
+ *
+ * @param index     Número de bloque (desde 0).
+ * @param historias Las historias clínicas del bloque (puede estar vacía).
+ * @param pacientes Los pacientes del bloque.
+ * @author alpha team
+ * @see DataSink
+ */
+public record Chunk(int index, List<HistoriaClinica> historias, List<Paciente> pacientes) {
+}
@@ -0,0 +1,206 @@
+package generator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import models.HistoriaClinica;
+import models.Paciente;
+
+/**
+ * Escribe los bloques generados en dos archivos CSV (UTF-8, con encabezado,
+ * separados por coma y con comillas dobles solo cuando hace falta):
+ * <ul>
+ * <li>{@value #HISTORIAS_FILE}:
+ * <code>nro_historia,grupo_sanguineo,antecedentes,medicacion_actual,observaciones</code>
+ * (el grupo es el nombre del enum, ej: <code>O_PLUS</code>).</li>
+ * <li>{@value #PACIENTES_FILE}:
+ * <code>nombre,apellido,dni,fecha_nacimiento,nro_historia</code> (la
+ * historia se referencia por su número, vacío si no tiene).</li>
+ * </ul>
+ * <p>
+ * Los archivos no llevan IDs: las claves naturales (<code>dni</code>,
+ * <code>nro_historia</code>) permiten cargarlos en una base que ya tiene
+ * datos. Cada bloque se formatea en paralelo y se agrega a los archivos en
+ * orden de bloque, por lo que la misma semilla produce los mismos bytes sin
+ * importar la cantidad de hilos.
+ * </p>
+ *
+ * @author alpha team
+ * @see DataGenerator
+ */
+public class CsvSink implements DataSink {
+
+    /**
+     * Archivo de historias clínicas.
+     */
+    public static final String HISTORIAS_FILE = "historia_clinica.csv";
+
+    /**
+     * Archivo de pacientes.
+     */
+    public static final String PACIENTES_FILE = "paciente.csv";
+
+    private static final String HISTORIAS_HEADER =
+            "nro_historia,grupo_sanguineo,antecedentes,medicacion_actual,observaciones\n";
+    private static final String PACIENTES_HEADER = "nombre,apellido,dni,fecha_nacimiento,nro_historia\n";
+
+    /**
+     * Tamaño del buffer de cada archivo.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final OutputStream historias;
+    private final OutputStream pacientes;
+
+    /**
+     * Próximo bloque a agregar a los archivos (protegido por
+     * <code>this</code>).
+     */
+    private int siguiente;
+    private boolean fallido;
+
+    /**
+     * Crea (o reemplaza) los archivos CSV en el directorio indicado.
+     *
+     * @param directorio El directorio de salida (se crea si no existe).
+     * @throws IOException Si no se pueden crear los archivos.
+     */
+    public CsvSink(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        this.historias = new BufferedOutputStream(Files.newOutputStream(directorio.resolve(HISTORIAS_FILE)),
+                BUFFER_SIZE);
+        try {
+            this.pacientes = new BufferedOutputStream(Files.newOutputStream(directorio.resolve(PACIENTES_FILE)),
+                    BUFFER_SIZE);
+        } catch (IOException e) {
+            historias.close();
+            throw e;
+        }
+        historias.write(HISTORIAS_HEADER.getBytes(StandardCharsets.UTF_8));
+        pacientes.write(PACIENTES_HEADER.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Formatea el bloque sin bloquear y espera su turno para agregarlo a los
+     * archivos. Si un bloque anterior falló, los siguientes también fallan
+     * (el archivo quedaría con un hueco).
+     * </p>
+     */
+    @Override
+    public void write(Chunk chunk) throws IOException {
+
+        byte[] filasHistorias;
+        byte[] filasPacientes;
+        try {
+            filasHistorias = formatHistorias(chunk).getBytes(StandardCharsets.UTF_8);
+            filasPacientes = formatPacientes(chunk).getBytes(StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            fail();
+            throw e;
+        }
+
+        synchronized (this) {
+            try {
+                while (siguiente != chunk.index() && !fallido) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fallido = true;
+                notifyAll();
+                throw new InterruptedIOException("Escritura del bloque " + chunk.index() + " interrumpida.");
+            }
+            if (fallido) {
+                throw new IOException("No se escribe el bloque " + chunk.index() + ": falló un bloque anterior.");
+            }
+            try {
+                historias.write(filasHistorias);
+                pacientes.write(filasPacientes);
+                siguiente++;
+            } catch (IOException e) {
+                fallido = true;
+                throw e;
+            } finally {
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (OutputStream h = historias; OutputStream p = pacientes) {
+            h.flush();
+            p.flush();
+        }
+    }
+
+    // ============ FORMATO ============
+    private static String formatHistorias(Chunk chunk) {
+        StringBuilder sb = new StringBuilder(chunk.historias().size() * 128);
+        for (HistoriaClinica hc : chunk.historias()) {
+            appendField(sb, hc.getNumeroHistoria()).append(',');
+            appendField(sb, hc.getGrupoSanguineo() != null ? hc.getGrupoSanguineo().name() : null).append(',');
+            appendField(sb, hc.getAntecedentes()).append(',');
+            appendField(sb, hc.getMedicacionActual()).append(',');
+            appendField(sb, hc.getObservaciones()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String formatPacientes(Chunk chunk) {
+        StringBuilder sb = new StringBuilder(chunk.pacientes().size() * 64);
+        for (Paciente paciente : chunk.pacientes()) {
+            appendField(sb, paciente.getNombre()).append(',');
+            appendField(sb, paciente.getApellido()).append(',');
+            appendField(sb, paciente.getDni()).append(',');
+            appendField(sb, paciente.getFechaNacimiento() != null ? paciente.getFechaNacimiento().toString() : null)
+                    .append(',');
+            HistoriaClinica hc = paciente.getHistoriaClinica();
+            appendField(sb, hc != null ? hc.getNumeroHistoria() : null).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Agrega un campo CSV (RFC 4180): entre comillas dobles solo si contiene
+     * coma, comillas o saltos de línea; <code>null</code> es un campo vacío.
+     *
+     * @param sb    El destino.
+     * @param valor El valor del campo.
+     * @return El mismo <code>StringBuilder</code>.
+     */
+    public static StringBuilder appendField(StringBuilder sb, String valor) {
+        if (valor == null) {
+            return sb;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            return sb.append(valor);
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    private synchronized void fail() {
+        fallido = true;
+        notifyAll();
+    }
+}
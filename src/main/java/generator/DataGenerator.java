@@ -0,0 +1,302 @@
+package generator;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import models.GrupoSanguineo;
+import models.HistoriaClinica;
+import models.Paciente;
+
+/**
+ * Generador de datos sintéticos de pacientes e historias clínicas, en paralelo
+ * y reproducible.
+ * <p>
+ * Reemplaza a <code>sql/.../03_carga_masiva.sql</code> para volúmenes
+ * grandes (los CTE recursivos con <code>RAND()</code> están limitados por
+ * <code>cte_max_recursion_depth</code> y son lentos a partir de unos cientos
+ * de miles de filas), con las mismas reglas:
+ * </p>
+ * <ul>
+ * <li>Nombres y apellidos de las mismas listas de 50 valores, seguidos de una
+ * inicial que depende del número de secuencia (sin el punto del script, para
+ * que las filas pasen las validaciones de
+ * {@link service.PacienteService}).</li>
+ * <li>DNI secuencial y único: <code>10000000 + n * 7 - 1</code>.</li>
+ * <li>Edad entre 18 y 75 años respecto de la fecha de referencia.</li>
+ * <li>Número de historia <code>HC-</code> + el número de secuencia con al
+ * menos 6 dígitos; solo los primeros <code>historias</code> pacientes tienen
+ * una (en el script, 1000 de 1500).</li>
+ * <li>Grupo sanguíneo con la distribución de la población: O+ 38%, A+ 34%,
+ * B+ 9%, O- 7%, A- 6%, AB+ 3%, B- 2%, AB- 1%.</li>
+ * <li>Antecedentes, medicación y observaciones de las mismas listas.</li>
+ * </ul>
+ *
+ * <h3>Paralelismo y reproducibilidad:</h3>
+ * <p>
+ * Las filas se generan en bloques de {@value #CHUNK_SIZE}. Cada bloque usa su
+ * propio {@link SplittableRandom}, sembrado con la semilla y el número de
+ * bloque: el contenido de cada bloque es el mismo sin importar qué hilo lo
+ * genere ni cuántos hilos haya. A lo sumo hay un bloque en memoria por hilo.
+ * </p>
+ *
+ * @author alpha team
+ * @see CsvSink
+ * @see DatabaseSink
+ */
+public final class DataGenerator {
+
+    /**
+     * Filas (pacientes) por bloque.
+     */
+    public static final int CHUNK_SIZE = 10_000;
+
+    /**
+     * DNI inicial (igual que <code>@dni_inicial</code> del script).
+     */
+    private static final long DNI_INICIAL = 10_000_000L;
+
+    private static final int EDAD_MINIMA = 18;
+    private static final int EDAD_MAXIMA = 75;
+
+    private static final String[] NOMBRES = {
+        "Juan", "María", "Carlos", "Ana", "Luis", "Laura", "Pedro", "Sofía",
+        "Miguel", "Elena", "Francisco", "Isabel", "Javier", "Carmen", "Antonio",
+        "Lucía", "David", "Patricia", "José", "Marta", "Daniel", "Paula", "Alejandro",
+        "Cristina", "Manuel", "Sara", "Sergio", "Eva", "Fernando", "Raquel", "Jorge",
+        "Beatriz", "Ricardo", "Nuria", "Rubén", "Verónica", "Óscar", "Lorena",
+        "Guillermo", "Silvia", "Adrián", "Mónica", "Enrique", "Pilar", "Diego",
+        "Alba", "Ivan", "Rocío", "Andrés", "Teresa"
+    };
+
+    private static final String[] APELLIDOS = {
+        "García", "Rodríguez", "González", "Fernández", "López", "Martínez",
+        "Sánchez", "Pérez", "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández",
+        "Díaz", "Moreno", "Muñoz", "Álvarez", "Romero", "Alonso", "Gutiérrez",
+        "Navarro", "Torres", "Domínguez", "Vázquez", "Ramos", "Gil", "Ramírez",
+        "Serrano", "Blanco", "Molina", "Morales", "Suárez", "Ortega", "Delgado",
+        "Castro", "Ortiz", "Rubio", "Marín", "Sanz", "Iglesias", "Nuñez", "Medina",
+        "Garrido", "Santos", "Castillo", "Cortés", "Lozano", "Guerrero", "Cano",
+        "Prieto"
+    };
+
+    private static final String[] ANTECEDENTES = {
+        "Antecedentes familiares de diabetes", "Alergia a penicilina",
+        "Hipertensión arterial controlada", "Antecedentes quirúrgicos: apendicectomía",
+        "Sin antecedentes relevantes"
+    };
+
+    private static final String[] MEDICACIONES = {
+        "Aspirina 100mg diarios", "Metformina 500mg cada 12 horas",
+        "Atorvastatina 200mg nocturnos", "No medicación actual"
+    };
+
+    private static final String[] OBSERVACIONES = {
+        "Paciente estable, control en 6 meses", "Requiere seguimiento estrecho",
+        "Evolución favorable"
+    };
+
+    /**
+     * Distribución acumulada de los grupos sanguíneos (mismos umbrales que
+     * el <code>CASE</code> del script).
+     */
+    private static final double[] GRUPOS_ACUMULADO = { 0.38, 0.72, 0.81, 0.88, 0.94, 0.97, 0.99, 1.0 };
+    private static final GrupoSanguineo[] GRUPOS = {
+        GrupoSanguineo.O_PLUS, GrupoSanguineo.A_PLUS, GrupoSanguineo.B_PLUS, GrupoSanguineo.O_MINUS,
+        GrupoSanguineo.A_MINUS, GrupoSanguineo.AB_PLUS, GrupoSanguineo.B_MINUS, GrupoSanguineo.AB_MINUS
+    };
+
+    private final long pacientes;
+    private final long historias;
+    private final long seed;
+    private final long primerNumero;
+    private final LocalDate fechaReferencia;
+    private final int threads;
+
+    /**
+     * Crea un generador.
+     *
+     * @param pacientes       Cantidad de pacientes a generar.
+     * @param historias       Cuántos de ellos (los primeros) tienen historia
+     *                        clínica.
+     * @param seed            Semilla del generador pseudoaleatorio.
+     * @param primerNumero    Número de secuencia del primer paciente (define
+     *                        su DNI y su número de historia; usar uno mayor
+     *                        a los existentes para agregar datos a una base
+     *                        ya cargada).
+     * @param fechaReferencia Fecha respecto de la cual se calculan las edades
+     *                        (parte de la reproducibilidad junto con la
+     *                        semilla).
+     * @param threads         Cantidad de hilos.
+     * @throws IllegalArgumentException Si algún valor está fuera de rango.
+     */
+    public DataGenerator(long pacientes, long historias, long seed, long primerNumero, LocalDate fechaReferencia,
+            int threads) {
+        if (pacientes < 0 || historias < 0 || historias > pacientes) {
+            throw new IllegalArgumentException(
+                    "Cantidades inválidas: se requiere 0 <= historias <= pacientes.");
+        }
+        if (primerNumero <= 0) {
+            throw new IllegalArgumentException("El primer número de secuencia debe ser mayor a cero.");
+        }
+        if (fechaReferencia == null) {
+            throw new IllegalArgumentException("La fecha de referencia no puede ser null.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser mayor a cero.");
+        }
+        this.pacientes = pacientes;
+        this.historias = historias;
+        this.seed = seed;
+        this.primerNumero = primerNumero;
+        this.fechaReferencia = fechaReferencia;
+        this.threads = threads;
+    }
+
+    /**
+     * Genera todas las filas y las entrega al destino, con hasta
+     * <code>min(threads, sink.maxConcurrency())</code> bloques a la vez. Si
+     * un bloque falla no se generan más y se relanza el primer error.
+     *
+     * @param sink El destino (no se cierra).
+     * @throws IOException  Si el destino falla al escribir archivos.
+     * @throws SQLException Si el destino falla al escribir en la base.
+     */
+    public void generate(DataSink sink) throws IOException, SQLException {
+
+        int paralelismo = Math.max(1, Math.min(threads, sink.maxConcurrency()));
+        int bloques = chunkCount();
+        // Un permiso por hilo: todo bloque enviado tiene un hilo que lo ejecuta
+        // (los destinos ordenados esperan al bloque anterior sin riesgo de
+        // bloqueo mutuo)
+        Semaphore enCurso = new Semaphore(paralelismo);
+        AtomicReference<Exception> primerError = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(paralelismo,
+                Thread.ofPlatform().name("generador-", 1).factory());
+
+        try {
+            for (int i = 0; i < bloques && primerError.get() == null; i++) {
+                enCurso.acquireUninterruptibly();
+                int bloque = i;
+                executor.execute(() -> {
+                    try {
+                        sink.write(chunk(bloque));
+                    } catch (Exception e) {
+                        primerError.compareAndSet(null, e);
+                    } finally {
+                        enCurso.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+
+        Exception error = primerError.get();
+        if (error instanceof IOException e) {
+            throw e;
+        } else if (error instanceof SQLException e) {
+            throw e;
+        } else if (error instanceof RuntimeException e) {
+            throw e;
+        }
+    }
+
+    /**
+     * Genera un bloque. Depende solo de la configuración y del número de
+     * bloque.
+     *
+     * @param index Número de bloque (desde 0).
+     * @return Las filas del bloque.
+     */
+    public Chunk chunk(int index) {
+
+        long desde = (long) index * CHUNK_SIZE;
+        int cantidad = (int) Math.min(CHUNK_SIZE, pacientes - desde);
+        SplittableRandom random = new SplittableRandom(mix64(seed ^ mix64(index)));
+
+        List<HistoriaClinica> historiasBloque = new ArrayList<>();
+        List<Paciente> pacientesBloque = new ArrayList<>(cantidad);
+
+        for (int i = 0; i < cantidad; i++) {
+            long fila = desde + i;
+            long numero = primerNumero + fila;
+
+            HistoriaClinica historia = null;
+            if (fila < historias) {
+                historia = new HistoriaClinica(nroHistoria(numero), bloodGroup(random.nextDouble()),
+                        pick(random, ANTECEDENTES), pick(random, MEDICACIONES), pick(random, OBSERVACIONES));
+                historiasBloque.add(historia);
+            }
+
+            String nombre = pick(random, NOMBRES) + " " + (char) ('A' + numero % 26);
+            String apellido = pick(random, APELLIDOS) + " " + (char) ('A' + (numero + 7) % 26);
+            long dias = EDAD_MINIMA * 365L + (long) (random.nextDouble() * (EDAD_MAXIMA - EDAD_MINIMA) * 365);
+            pacientesBloque.add(new Paciente(nombre, apellido, String.valueOf(DNI_INICIAL + numero * 7 - 1),
+                    fechaReferencia.minusDays(dias), historia));
+        }
+        return new Chunk(index, historiasBloque, pacientesBloque);
+    }
+
+    /**
+     * Devuelve la cantidad de bloques a generar.
+     *
+     * @return La cantidad de bloques.
+     */
+    public int chunkCount() {
+        return (int) ((pacientes + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    // ============ DISTRIBUCIONES ============
+    /**
+     * Elige el grupo sanguíneo según la distribución acumulada.
+     *
+     * @param u Un valor uniforme en [0, 1).
+     * @return El grupo sanguíneo.
+     */
+    static GrupoSanguineo bloodGroup(double u) {
+        int i = 0;
+        while (u >= GRUPOS_ACUMULADO[i] && i < GRUPOS.length - 1) {
+            i++;
+        }
+        return GRUPOS[i];
+    }
+
+    /**
+     * <code>CONCAT('HC-', LPAD(n, 6, '0'))</code>, sin recortar los números de
+     * más de 6 dígitos.
+     */
+    private static String nroHistoria(long numero) {
+        String digitos = Long.toString(numero);
+        return digitos.length() >= 6 ? "HC-" + digitos : "HC-" + "000000".substring(digitos.length()) + digitos;
+    }
+
+    private static String pick(SplittableRandom random, String[] valores) {
+        return valores[random.nextInt(valores.length)];
+    }
+
+    /**
+     * Función de mezcla de 64 bits (variante 13 de Stafford, la misma de
+     * <code>SplittableRandom</code>): semillas consecutivas dan secuencias
+     * sin relación entre sí.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,46 @@
+package generator;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Destino de las filas generadas por {@link DataGenerator}.
+ * <p>
+ * {@link #write(Chunk)} se llama desde varios hilos a la vez, con bloques
+ * distintos y sin orden garantizado: cada implementación decide si los
+ * escribe en paralelo ({@link DatabaseSink}) o en orden ({@link CsvSink}).
+ * </p>
+ *
+ * @author alpha team
+ * @see CsvSink
+ * @see DatabaseSink
+ */
+public interface DataSink extends AutoCloseable {
+
+    /**
+     * Escribe un bloque de filas.
+     *
+     * @param chunk El bloque generado.
+     * @throws IOException  Si falla la escritura de archivos.
+     * @throws SQLException Si falla la escritura en la base de datos.
+     */
+    void write(Chunk chunk) throws IOException, SQLException;
+
+    /**
+     * Cantidad máxima de bloques que conviene escribir a la vez (ej: el
+     * tamaño del pool de conexiones).
+     *
+     * @return El límite de paralelismo del destino.
+     */
+    default int maxConcurrency() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Termina la escritura (vacía buffers y cierra archivos).
+     *
+     * @throws IOException Si falla el cierre de algún archivo.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,77 @@
+package generator;
+
+import java.sql.SQLException;
+
+import config.DatabaseConnection;
+import config.TransactionManager;
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+
+/**
+ * Escribe los bloques generados en la base de datos configurada, con los
+ * <code>insertBatch</code> de los DAOs.
+ * <p>
+ * Cada bloque es una transacción: primero sus historias clínicas (los IDs
+ * generados quedan en las entidades) y luego sus pacientes, que las
+ * referencian. Los bloques se escriben en paralelo, uno por conexión del pool
+ * ({@link #maxConcurrency()}); con <code>rewriteBatchedStatements=true</code>
+ * cada lote de {@link DatabaseConnection#getBatchSize()} filas viaja como un
+ * único <code>INSERT</code> multi-fila.
+ * </p>
+ * <p>
+ * Con <code>db.backend=memory</code> los DAOs en memoria reciben las mismas
+ * llamadas.
+ * </p>
+ *
+ * @author alpha team
+ * @see DataGenerator
+ */
+public class DatabaseSink implements DataSink {
+
+    private final HistoriaClinicaDAO historiaClinicaDAO;
+    private final PacienteDAO pacienteDAO;
+
+    /**
+     * Crea el destino.
+     *
+     * @param historiaClinicaDAO El DAO de historias clínicas.
+     * @param pacienteDAO        El DAO de pacientes.
+     * @throws IllegalArgumentException Si algún DAO es nulo.
+     */
+    public DatabaseSink(HistoriaClinicaDAO historiaClinicaDAO, PacienteDAO pacienteDAO) {
+        if (historiaClinicaDAO == null || pacienteDAO == null) {
+            throw new IllegalArgumentException("Los DAOs no pueden ser null.");
+        }
+        this.historiaClinicaDAO = historiaClinicaDAO;
+        this.pacienteDAO = pacienteDAO;
+    }
+
+    @Override
+    public void write(Chunk chunk) throws SQLException {
+        try (TransactionManager tx = TransactionManager.begin()) {
+            if (!chunk.historias().isEmpty()) {
+                historiaClinicaDAO.insertBatch(chunk.historias(), tx.getConnection());
+            }
+            pacienteDAO.insertBatch(chunk.pacientes(), tx.getConnection());
+            tx.commit();
+        } catch (SQLException e) {
+            throw new SQLException("Error al insertar el bloque " + chunk.index() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Una transacción por conexión: el tamaño máximo del pool.
+     * </p>
+     */
+    @Override
+    public int maxConcurrency() {
+        return DatabaseConnection.getPoolMaxSize();
+    }
+
+    @Override
+    public void close() {
+        // Cada bloque confirma su propia transacción: no queda nada pendiente
+    }
+}
@@ -0,0 +1,674 @@
+package ingest;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ObjLongConsumer;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import config.DatabaseConnection;
+import exceptions.ValidationException;
+import generator.CsvSink;
+import models.GrupoSanguineo;
+import models.HistoriaClinica;
+import models.Paciente;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Importador masivo de pacientes e historias clínicas desde un CSV, con
+ * <code>LOAD DATA LOCAL INFILE</code>.
+ * <p>
+ * Insertar fila por fila con {@link dao.PacienteDAO#insert} no pasa de unos
+ * cientos de filas por segundo. El importador, en cambio:
+ * </p>
+ * <ol>
+ * <li><b>Valida por fila</b> en Java, con las mismas reglas que
+ * {@link PacienteService#validateEntity} e
+ * {@link HistoriaClinicaService#validateEntity}, más los límites del esquema
+ * (largos de columna y restricciones <code>CHECK</code>). Los registros
+ * inválidos van al archivo de rechazos con su línea, el motivo y el texto
+ * original.</li>
+ * <li><b>Carga</b> los registros válidos en una tabla temporal
+ * (<code>ImportStaging</code>) con <code>LOAD DATA LOCAL INFILE</code>: se
+ * formatean en otro hilo y llegan al driver por un <code>InputStream</code>
+ * (sin archivo temporal).</li>
+ * <li><b>Valida por conjunto</b> en SQL: DNIs y números de historia repetidos
+ * en el archivo (se conserva el primero) o ya registrados, e historias
+ * referenciadas inexistentes o ya asignadas. Estos rechazos también van al
+ * archivo.</li>
+ * <li><b>Combina</b> en una transacción con
+ * <code>INSERT ... SELECT</code>: primero las historias clínicas y luego los
+ * pacientes, que se vinculan a su HC por <code>nro_historia</code>.</li>
+ * </ol>
+ *
+ * <h3>Formato del CSV:</h3>
+ * <p>
+ * UTF-8, con encabezado; las columnas se reconocen por nombre y en cualquier
+ * orden: <code>nombre, apellido, dni, fecha_nacimiento, nro_historia,
+ * grupo_sanguineo, antecedentes, medicacion_actual, observaciones</code>. Un
+ * archivo con <code>dni</code> carga pacientes; uno con
+ * <code>grupo_sanguineo</code> crea historias clínicas. Si solo tiene
+ * pacientes, <code>nro_historia</code> referencia una HC existente. Así se
+ * importan los archivos de {@link CsvSink} (primero
+ * {@value CsvSink#HISTORIAS_FILE}, después {@value CsvSink#PACIENTES_FILE}).
+ * </p>
+ *
+ * <h3>Requisitos:</h3>
+ * <p>
+ * <code>local_infile=ON</code> en el servidor MySQL. La conexión se abre
+ * fuera del pool con {@link DatabaseConnection#openBulkLoadConnection()}.
+ * </p>
+ *
+ * @author alpha team
+ * @see ImportResult
+ */
+public class BulkImporter {
+
+    /**
+     * Cada cuántos registros leídos se informa el progreso.
+     */
+    public static final int PROGRESS_INTERVAL = 100_000;
+
+    /**
+     * Columnas reconocidas en el encabezado del CSV.
+     */
+    private static final List<String> COLUMNAS = List.of("nombre", "apellido", "dni", "fecha_nacimiento",
+            "nro_historia", "grupo_sanguineo", "antecedentes", "medicacion_actual", "observaciones");
+
+    private static final int NOMBRE = 0;
+    private static final int APELLIDO = 1;
+    private static final int DNI = 2;
+    private static final int FECHA = 3;
+    private static final int NRO_HISTORIA = 4;
+    private static final int GRUPO = 5;
+    private static final int ANTECEDENTES = 6;
+    private static final int MEDICACION = 7;
+    private static final int OBSERVACIONES = 8;
+
+    /**
+     * Largo máximo de nombre y apellido (<code>VARCHAR(80)</code>).
+     */
+    private static final int MAX_NOMBRE = 80;
+
+    /**
+     * Largo máximo en bytes de los textos de la HC (<code>TEXT</code>).
+     * <code>LOAD DATA LOCAL</code> trunca los valores más largos sin error.
+     */
+    private static final int MAX_TEXTO_BYTES = 65_535;
+
+    /**
+     * Año de nacimiento mínimo exclusivo (<code>chk_anio_minimo_1900</code>).
+     * La validación del servicio acepta todo 1900, pero la restricción
+     * <code>CHECK</code> de la tabla no.
+     */
+    private static final int ANIO_MINIMO_EXCLUSIVO = 1900;
+
+    /**
+     * Tamaño del buffer entre el hilo que formatea y el driver.
+     */
+    private static final int PIPE_BUFFER = 1 << 20;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMPORARY TABLE ImportStaging (
+                linea BIGINT NOT NULL,
+                nombre VARCHAR(80) NULL,
+                apellido VARCHAR(80) NULL,
+                dni VARCHAR(15) NULL,
+                fecha_nacimiento DATE NULL,
+                nro_historia VARCHAR(20) NULL,
+                crea_hc BOOLEAN NOT NULL,
+                grupo_sanguineo VARCHAR(8) NULL,
+                antecedentes TEXT NULL,
+                medicacion_actual TEXT NULL,
+                observaciones TEXT NULL,
+                motivo VARCHAR(255) NULL
+            ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4
+            """;
+
+    /**
+     * El nombre de archivo es simbólico: el driver lee del
+     * <code>InputStream</code> asignado al statement.
+     */
+    private static final String LOAD_SQL = """
+            LOAD DATA LOCAL INFILE 'import-staging.tsv' INTO TABLE ImportStaging
+            CHARACTER SET utf8mb4
+            FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'
+            LINES TERMINATED BY '\\n'
+            (linea, nombre, apellido, dni, fecha_nacimiento, nro_historia, crea_hc,
+             grupo_sanguineo, antecedentes, medicacion_actual, observaciones)
+            """;
+
+    // Los índices se crean después de la carga: es más rápido que mantenerlos fila por fila
+    private static final String INDEX_STAGING_SQL = """
+            ALTER TABLE ImportStaging
+                ADD PRIMARY KEY (linea),
+                ADD INDEX idx_staging_dni (dni),
+                ADD INDEX idx_staging_nro (nro_historia)
+            """;
+
+    /**
+     * Validaciones por conjunto, en orden. Cada una solo marca registros que
+     * todavía no tienen motivo de rechazo.
+     * <p>
+     * MySQL no permite referenciar dos veces una tabla temporal en la misma
+     * sentencia (error 1137, ni siquiera desde una tabla derivada), por lo que
+     * los repetidos dentro del archivo se resuelven en dos pasos: primero se
+     * guarda la primera línea de cada clave repetida en otra tabla temporal
+     * (<code>ImportDuplicados</code>) y luego se marca el resto.
+     * </p>
+     */
+    private static final String[] VALIDATION_SQL = {
+        // DNI repetido en el archivo: se conserva la primera aparición
+        """
+        CREATE TEMPORARY TABLE ImportDuplicados (INDEX (clave))
+        SELECT dni AS clave, MIN(linea) AS primera FROM ImportStaging
+        WHERE dni IS NOT NULL AND motivo IS NULL GROUP BY dni HAVING COUNT(*) > 1
+        """,
+        """
+        UPDATE ImportStaging s
+        JOIN ImportDuplicados d ON d.clave = s.dni
+        SET s.motivo = 'DNI repetido en el archivo'
+        WHERE s.linea > d.primera AND s.motivo IS NULL
+        """,
+        "DROP TEMPORARY TABLE ImportDuplicados",
+        // Número de historia repetido entre las HC a crear
+        """
+        CREATE TEMPORARY TABLE ImportDuplicados (INDEX (clave))
+        SELECT nro_historia AS clave, MIN(linea) AS primera FROM ImportStaging
+        WHERE crea_hc AND motivo IS NULL GROUP BY nro_historia HAVING COUNT(*) > 1
+        """,
+        """
+        UPDATE ImportStaging s
+        JOIN ImportDuplicados d ON d.clave = s.nro_historia
+        SET s.motivo = 'Número de historia repetido en el archivo'
+        WHERE s.crea_hc AND s.linea > d.primera AND s.motivo IS NULL
+        """,
+        "DROP TEMPORARY TABLE ImportDuplicados",
+        // Una HC para más de un paciente del archivo (relación 1 a 1)
+        """
+        CREATE TEMPORARY TABLE ImportDuplicados (INDEX (clave))
+        SELECT nro_historia AS clave, MIN(linea) AS primera FROM ImportStaging
+        WHERE dni IS NOT NULL AND nro_historia IS NOT NULL AND motivo IS NULL
+        GROUP BY nro_historia HAVING COUNT(*) > 1
+        """,
+        """
+        UPDATE ImportStaging s
+        JOIN ImportDuplicados d ON d.clave = s.nro_historia
+        SET s.motivo = 'Historia clínica asignada a más de un paciente del archivo'
+        WHERE s.dni IS NOT NULL AND s.linea > d.primera AND s.motivo IS NULL
+        """,
+        "DROP TEMPORARY TABLE ImportDuplicados",
+        """
+        UPDATE ImportStaging s
+        JOIN Paciente p ON p.dni = s.dni
+        SET s.motivo = 'DNI ya registrado'
+        WHERE s.motivo IS NULL
+        """,
+        """
+        UPDATE ImportStaging s
+        JOIN HistoriaClinica hc ON hc.nro_historia = s.nro_historia
+        SET s.motivo = 'Número de historia ya registrado'
+        WHERE s.crea_hc AND s.motivo IS NULL
+        """,
+        """
+        UPDATE ImportStaging s
+        LEFT JOIN HistoriaClinica hc ON hc.nro_historia = s.nro_historia AND hc.eliminado = FALSE
+        SET s.motivo = 'Historia clínica inexistente o eliminada'
+        WHERE NOT s.crea_hc AND s.nro_historia IS NOT NULL AND hc.id IS NULL AND s.motivo IS NULL
+        """,
+        """
+        UPDATE ImportStaging s
+        JOIN HistoriaClinica hc ON hc.nro_historia = s.nro_historia
+        JOIN Paciente p ON p.historia_clinica_id = hc.id
+        SET s.motivo = 'Historia clínica ya asignada a otro paciente'
+        WHERE NOT s.crea_hc AND s.motivo IS NULL
+        """
+    };
+
+    private static final String REJECTED_SQL = """
+            SELECT linea, motivo, nombre, apellido, dni, fecha_nacimiento, nro_historia, grupo_sanguineo,
+                   antecedentes, medicacion_actual, observaciones
+            FROM ImportStaging WHERE motivo IS NOT NULL ORDER BY linea
+            """;
+
+    private static final String MERGE_HISTORIAS_SQL = """
+            INSERT INTO HistoriaClinica (nro_historia, grupo_sanguineo_id, antecedentes, medicacion_actual,
+                                         observaciones)
+            SELECT s.nro_historia, gs.id, s.antecedentes, s.medicacion_actual, s.observaciones
+            FROM ImportStaging s
+            LEFT JOIN GrupoSanguineo gs ON gs.nombre_enum = s.grupo_sanguineo
+            WHERE s.crea_hc AND s.motivo IS NULL
+            ORDER BY s.linea
+            """;
+
+    // El vínculo con la HC (creada arriba o existente) se resuelve por número de historia
+    private static final String MERGE_PACIENTES_SQL = """
+            INSERT INTO Paciente (nombre, apellido, dni, fecha_nacimiento, historia_clinica_id)
+            SELECT s.nombre, s.apellido, s.dni, s.fecha_nacimiento, hc.id
+            FROM ImportStaging s
+            LEFT JOIN HistoriaClinica hc ON hc.nro_historia = s.nro_historia
+            WHERE s.dni IS NOT NULL AND s.motivo IS NULL
+            ORDER BY s.linea
+            """;
+
+    private final PacienteService pacienteService;
+    private final HistoriaClinicaService historiaClinicaService;
+    private final ObjLongConsumer<String> progress;
+
+    /**
+     * Crea el importador.
+     *
+     * @param pacienteService        Servicio cuyas reglas validan cada
+     *                               paciente.
+     * @param historiaClinicaService Servicio cuyas reglas validan cada HC (su
+     *                               índice de búsqueda se invalida al
+     *                               terminar).
+     * @param progress               Recibe la etapa y la cantidad de
+     *                               registros procesados (ej:
+     *                               <code>("lectura", 200000)</code>).
+     * @throws IllegalArgumentException Si algún parámetro es nulo.
+     */
+    public BulkImporter(PacienteService pacienteService, HistoriaClinicaService historiaClinicaService,
+            ObjLongConsumer<String> progress) {
+        if (pacienteService == null || historiaClinicaService == null || progress == null) {
+            throw new IllegalArgumentException("Los servicios y el receptor de progreso no pueden ser null.");
+        }
+        this.pacienteService = pacienteService;
+        this.historiaClinicaService = historiaClinicaService;
+        this.progress = progress;
+    }
+
+    /**
+     * Importa un CSV.
+     *
+     * @param archivo  El CSV a importar.
+     * @param rechazos El archivo de rechazos (se reemplaza):
+     *                 <code>linea,motivo,registro</code>.
+     * @return Las cantidades leídas, rechazadas e insertadas.
+     * @throws IOException  Si falla la lectura del CSV, su encabezado es
+     *                      inválido o falla la escritura de los rechazos.
+     * @throws SQLException Si falla la carga o la combinación (la combinación
+     *                      se deshace completa).
+     */
+    public ImportResult importFile(Path archivo, Path rechazos) throws IOException, SQLException {
+
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(archivo, StandardCharsets.UTF_8));
+                BufferedWriter rechazados = Files.newBufferedWriter(rechazos, StandardCharsets.UTF_8);
+                Connection conn = DatabaseConnection.openBulkLoadConnection();
+                Statement stmt = conn.createStatement()) {
+
+            int[] columnas = readHeader(csv);
+            rechazados.write("linea,motivo,registro\n");
+
+            stmt.execute(CREATE_STAGING_SQL);
+            Staging staging = new Staging(csv, columnas, rechazados);
+            long cargadas = load(stmt, staging);
+            if (cargadas != staging.cargadas) {
+                throw new SQLException("LOAD DATA cargó " + cargadas + " de " + staging.cargadas + " registros.");
+            }
+            progress.accept("carga", cargadas);
+
+            stmt.execute(INDEX_STAGING_SQL);
+            for (String sql : VALIDATION_SQL) {
+                stmt.executeUpdate(sql);
+            }
+            long rechazadasSql = writeRejected(stmt, columnas, rechazados);
+            progress.accept("validación", staging.rechazadas + rechazadasSql);
+
+            long[] insertadas = merge(conn, stmt);
+            if (insertadas[0] > 0) {
+                historiaClinicaService.invalidateSearchIndex();
+            }
+
+            return new ImportResult(staging.leidas, staging.rechazadas + rechazadasSql, insertadas[0],
+                    insertadas[1], rechazos);
+        }
+    }
+
+    // ============ ETAPAS ============
+    /**
+     * Ejecuta <code>LOAD DATA</code> leyendo de un pipe que otro hilo llena
+     * con los registros válidos.
+     *
+     * @return Las filas cargadas según el servidor.
+     */
+    private long load(Statement stmt, Staging staging) throws IOException, SQLException {
+
+        AtomicReference<Exception> errorProductor = new AtomicReference<>();
+        PipedInputStream entrada = new PipedInputStream(PIPE_BUFFER);
+        PipedOutputStream salida = new PipedOutputStream(entrada);
+
+        Thread productor = Thread.ofPlatform().name("import-staging").start(() -> {
+            try (OutputStream out = new BufferedOutputStream(salida, PIPE_BUFFER)) {
+                staging.writeTo(out);
+            } catch (Exception e) {
+                errorProductor.set(e);
+            }
+        });
+
+        long cargadas;
+        try {
+            // El driver MySQL lee el "archivo" de LOAD DATA LOCAL INFILE de este stream
+            stmt.unwrap(JdbcStatement.class).setLocalInfileInputStream(entrada);
+            cargadas = stmt.executeLargeUpdate(LOAD_SQL);
+        } finally {
+            // Si el servidor cortó la carga, el productor queda libre al cerrarse el pipe
+            entrada.close();
+            try {
+                productor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Exception error = errorProductor.get();
+        if (error instanceof IOException e) {
+            throw e;
+        } else if (error != null) {
+            throw new IOException("Error al preparar los registros: " + error.getMessage(), error);
+        }
+        return cargadas;
+    }
+
+    /**
+     * Copia al archivo de rechazos los registros marcados por las
+     * validaciones por conjunto.
+     *
+     * @return La cantidad de registros rechazados.
+     */
+    private static long writeRejected(Statement stmt, int[] columnas, Writer rechazados)
+            throws IOException, SQLException {
+
+        long cantidad = 0;
+        String[] valores = new String[COLUMNAS.size()];
+        try (ResultSet rs = stmt.executeQuery(REJECTED_SQL)) {
+            while (rs.next()) {
+                for (int i = 0; i < valores.length; i++) {
+                    valores[i] = rs.getString(3 + i);
+                }
+                Date fecha = rs.getDate("fecha_nacimiento");
+                valores[FECHA] = fecha != null ? fecha.toLocalDate().toString() : null;
+
+                // Se reconstruye el registro con el orden de columnas del archivo
+                StringBuilder registro = new StringBuilder();
+                for (int i = 0; i < columnas.length; i++) {
+                    if (i > 0) {
+                        registro.append(',');
+                    }
+                    CsvSink.appendField(registro, columnas[i] >= 0 ? valores[columnas[i]] : null);
+                }
+                reject(rechazados, rs.getLong("linea"), rs.getString("motivo"), registro.toString());
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
+    /**
+     * Inserta las historias clínicas y los pacientes aceptados en una única
+     * transacción.
+     *
+     * @return Historias y pacientes insertados.
+     */
+    private long[] merge(Connection conn, Statement stmt) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            long historias = stmt.executeLargeUpdate(MERGE_HISTORIAS_SQL);
+            progress.accept("historias", historias);
+            long pacientes = stmt.executeLargeUpdate(MERGE_PACIENTES_SQL);
+            progress.accept("pacientes", pacientes);
+            conn.commit();
+            return new long[] { historias, pacientes };
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Error al combinar los registros importados: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ============ LECTURA Y VALIDACIÓN POR FILA ============
+    /**
+     * Registros del CSV: los valida uno por uno y escribe los válidos en el
+     * formato de <code>LOAD DATA</code> (un registro por línea, campos
+     * separados por tabulación, <code>\N</code> para <code>NULL</code>).
+     */
+    private final class Staging {
+        private final CsvReader csv;
+        private final int[] columnas;
+        private final Writer rechazados;
+        private final boolean conPacientes;
+        private final boolean conHistorias;
+
+        private long leidas;
+        private long rechazadas;
+        private long cargadas;
+
+        private Staging(CsvReader csv, int[] columnas, Writer rechazados) {
+            this.csv = csv;
+            this.columnas = columnas;
+            this.rechazados = rechazados;
+            this.conPacientes = contains(columnas, DNI);
+            this.conHistorias = contains(columnas, GRUPO);
+        }
+
+        private void writeTo(OutputStream out) throws IOException {
+            String[] valores = new String[COLUMNAS.size()];
+            StringBuilder fila = new StringBuilder(256);
+            List<String> campos;
+
+            while ((campos = csv.next()) != null) {
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue; // línea vacía
+                }
+                leidas++;
+                if (leidas % PROGRESS_INTERVAL == 0) {
+                    progress.accept("lectura", leidas);
+                }
+                if (campos.size() != columnas.length) {
+                    reject(rechazados, csv.line(), "Se esperaban " + columnas.length + " campos y hay "
+                            + campos.size(), csv.original());
+                    rechazadas++;
+                    continue;
+                }
+
+                Arrays.fill(valores, null);
+                for (int i = 0; i < columnas.length; i++) {
+                    String valor = campos.get(i).trim();
+                    valores[columnas[i]] = valor.isEmpty() ? null : valor;
+                }
+
+                String motivo = validate(valores);
+                if (motivo != null) {
+                    reject(rechazados, csv.line(), motivo, csv.original());
+                    rechazadas++;
+                    continue;
+                }
+
+                fila.setLength(0);
+                fila.append(csv.line());
+                for (int i = 0; i < valores.length; i++) {
+                    fila.append('\t');
+                    if (i == GRUPO) {
+                        // crea_hc va entre nro_historia y grupo_sanguineo (ver LOAD_SQL)
+                        fila.append(createsHistoria(valores) ? '1' : '0').append('\t');
+                    }
+                    appendTsv(fila, valores[i]);
+                }
+                fila.append('\n');
+                out.write(fila.toString().getBytes(StandardCharsets.UTF_8));
+                cargadas++;
+            }
+            progress.accept("lectura", leidas);
+        }
+
+        private boolean createsHistoria(String[] valores) {
+            return conHistorias && valores[NRO_HISTORIA] != null;
+        }
+
+        /**
+         * Valida un registro con las reglas de los servicios y normaliza sus
+         * valores (DNI sin puntos, grupo sanguíneo como nombre del enum).
+         * También aplica los límites del esquema que los servicios no cubren
+         * (largos de columna y <code>CHECK</code>), para que la combinación no
+         * pueda fallar por un registro individual.
+         *
+         * @return El motivo del rechazo, o <code>null</code> si es válido.
+         */
+        private String validate(String[] valores) {
+            try {
+                HistoriaClinica historia = null;
+                if (createsHistoria(valores)) {
+                    historia = new HistoriaClinica(valores[NRO_HISTORIA], bloodGroup(valores[GRUPO]),
+                            valores[ANTECEDENTES], valores[MEDICACION], valores[OBSERVACIONES]);
+                    historiaClinicaService.validateEntity(historia);
+                    valores[GRUPO] = historia.getGrupoSanguineo().name();
+                    for (int i : new int[] { ANTECEDENTES, MEDICACION, OBSERVACIONES }) {
+                        if (valores[i] != null
+                                && valores[i].getBytes(StandardCharsets.UTF_8).length > MAX_TEXTO_BYTES) {
+                            return "El campo " + COLUMNAS.get(i) + " no puede superar " + MAX_TEXTO_BYTES
+                                    + " bytes.";
+                        }
+                    }
+                } else if (!conPacientes) {
+                    return "Falta el número de historia";
+                }
+
+                if (conPacientes) {
+                    LocalDate fecha = valores[FECHA] != null ? LocalDate.parse(valores[FECHA]) : null;
+                    Paciente paciente = new Paciente(valores[NOMBRE], valores[APELLIDO], valores[DNI], fecha,
+                            historia);
+                    pacienteService.validateEntity(paciente);
+                    if (fecha.getYear() <= ANIO_MINIMO_EXCLUSIVO) {
+                        // Un solo registro así haría fallar (y deshacer) toda la combinación
+                        return "La fecha de nacimiento debe ser posterior a " + ANIO_MINIMO_EXCLUSIVO + ".";
+                    }
+                    if (paciente.getNombre().length() > MAX_NOMBRE || paciente.getApellido().length() > MAX_NOMBRE) {
+                        return "El nombre y el apellido no pueden superar " + MAX_NOMBRE + " caracteres.";
+                    }
+                    valores[DNI] = paciente.getDni();
+                }
+                return null;
+
+            } catch (ValidationException e) {
+                return e.getMessage();
+            } catch (DateTimeParseException e) {
+                return "Fecha de nacimiento inválida (se espera AAAA-MM-DD): " + valores[FECHA];
+            }
+        }
+    }
+
+    // ============ HELPERS ============
+    /**
+     * Lee el encabezado y devuelve, por cada columna del archivo, su posición
+     * en {@link #COLUMNAS}.
+     */
+    private static int[] readHeader(CsvReader csv) throws IOException {
+        List<String> encabezado = csv.next();
+        if (encabezado == null) {
+            throw new IOException("El archivo está vacío.");
+        }
+        int[] columnas = new int[encabezado.size()];
+        for (int i = 0; i < columnas.length; i++) {
+            String nombre = encabezado.get(i).trim().toLowerCase();
+            if (i == 0 && !nombre.isEmpty() && nombre.charAt(0) == '\uFEFF') {
+                nombre = nombre.substring(1); // BOM de UTF-8
+            }
+            columnas[i] = COLUMNAS.indexOf(nombre);
+            if (columnas[i] < 0) {
+                throw new IOException("Columna desconocida en el encabezado: " + encabezado.get(i)
+                        + " (columnas posibles: " + String.join(", ", COLUMNAS) + ").");
+            }
+            for (int j = 0; j < i; j++) {
+                if (columnas[j] == columnas[i]) {
+                    throw new IOException("Columna repetida en el encabezado: " + nombre);
+                }
+            }
+        }
+        if (!contains(columnas, DNI) && !contains(columnas, GRUPO)) {
+            throw new IOException("El encabezado debe incluir 'dni' (pacientes) o 'grupo_sanguineo' "
+                    + "(historias clínicas).");
+        }
+        if (contains(columnas, GRUPO) && !contains(columnas, NRO_HISTORIA)) {
+            throw new IOException("Para crear historias clínicas el encabezado debe incluir 'nro_historia'.");
+        }
+        return columnas;
+    }
+
+    /**
+     * Acepta el nombre del enum (<code>A_PLUS</code>) o el símbolo
+     * (<code>A+</code>).
+     *
+     * @return El grupo, o <code>null</code> si no se reconoce (la validación
+     *         del servicio lo rechaza).
+     */
+    private static GrupoSanguineo bloodGroup(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        for (GrupoSanguineo grupo : GrupoSanguineo.values()) {
+            if (grupo.name().equalsIgnoreCase(valor) || grupo.toString().equalsIgnoreCase(valor)) {
+                return grupo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Agrega un valor con los escapes de <code>LOAD DATA</code> (barra
+     * invertida, tabulación y saltos de línea); <code>null</code> es
+     * <code>\N</code>.
+     */
+    private static void appendTsv(StringBuilder sb, String valor) {
+        if (valor == null) {
+            sb.append("\\N");
+            return;
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\0' -> sb.append("\\0");
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    private static void reject(Writer rechazados, long linea, String motivo, String registro) throws IOException {
+        StringBuilder sb = new StringBuilder().append(linea).append(',');
+        CsvSink.appendField(sb, motivo).append(',');
+        CsvSink.appendField(sb, registro).append('\n');
+        rechazados.write(sb.toString());
+    }
+
+    private static boolean contains(int[] columnas, int columna) {
+        for (int c : columnas) {
+            if (c == columna) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,141 @@
+package ingest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de registros CSV (RFC 4180): campos separados por coma, entre
+ * comillas dobles opcionales (<code>""</code> es una comilla literal) y con
+ * saltos de línea permitidos dentro de las comillas.
+ * <p>
+ * Además de los campos, conserva el texto original de cada registro, que es
+ * lo que se copia al archivo de rechazos.
+ * </p>
+ *
+ * @author alpha team
+ * @see BulkImporter
+ */
+final class CsvReader implements AutoCloseable {
+
+    private final Reader in;
+    private final StringBuilder campo = new StringBuilder();
+    private final StringBuilder original = new StringBuilder();
+
+    /**
+     * Línea del archivo en la que empieza el último registro leído (desde 1).
+     */
+    private long linea;
+    private long lineaActual = 1;
+    private int pendiente = -2;
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Lee el próximo registro.
+     *
+     * @return Los campos del registro (los vacíos como cadena vacía), o
+     *         <code>null</code> al final del archivo.
+     * @throws IOException Si falla la lectura o hay comillas sin cerrar.
+     */
+    List<String> next() throws IOException {
+
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> campos = new ArrayList<>();
+        original.setLength(0);
+        campo.setLength(0);
+        linea = lineaActual;
+        boolean entreComillas = false;
+
+        while (true) {
+            if (c == -1) {
+                if (entreComillas) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + linea + ".");
+                }
+                campos.add(campo.toString());
+                return campos;
+            }
+            if (entreComillas) {
+                if (c == '"') {
+                    int siguiente = read();
+                    if (siguiente == '"') {
+                        original.append('"');
+                        campo.append('"');
+                    } else {
+                        original.append('"');
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int siguiente = read();
+                    if (siguiente != '\n') {
+                        pendiente = siguiente;
+                    }
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            if (c != '\r' && c != '\n' || entreComillas) {
+                original.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Devuelve la línea en la que empieza el último registro leído.
+     *
+     * @return El número de línea (desde 1).
+     */
+    long line() {
+        return linea;
+    }
+
+    /**
+     * Devuelve el texto original del último registro leído (sin el salto de
+     * línea final).
+     *
+     * @return El registro tal como figura en el archivo.
+     */
+    String original() {
+        return original.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pendiente != -2) {
+            c = pendiente;
+            pendiente = -2;
+        } else {
+            c = in.read();
+        }
+        if (c == '\n') {
+            lineaActual++;
+        }
+        return c;
+    }
+}
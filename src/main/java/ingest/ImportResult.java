@@ -0,0 +1,19 @@
+package ingest;
+
+import java.nio.file.Path;
+
+/**
+ * Resultado de una importación de {@link BulkImporter}.
+ *
+ * @param leidas              Registros leídos del CSV (sin el encabezado ni
+ *                            las líneas vacías).
+ * @param rechazadas          Registros rechazados (validación por fila o por
+ *                            conjunto), escritos en <code>rechazos</code>.
+ * @param historiasInsertadas Historias clínicas insertadas.
+ * @param pacientesInsertados Pacientes insertados.
+ * @param rechazos            El archivo de rechazos.
+ * @author alpha team
+ */
+public record ImportResult(long leidas, long rechazadas, long historiasInsertadas, long pacientesInsertados,
+        Path rechazos) {
+}
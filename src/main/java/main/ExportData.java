@@ -0,0 +1,88 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import dao.GrupoSanguineoCatalog;
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+import exceptions.ServiceException;
+import export.DataExporter;
+import export.ExportFormat;
+import metrics.Instrumented;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Exporta pacientes o historias clínicas con {@link DataExporter}.
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * java main.ExportData &lt;pacientes|historias&gt; &lt;archivo&gt; [activos|eliminados]
+ * java main.ExportData pacientes pacientes.csv.gz
+ * java main.ExportData historias historias.ndjson eliminados
+ * </pre>
+ * <p>
+ * El formato se deduce de la extensión del archivo (<code>.csv</code>,
+ * <code>.ndjson</code> o <code>.jsonl</code>); con <code>.gz</code> al final
+ * la salida se comprime.
+ * </p>
+ *
+ * @author alpha team
+ * @see DataExporter
+ */
+public class ExportData {
+
+    public static void main(String[] args) {
+
+        if (args.length < 2) {
+            System.err.println("Uso: java main.ExportData <pacientes|historias> <archivo> [activos|eliminados]");
+            return;
+        }
+        String entidad = args[0].toLowerCase();
+        if (!entidad.equals("pacientes") && !entidad.equals("historias")) {
+            System.err.println("Entidad inválida (se espera pacientes o historias): " + args[0]);
+            return;
+        }
+        boolean deleted = args.length > 2 && args[2].equalsIgnoreCase("eliminados");
+        Path destino = Path.of(args[1]);
+        ExportFormat formato;
+        try {
+            formato = ExportFormat.fromFileName(args[1]);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        boolean gzip = args[1].toLowerCase().endsWith(".gz");
+
+        // Mismo "cableado" que AppMenu / MainGUI
+        HistoriaClinicaDAO historiaClinicaDAO = Instrumented.historiaClinicaDAO();
+        PacienteDAO pacienteDAO = Instrumented.pacienteDAO(historiaClinicaDAO);
+        HistoriaClinicaService historiaClinicaService = Instrumented.historiaClinicaService(historiaClinicaDAO);
+        PacienteService pacienteService = Instrumented.pacienteService(pacienteDAO, historiaClinicaService);
+        if (!Instrumented.isMemoryBackend()) {
+            GrupoSanguineoCatalog.shared().preload();
+        }
+
+        DataExporter exportador = new DataExporter(pacienteService, historiaClinicaService, formato, gzip,
+                (filas, filasPorSegundo) -> System.out.println(String.format(Locale.ROOT, "  %,d filas (%,.0f filas/s)",
+                        filas, filasPorSegundo)));
+
+        long inicio = System.nanoTime();
+        long filas;
+        try {
+            System.out.println("Exportando " + entidad + (deleted ? " eliminados" : "") + " a " + destino + "...");
+            filas = entidad.equals("pacientes")
+                    ? exportador.exportPacientes(destino, deleted)
+                    : exportador.exportHistorias(destino, deleted);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            System.out.println(String.format(Locale.ROOT, "✅ %d filas en %.1f s (%.1f MB).", filas, segundos,
+                    Files.size(destino) / 1e6));
+        } catch (IOException | ServiceException e) {
+            System.err.println("Error al exportar los datos: " + e.getMessage());
+        }
+    }
+}
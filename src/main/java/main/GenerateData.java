@@ -0,0 +1,112 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import dao.GrupoSanguineoCatalog;
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+import generator.CsvSink;
+import generator.DataGenerator;
+import generator.DataSink;
+import generator.DatabaseSink;
+import metrics.Instrumented;
+
+/**
+ * Genera pacientes e historias clínicas sintéticos con {@link DataGenerator}
+ * y los escribe en archivos CSV o directamente en la base de datos.
+ * <p>
+ * Como en <code>03_carga_masiva.sql</code>, dos de cada tres pacientes tienen
+ * historia clínica. Con la misma semilla y la misma fecha de referencia se
+ * obtienen exactamente los mismos datos.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * java main.GenerateData &lt;pacientes&gt; &lt;directorio|db&gt; [semilla] [primerNumero] [fecha]
+ * java main.GenerateData 20000000 datos/ 42
+ * java main.GenerateData 1000000 db 42 1501
+ * </pre>
+ * <ul>
+ * <li><code>directorio</code>: escribe {@value CsvSink#HISTORIAS_FILE} y
+ * {@value CsvSink#PACIENTES_FILE}.</li>
+ * <li><code>db</code>: inserta en la base de <code>db.properties</code>, con
+ * tantas transacciones en paralelo como conexiones tenga el pool.</li>
+ * <li><code>primerNumero</code> (por defecto 1) define el primer DNI y número
+ * de historia: para agregar datos a una base ya cargada, usar uno mayor a la
+ * cantidad de pacientes existentes.</li>
+ * <li><code>fecha</code> (AAAA-MM-DD, por defecto hoy) es la fecha de
+ * referencia de las edades.</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see DataGenerator
+ */
+public class GenerateData {
+
+    private static final long DEFAULT_SEED = 42;
+
+    public static void main(String[] args) {
+
+        if (args.length < 2) {
+            System.err.println("Uso: java main.GenerateData <pacientes> <directorio|db> [semilla] [primerNumero]"
+                    + " [fecha]");
+            return;
+        }
+
+        long pacientes;
+        long seed;
+        long primerNumero;
+        LocalDate fecha;
+        try {
+            pacientes = Long.parseLong(args[0]);
+            seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+            primerNumero = args.length > 3 ? Long.parseLong(args[3]) : 1;
+            fecha = args.length > 4 ? LocalDate.parse(args[4]) : LocalDate.now();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            System.err.println("Argumento inválido: " + e.getMessage());
+            return;
+        }
+
+        long historias = pacientes * 2 / 3;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long inicio = System.nanoTime();
+
+        try (DataSink sink = openSink(args[1])) {
+            DataGenerator generador = new DataGenerator(pacientes, historias, seed, primerNumero, fecha, hilos);
+            System.out.println(String.format(Locale.ROOT,
+                    "Generando %d pacientes (%d con historia clínica), semilla %d, %d bloques...",
+                    pacientes, historias, seed, generador.chunkCount()));
+            generador.generate(sink);
+        } catch (IOException | SQLException | IllegalArgumentException e) {
+            System.err.println("Error al generar los datos: " + e.getMessage());
+            return;
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "✅ %d pacientes y %d historias en %.1f s (%.0f filas/s).",
+                pacientes, historias, segundos, (pacientes + historias) / segundos));
+    }
+
+    /**
+     * Crea el destino: la base de datos (<code>db</code>) o un directorio de
+     * archivos CSV.
+     */
+    private static DataSink openSink(String destino) throws IOException {
+        if (!"db".equalsIgnoreCase(destino)) {
+            return new CsvSink(Path.of(destino));
+        }
+        // Mismo "cableado" que AppMenu / MainGUI
+        HistoriaClinicaDAO historiaClinicaDAO = Instrumented.historiaClinicaDAO();
+        PacienteDAO pacienteDAO = Instrumented.pacienteDAO(historiaClinicaDAO);
+        if (!Instrumented.isMemoryBackend()) {
+            GrupoSanguineoCatalog.shared().preload();
+        }
+        return new DatabaseSink(historiaClinicaDAO, pacienteDAO);
+    }
+}
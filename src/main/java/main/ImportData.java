@@ -0,0 +1,80 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Locale;
+
+import dao.GrupoSanguineoCatalog;
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+import ingest.BulkImporter;
+import ingest.ImportResult;
+import metrics.Instrumented;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Importa pacientes e historias clínicas desde un CSV con
+ * {@link BulkImporter} (<code>LOAD DATA LOCAL INFILE</code>, validación y
+ * combinación por conjunto).
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * java main.ImportData &lt;archivo.csv&gt; [rechazos.csv]
+ * java main.ImportData datos/historia_clinica.csv
+ * java main.ImportData datos/paciente.csv
+ * </pre>
+ * <p>
+ * Los registros rechazados se escriben en <code>rechazos.csv</code> (por
+ * defecto, <code>&lt;archivo&gt;.rechazos.csv</code>) con su línea y el
+ * motivo. Solo funciona con el backend MySQL.
+ * </p>
+ *
+ * @author alpha team
+ * @see BulkImporter
+ */
+public class ImportData {
+
+    public static void main(String[] args) {
+
+        if (args.length < 1) {
+            System.err.println("Uso: java main.ImportData <archivo.csv> [rechazos.csv]");
+            return;
+        }
+        Path archivo = Path.of(args[0]);
+        Path rechazos = args.length > 1 ? Path.of(args[1]) : Path.of(args[0] + ".rechazos.csv");
+
+        // Mismo "cableado" que AppMenu / MainGUI
+        HistoriaClinicaDAO historiaClinicaDAO = Instrumented.historiaClinicaDAO();
+        PacienteDAO pacienteDAO = Instrumented.pacienteDAO(historiaClinicaDAO);
+        HistoriaClinicaService historiaClinicaService = Instrumented.historiaClinicaService(historiaClinicaDAO);
+        PacienteService pacienteService = Instrumented.pacienteService(pacienteDAO, historiaClinicaService);
+        if (!Instrumented.isMemoryBackend()) {
+            GrupoSanguineoCatalog.shared().preload();
+        }
+
+        BulkImporter importador = new BulkImporter(pacienteService, historiaClinicaService,
+                (etapa, cantidad) -> System.out.println(String.format(Locale.ROOT, "  %-10s %,d", etapa, cantidad)));
+
+        long inicio = System.nanoTime();
+        ImportResult resultado;
+        try {
+            System.out.println("Importando " + archivo + "...");
+            resultado = importador.importFile(archivo, rechazos);
+        } catch (IOException | SQLException e) {
+            System.err.println("Error al importar el archivo: " + e.getMessage());
+            return;
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.println(String.format(Locale.ROOT,
+                "✅ %d registros leídos en %.1f s: %d historias y %d pacientes insertados, %d rechazados.",
+                resultado.leidas(), segundos, resultado.historiasInsertadas(), resultado.pacientesInsertados(),
+                resultado.rechazadas()));
+        if (resultado.rechazadas() > 0) {
+            System.out.println("Rechazos en " + resultado.rechazos());
+        }
+    }
+}
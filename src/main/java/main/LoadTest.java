@@ -0,0 +1,533 @@
+package main;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import config.LatencyHistogram;
+import dao.GrupoSanguineoCatalog;
+import dao.HistoriaClinicaDAO;
+import dao.Page;
+import dao.PacienteDAO;
+import models.GrupoSanguineo;
+import models.HistoriaClinica;
+import models.Paciente;
+import models.PacienteResumen;
+import metrics.Instrumented;
+import service.AsyncExecutor;
+import service.AsyncHistoriaClinicaService;
+import service.AsyncPacienteService;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Prueba de carga: simula N clínicos concurrentes que usan
+ * {@link PacienteService} e {@link HistoriaClinicaService} con una mezcla
+ * configurable de operaciones.
+ * <p>
+ * La carga es de <b>lazo abierto</b>: las operaciones se programan a una tasa
+ * fija (ops/s), sin esperar a que terminen las anteriores, como llegan los
+ * pedidos reales. La latencia de cada operación se mide desde el instante en
+ * que <b>debía</b> empezar, no desde que un clínico quedó libre para
+ * atenderla; así el tiempo en cola cuando el sistema se satura queda dentro
+ * de los percentiles (corrección de <i>coordinated omission</i>). El informe
+ * muestra ambas medidas: <code>respuesta</code> (corregida) y
+ * <code>servicio</code> (solo la llamada); si difieren mucho, la tasa pedida
+ * supera la capacidad.
+ * </p>
+ *
+ * <h3>Operaciones de la mezcla:</h3>
+ * <ul>
+ * <li><code>create</code>: alta de un paciente (un tercio con historia
+ * clínica nueva) con un DNI al azar; los DNIs repetidos terminan en
+ * {@link exceptions.DuplicateEntityException}.</li>
+ * <li><code>selectByDni</code>: lectura de un paciente conocido.</li>
+ * <li><code>searchByFilter</code>: búsqueda de pacientes por prefijo de
+ * apellido.</li>
+ * <li><code>update</code>: cambio del nombre de un paciente conocido.</li>
+ * <li><code>deleteRecover</code>: baja lógica y recuperación de un paciente
+ * conocido.</li>
+ * <li><code>searchHistoria</code>: búsqueda de historias clínicas por grupo
+ * sanguíneo.</li>
+ * <li><code>checkDnis</code>: verificación de {@value #LOTE_DNIS} DNIs a la
+ * vez con {@link AsyncPacienteService#existsByDnis}, como al revisar una
+ * lista de pacientes derivados.</li>
+ * <li><code>searchGrupos</code>: búsqueda de historias clínicas por
+ * {@value #LOTE_GRUPOS} grupos sanguíneos en paralelo con
+ * {@link AsyncHistoriaClinicaService}.</li>
+ * </ul>
+ * <p>
+ * Las dos últimas reparten sus consultas en hilos virtuales con un
+ * {@link AsyncExecutor} compartido, limitado al tamaño del pool de
+ * conexiones; el clínico espera a que terminen todas.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * java main.LoadTest [clinicos] [ops/s] [segundos] [mezcla] [fixed|virtual]
+ * java main.LoadTest 16 500 60 create=5,selectByDni=50,searchByFilter=30,update=15
+ * </pre>
+ * <p>
+ * Con <code>fixed</code> (por defecto) cada clínico es un hilo de un pool
+ * fijo; con <code>virtual</code> cada operación corre en su propio hilo
+ * virtual y un semáforo limita a N las operaciones simultáneas. La prueba
+ * escribe en la base configurada en <code>db.properties</code> (con
+ * <code>db.backend=memory</code> corre sin MySQL).
+ * </p>
+ *
+ * @author alpha team
+ * @see LatencyHistogram
+ */
+public class LoadTest {
+
+    /**
+     * Mezcla por defecto (pesos relativos).
+     */
+    private static final String DEFAULT_MIX =
+            "create=10,selectByDni=35,searchByFilter=25,update=15,deleteRecover=5,searchHistoria=5,checkDnis=3,"
+            + "searchGrupos=2";
+
+    private static final int DEFAULT_CLINICOS = 8;
+    private static final int DEFAULT_RATE = 200;
+    private static final int DEFAULT_SEGUNDOS = 30;
+
+    /**
+     * Pacientes conocidos que se recuerdan para leer, modificar y eliminar.
+     */
+    private static final int CONOCIDOS = 4096;
+
+    /**
+     * DNIs que verifica cada operación <code>checkDnis</code>.
+     */
+    private static final int LOTE_DNIS = 8;
+
+    /**
+     * Grupos sanguíneos que busca cada operación <code>searchGrupos</code>.
+     */
+    private static final int LOTE_GRUPOS = 3;
+
+    /**
+     * Espera máxima, al terminar de programar, a que terminen las operaciones
+     * en curso.
+     */
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private static final String[] NOMBRES = {
+        "Juan", "María", "Lucía", "Martín", "Sofía", "Diego", "Valentina", "Pedro", "Camila", "Tomás"
+    };
+
+    private static final String[] APELLIDOS = {
+        "González", "Rodríguez", "Gómez", "Fernández", "López", "Díaz", "Martínez", "Pérez", "Romero", "Sosa"
+    };
+
+    private static final String[] GRUPOS = { "A+", "A-", "B+", "O+", "O-", "AB+" };
+
+    /**
+     * Operaciones que puede ejecutar un clínico.
+     */
+    private enum Operation {
+        CREATE("create"),
+        SELECT_BY_DNI("selectByDni"),
+        SEARCH("searchByFilter"),
+        UPDATE("update"),
+        DELETE_RECOVER("deleteRecover"),
+        SEARCH_HISTORIA("searchHistoria"),
+        CHECK_DNIS("checkDnis"),
+        SEARCH_GRUPOS("searchGrupos");
+
+        private final String nombre;
+
+        Operation(String nombre) {
+            this.nombre = nombre;
+        }
+
+        static Operation fromName(String nombre) {
+            for (Operation op : values()) {
+                if (op.nombre.equalsIgnoreCase(nombre)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Operación desconocida en la mezcla: " + nombre);
+        }
+    }
+
+    /**
+     * Resultados de una operación: latencia de respuesta (desde el instante
+     * programado), latencia de servicio (desde que empezó la llamada) y
+     * errores por tipo de excepción.
+     */
+    private static final class Stats {
+        private final LatencyHistogram respuesta = new LatencyHistogram();
+        private final LatencyHistogram servicio = new LatencyHistogram();
+        private final Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+
+        private void record(long programado, long comienzo, long fin, Exception error) {
+            respuesta.record(fin - programado);
+            servicio.record(fin - comienzo);
+            if (error != null) {
+                errores.computeIfAbsent(error.getClass().getSimpleName(), k -> new LongAdder()).increment();
+            }
+        }
+
+        private long errors() {
+            return errores.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    private final PacienteService pacienteService;
+    private final HistoriaClinicaService historiaClinicaService;
+    private final AsyncPacienteService asyncPacienteService;
+    private final AsyncHistoriaClinicaService asyncHistoriaClinicaService;
+
+    /**
+     * DNIs de pacientes conocidos (buffer circular compartido por los
+     * clínicos).
+     */
+    private final AtomicReferenceArray<String> conocidos = new AtomicReferenceArray<>(CONOCIDOS);
+    private final AtomicLong cantidadConocidos = new AtomicLong();
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    private LoadTest(PacienteService pacienteService, HistoriaClinicaService historiaClinicaService,
+            AsyncExecutor asyncExecutor) {
+        this.pacienteService = pacienteService;
+        this.historiaClinicaService = historiaClinicaService;
+        this.asyncPacienteService = new AsyncPacienteService(pacienteService, asyncExecutor);
+        this.asyncHistoriaClinicaService = new AsyncHistoriaClinicaService(historiaClinicaService, asyncExecutor);
+        for (Operation op : Operation.values()) {
+            stats.put(op, new Stats());
+        }
+    }
+
+    public static void main(String[] args) {
+
+        int clinicos;
+        int rate;
+        int segundos;
+        Operation[] mezcla;
+        boolean virtual;
+        try {
+            clinicos = args.length > 0 ? positive(args[0], "clínicos") : DEFAULT_CLINICOS;
+            rate = args.length > 1 ? positive(args[1], "ops/s") : DEFAULT_RATE;
+            segundos = args.length > 2 ? positive(args[2], "segundos") : DEFAULT_SEGUNDOS;
+            mezcla = parseMix(args.length > 3 ? args[3] : DEFAULT_MIX);
+            virtual = args.length > 4 && "virtual".equalsIgnoreCase(args[4]);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: java main.LoadTest [clinicos] [ops/s] [segundos] [mezcla] [fixed|virtual]");
+            return;
+        }
+
+        // Mismo "cableado" que AppMenu / MainGUI
+        HistoriaClinicaDAO historiaClinicaDAO = Instrumented.historiaClinicaDAO();
+        PacienteDAO pacienteDAO = Instrumented.pacienteDAO(historiaClinicaDAO);
+        if (!Instrumented.isMemoryBackend()) {
+            GrupoSanguineoCatalog.shared().preload();
+        }
+        HistoriaClinicaService historiaClinicaService = Instrumented.historiaClinicaService(historiaClinicaDAO);
+        PacienteService pacienteService = Instrumented.pacienteService(pacienteDAO, historiaClinicaService);
+
+        try (AsyncExecutor asyncExecutor = AsyncExecutor.forConnectionPool()) {
+            LoadTest prueba = new LoadTest(pacienteService, historiaClinicaService, asyncExecutor);
+            prueba.seed();
+            prueba.run(clinicos, rate, segundos, mezcla, virtual);
+        }
+    }
+
+    // ============ EJECUCIÓN ============
+    /**
+     * Carga los DNIs de los primeros pacientes activos (hasta
+     * {@value #CONOCIDOS}) como pacientes conocidos, página por página.
+     */
+    private void seed() {
+        try {
+            Page<PacienteResumen> pagina = pacienteService.selectResumenPage(null, PacienteService.MAX_PAGE_SIZE,
+                    false);
+            while (true) {
+                pagina.items().forEach(paciente -> remember(paciente.dni()));
+                if (!pagina.hasNext() || cantidadConocidos.get() >= CONOCIDOS) {
+                    break;
+                }
+                PacienteResumen ultimo = pagina.items().get(pagina.items().size() - 1);
+                pagina = pacienteService.selectResumenPage(ultimo, PacienteService.MAX_PAGE_SIZE, false);
+            }
+        } catch (Exception e) {
+            System.err.println("Error al leer los pacientes existentes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Programa las operaciones a tasa fija durante el tiempo indicado y espera
+     * a que terminen.
+     */
+    private void run(int clinicos, int rate, int segundos, Operation[] mezcla, boolean virtual) {
+
+        ExecutorService executor = virtual
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("clinico-", 1).factory())
+                : Executors.newFixedThreadPool(clinicos, Thread.ofPlatform().name("clinico-", 1).factory());
+        // Con hilos virtuales, el semáforo cumple el papel de los N clínicos
+        Semaphore clinicosLibres = virtual ? new Semaphore(clinicos) : null;
+
+        System.out.println(String.format(Locale.ROOT,
+                "Prueba de carga: %d clínicos (%s), %d ops/s, %d s, %d pacientes conocidos%n",
+                clinicos, virtual ? "hilos virtuales" : "pool fijo", rate, segundos, cantidadConocidos.get()));
+
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * segundos;
+        long inicio = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long programado = inicio + i * intervalo;
+            sleepUntil(programado);
+            Operation op = mezcla[ThreadLocalRandom.current().nextInt(mezcla.length)];
+            executor.execute(() -> execute(op, programado, clinicosLibres));
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("⚠️ Quedaron operaciones sin terminar luego de " + DRAIN_TIMEOUT_SECONDS
+                        + " s.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+
+        report(total, System.nanoTime() - inicio);
+    }
+
+    /**
+     * Ejecuta una operación programada y registra su resultado.
+     *
+     * @param op             La operación.
+     * @param programado     El instante ({@link System#nanoTime()}) en que
+     *                       debía empezar.
+     * @param clinicosLibres El semáforo de clínicos (modo virtual), o
+     *                       <code>null</code>.
+     */
+    private void execute(Operation op, long programado, Semaphore clinicosLibres) {
+
+        if (clinicosLibres != null) {
+            clinicosLibres.acquireUninterruptibly();
+        }
+        long comienzo = System.nanoTime();
+        Exception error = null;
+        try {
+            switch (op) {
+                case CREATE -> create();
+                case SELECT_BY_DNI -> pacienteService.selectByDni(pick());
+                case SEARCH -> pacienteService.searchByFilter(prefix(random(APELLIDOS)));
+                case UPDATE -> update();
+                case DELETE_RECOVER -> deleteRecover();
+                case SEARCH_HISTORIA -> historiaClinicaService.searchByFilter(random(GRUPOS));
+                case CHECK_DNIS -> checkDnis();
+                case SEARCH_GRUPOS -> searchGrupos();
+            }
+        } catch (CompletionException e) {
+            // Las operaciones asíncronas informan la excepción original del servicio
+            error = e.getCause() instanceof Exception causa ? causa : e;
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            stats.get(op).record(programado, comienzo, System.nanoTime(), error);
+            if (clinicosLibres != null) {
+                clinicosLibres.release();
+            }
+        }
+    }
+
+    // ============ OPERACIONES ============
+    private void create() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HistoriaClinica historia = null;
+        if (random.nextInt(3) == 0) {
+            historia = new HistoriaClinica("HC-" + random.nextLong(1_000_000_000L, 10_000_000_000L),
+                    GrupoSanguineo.values()[random.nextInt(GrupoSanguineo.values().length)],
+                    "Sin antecedentes", "Ninguna", "Alta de la prueba de carga");
+        }
+        Paciente paciente = new Paciente(random(NOMBRES), random(APELLIDOS),
+                String.valueOf(random.nextLong(10_000_000L, 100_000_000L)),
+                LocalDate.of(random.nextInt(1930, 2020), random.nextInt(1, 13), random.nextInt(1, 29)), historia);
+        pacienteService.insert(paciente);
+        remember(paciente.getDni());
+    }
+
+    private void update() throws Exception {
+        Paciente paciente = pacienteService.selectByDni(pick());
+        if (paciente != null) {
+            paciente.setNombre(random(NOMBRES));
+            pacienteService.update(paciente);
+        }
+    }
+
+    private void deleteRecover() throws Exception {
+        Paciente paciente = pacienteService.selectByDni(pick());
+        if (paciente != null) {
+            pacienteService.delete(paciente.getId());
+            pacienteService.recover(paciente.getId());
+        }
+    }
+
+    private void checkDnis() {
+        List<String> dnis = new ArrayList<>(LOTE_DNIS);
+        for (int i = 0; i < LOTE_DNIS; i++) {
+            dnis.add(pick());
+        }
+        asyncPacienteService.existsByDnis(dnis).join();
+    }
+
+    private void searchGrupos() {
+        List<CompletableFuture<List<HistoriaClinica>>> busquedas = new ArrayList<>(LOTE_GRUPOS);
+        for (int i = 0; i < LOTE_GRUPOS; i++) {
+            busquedas.add(asyncHistoriaClinicaService.searchByFilter(random(GRUPOS)));
+        }
+        CompletableFuture.allOf(busquedas.toArray(CompletableFuture[]::new)).join();
+    }
+
+    // ============ INFORME ============
+    /**
+     * Imprime el rendimiento, los percentiles por operación y los errores por
+     * tipo de excepción.
+     */
+    private void report(long programadas, long duracionNanos) {
+
+        double segundos = duracionNanos / 1e9;
+        long completadas = 0;
+        long errores = 0;
+        Map<String, Long> porTipo = new HashMap<>();
+
+        System.out.println(String.format(Locale.ROOT, "%-16s %8s %7s %9s %9s %9s %9s %9s %11s",
+                "Operación", "Ops", "Errores", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Máx. ms", "p99 serv."));
+
+        for (Map.Entry<Operation, Stats> entrada : stats.entrySet()) {
+            LatencyHistogram.Snapshot respuesta = entrada.getValue().respuesta.snapshot();
+            if (respuesta.count() == 0) {
+                continue;
+            }
+            LatencyHistogram.Snapshot servicio = entrada.getValue().servicio.snapshot();
+            long erroresOp = entrada.getValue().errors();
+            completadas += respuesta.count();
+            errores += erroresOp;
+            entrada.getValue().errores.forEach((tipo, n) -> porTipo.merge(tipo, n.sum(), Long::sum));
+
+            System.out.println(String.format(Locale.ROOT, "%-16s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f",
+                    entrada.getKey().nombre, respuesta.count(), erroresOp,
+                    millis(respuesta.percentileMicros(0.50)), millis(respuesta.percentileMicros(0.90)),
+                    millis(respuesta.percentileMicros(0.99)), millis(respuesta.percentileMicros(0.999)),
+                    millis(respuesta.maxMicros()), millis(servicio.percentileMicros(0.99))));
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "%nProgramadas: %d (%.1f ops/s pedidas) | Completadas: %d en %.1f s (%.1f ops/s) | Errores: %d",
+                programadas, programadas / segundos, completadas, segundos, completadas / segundos, errores));
+        System.out.println("Latencias de respuesta medidas desde el instante programado (corrige coordinated "
+                + "omission); 'p99 serv.' mide solo la llamada.");
+
+        if (!porTipo.isEmpty()) {
+            System.out.println("\nErrores por tipo:");
+            porTipo.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(e -> System.out.println(String.format(Locale.ROOT, "  %-28s %8d", e.getKey(),
+                            e.getValue())));
+        }
+    }
+
+    // ============ HELPERS ============
+    /**
+     * Recuerda el DNI de un paciente (reemplaza al más viejo si el buffer está
+     * lleno).
+     */
+    private void remember(String dni) {
+        conocidos.set((int) (cantidadConocidos.getAndIncrement() % CONOCIDOS), dni);
+    }
+
+    /**
+     * Elige un DNI conocido al azar (o uno cualquiera si todavía no hay).
+     */
+    private String pick() {
+        int cantidad = (int) Math.min(cantidadConocidos.get(), CONOCIDOS);
+        String dni = cantidad > 0 ? conocidos.get(ThreadLocalRandom.current().nextInt(cantidad)) : null;
+        return dni != null ? dni : "10000000";
+    }
+
+    /**
+     * Espera hasta el instante indicado. Si ya pasó (el programador va
+     * atrasado) vuelve enseguida: la operación conserva su instante
+     * programado.
+     */
+    private static void sleepUntil(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    /**
+     * Traduce la mezcla "op=peso,op=peso" a una tabla de sorteo.
+     */
+    private static Operation[] parseMix(String mezcla) {
+        List<Operation> tabla = new ArrayList<>();
+        for (String parte : mezcla.split(",")) {
+            String[] claveValor = parte.trim().split("=");
+            if (claveValor.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida (se espera op=peso): " + parte);
+            }
+            Operation op = Operation.fromName(claveValor[0].trim());
+            int peso = Integer.parseInt(claveValor[1].trim());
+            for (int i = 0; i < peso; i++) {
+                tabla.add(op);
+            }
+        }
+        if (tabla.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones con peso mayor a cero.");
+        }
+        return tabla.toArray(new Operation[0]);
+    }
+
+    private static int positive(String valor, String nombre) {
+        int numero;
+        try {
+            numero = Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + nombre + ": " + valor);
+        }
+        if (numero <= 0) {
+            throw new IllegalArgumentException("El valor de " + nombre + " debe ser mayor a cero: " + valor);
+        }
+        return numero;
+    }
+
+    private static String random(String[] valores) {
+        return valores[ThreadLocalRandom.current().nextInt(valores.length)];
+    }
+
+    /**
+     * Prefijo de 3 letras con comodín (búsqueda por prefijo).
+     */
+    private static String prefix(String apellido) {
+        return apellido.substring(0, 3) + "*";
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
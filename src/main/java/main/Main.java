@@ -5,6 +5,7 @@ import java.util.Scanner;
 import javax.swing.SwingUtilities;
 
 import config.DatabaseConnection;
+import metrics.Metrics;
 import views.AppMenu;
 import views.gui.MainGUI;
 
@@ -12,6 +13,7 @@ public class Main {
 
     public static void main(String[] args) {
         DatabaseConnection.setDebug(false); // modo producción
+        Metrics.start(); // exportadores de db.metrics.* (si están activados)
 
         // --- (Arreglo 2: Caracteres sin tildes) ---
         System.out.println("====================================");
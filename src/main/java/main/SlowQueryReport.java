@@ -0,0 +1,208 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import config.DatabaseConnection;
+import config.SlowQueryLog;
+
+/**
+ * Resume el log de consultas lentas ({@link SlowQueryLog}): agrupa los
+ * registros por sentencia y muestra las que más tiempo total consumieron.
+ * <p>
+ * Lee el archivo indicado (o <code>db.slowQuery.file</code>) y sus rotaciones
+ * (<code>.1</code>, <code>.2</code>, ...). Por cada sentencia informa la
+ * cantidad de ejecuciones lentas (y cuántas terminaron con error, ej: por
+ * espera de bloqueo vencida o deadlock), el tiempo total, el promedio y el
+ * máximo, y si alguno de sus planes recorre una tabla completa
+ * (<code>"access_type": "ALL"</code>), que es lo primero que se busca a mano
+ * con <code>sql/db_1/05_explain.sql</code>.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * java main.SlowQueryReport [archivo] [cantidad]
+ * </pre>
+ *
+ * @author alpha team
+ * @see SlowQueryLog
+ */
+public class SlowQueryReport {
+
+    private static final Pattern SQL = Pattern.compile("\"sql\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern DURATION = Pattern.compile("\"durationMs\":([0-9.]+)");
+    private static final Pattern ERROR = Pattern.compile("\"error\":\"");
+    private static final Pattern TIMESTAMP = Pattern.compile("\"timestamp\":\"([^\"]*)\"");
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "\\\\?\"access_type\\\\?\"\\s*:\\s*\\\\?\"ALL\\\\?\"");
+
+    /**
+     * Cantidad de sentencias que se muestran por defecto.
+     */
+    private static final int DEFAULT_TOP = 10;
+
+    /**
+     * Largo máximo del SQL en el informe.
+     */
+    private static final int SQL_WIDTH = 160;
+
+    /**
+     * Acumulado de las ejecuciones lentas de una sentencia.
+     */
+    private static final class Resumen {
+        private final String sql;
+        private long cantidad;
+        private long errores;
+        private double totalMs;
+        private double maxMs;
+        private String peorTimestamp;
+        private boolean fullScan;
+
+        private Resumen(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    public static void main(String[] args) {
+
+        Path archivo = Path.of(args.length > 0 ? args[0]
+                : DatabaseConnection.getProperty("db.slowQuery.file", "slow-queries.log"));
+        int top = DEFAULT_TOP;
+        if (args.length > 1) {
+            try {
+                top = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.err.println("Cantidad inválida: " + args[1]);
+                return;
+            }
+        }
+
+        Map<String, Resumen> porSql = new HashMap<>();
+        long lineas = 0;
+
+        try {
+            for (Path parte : files(archivo)) {
+                lineas += read(parte, porSql);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer el log de consultas lentas: " + e.getMessage());
+            return;
+        }
+
+        if (lineas == 0) {
+            System.out.println("No hay consultas lentas registradas en " + archivo.toAbsolutePath());
+            return;
+        }
+
+        List<Resumen> peores = new ArrayList<>(porSql.values());
+        peores.sort(Comparator.comparingDouble((Resumen r) -> r.totalMs).reversed());
+
+        System.out.println("Consultas lentas: " + lineas + " registros, " + porSql.size()
+                + " sentencias distintas (" + archivo.toAbsolutePath() + ")\n");
+        System.out.println(String.format(Locale.ROOT, "%-4s %8s %8s %12s %10s %10s %-4s  %s",
+                "#", "Veces", "Errores", "Total ms", "Prom. ms", "Máx. ms", "Scan", "SQL"));
+
+        for (int i = 0; i < Math.min(top, peores.size()); i++) {
+            Resumen r = peores.get(i);
+            System.out.println(String.format(Locale.ROOT, "%-4d %8d %8d %12.1f %10.1f %10.1f %-4s  %s",
+                    i + 1, r.cantidad, r.errores, r.totalMs, r.totalMs / r.cantidad, r.maxMs,
+                    r.fullScan ? "ALL" : "", abbreviate(r.sql)));
+            System.out.println("     peor: " + r.peorTimestamp);
+        }
+    }
+
+    /**
+     * Devuelve el archivo y sus rotaciones existentes, del más viejo al más
+     * nuevo.
+     */
+    private static List<Path> files(Path archivo) {
+        List<Path> archivos = new ArrayList<>();
+        for (int n = 1; Files.exists(SlowQueryLog.rotated(archivo, n)); n++) {
+            archivos.add(0, SlowQueryLog.rotated(archivo, n));
+        }
+        if (Files.exists(archivo)) {
+            archivos.add(archivo);
+        }
+        return archivos;
+    }
+
+    /**
+     * Acumula los registros de un archivo.
+     *
+     * @return La cantidad de registros leídos.
+     */
+    private static long read(Path archivo, Map<String, Resumen> porSql) throws IOException {
+
+        long leidas = 0;
+        try (BufferedReader in = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = in.readLine()) != null) {
+                Matcher sql = SQL.matcher(linea);
+                Matcher duracion = DURATION.matcher(linea);
+                if (!sql.find() || !duracion.find()) {
+                    continue; // línea incompleta (ej: cortada por una rotación)
+                }
+                double ms = Double.parseDouble(duracion.group(1));
+                Resumen r = porSql.computeIfAbsent(unescape(sql.group(1)), Resumen::new);
+                r.cantidad++;
+                r.totalMs += ms;
+                if (ms >= r.maxMs) {
+                    r.maxMs = ms;
+                    Matcher timestamp = TIMESTAMP.matcher(linea);
+                    r.peorTimestamp = timestamp.find() ? timestamp.group(1) : "?";
+                }
+                r.fullScan |= FULL_SCAN.matcher(linea).find();
+                if (ERROR.matcher(linea).find()) {
+                    r.errores++;
+                }
+                leidas++;
+            }
+        }
+        return leidas;
+    }
+
+    /**
+     * Quita los escapes de un literal JSON.
+     */
+    private static String unescape(String texto) {
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c != '\\' || i + 1 >= texto.length()) {
+                sb.append(c);
+                continue;
+            }
+            char siguiente = texto.charAt(++i);
+            switch (siguiente) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    sb.append((char) Integer.parseInt(texto.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> sb.append(siguiente);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Recorta el SQL al ancho del informe.
+     */
+    private static String abbreviate(String sql) {
+        return sql.length() <= SQL_WIDTH ? sql : sql.substring(0, SQL_WIDTH - 3) + "...";
+    }
+}
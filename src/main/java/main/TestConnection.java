@@ -1,6 +1,7 @@
 package main;
 
 import static config.DatabaseConnection.getConnection;
+import static config.DatabaseConnection.getPoolStats;
 import java.sql.*;
 
 /**
@@ -63,6 +64,9 @@ public class TestConnection {
                         System.out.println("DNI: " + dni + " - " + apellido + ", " + nombre);
                     }
                 }
+
+                // Estado del pool de conexiones (la conexión actual figura como activa)
+                System.out.println("\nPool de conexiones: " + getPoolStats());
             } else {
                 System.out.println("❌ No se pudo establecer la conexión.");
             }
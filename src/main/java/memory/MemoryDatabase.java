@@ -0,0 +1,894 @@
+package memory;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import dao.ConstraintViolations;
+import models.GrupoSanguineo;
+import models.HistoriaClinica;
+import models.Paciente;
+import models.PacienteResumen;
+import search.TextNormalizer;
+
+/**
+ * Tablas <code>Paciente</code> e <code>HistoriaClinica</code> en memoria, con
+ * las mismas claves, restricciones y baja lógica que el esquema de
+ * <code>sql/programacion_2/01_esquema.sql</code>.
+ * <p>
+ * Es el almacenamiento de {@link MemoryPacienteDAO} y
+ * {@link MemoryHistoriaClinicaDAO} (<code>db.backend=memory</code>): permite
+ * medir y someter a carga la capa de Servicio sin un servidor MySQL, y
+ * ofrece un camino de lectura sin E/S.
+ * </p>
+ *
+ * <h3>Estructura:</h3>
+ * <ul>
+ * <li><b>Clave primaria:</b> <code>TreeMap</code> por ID (recorrido en orden
+ * de ID para los listados y la paginación de HC) con
+ * <code>AUTO_INCREMENT</code> que, como en MySQL, no retrocede con un
+ * rollback.</li>
+ * <li><b>Índices únicos (hash):</b> <code>Paciente.dni</code>,
+ * <code>Paciente.historia_clinica_id</code> y
+ * <code>HistoriaClinica.nro_historia</code>. Incluyen las filas eliminadas,
+ * igual que las restricciones <code>UNIQUE</code>.</li>
+ * <li><b>Índice ordenado:</b> <code>(eliminado, apellido, nombre, id)</code>,
+ * el equivalente a <code>idx_paciente_eliminado_apellido_nombre</code>, un
+ * <code>TreeSet</code> por estado. Resuelve los listados y la paginación por
+ * clave sin ordenar.</li>
+ * </ul>
+ * <p>
+ * Las comparaciones de texto (unicidad, orden, búsquedas) ignoran mayúsculas
+ * y acentos, como la collation <code>utf8mb4_0900_ai_ci</code>.
+ * </p>
+ *
+ * <h3>Concurrencia:</h3>
+ * <p>
+ * Un {@link ReentrantReadWriteLock} protege ambas tablas: las lecturas corren
+ * en paralelo y cada escritura (fila e índices) es atómica. Las filas son
+ * inmutables y cada lectura devuelve entidades nuevas, de modo que los
+ * objetos que recibe el llamador nunca comparten estado con las tablas. Las
+ * transacciones se deshacen con un registro de acciones inversas (ver
+ * {@link MemoryTransaction}).
+ * </p>
+ * <p>
+ * Las transacciones de escritura se serializan: la primera escritura de una
+ * transacción toma el <b>turno de escritura</b> y lo conserva hasta el
+ * <code>commit</code> o el <code>rollback</code>. Cualquier otra escritura
+ * (de otra transacción o en <code>autoCommit</code>) espera el turno hasta
+ * {@value #LOCK_WAIT_TIMEOUT_SECONDS} s y luego falla con el error
+ * {@value #ER_LOCK_WAIT_TIMEOUT} de MySQL. Así nadie modifica una fila con
+ * cambios pendientes, y un rollback nunca pisa datos ya confirmados ni deja
+ * un paciente apuntando a una HC que desaparece (lo que en MySQL impiden los
+ * bloqueos de fila).
+ * </p>
+ *
+ * @author alpha team
+ * @see config.StorageBackend
+ */
+public final class MemoryDatabase {
+
+    /**
+     * Orden del índice de pacientes: (apellido, nombre, id), sin distinguir
+     * mayúsculas ni acentos.
+     */
+    private static final Comparator<PacienteRow> POR_NOMBRE = Comparator
+            .comparing(PacienteRow::apellidoKey)
+            .thenComparing(PacienteRow::nombreKey)
+            .thenComparingInt(PacienteRow::id);
+
+    /**
+     * Código de error de MySQL "Column cannot be null" (ER_BAD_NULL_ERROR).
+     */
+    private static final int ER_BAD_NULL_ERROR = 1048;
+
+    /**
+     * Código de error de MySQL "Cannot add or update a child row"
+     * (ER_NO_REFERENCED_ROW_2).
+     */
+    private static final int ER_NO_REFERENCED_ROW = 1452;
+
+    /**
+     * Código de error de MySQL "Lock wait timeout exceeded"
+     * (ER_LOCK_WAIT_TIMEOUT).
+     */
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    /**
+     * Espera máxima por el turno de escritura (el valor por defecto de
+     * <code>innodb_lock_wait_timeout</code>).
+     */
+    private static final long LOCK_WAIT_TIMEOUT_SECONDS = 50;
+
+    /**
+     * SQLState de las violaciones de restricciones en MySQL.
+     */
+    private static final String SQLSTATE_INTEGRITY = "23000";
+
+    /**
+     * SQLState genérico de MySQL (el del error
+     * {@value #ER_LOCK_WAIT_TIMEOUT}).
+     */
+    private static final String SQLSTATE_GENERAL = "HY000";
+
+    /**
+     * Instancia compartida por la aplicación (declarada después de las
+     * constantes que usa su construcción).
+     */
+    private static final MemoryDatabase SHARED = new MemoryDatabase();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Condition writerReleased = lock.writeLock().newCondition();
+
+    /**
+     * Transacción que tiene el turno de escritura, o <code>null</code>.
+     */
+    private MemoryTransaction writer;
+
+    // ============ TABLA HistoriaClinica ============
+    private final NavigableMap<Integer, HistoriaRow> historias = new TreeMap<>();
+    private final Map<String, Integer> historiasPorNro = new HashMap<>();
+    private int historiaAutoIncrement;
+
+    // ============ TABLA Paciente ============
+    private final NavigableMap<Integer, PacienteRow> pacientes = new TreeMap<>();
+    private final Map<String, Integer> pacientesPorDni = new HashMap<>();
+    private final Map<Integer, Integer> pacientesPorHistoria = new HashMap<>();
+    private final NavigableSet<PacienteRow> activosPorNombre = new TreeSet<>(POR_NOMBRE);
+    private final NavigableSet<PacienteRow> eliminadosPorNombre = new TreeSet<>(POR_NOMBRE);
+    private int pacienteAutoIncrement;
+
+    /**
+     * Devuelve la base en memoria compartida por la aplicación (la que usa
+     * {@link metrics.Instrumented} y el pool de
+     * {@link config.DatabaseConnection} con <code>db.backend=memory</code>).
+     *
+     * @return La instancia compartida.
+     */
+    public static MemoryDatabase shared() {
+        return SHARED;
+    }
+
+    /**
+     * Abre una conexión en memoria (ver {@link MemoryTransaction}). Es la
+     * fábrica de conexiones del pool con <code>db.backend=memory</code>.
+     *
+     * @return Una conexión nueva, con <code>autoCommit=true</code>.
+     */
+    public Connection connect() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new MemoryTransaction(this));
+    }
+
+    /**
+     * Vacía ambas tablas y reinicia los <code>AUTO_INCREMENT</code> (como un
+     * <code>TRUNCATE</code>). Pensado para las pruebas de carga.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            historias.clear();
+            historiasPorNro.clear();
+            historiaAutoIncrement = 0;
+            pacientes.clear();
+            pacientesPorDni.clear();
+            pacientesPorHistoria.clear();
+            activosPorNombre.clear();
+            eliminadosPorNombre.clear();
+            pacienteAutoIncrement = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============ FILAS ============
+    /**
+     * Fila de <code>HistoriaClinica</code> (inmutable).
+     */
+    record HistoriaRow(int id, boolean eliminado, String nroHistoria, GrupoSanguineo grupoSanguineo,
+            String antecedentes, String medicacionActual, String observaciones) {
+
+        static HistoriaRow of(int id, boolean eliminado, HistoriaClinica historia) {
+            return new HistoriaRow(id, eliminado, historia.getNumeroHistoria(), historia.getGrupoSanguineo(),
+                    historia.getAntecedentes(), historia.getMedicacionActual(), historia.getObservaciones());
+        }
+
+        HistoriaRow withEliminado(boolean valor) {
+            return new HistoriaRow(id, valor, nroHistoria, grupoSanguineo, antecedentes, medicacionActual,
+                    observaciones);
+        }
+
+        /**
+         * Crea la entidad, con el mismo mapeo que
+         * {@link dao.HistoriaClinicaDAO#mapEntity}.
+         */
+        HistoriaClinica toEntity() {
+            return new HistoriaClinica(id, nroHistoria, grupoSanguineo, antecedentes, medicacionActual,
+                    observaciones);
+        }
+    }
+
+    /**
+     * Fila de <code>Paciente</code> (inmutable), con el apellido y el nombre
+     * ya normalizados para el índice ordenado y las búsquedas.
+     */
+    record PacienteRow(int id, boolean eliminado, String nombre, String apellido, String dni,
+            LocalDate fechaNacimiento, Integer historiaClinicaId, String nombreKey, String apellidoKey) {
+
+        static PacienteRow of(int id, boolean eliminado, Paciente paciente) {
+            HistoriaClinica historia = paciente.getHistoriaClinica();
+            return new PacienteRow(id, eliminado, paciente.getNombre(), paciente.getApellido(), paciente.getDni(),
+                    paciente.getFechaNacimiento(),
+                    historia != null && historia.getId() > 0 ? historia.getId() : null, // Igual que PacienteDAO
+                    key(paciente.getNombre()), key(paciente.getApellido()));
+        }
+
+        /**
+         * Crea una fila "sonda" para ubicar una clave (apellido, nombre, id)
+         * en el índice ordenado (paginación por clave).
+         */
+        static PacienteRow probe(PacienteResumen after) {
+            return new PacienteRow(after.id(), false, after.nombre(), after.apellido(), null, null, null,
+                    key(after.nombre()), key(after.apellido()));
+        }
+
+        PacienteRow withEliminado(boolean valor) {
+            return new PacienteRow(id, valor, nombre, apellido, dni, fechaNacimiento, historiaClinicaId,
+                    nombreKey, apellidoKey);
+        }
+    }
+
+    // ============ ESCRITURA: HistoriaClinica ============
+    /**
+     * <code>INSERT INTO HistoriaClinica</code>: asigna el ID a la entidad.
+     *
+     * @param historia La HC a insertar.
+     * @param tx       La transacción, o <code>null</code> (autoCommit).
+     * @throws SQLException Si el número de historia es nulo o está repetido, o
+     *                      si se agota la espera del turno de escritura.
+     */
+    void insertHistoria(HistoriaClinica historia, MemoryTransaction tx) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            awaitWriter(tx);
+            String nro = requireNotNull(historia.getNumeroHistoria(), "nro_historia");
+            checkUnique(historiasPorNro, key(nro), 0, nro, "HistoriaClinica.nro_historia");
+
+            int id = ++historiaAutoIncrement;
+            putHistoria(HistoriaRow.of(id, false, historia));
+            historia.setId(id);
+            if (tx != null) {
+                tx.onRollback(() -> removeHistoria(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <code>UPDATE HistoriaClinica ... WHERE id = ?</code> (no modifica
+     * <code>eliminado</code>).
+     *
+     * @param historia La HC con los datos nuevos.
+     * @param tx       La transacción, o <code>null</code> (autoCommit).
+     * @return Filas encontradas (0 o 1).
+     * @throws SQLException Si el número de historia es nulo o está repetido, o
+     *                      si se agota la espera del turno de escritura.
+     */
+    int updateHistoria(HistoriaClinica historia, MemoryTransaction tx) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            awaitWriter(tx);
+            HistoriaRow previa = historias.get(historia.getId());
+            if (previa == null) {
+                return 0;
+            }
+            String nro = requireNotNull(historia.getNumeroHistoria(), "nro_historia");
+            checkUnique(historiasPorNro, key(nro), previa.id(), nro, "HistoriaClinica.nro_historia");
+
+            putHistoria(HistoriaRow.of(previa.id(), previa.eliminado(), historia));
+            if (tx != null) {
+                tx.onRollback(() -> putHistoria(previa));
+            }
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <code>UPDATE HistoriaClinica SET eliminado = ? WHERE id = ?</code>.
+     *
+     * @param id        El ID de la HC.
+     * @param eliminado El estado nuevo.
+     * @param tx        La transacción, o <code>null</code> (autoCommit).
+     * @return Filas encontradas (0 o 1).
+     * @throws SQLException Si se agota la espera del turno de escritura.
+     */
+    int setHistoriaEliminada(int id, boolean eliminado, MemoryTransaction tx) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            awaitWriter(tx);
+            HistoriaRow previa = historias.get(id);
+            if (previa == null) {
+                return 0;
+            }
+            putHistoria(previa.withEliminado(eliminado));
+            if (tx != null) {
+                tx.onRollback(() -> putHistoria(previa));
+            }
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============ ESCRITURA: Paciente ============
+    /**
+     * <code>INSERT INTO Paciente</code>: asigna el ID a la entidad.
+     *
+     * @param paciente El paciente a insertar.
+     * @param tx       La transacción, o <code>null</code> (autoCommit).
+     * @throws SQLException Si falta un campo obligatorio, si el DNI o la HC ya
+     *                      están asignados, si la HC no existe o si se agota la
+     *                      espera del turno de escritura.
+     */
+    void insertPaciente(Paciente paciente, MemoryTransaction tx) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            awaitWriter(tx);
+            PacienteRow fila = PacienteRow.of(0, false, paciente);
+            checkPaciente(fila);
+
+            int id = ++pacienteAutoIncrement;
+            putPaciente(PacienteRow.of(id, false, paciente));
+            paciente.setId(id);
+            if (tx != null) {
+                tx.onRollback(() -> removePaciente(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <code>UPDATE Paciente ... WHERE id = ?</code> (no modifica
+     * <code>eliminado</code>).
+     *
+     * @param paciente El paciente con los datos nuevos.
+     * @param tx       La transacción, o <code>null</code> (autoCommit).
+     * @return Filas encontradas (0 o 1).
+     * @throws SQLException Si falta un campo obligatorio, si el DNI o la HC ya
+     *                      están asignados a otro paciente, si la HC no
+     *                      existe o si se agota la espera del turno de
+     *                      escritura.
+     */
+    int updatePaciente(Paciente paciente, MemoryTransaction tx) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            awaitWriter(tx);
+            PacienteRow previa = pacientes.get(paciente.getId());
+            if (previa == null) {
+                return 0;
+            }
+            PacienteRow fila = PacienteRow.of(previa.id(), previa.eliminado(), paciente);
+            checkPaciente(fila);
+
+            putPaciente(fila);
+            if (tx != null) {
+                tx.onRollback(() -> putPaciente(previa));
+            }
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * <code>UPDATE Paciente SET eliminado = ? WHERE id = ?</code>.
+     *
+     * @param id        El ID del paciente.
+     * @param eliminado El estado nuevo.
+     * @param tx        La transacción, o <code>null</code> (autoCommit).
+     * @return Filas encontradas (0 o 1).
+     * @throws SQLException Si se agota la espera del turno de escritura.
+     */
+    int setPacienteEliminado(int id, boolean eliminado, MemoryTransaction tx) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            awaitWriter(tx);
+            PacienteRow previa = pacientes.get(id);
+            if (previa == null) {
+                return 0;
+            }
+            putPaciente(previa.withEliminado(eliminado));
+            if (tx != null) {
+                tx.onRollback(() -> putPaciente(previa));
+            }
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Termina una transacción que tiene el turno de escritura: deshace sus
+     * escrituras, si corresponde, y libera el turno.
+     *
+     * @param tx       La transacción.
+     * @param acciones Las acciones inversas a ejecutar, de la última a la
+     *                 primera (se vacía), o <code>null</code> en un commit.
+     */
+    void endTransaction(MemoryTransaction tx, Deque<Runnable> acciones) {
+        lock.writeLock().lock();
+        try {
+            if (acciones != null) {
+                while (!acciones.isEmpty()) {
+                    acciones.pollLast().run();
+                }
+            }
+            if (writer == tx) {
+                writer = null;
+                writerReleased.signalAll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Espera el turno de escritura (con el lock de escritura tomado, que se
+     * libera durante la espera). Si la escritura es parte de una transacción,
+     * esta toma el turno hasta que termine.
+     *
+     * @param tx La transacción, o <code>null</code> (autoCommit).
+     * @throws SQLException Con el código {@value #ER_LOCK_WAIT_TIMEOUT} si
+     *                      otra transacción conserva el turno más de
+     *                      {@value #LOCK_WAIT_TIMEOUT_SECONDS} s, o si el hilo
+     *                      se interrumpe.
+     */
+    private void awaitWriter(MemoryTransaction tx) throws SQLException {
+        long restante = TimeUnit.SECONDS.toNanos(LOCK_WAIT_TIMEOUT_SECONDS);
+        while (writer != null && writer != tx) {
+            if (restante <= 0) {
+                throw new SQLException("Lock wait timeout exceeded; try restarting transaction", SQLSTATE_GENERAL,
+                        ER_LOCK_WAIT_TIMEOUT);
+            }
+            try {
+                restante = writerReleased.awaitNanos(restante);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrumpido mientras esperaba el turno de escritura.", e);
+            }
+        }
+        if (writer == null && tx != null && tx.inTransaction()) {
+            writer = tx;
+            tx.grantWriter();
+        }
+    }
+
+    // ============ LECTURA: HistoriaClinica ============
+    /**
+     * Busca una HC por ID y estado.
+     *
+     * @param id      El ID.
+     * @param deleted El estado buscado.
+     * @return La HC, o <code>null</code>.
+     */
+    HistoriaClinica historia(int id, boolean deleted) {
+        lock.readLock().lock();
+        try {
+            HistoriaRow fila = historias.get(id);
+            return fila != null && fila.eliminado() == deleted ? fila.toEntity() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre las HC de un estado en orden de ID, a partir de un ID.
+     *
+     * @param deleted El estado buscado.
+     * @param afterId El ID a partir del cual (exclusivo) se recorre.
+     * @param limit   Cantidad máxima de HC.
+     * @return Las HC, ordenadas por ID.
+     */
+    List<HistoriaClinica> historias(boolean deleted, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<HistoriaClinica> resultado = new ArrayList<>();
+            for (HistoriaRow fila : historias.tailMap(afterId, false).values()) {
+                if (resultado.size() >= limit) {
+                    break;
+                }
+                if (fila.eliminado() == deleted) {
+                    resultado.add(fila.toEntity());
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre las HC <b>activas</b> que cumplen un filtro, ordenadas por
+     * número de historia.
+     *
+     * @param filtro La condición sobre cada fila.
+     * @return Las HC encontradas.
+     */
+    List<HistoriaClinica> historias(Predicate<HistoriaRow> filtro) {
+        lock.readLock().lock();
+        try {
+            List<HistoriaRow> filas = new ArrayList<>();
+            for (HistoriaRow fila : historias.values()) {
+                if (!fila.eliminado() && filtro.test(fila)) {
+                    filas.add(fila);
+                }
+            }
+            filas.sort(Comparator.comparing((HistoriaRow fila) -> key(fila.nroHistoria())));
+            List<HistoriaClinica> resultado = new ArrayList<>(filas.size());
+            for (HistoriaRow fila : filas) {
+                resultado.add(fila.toEntity());
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca una HC <b>activa</b> por número de historia.
+     *
+     * @param nroHistoria El número exacto.
+     * @return La HC, o <code>null</code>.
+     */
+    HistoriaClinica historiaByNro(String nroHistoria) {
+        lock.readLock().lock();
+        try {
+            Integer id = historiasPorNro.get(key(nroHistoria));
+            HistoriaRow fila = id != null ? historias.get(id) : null;
+            return fila != null && !fila.eliminado() ? fila.toEntity() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si un número de historia está registrado (activa o eliminada).
+     *
+     * @param nroHistoria El número exacto.
+     * @return <code>true</code> si existe.
+     */
+    boolean existsNroHistoria(String nroHistoria) {
+        lock.readLock().lock();
+        try {
+            return historiasPorNro.containsKey(key(nroHistoria));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene varias HC <b>activas</b> por ID.
+     *
+     * @param ids Los IDs.
+     * @return Un mapa ID → HC, en el orden recibido (sin los inexistentes).
+     */
+    Map<Integer, HistoriaClinica> historiasByIds(Collection<Integer> ids) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, HistoriaClinica> encontradas = new LinkedHashMap<>();
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                HistoriaRow fila = historias.get(id);
+                if (fila != null && !fila.eliminado()) {
+                    encontradas.put(id, fila.toEntity());
+                }
+            }
+            return encontradas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============ LECTURA: Paciente ============
+    /**
+     * Busca un paciente por ID y estado.
+     *
+     * @param id      El ID.
+     * @param deleted El estado buscado.
+     * @return El paciente (con su HC), o <code>null</code>.
+     */
+    Paciente paciente(int id, boolean deleted) {
+        lock.readLock().lock();
+        try {
+            PacienteRow fila = pacientes.get(id);
+            return fila != null && fila.eliminado() == deleted ? toPaciente(fila) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre el índice (eliminado, apellido, nombre, id).
+     *
+     * @param <R>        Tipo de la proyección (entidad o resumen).
+     * @param deleted    El estado buscado.
+     * @param after      La clave a partir de la cual (exclusiva) se recorre, o
+     *                   <code>null</code> para empezar desde el principio.
+     * @param limit      Cantidad máxima de filas.
+     * @param filtro     Condición adicional sobre cada fila.
+     * @param proyeccion {@link #toPaciente} o {@link #toResumen}.
+     * @return Las filas proyectadas, en el orden del índice.
+     */
+    <R> List<R> pacientes(boolean deleted, PacienteResumen after, int limit, Predicate<PacienteRow> filtro,
+            Function<PacienteRow, R> proyeccion) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<PacienteRow> indice = deleted ? eliminadosPorNombre : activosPorNombre;
+            if (after != null) {
+                indice = indice.tailSet(PacienteRow.probe(after), false);
+            }
+            List<R> resultado = new ArrayList<>();
+            for (PacienteRow fila : indice) {
+                if (resultado.size() >= limit) {
+                    break;
+                }
+                if (filtro.test(fila)) {
+                    resultado.add(proyeccion.apply(fila));
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca un paciente <b>activo</b> por DNI.
+     *
+     * @param dni El DNI exacto.
+     * @return El paciente, o <code>null</code>.
+     */
+    Paciente pacienteByDni(String dni) {
+        lock.readLock().lock();
+        try {
+            PacienteRow fila = pacienteRowByDni(dni);
+            return fila != null && !fila.eliminado() ? toPaciente(fila) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si un DNI está registrado (activo o eliminado).
+     *
+     * @param dni El DNI exacto.
+     * @return <code>true</code> si existe.
+     */
+    boolean existsDni(String dni) {
+        lock.readLock().lock();
+        try {
+            return pacientesPorDni.containsKey(key(dni));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene varios pacientes <b>activos</b> por ID.
+     *
+     * @param ids Los IDs.
+     * @return Un mapa ID → paciente, en el orden recibido.
+     */
+    Map<Integer, Paciente> pacientesByIds(Collection<Integer> ids) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, Paciente> encontrados = new LinkedHashMap<>();
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                PacienteRow fila = pacientes.get(id);
+                if (fila != null && !fila.eliminado()) {
+                    encontrados.put(id, toPaciente(fila));
+                }
+            }
+            return encontrados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene varios pacientes <b>activos</b> por DNI.
+     *
+     * @param dnis Los DNI.
+     * @return Un mapa DNI → paciente, en el orden recibido.
+     */
+    Map<String, Paciente> pacientesByDnis(Collection<String> dnis) {
+        lock.readLock().lock();
+        try {
+            Map<String, Paciente> encontrados = new LinkedHashMap<>();
+            for (String dni : new LinkedHashSet<>(dnis)) {
+                PacienteRow fila = pacienteRowByDni(dni);
+                if (fila != null && !fila.eliminado()) {
+                    encontrados.put(fila.dni(), toPaciente(fila));
+                }
+            }
+            return encontrados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============ PROYECCIONES (con el lock de lectura tomado) ============
+    /**
+     * Crea el paciente con su HC (el <code>LEFT JOIN</code> de
+     * <code>PacienteDAO</code>: la HC se incluye aunque esté eliminada).
+     *
+     * @param fila La fila del paciente.
+     * @return El paciente.
+     */
+    Paciente toPaciente(PacienteRow fila) {
+        HistoriaRow historia = fila.historiaClinicaId() != null ? historias.get(fila.historiaClinicaId()) : null;
+        return new Paciente(fila.id(), fila.nombre(), fila.apellido(), fila.dni(), fila.fechaNacimiento(),
+                historia != null ? historia.toEntity() : null);
+    }
+
+    /**
+     * Crea el resumen del paciente (sin los textos de la HC).
+     *
+     * @param fila La fila del paciente.
+     * @return El resumen.
+     */
+    PacienteResumen toResumen(PacienteRow fila) {
+        HistoriaRow historia = fila.historiaClinicaId() != null ? historias.get(fila.historiaClinicaId()) : null;
+        return new PacienteResumen(fila.id(), fila.dni(), fila.nombre(), fila.apellido(), fila.fechaNacimiento(),
+                historia != null ? historia.id() : null,
+                historia != null ? historia.nroHistoria() : null,
+                historia != null ? historia.grupoSanguineo() : null);
+    }
+
+    // ============ ÍNDICES (con el lock de escritura tomado) ============
+    /**
+     * Inserta o reemplaza una fila de HC y actualiza su índice único.
+     */
+    private void putHistoria(HistoriaRow fila) {
+        removeHistoria(fila.id());
+        historias.put(fila.id(), fila);
+        historiasPorNro.put(key(fila.nroHistoria()), fila.id());
+    }
+
+    /**
+     * Quita una fila de HC y su entrada del índice único.
+     */
+    private void removeHistoria(int id) {
+        HistoriaRow previa = historias.remove(id);
+        if (previa != null) {
+            historiasPorNro.remove(key(previa.nroHistoria()), id);
+        }
+    }
+
+    /**
+     * Inserta o reemplaza una fila de paciente y actualiza sus índices.
+     */
+    private void putPaciente(PacienteRow fila) {
+        removePaciente(fila.id());
+        pacientes.put(fila.id(), fila);
+        pacientesPorDni.put(key(fila.dni()), fila.id());
+        if (fila.historiaClinicaId() != null) {
+            pacientesPorHistoria.put(fila.historiaClinicaId(), fila.id());
+        }
+        (fila.eliminado() ? eliminadosPorNombre : activosPorNombre).add(fila);
+    }
+
+    /**
+     * Quita una fila de paciente y sus entradas de los índices.
+     */
+    private void removePaciente(int id) {
+        PacienteRow previa = pacientes.remove(id);
+        if (previa != null) {
+            pacientesPorDni.remove(key(previa.dni()), id);
+            if (previa.historiaClinicaId() != null) {
+                pacientesPorHistoria.remove(previa.historiaClinicaId(), id);
+            }
+            (previa.eliminado() ? eliminadosPorNombre : activosPorNombre).remove(previa);
+        }
+    }
+
+    // ============ RESTRICCIONES ============
+    /**
+     * Verifica las restricciones de una fila de paciente (<code>NOT NULL</code>,
+     * <code>UNIQUE</code> y la clave foránea a <code>HistoriaClinica</code>).
+     */
+    private void checkPaciente(PacienteRow fila) throws SQLException {
+        requireNotNull(fila.nombre(), "nombre");
+        requireNotNull(fila.apellido(), "apellido");
+        requireNotNull(fila.dni(), "dni");
+        checkUnique(pacientesPorDni, key(fila.dni()), fila.id(), fila.dni(), "Paciente.dni");
+
+        Integer historiaId = fila.historiaClinicaId();
+        if (historiaId != null) {
+            if (!historias.containsKey(historiaId)) {
+                throw new SQLIntegrityConstraintViolationException(
+                        "Cannot add or update a child row: a foreign key constraint fails "
+                                + "(fk_paciente_historia_clinica_id: historia_clinica_id=" + historiaId + ")",
+                        SQLSTATE_INTEGRITY, ER_NO_REFERENCED_ROW);
+            }
+            checkUnique(pacientesPorHistoria, historiaId, fila.id(), historiaId, "Paciente.historia_clinica_id");
+        }
+    }
+
+    /**
+     * Verifica una restricción <code>UNIQUE</code>.
+     *
+     * @param indice  El índice único.
+     * @param clave   La clave a insertar.
+     * @param propio  El ID de la fila que se escribe (0 si es nueva).
+     * @param valor   El valor original (para el mensaje).
+     * @param nombre  Nombre del índice, con el formato de MySQL
+     *                (<code>Tabla.columna</code>).
+     * @throws SQLException Con el código {@value ConstraintViolations#ER_DUP_ENTRY}
+     *                      si la clave pertenece a otra fila.
+     */
+    private static <K> void checkUnique(Map<K, Integer> indice, K clave, int propio, Object valor, String nombre)
+            throws SQLException {
+        Integer otro = indice.get(clave);
+        if (otro != null && otro != propio) {
+            throw new SQLIntegrityConstraintViolationException(
+                    "Duplicate entry '" + valor + "' for key '" + nombre + "'",
+                    SQLSTATE_INTEGRITY, ConstraintViolations.ER_DUP_ENTRY);
+        }
+    }
+
+    /**
+     * Verifica una columna <code>NOT NULL</code>.
+     */
+    private static String requireNotNull(String valor, String columna) throws SQLException {
+        if (valor == null) {
+            throw new SQLIntegrityConstraintViolationException("Column '" + columna + "' cannot be null",
+                    SQLSTATE_INTEGRITY, ER_BAD_NULL_ERROR);
+        }
+        return valor;
+    }
+
+    /**
+     * Busca la fila de un DNI (activo o eliminado).
+     */
+    private PacienteRow pacienteRowByDni(String dni) {
+        Integer id = pacientesPorDni.get(key(dni));
+        return id != null ? pacientes.get(id) : null;
+    }
+
+    /**
+     * Normaliza un texto para compararlo como la collation de MySQL (sin
+     * mayúsculas ni acentos).
+     *
+     * @param texto El texto (puede ser <code>null</code>).
+     * @return El texto normalizado (vacío si era <code>null</code>).
+     */
+    static String key(String texto) {
+        return TextNormalizer.fold(texto);
+    }
+}
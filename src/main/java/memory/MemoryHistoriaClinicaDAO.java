@@ -0,0 +1,225 @@
+package memory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import dao.GrupoSanguineoCatalog;
+import dao.HistoriaClinicaDAO;
+import dao.Page;
+import models.HistoriaClinica;
+
+/**
+ * {@link HistoriaClinicaDAO} sobre la tabla en memoria de
+ * {@link MemoryDatabase} (<code>db.backend=memory</code>).
+ * <p>
+ * Redefine todas las operaciones públicas con la misma semántica que la
+ * versión SQL (baja lógica, unicidad de <code>nro_historia</code>, orden de
+ * los listados y de la búsqueda, mensajes de error), por lo que
+ * {@link service.HistoriaClinicaService} funciona sin cambios. Los métodos
+ * <code>*Tx</code> esperan una conexión del pool en memoria, que registra
+ * cómo deshacer cada escritura si la transacción termina en
+ * <code>rollback()</code>.
+ * </p>
+ * <p>
+ * Los textos de la HC siempre se devuelven completos
+ * (<code>db.hc.lazyTexts</code> no aplica: no hay E/S que ahorrar).
+ * </p>
+ *
+ * @author alpha team
+ * @see MemoryDatabase
+ * @see MemoryPacienteDAO
+ */
+public class MemoryHistoriaClinicaDAO extends HistoriaClinicaDAO {
+
+    private final MemoryDatabase database;
+
+    /**
+     * Crea el DAO sobre una base en memoria.
+     *
+     * @param database La base en memoria.
+     * @throws IllegalArgumentException Si la base es nula.
+     */
+    public MemoryHistoriaClinicaDAO(MemoryDatabase database) {
+        super(GrupoSanguineoCatalog.shared(), false);
+        if (database == null) {
+            throw new IllegalArgumentException("MemoryDatabase no puede ser null.");
+        }
+        this.database = database;
+    }
+
+    // ============ MÉTODOS CRUD (Escritura) ============
+    @Override
+    public void insert(HistoriaClinica hc) throws SQLException {
+        try {
+            database.insertHistoria(hc, null);
+        } catch (SQLException e) {
+            throw new SQLException("Error al insertar historia clínica: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void insertTx(HistoriaClinica hc, Connection conn) throws SQLException {
+        database.insertHistoria(hc, MemoryTransaction.of(conn));
+    }
+
+    @Override
+    public void update(HistoriaClinica hc) throws SQLException {
+        try {
+            if (database.updateHistoria(hc, null) == 0) {
+                throw new SQLException("Error al actualizar: No se encontró HistoriaClinica con ID: " + hc.getId());
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Error al actualizar historia clínica: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void updateTx(HistoriaClinica hc, Connection conn) throws SQLException {
+        if (database.updateHistoria(hc, MemoryTransaction.of(conn)) == 0) {
+            throw new SQLException("Error en updateTx: No se encontró HistoriaClinica con ID: " + hc.getId());
+        }
+    }
+
+    @Override
+    public void insertBatch(List<HistoriaClinica> historias, Connection conn) throws SQLException {
+        MemoryTransaction tx = MemoryTransaction.of(conn);
+        if (historias != null) {
+            for (HistoriaClinica historia : historias) {
+                database.insertHistoria(historia, tx);
+            }
+        }
+    }
+
+    @Override
+    public void updateBatch(List<HistoriaClinica> historias, Connection conn) throws SQLException {
+        MemoryTransaction tx = MemoryTransaction.of(conn);
+        if (historias != null) {
+            for (HistoriaClinica historia : historias) {
+                if (database.updateHistoria(historia, tx) == 0) {
+                    throw new SQLException("Error en updateBatch: No se encontró HistoriaClinica con ID: "
+                            + historia.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        if (database.setHistoriaEliminada(id, true, null) == 0) {
+            throw new SQLException("Error al eliminar historia clínica: "
+                    + "Error al eliminar: No se encontró HistoriaClinica con ID: " + id);
+        }
+    }
+
+    @Override
+    public void deleteTx(int id, Connection conn) throws SQLException {
+        if (database.setHistoriaEliminada(id, true, MemoryTransaction.of(conn)) == 0) {
+            throw new SQLException("Error en deleteTx: No se encontró HistoriaClinica con ID: " + id);
+        }
+    }
+
+    @Override
+    public void recover(int id) throws SQLException {
+        if (database.setHistoriaEliminada(id, false, null) == 0) {
+            throw new SQLException("Error al recuperar historia clínica: "
+                    + "Error al recuperar: No se encontró HistoriaClinica eliminada con ID: " + id);
+        }
+    }
+
+    @Override
+    public void recoverTx(int id, Connection conn) throws SQLException {
+        if (database.setHistoriaEliminada(id, false, MemoryTransaction.of(conn)) == 0) {
+            throw new SQLException("Error en recoverTx: No se encontró HistoriaClinica eliminada con ID: " + id);
+        }
+    }
+
+    // ============ MÉTODOS SELECT (Lectura) ============
+    @Override
+    public HistoriaClinica selectByIdWithStatus(int id, boolean deleted) {
+        return database.historia(id, deleted);
+    }
+
+    @Override
+    public List<HistoriaClinica> selectAllWithStatus(boolean deleted) {
+        return database.historias(deleted, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Recorre una copia tomada al llamar (no mantiene el lock mientras se
+     * consume el <code>Stream</code>).
+     * </p>
+     */
+    @Override
+    public Stream<HistoriaClinica> streamAllWithStatus(boolean deleted) {
+        return selectAllWithStatus(deleted).stream();
+    }
+
+    @Override
+    public Page<HistoriaClinica> selectPage(HistoriaClinica after, int limit, boolean deleted) {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero.");
+        }
+
+        // Una fila extra para saber si hay página siguiente
+        List<HistoriaClinica> historias = database.historias(deleted, after != null ? after.getId() : 0, limit + 1);
+        boolean hasNext = historias.size() > limit;
+        return new Page<>(hasNext ? historias.subList(0, limit) : historias, hasNext);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Misma traducción del filtro que la versión SQL ("A+" → "A_PLUS") y
+     * misma coincidencia: subcadena, sin distinguir mayúsculas, en número de
+     * historia, textos o grupo sanguíneo; ordenado por número de historia.
+     * </p>
+     */
+    @Override
+    public List<HistoriaClinica> searchByFilter(String filter) {
+
+        String cleanFilter = filter.trim().toUpperCase();
+        if (cleanFilter.endsWith("+")) {
+            cleanFilter = cleanFilter.substring(0, cleanFilter.length() - 1) + "_PLUS";
+        } else if (cleanFilter.endsWith("-")) {
+            cleanFilter = cleanFilter.substring(0, cleanFilter.length() - 1) + "_MINUS";
+        }
+
+        String buscado = MemoryDatabase.key(cleanFilter);
+        return database.historias(fila -> contains(fila.nroHistoria(), buscado)
+                || contains(fila.antecedentes(), buscado)
+                || contains(fila.medicacionActual(), buscado)
+                || contains(fila.observaciones(), buscado)
+                || (fila.grupoSanguineo() != null && contains(fila.grupoSanguineo().name(), buscado)));
+    }
+
+    @Override
+    public Map<Integer, HistoriaClinica> selectByIds(Collection<Integer> ids) {
+        return database.historiasByIds(ids);
+    }
+
+    @Override
+    public HistoriaClinica selectByNroHistoria(String nroHistoria) {
+        return database.historiaByNro(nroHistoria);
+    }
+
+    @Override
+    public boolean existsByNroHistoria(String nroHistoria) {
+        return database.existsNroHistoria(nroHistoria);
+    }
+
+    // ============ HELPERS ============
+    /**
+     * <code>LOWER(columna) LIKE LOWER('%buscado%')</code> (<code>NULL</code>
+     * no coincide).
+     */
+    private static boolean contains(String columna, String buscado) {
+        return columna != null && MemoryDatabase.key(columna).contains(buscado);
+    }
+}
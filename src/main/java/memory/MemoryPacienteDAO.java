@@ -0,0 +1,305 @@
+package memory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import dao.HistoriaClinicaDAO;
+import dao.Page;
+import dao.PacienteDAO;
+import dao.SearchMode;
+import dao.SearchResult;
+import memory.MemoryDatabase.PacienteRow;
+import models.Paciente;
+import models.PacienteResumen;
+
+/**
+ * {@link PacienteDAO} sobre la tabla en memoria de {@link MemoryDatabase}
+ * (<code>db.backend=memory</code>).
+ * <p>
+ * Redefine todas las operaciones públicas con la misma semántica que la
+ * versión SQL, por lo que {@link service.PacienteService} funciona sin
+ * cambios:
+ * </p>
+ * <ul>
+ * <li>Baja lógica, unicidad de <code>dni</code> y de
+ * <code>historia_clinica_id</code> (con los mismos errores de clave
+ * duplicada que MySQL, ver {@link dao.ConstraintViolations}).</li>
+ * <li>Listados y paginación por clave en orden (apellido, nombre, id),
+ * resueltos con el índice ordenado de la tabla.</li>
+ * <li>Búsqueda con los mismos modos ({@link SearchMode}): prefijo, todas las
+ * palabras en cualquier posición (el equivalente al índice
+ * <code>FULLTEXT</code>) o subcadena.</li>
+ * <li>{@link #insertWithHistoria} devuelve <code>false</code> (no hay
+ * procedimiento almacenado): el servicio usa una transacción.</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see MemoryDatabase
+ * @see MemoryHistoriaClinicaDAO
+ */
+public class MemoryPacienteDAO extends PacienteDAO {
+
+    private final MemoryDatabase database;
+
+    /**
+     * Crea el DAO sobre una base en memoria.
+     *
+     * @param historiaClinicaDAO El DAO de historias clínicas.
+     * @param database           La base en memoria (la misma que la del DAO
+     *                           de historias clínicas).
+     * @throws IllegalArgumentException Si la base es nula.
+     */
+    public MemoryPacienteDAO(HistoriaClinicaDAO historiaClinicaDAO, MemoryDatabase database) {
+        super(historiaClinicaDAO);
+        if (database == null) {
+            throw new IllegalArgumentException("MemoryDatabase no puede ser null.");
+        }
+        this.database = database;
+    }
+
+    // ============ MÉTODOS CRUD (Escritura) ============
+    @Override
+    public void insert(Paciente paciente) throws SQLException {
+        database.insertPaciente(paciente, null);
+    }
+
+    @Override
+    public void insertTx(Paciente paciente, Connection conn) throws SQLException {
+        database.insertPaciente(paciente, MemoryTransaction.of(conn));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * El backend en memoria no tiene procedimientos almacenados: siempre
+     * devuelve <code>false</code>.
+     * </p>
+     */
+    @Override
+    public boolean insertWithHistoria(Paciente paciente, Connection conn) {
+        return false;
+    }
+
+    @Override
+    public void update(Paciente paciente) throws SQLException {
+        if (database.updatePaciente(paciente, null) == 0) {
+            throw new SQLException("Error al actualizar: No se encontró Paciente con ID: " + paciente.getId());
+        }
+    }
+
+    @Override
+    public void updateTx(Paciente paciente, Connection conn) throws SQLException {
+        if (database.updatePaciente(paciente, MemoryTransaction.of(conn)) == 0) {
+            throw new SQLException("Error en updateTx: No se encontró Paciente con ID: " + paciente.getId());
+        }
+    }
+
+    @Override
+    public void insertBatch(List<Paciente> pacientes, Connection conn) throws SQLException {
+        MemoryTransaction tx = MemoryTransaction.of(conn);
+        if (pacientes != null) {
+            for (Paciente paciente : pacientes) {
+                database.insertPaciente(paciente, tx);
+            }
+        }
+    }
+
+    @Override
+    public void updateBatch(List<Paciente> pacientes, Connection conn) throws SQLException {
+        MemoryTransaction tx = MemoryTransaction.of(conn);
+        if (pacientes != null) {
+            for (Paciente paciente : pacientes) {
+                if (database.updatePaciente(paciente, tx) == 0) {
+                    throw new SQLException("Error en updateBatch: No se encontró Paciente con ID: "
+                            + paciente.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        if (database.setPacienteEliminado(id, true, null) == 0) {
+            throw new SQLException("Error al eliminar: No se encontró Paciente con ID: " + id);
+        }
+    }
+
+    @Override
+    public void deleteTx(int id, Connection conn) throws SQLException {
+        if (database.setPacienteEliminado(id, true, MemoryTransaction.of(conn)) == 0) {
+            throw new SQLException("Error en deleteTx: No se encontró Paciente con ID: " + id);
+        }
+    }
+
+    @Override
+    public void recover(int id) throws SQLException {
+        if (database.setPacienteEliminado(id, false, null) == 0) {
+            throw new SQLException("Error al recuperar: No se encontró Paciente eliminado con ID: " + id);
+        }
+    }
+
+    @Override
+    public void recoverTx(int id, Connection conn) throws SQLException {
+        if (database.setPacienteEliminado(id, false, MemoryTransaction.of(conn)) == 0) {
+            throw new SQLException("Error en recoverTx: No se encontró Paciente eliminado con ID: " + id);
+        }
+    }
+
+    // ============ MÉTODOS SELECT (Lectura) ============
+    @Override
+    public Paciente selectByIdWithStatus(int id, boolean deleted) {
+        return database.paciente(id, deleted);
+    }
+
+    @Override
+    public List<Paciente> selectAllWithStatus(boolean deleted) {
+        return database.pacientes(deleted, null, Integer.MAX_VALUE, fila -> true, database::toPaciente);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Recorre una copia tomada al llamar (no mantiene el lock mientras se
+     * consume el <code>Stream</code>).
+     * </p>
+     */
+    @Override
+    public Stream<Paciente> streamAllWithStatus(boolean deleted) {
+        return selectAllWithStatus(deleted).stream();
+    }
+
+    @Override
+    public Page<Paciente> selectPage(Paciente after, int limit, boolean deleted) {
+        return selectPage(database::toPaciente, after != null ? PacienteResumen.of(after) : null, limit, deleted);
+    }
+
+    @Override
+    public Page<PacienteResumen> selectResumenPage(PacienteResumen after, int limit, boolean deleted) {
+        return selectPage(database::toResumen, after, limit, deleted);
+    }
+
+    /**
+     * Paginación por clave (apellido, nombre, id) sobre el índice ordenado.
+     *
+     * @param <T>        Tipo de la fila (entidad o resumen).
+     * @param proyeccion El mapeo de cada fila.
+     * @param after      La clave de la última fila de la página anterior, o
+     *                   <code>null</code>.
+     * @param limit      Cantidad máxima de filas por página.
+     * @param deleted    Estado de eliminación.
+     * @return La página.
+     */
+    private <T> Page<T> selectPage(Function<PacienteRow, T> proyeccion, PacienteResumen after, int limit,
+            boolean deleted) {
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero.");
+        }
+
+        // Una fila extra para saber si hay página siguiente
+        List<T> filas = database.pacientes(deleted, after, limit + 1, fila -> true, proyeccion);
+        boolean hasNext = filas.size() > limit;
+        return new Page<>(hasNext ? filas.subList(0, limit) : filas, hasNext);
+    }
+
+    @Override
+    public List<Paciente> searchByFilter(String filter) {
+        return search(filter).items();
+    }
+
+    @Override
+    public SearchResult<Paciente> search(String filter) {
+        return search(filter, database::toPaciente);
+    }
+
+    @Override
+    public SearchResult<PacienteResumen> searchResumen(String filter) {
+        return search(filter, database::toResumen);
+    }
+
+    /**
+     * Elige el modo de búsqueda igual que la versión SQL y recorre los
+     * pacientes activos en orden (apellido, nombre).
+     * <ul>
+     * <li>{@link SearchMode#PREFIX}: el nombre o el apellido empiezan con el
+     * filtro.</li>
+     * <li>{@link SearchMode#FULLTEXT}: cada palabra de al menos
+     * {@value SearchMode#MIN_FULLTEXT_LENGTH} caracteres aparece en el nombre
+     * o en el apellido.</li>
+     * <li>{@link SearchMode#SCAN}: el filtro completo aparece en el nombre o
+     * en el apellido (si no quedan palabras utilizables).</li>
+     * </ul>
+     *
+     * @param <T>        Tipo de la fila (entidad o resumen).
+     * @param filter     filtro de búsqueda (no nulo ni vacío).
+     * @param proyeccion El mapeo de cada fila.
+     * @return Las filas encontradas y el modo de búsqueda utilizado.
+     */
+    private <T> SearchResult<T> search(String filter, Function<PacienteRow, T> proyeccion) {
+
+        String limpio = filter.trim();
+        SearchMode mode = SearchMode.forFilter(limpio);
+        Predicate<PacienteRow> filtro;
+
+        if (mode == SearchMode.PREFIX) {
+            String prefijo = MemoryDatabase.key(limpio.endsWith(SearchMode.PREFIX_WILDCARD)
+                    ? limpio.substring(0, limpio.length() - SearchMode.PREFIX_WILDCARD.length()).trim()
+                    : limpio);
+            filtro = fila -> fila.apellidoKey().startsWith(prefijo) || fila.nombreKey().startsWith(prefijo);
+
+        } else {
+            List<String> palabras = words(limpio);
+            if (!palabras.isEmpty()) {
+                filtro = fila -> palabras.stream().allMatch(
+                        palabra -> fila.nombreKey().contains(palabra) || fila.apellidoKey().contains(palabra));
+            } else {
+                mode = SearchMode.SCAN;
+                String buscado = MemoryDatabase.key(limpio);
+                filtro = fila -> fila.nombreKey().contains(buscado) || fila.apellidoKey().contains(buscado);
+            }
+        }
+        return new SearchResult<>(database.pacientes(false, null, Integer.MAX_VALUE, filtro, proyeccion), mode);
+    }
+
+    /**
+     * Divide el filtro en palabras normalizadas, descartando los operadores
+     * del modo booleano y las palabras cortas (mismo criterio que la
+     * consulta <code>FULLTEXT</code> de la versión SQL).
+     */
+    private static List<String> words(String filtro) {
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : filtro.replaceAll("[+\\-<>()~*\"@]", " ").trim().split("\\s+")) {
+            if (palabra.length() >= SearchMode.MIN_FULLTEXT_LENGTH) {
+                palabras.add(MemoryDatabase.key(palabra));
+            }
+        }
+        return palabras;
+    }
+
+    @Override
+    public Paciente selectByDni(String dni) {
+        return database.pacienteByDni(dni);
+    }
+
+    @Override
+    public Map<Integer, Paciente> selectByIds(Collection<Integer> ids) {
+        return database.pacientesByIds(ids);
+    }
+
+    @Override
+    public Map<String, Paciente> selectByDnis(Collection<String> dnis) {
+        return database.pacientesByDnis(dnis);
+    }
+
+    @Override
+    public boolean existsByDni(String dni) {
+        return database.existsDni(dni);
+    }
+}
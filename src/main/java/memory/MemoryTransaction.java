@@ -0,0 +1,204 @@
+package memory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Manejador de las conexiones del backend en memoria (ver
+ * {@link MemoryDatabase#connect()}).
+ * <p>
+ * La conexión no ejecuta SQL: solo implementa el control de transacciones que
+ * usan {@link config.TransactionManager}, {@link config.ConnectionPool} y los
+ * servicios (<code>setAutoCommit</code>, <code>commit</code>,
+ * <code>rollback</code>, <code>close</code>). Mientras
+ * <code>autoCommit=false</code>, cada escritura de un DAO en memoria registra
+ * aquí cómo deshacerse; <code>rollback()</code> las deshace en orden inverso y
+ * <code>commit()</code> las descarta.
+ * </p>
+ * <p>
+ * Las escrituras son visibles para los demás hilos apenas se hacen (nivel de
+ * aislamiento <code>READ UNCOMMITTED</code>). En lugar de bloqueos de fila,
+ * una transacción con escrituras pendientes tiene el turno de escritura de la
+ * base: las demás escrituras la esperan hasta que termine (ver
+ * {@link MemoryDatabase}), de modo que deshacerla nunca pisa cambios de otras
+ * transacciones.
+ * </p>
+ *
+ * @author alpha team
+ * @see MemoryDatabase
+ */
+final class MemoryTransaction implements InvocationHandler {
+
+    private final MemoryDatabase database;
+
+    /**
+     * Acciones que deshacen las escrituras pendientes (la última, al final).
+     */
+    private final Deque<Runnable> undo = new ArrayDeque<>();
+
+    private boolean autoCommit = true;
+    private boolean closed;
+
+    /**
+     * <code>true</code> si la transacción tiene el turno de escritura de la
+     * base (lo asigna {@link MemoryDatabase} en su primera escritura).
+     */
+    private boolean writer;
+
+    MemoryTransaction(MemoryDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Obtiene la transacción detrás de una conexión recibida por un DAO en
+     * memoria (que puede llegar envuelta por el pool, el
+     * {@link config.RoundTripCounter} o el {@link config.SlowQueryLog}).
+     *
+     * @param conn La conexión.
+     * @return Su transacción.
+     * @throws SQLException Si la conexión no es del backend en memoria.
+     */
+    static MemoryTransaction of(Connection conn) throws SQLException {
+        if (conn == null || !conn.isWrapperFor(MemoryTransaction.class)) {
+            throw new SQLException("La conexión recibida no pertenece al backend en memoria (db.backend=memory).");
+        }
+        return conn.unwrap(MemoryTransaction.class);
+    }
+
+    /**
+     * Registra cómo deshacer una escritura. Con <code>autoCommit=true</code> la
+     * escritura ya está confirmada y no se registra nada.
+     *
+     * @param accion La acción que restaura el estado previo (se ejecuta con el
+     *               lock de escritura de la base tomado).
+     */
+    void onRollback(Runnable accion) {
+        if (!autoCommit) {
+            undo.addLast(accion);
+        }
+    }
+
+    /**
+     * Indica si hay una transacción en curso (<code>autoCommit=false</code>).
+     *
+     * @return <code>true</code> si las escrituras quedan pendientes hasta el
+     *         commit.
+     */
+    boolean inTransaction() {
+        return !autoCommit;
+    }
+
+    /**
+     * Registra que la transacción tomó el turno de escritura de la base (lo
+     * invoca {@link MemoryDatabase} con su lock tomado).
+     */
+    void grantWriter() {
+        writer = true;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        switch (method.getName()) {
+            case "equals" -> {
+                return proxy == args[0];
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(proxy);
+            }
+            case "toString" -> {
+                return "MemoryConnection[autoCommit=" + autoCommit + ", pendientes=" + undo.size() + "]";
+            }
+            case "close" -> {
+                if (!closed) {
+                    end(true);
+                    closed = true;
+                }
+                return null;
+            }
+            case "isClosed" -> {
+                return closed;
+            }
+            case "isValid" -> {
+                return !closed;
+            }
+            case "unwrap" -> {
+                if (args[0] == MemoryTransaction.class) {
+                    return this;
+                }
+                throw new SQLException("La conexión en memoria no envuelve " + args[0]);
+            }
+            case "isWrapperFor" -> {
+                return args[0] == MemoryTransaction.class;
+            }
+            default -> {
+                // sigue abajo
+            }
+        }
+
+        if (closed) {
+            throw new SQLException("La conexión en memoria está cerrada.");
+        }
+
+        switch (method.getName()) {
+            case "getAutoCommit" -> {
+                return autoCommit;
+            }
+            case "setAutoCommit" -> {
+                boolean nuevo = (Boolean) args[0];
+                if (nuevo && !autoCommit) {
+                    end(false); // JDBC: activar autoCommit confirma la transacción en curso
+                }
+                autoCommit = nuevo;
+                return null;
+            }
+            case "commit" -> {
+                end(false);
+                return null;
+            }
+            case "rollback" -> {
+                if (args == null) {
+                    end(true);
+                    return null;
+                }
+            }
+            case "getTransactionIsolation" -> {
+                return Connection.TRANSACTION_READ_UNCOMMITTED;
+            }
+            case "isReadOnly" -> {
+                return false;
+            }
+            case "setReadOnly", "clearWarnings" -> {
+                return null;
+            }
+            case "getWarnings" -> {
+                return null;
+            }
+            default -> {
+                // sigue abajo
+            }
+        }
+
+        throw new SQLFeatureNotSupportedException(
+                "El backend en memoria no ejecuta SQL (Connection." + method.getName() + ").");
+    }
+
+    /**
+     * Termina la transacción y libera el turno de escritura, si lo tiene.
+     *
+     * @param deshacer <code>true</code> para deshacer las escrituras
+     *                 pendientes (rollback), de la última a la primera.
+     */
+    private void end(boolean deshacer) {
+        if (writer) {
+            database.endTransaction(this, deshacer ? undo : null);
+            writer = false;
+        }
+        undo.clear();
+    }
+}
@@ -0,0 +1,103 @@
+package metrics;
+
+import config.DatabaseConnection;
+import config.StorageBackend;
+import dao.HistoriaClinicaDAO;
+import dao.PacienteDAO;
+import memory.MemoryDatabase;
+import memory.MemoryHistoriaClinicaDAO;
+import memory.MemoryPacienteDAO;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * Fábrica de los DAOs y Servicios de la aplicación, instrumentados o no según
+ * <code>db.metrics.enabled</code>.
+ * <p>
+ * Con las métricas desactivadas devuelve las clases originales, de modo que
+ * la instrumentación no tiene ningún costo. Se usa al "cablear" la
+ * aplicación ({@link views.AppMenu}, {@link views.gui.MainGUI}).
+ * </p>
+ * <p>
+ * Con <code>db.backend=memory</code> los DAOs son los de
+ * {@link MemoryDatabase} (sin métricas de DAO: no hay E/S que medir; los
+ * servicios se instrumentan igual).
+ * </p>
+ *
+ * @author alpha team
+ * @see Metrics
+ */
+public final class Instrumented {
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private Instrumented() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Crea el DAO de historias clínicas.
+     *
+     * @return Un {@link MemoryHistoriaClinicaDAO} con el backend en memoria;
+     *         si no, un {@link TimedHistoriaClinicaDAO} si las métricas están
+     *         activadas, o un {@link HistoriaClinicaDAO} en caso contrario.
+     */
+    public static HistoriaClinicaDAO historiaClinicaDAO() {
+        if (isMemoryBackend()) {
+            return new MemoryHistoriaClinicaDAO(MemoryDatabase.shared());
+        }
+        return Metrics.isEnabled() ? new TimedHistoriaClinicaDAO() : new HistoriaClinicaDAO();
+    }
+
+    /**
+     * Crea el DAO de pacientes.
+     *
+     * @param historiaClinicaDAO El DAO de historias clínicas.
+     * @return Un {@link MemoryPacienteDAO} con el backend en memoria; si no,
+     *         un {@link TimedPacienteDAO} si las métricas están activadas, o
+     *         un {@link PacienteDAO} en caso contrario.
+     */
+    public static PacienteDAO pacienteDAO(HistoriaClinicaDAO historiaClinicaDAO) {
+        if (isMemoryBackend()) {
+            return new MemoryPacienteDAO(historiaClinicaDAO, MemoryDatabase.shared());
+        }
+        return Metrics.isEnabled() ? new TimedPacienteDAO(historiaClinicaDAO) : new PacienteDAO(historiaClinicaDAO);
+    }
+
+    /**
+     * Crea el servicio de historias clínicas.
+     *
+     * @param historiaClinicaDAO El DAO de historias clínicas.
+     * @return Un {@link TimedHistoriaClinicaService} si las métricas están
+     *         activadas, o un {@link HistoriaClinicaService} en caso contrario.
+     */
+    public static HistoriaClinicaService historiaClinicaService(HistoriaClinicaDAO historiaClinicaDAO) {
+        return Metrics.isEnabled() ? new TimedHistoriaClinicaService(historiaClinicaDAO)
+                : new HistoriaClinicaService(historiaClinicaDAO);
+    }
+
+    /**
+     * Crea el servicio de pacientes.
+     *
+     * @param pacienteDAO            El DAO de pacientes.
+     * @param historiaClinicaService El servicio de historias clínicas.
+     * @return Un {@link TimedPacienteService} si las métricas están
+     *         activadas, o un {@link PacienteService} en caso contrario.
+     */
+    public static PacienteService pacienteService(PacienteDAO pacienteDAO,
+            HistoriaClinicaService historiaClinicaService) {
+        return Metrics.isEnabled() ? new TimedPacienteService(pacienteDAO, historiaClinicaService)
+                : new PacienteService(pacienteDAO, historiaClinicaService);
+    }
+
+    /**
+     * Indica si la aplicación usa el backend en memoria
+     * (<code>db.backend=memory</code>).
+     *
+     * @return <code>true</code> con el backend en memoria.
+     */
+    public static boolean isMemoryBackend() {
+        return DatabaseConnection.getBackend() == StorageBackend.MEMORY;
+    }
+}
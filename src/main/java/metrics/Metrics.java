@@ -0,0 +1,210 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import config.DatabaseConnection;
+
+/**
+ * Registro de métricas de la aplicación: latencia y errores por operación de
+ * los DAOs y Servicios, más la latencia de obtención de conexiones del pool.
+ *
+ * <h3>Activación:</h3>
+ * <p>
+ * Las métricas están <b>desactivadas</b> por defecto
+ * (<code>db.metrics.enabled=false</code>). Desactivadas, la aplicación usa
+ * los DAOs y Servicios originales (ver {@link Instrumented}): no hay ningún
+ * costo en el camino caliente, ni siquiera una comparación. Activadas, cada
+ * llamada a un método de {@link dao.GenericDAO} o
+ * {@link service.GenericService} cuesta dos lecturas de
+ * {@link System#nanoTime()} y algunos incrementos atómicos sin bloqueo.
+ * </p>
+ *
+ * <h3>Exportación (formato de texto de Prometheus):</h3>
+ * <ul>
+ * <li><code>db.metrics.port</code>: publica <code>/metrics</code> en
+ * <code>http://127.0.0.1:&lt;puerto&gt;</code> (solo en la interfaz local).
+ * <code>0</code> (por defecto) no abre ningún puerto.</li>
+ * <li><code>db.metrics.file</code>: vuelca las métricas a ese archivo cada
+ * <code>db.metrics.dumpIntervalMs</code> (por defecto 60000) y al terminar la
+ * JVM. El archivo se reemplaza de forma atómica, de modo que un lector nunca
+ * ve un volcado a medias (ej: el <i>textfile collector</i> de
+ * node_exporter).</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see OperationTimer
+ * @see PrometheusExporter
+ */
+public final class Metrics {
+
+    private static final boolean ENABLED = DatabaseConnection.getBooleanProperty("db.metrics.enabled", false);
+
+    /**
+     * Temporizadores por <code>capa.entidad.operación</code>, ordenados para
+     * que la exportación sea estable.
+     */
+    private static final ConcurrentSkipListMap<String, OperationTimer> TIMERS = new ConcurrentSkipListMap<>();
+
+    private static boolean started;
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private Metrics() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Indica si las métricas están activadas (<code>db.metrics.enabled</code>).
+     *
+     * @return <code>true</code> si se instrumentan los DAOs y Servicios.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Devuelve (creándolo la primera vez) el temporizador de una operación.
+     * <p>
+     * Se invoca al construir los componentes instrumentados, no en cada
+     * llamada.
+     * </p>
+     *
+     * @param layer     Capa (<code>dao</code> o <code>service</code>).
+     * @param entity    Entidad (ej: <code>paciente</code>).
+     * @param operation Método (ej: <code>insert</code>).
+     * @return El temporizador compartido de esa operación.
+     */
+    public static OperationTimer timer(String layer, String entity, String operation) {
+        return TIMERS.computeIfAbsent(layer + "." + entity + "." + operation,
+                k -> new OperationTimer(layer, entity, operation));
+    }
+
+    /**
+     * Devuelve todos los temporizadores registrados.
+     *
+     * @return Una copia de la lista, ordenada por capa, entidad y operación.
+     */
+    public static List<OperationTimer> timers() {
+        return new ArrayList<>(TIMERS.values());
+    }
+
+    /**
+     * Reinicia todos los temporizadores (ej: al terminar el calentamiento de
+     * una prueba de carga).
+     */
+    public static void reset() {
+        for (OperationTimer timer : TIMERS.values()) {
+            timer.reset();
+        }
+    }
+
+    // ============ EXPORTACIÓN ============
+    /**
+     * Inicia los exportadores configurados (endpoint HTTP local y/o volcado a
+     * archivo). No hace nada si las métricas están desactivadas o si ya se
+     * iniciaron.
+     * <p>
+     * Un error al abrir el puerto o al escribir el archivo se informa en
+     * <code>System.err</code> sin detener la aplicación: las métricas son
+     * auxiliares.
+     * </p>
+     */
+    public static synchronized void start() {
+        if (!ENABLED || started) {
+            return;
+        }
+        started = true;
+
+        int puerto = DatabaseConnection.getIntProperty("db.metrics.port", 0);
+        if (puerto > 0) {
+            startHttpEndpoint(puerto);
+        }
+
+        String archivo = DatabaseConnection.getProperty("db.metrics.file", null);
+        if (archivo != null) {
+            startFileDump(Path.of(archivo),
+                    Math.max(1_000L, DatabaseConnection.getLongProperty("db.metrics.dumpIntervalMs", 60_000L)));
+        }
+    }
+
+    /**
+     * Escribe las métricas actuales en un archivo (formato Prometheus),
+     * reemplazándolo de forma atómica.
+     *
+     * @param destino El archivo destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public static void dump(Path destino) throws IOException {
+        Path absoluto = destino.toAbsolutePath();
+        Path temporal = absoluto.resolveSibling(absoluto.getFileName() + ".tmp");
+        Files.writeString(temporal, PrometheusExporter.scrape(), StandardCharsets.UTF_8);
+        Files.move(temporal, absoluto, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Publica <code>GET /metrics</code> en la interfaz local.
+     *
+     * @param puerto El puerto TCP.
+     */
+    private static void startHttpEndpoint(int puerto) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+            server.createContext("/metrics", exchange -> {
+                byte[] cuerpo = PrometheusExporter.scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", PrometheusExporter.CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, cuerpo.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(cuerpo);
+                }
+            });
+            server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-http");
+                t.setDaemon(true);
+                return t;
+            }));
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Error al abrir el puerto de métricas " + puerto + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Programa el volcado periódico a archivo y un último volcado al terminar
+     * la JVM.
+     *
+     * @param destino     El archivo destino.
+     * @param intervaloMs Milisegundos entre volcados.
+     */
+    private static void startFileDump(Path destino, long intervaloMs) {
+        ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        Runnable volcar = () -> {
+            try {
+                dump(destino);
+            } catch (IOException e) {
+                System.err.println("Error al volcar las métricas a " + destino + ": " + e.getMessage());
+            }
+        };
+        dumper.scheduleWithFixedDelay(volcar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(volcar, "metrics-dump-shutdown"));
+    }
+}
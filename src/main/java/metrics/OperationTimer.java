@@ -0,0 +1,144 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import config.LatencyHistogram;
+
+/**
+ * Temporizador de una operación instrumentada (ej: <code>insert</code> de
+ * {@link dao.PacienteDAO}): latencia, cantidad de llamadas y errores.
+ * <p>
+ * La latencia se acumula en un {@link LatencyHistogram} (p50/p95/p99 sin
+ * asignaciones en el camino caliente) y los errores en un {@link LongAdder}.
+ * La cantidad de llamadas es la cantidad de duraciones registradas, de modo
+ * que la tasa de errores es <code>errors / count</code>.
+ * </p>
+ *
+ * <h3>Uso:</h3>
+ *
+ * <pre>
+ * long inicio = System.nanoTime();
+ * try {
+ *     return super.selectByIdWithStatus(id, deleted);
+ * } catch (Exception e) {
+ *     timer.error();
+ *     throw e; // relanzamiento preciso: conserva las excepciones declaradas
+ * } finally {
+ *     timer.record(inicio);
+ * }
+ * </pre>
+ *
+ * @author alpha team
+ * @see Metrics#timer(String, String, String)
+ */
+public final class OperationTimer {
+
+    private final String layer;
+    private final String entity;
+    private final String operation;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Crea un temporizador. Se obtienen con
+     * {@link Metrics#timer(String, String, String)}.
+     *
+     * @param layer     Capa (<code>dao</code> o <code>service</code>).
+     * @param entity    Entidad (ej: <code>paciente</code>).
+     * @param operation Método (ej: <code>insert</code>).
+     */
+    OperationTimer(String layer, String entity, String operation) {
+        this.layer = layer;
+        this.entity = entity;
+        this.operation = operation;
+    }
+
+    /**
+     * Registra una llamada terminada (con o sin error).
+     *
+     * @param inicioNanos El valor de {@link System#nanoTime()} al comenzar la
+     *                    llamada.
+     */
+    public void record(long inicioNanos) {
+        latency.record(System.nanoTime() - inicioNanos);
+    }
+
+    /**
+     * Registra que la llamada en curso terminó con una excepción. Se invoca
+     * además de {@link #record(long)}.
+     */
+    public void error() {
+        errors.increment();
+    }
+
+    /**
+     * Devuelve la capa de la operación.
+     *
+     * @return <code>dao</code> o <code>service</code>.
+     */
+    public String getLayer() {
+        return layer;
+    }
+
+    /**
+     * Devuelve la entidad de la operación.
+     *
+     * @return El nombre de la entidad, en minúsculas.
+     */
+    public String getEntity() {
+        return entity;
+    }
+
+    /**
+     * Devuelve el nombre del método medido.
+     *
+     * @return El nombre de la operación.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Devuelve una instantánea de la latencia acumulada.
+     *
+     * @return El histograma de latencias (su <code>count</code> es la cantidad
+     *         de llamadas).
+     */
+    public LatencyHistogram.Snapshot latency() {
+        return latency.snapshot();
+    }
+
+    /**
+     * Devuelve la cantidad de llamadas que terminaron con una excepción.
+     *
+     * @return El total de errores.
+     */
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * Devuelve la fracción de llamadas con error.
+     *
+     * @return Un valor entre 0 y 1 (0 si todavía no hubo llamadas).
+     */
+    public double errorRate() {
+        long llamadas = latency.snapshot().count();
+        return llamadas == 0 ? 0.0 : (double) errors.sum() / llamadas;
+    }
+
+    /**
+     * Reinicia la latencia y los errores acumulados.
+     */
+    public void reset() {
+        latency.reset();
+        errors.reset();
+    }
+
+    @Override
+    public String toString() {
+        return layer + "." + entity + "." + operation + " {" + latency.snapshot()
+                + ", errores=" + errors.sum() + "}";
+    }
+}
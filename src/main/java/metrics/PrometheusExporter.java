@@ -0,0 +1,151 @@
+package metrics;
+
+import java.util.Locale;
+
+import config.DatabaseConnection;
+import config.LatencyHistogram;
+import config.PoolStats;
+
+/**
+ * Serializa las métricas en el formato de texto de Prometheus (versión
+ * 0.0.4).
+ * <p>
+ * Series exportadas:
+ * </p>
+ * <ul>
+ * <li><code>gestion_operation_duration_seconds</code> (summary, con
+ * p50/p95/p99, <code>_sum</code> y <code>_count</code>) y
+ * <code>gestion_operation_errors_total</code> (counter), con las etiquetas
+ * <code>layer</code>, <code>entity</code> y <code>operation</code>. La tasa
+ * de errores es <code>errors_total / duration_seconds_count</code>.</li>
+ * <li><code>gestion_pool_acquire_duration_seconds</code> (summary): latencia
+ * de {@link DatabaseConnection#getConnection()}.</li>
+ * <li><code>gestion_pool_connections</code> (gauge, por <code>state</code>),
+ * <code>gestion_pool_acquired_total</code> y
+ * <code>gestion_pool_timeouts_total</code> (counters).</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see Metrics
+ */
+public final class PrometheusExporter {
+
+    /**
+     * Content-Type del formato de texto de Prometheus.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Cuantiles publicados en cada summary.
+     */
+    private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private PrometheusExporter() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Genera el texto completo de las métricas actuales.
+     *
+     * @return Las métricas en formato Prometheus.
+     */
+    public static String scrape() {
+
+        StringBuilder out = new StringBuilder(8 * 1024);
+
+        // ============ OPERACIONES DE DAOs Y SERVICIOS ============
+        out.append("# HELP gestion_operation_duration_seconds Latencia de los métodos de DAOs y Servicios.\n");
+        out.append("# TYPE gestion_operation_duration_seconds summary\n");
+        for (OperationTimer timer : Metrics.timers()) {
+            summary(out, "gestion_operation_duration_seconds", labels(timer), timer.latency());
+        }
+
+        out.append("# HELP gestion_operation_errors_total Llamadas que terminaron con una excepción.\n");
+        out.append("# TYPE gestion_operation_errors_total counter\n");
+        for (OperationTimer timer : Metrics.timers()) {
+            sample(out, "gestion_operation_errors_total", labels(timer), timer.errors());
+        }
+
+        // ============ POOL DE CONEXIONES ============
+        PoolStats pool = DatabaseConnection.getPoolStats();
+
+        out.append("# HELP gestion_pool_acquire_duration_seconds Latencia de obtención de una conexión del pool.\n");
+        out.append("# TYPE gestion_pool_acquire_duration_seconds summary\n");
+        summary(out, "gestion_pool_acquire_duration_seconds", "", pool.acquireLatency());
+
+        out.append("# HELP gestion_pool_connections Conexiones del pool por estado.\n");
+        out.append("# TYPE gestion_pool_connections gauge\n");
+        sample(out, "gestion_pool_connections", "state=\"active\"", pool.active());
+        sample(out, "gestion_pool_connections", "state=\"idle\"", pool.idle());
+        sample(out, "gestion_pool_connections", "state=\"waiting\"", pool.waiters());
+
+        out.append("# HELP gestion_pool_acquired_total Préstamos de conexiones exitosos.\n");
+        out.append("# TYPE gestion_pool_acquired_total counter\n");
+        sample(out, "gestion_pool_acquired_total", "", pool.acquired());
+
+        out.append("# HELP gestion_pool_timeouts_total Préstamos de conexiones vencidos por el timeout.\n");
+        out.append("# TYPE gestion_pool_timeouts_total counter\n");
+        sample(out, "gestion_pool_timeouts_total", "", pool.timeouts());
+
+        return out.toString();
+    }
+
+    /**
+     * Escribe las líneas de un summary (cuantiles, suma y cantidad).
+     *
+     * @param out       Destino.
+     * @param name      Nombre de la métrica.
+     * @param labels    Etiquetas (sin llaves; puede ser vacío).
+     * @param histogram Instantánea del histograma (en µs).
+     */
+    private static void summary(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot histogram) {
+        String prefijo = labels.isEmpty() ? "" : labels + ",";
+        for (double q : QUANTILES) {
+            sample(out, name, prefijo + "quantile=\"" + q + "\"", seconds(histogram.percentileMicros(q)));
+        }
+        sample(out, name + "_sum", labels, seconds(histogram.sumMicros()));
+        sample(out, name + "_count", labels, histogram.count());
+    }
+
+    /**
+     * Escribe una línea <code>nombre{etiquetas} valor</code> con un valor
+     * decimal.
+     */
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(String.format(Locale.ROOT, "%.6f", value)).append('\n');
+    }
+
+    /**
+     * Escribe una línea <code>nombre{etiquetas} valor</code> con un valor
+     * entero.
+     */
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Devuelve las etiquetas de una operación.
+     */
+    private static String labels(OperationTimer timer) {
+        return "layer=\"" + timer.getLayer() + "\",entity=\"" + timer.getEntity()
+                + "\",operation=\"" + timer.getOperation() + "\"";
+    }
+
+    /**
+     * Convierte microsegundos a segundos (unidad base de Prometheus).
+     */
+    private static double seconds(long micros) {
+        return micros / 1_000_000.0;
+    }
+}
@@ -0,0 +1,280 @@
+package metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import dao.HistoriaClinicaDAO;
+import dao.Page;
+import models.HistoriaClinica;
+
+/**
+ * {@link HistoriaClinicaDAO} instrumentado: mide la latencia y los errores de
+ * cada método de {@link dao.GenericDAO} y de las consultas por ID y por
+ * número de historia (<code>dao.historia_clinica.&lt;método&gt;</code>). La
+ * búsqueda de texto no pasa por el DAO (usa el índice en memoria de
+ * {@link service.HistoriaClinicaService} y luego <code>selectByIds</code>). Ver
+ * {@link TimedPacienteDAO}.
+ *
+ * @author alpha team
+ * @see Metrics
+ */
+public class TimedHistoriaClinicaDAO extends HistoriaClinicaDAO {
+
+    private final OperationTimer insertTimer = Metrics.timer("dao", "historia_clinica", "insert");
+    private final OperationTimer insertTxTimer = Metrics.timer("dao", "historia_clinica", "insertTx");
+    private final OperationTimer updateTimer = Metrics.timer("dao", "historia_clinica", "update");
+    private final OperationTimer updateTxTimer = Metrics.timer("dao", "historia_clinica", "updateTx");
+    private final OperationTimer insertBatchTimer = Metrics.timer("dao", "historia_clinica", "insertBatch");
+    private final OperationTimer updateBatchTimer = Metrics.timer("dao", "historia_clinica", "updateBatch");
+    private final OperationTimer deleteTimer = Metrics.timer("dao", "historia_clinica", "delete");
+    private final OperationTimer deleteTxTimer = Metrics.timer("dao", "historia_clinica", "deleteTx");
+    private final OperationTimer recoverTimer = Metrics.timer("dao", "historia_clinica", "recover");
+    private final OperationTimer recoverTxTimer = Metrics.timer("dao", "historia_clinica", "recoverTx");
+    private final OperationTimer selectByIdWithStatusTimer =
+            Metrics.timer("dao", "historia_clinica", "selectByIdWithStatus");
+    private final OperationTimer selectAllWithStatusTimer =
+            Metrics.timer("dao", "historia_clinica", "selectAllWithStatus");
+    private final OperationTimer streamAllWithStatusTimer =
+            Metrics.timer("dao", "historia_clinica", "streamAllWithStatus");
+    private final OperationTimer selectPageTimer = Metrics.timer("dao", "historia_clinica", "selectPage");
+    private final OperationTimer selectByIdsTimer = Metrics.timer("dao", "historia_clinica", "selectByIds");
+    private final OperationTimer selectByNroHistoriaTimer =
+            Metrics.timer("dao", "historia_clinica", "selectByNroHistoria");
+    private final OperationTimer existsByNroHistoriaTimer =
+            Metrics.timer("dao", "historia_clinica", "existsByNroHistoria");
+
+    /**
+     * Crea el DAO instrumentado con la configuración de
+     * <code>db.properties</code>.
+     */
+    public TimedHistoriaClinicaDAO() {
+        super();
+    }
+
+    // ============ OPERACIONES INSTRUMENTADAS ============
+    @Override
+    public void insert(HistoriaClinica historia) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.insert(historia);
+        } catch (Exception e) {
+            insertTimer.error();
+            throw e;
+        } finally {
+            insertTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void insertTx(HistoriaClinica historia, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.insertTx(historia, conn);
+        } catch (Exception e) {
+            insertTxTimer.error();
+            throw e;
+        } finally {
+            insertTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void update(HistoriaClinica historia) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.update(historia);
+        } catch (Exception e) {
+            updateTimer.error();
+            throw e;
+        } finally {
+            updateTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void updateTx(HistoriaClinica historia, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.updateTx(historia, conn);
+        } catch (Exception e) {
+            updateTxTimer.error();
+            throw e;
+        } finally {
+            updateTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void insertBatch(List<HistoriaClinica> entities, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.insertBatch(entities, conn);
+        } catch (Exception e) {
+            insertBatchTimer.error();
+            throw e;
+        } finally {
+            insertBatchTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void updateBatch(List<HistoriaClinica> entities, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.updateBatch(entities, conn);
+        } catch (Exception e) {
+            updateBatchTimer.error();
+            throw e;
+        } finally {
+            updateBatchTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.delete(id);
+        } catch (Exception e) {
+            deleteTimer.error();
+            throw e;
+        } finally {
+            deleteTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void deleteTx(int id, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.deleteTx(id, conn);
+        } catch (Exception e) {
+            deleteTxTimer.error();
+            throw e;
+        } finally {
+            deleteTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void recover(int id) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.recover(id);
+        } catch (Exception e) {
+            recoverTimer.error();
+            throw e;
+        } finally {
+            recoverTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void recoverTx(int id, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.recoverTx(id, conn);
+        } catch (Exception e) {
+            recoverTxTimer.error();
+            throw e;
+        } finally {
+            recoverTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public HistoriaClinica selectByIdWithStatus(int id, boolean deleted) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectByIdWithStatus(id, deleted);
+        } catch (Exception e) {
+            selectByIdWithStatusTimer.error();
+            throw e;
+        } finally {
+            selectByIdWithStatusTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public List<HistoriaClinica> selectAllWithStatus(boolean deleted) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectAllWithStatus(deleted);
+        } catch (Exception e) {
+            selectAllWithStatusTimer.error();
+            throw e;
+        } finally {
+            selectAllWithStatusTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Stream<HistoriaClinica> streamAllWithStatus(boolean deleted) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.streamAllWithStatus(deleted);
+        } catch (Exception e) {
+            streamAllWithStatusTimer.error();
+            throw e;
+        } finally {
+            streamAllWithStatusTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Page<HistoriaClinica> selectPage(HistoriaClinica after, int limit, boolean deleted)
+            throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectPage(after, limit, deleted);
+        } catch (Exception e) {
+            selectPageTimer.error();
+            throw e;
+        } finally {
+            selectPageTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Map<Integer, HistoriaClinica> selectByIds(Collection<Integer> ids) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectByIds(ids);
+        } catch (Exception e) {
+            selectByIdsTimer.error();
+            throw e;
+        } finally {
+            selectByIdsTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public HistoriaClinica selectByNroHistoria(String nroHistoria) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectByNroHistoria(nroHistoria);
+        } catch (Exception e) {
+            selectByNroHistoriaTimer.error();
+            throw e;
+        } finally {
+            selectByNroHistoriaTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public boolean existsByNroHistoria(String nroHistoria) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.existsByNroHistoria(nroHistoria);
+        } catch (Exception e) {
+            existsByNroHistoriaTimer.error();
+            throw e;
+        } finally {
+            existsByNroHistoriaTimer.record(inicio);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package metrics;
+
+import java.util.List;
+
+import dao.HistoriaClinicaDAO;
+import exceptions.DuplicateEntityException;
+import exceptions.ServiceException;
+import exceptions.ValidationException;
+import models.HistoriaClinica;
+import service.HistoriaClinicaService;
+
+/**
+ * {@link HistoriaClinicaService} instrumentado: mide la latencia y los
+ * errores de cada método de {@link service.GenericService}
+ * (<code>service.historia_clinica.&lt;método&gt;</code>). Ver
+ * {@link TimedPacienteService}.
+ *
+ * @author alpha team
+ * @see Metrics
+ */
+public class TimedHistoriaClinicaService extends HistoriaClinicaService {
+
+    private final OperationTimer insertTimer = Metrics.timer("service", "historia_clinica", "insert");
+    private final OperationTimer updateTimer = Metrics.timer("service", "historia_clinica", "update");
+    private final OperationTimer deleteTimer = Metrics.timer("service", "historia_clinica", "delete");
+    private final OperationTimer recoverTimer = Metrics.timer("service", "historia_clinica", "recover");
+    private final OperationTimer selectByIdTimer = Metrics.timer("service", "historia_clinica", "selectById");
+    private final OperationTimer selectAllTimer = Metrics.timer("service", "historia_clinica", "selectAll");
+    private final OperationTimer searchByFilterTimer = Metrics.timer("service", "historia_clinica", "searchByFilter");
+    private final OperationTimer validateEntityTimer = Metrics.timer("service", "historia_clinica", "validateEntity");
+
+    /**
+     * Crea el servicio instrumentado.
+     *
+     * @param historiaClinicaDAO El DAO de historias clínicas.
+     */
+    public TimedHistoriaClinicaService(HistoriaClinicaDAO historiaClinicaDAO) {
+        super(historiaClinicaDAO);
+    }
+
+    // ============ OPERACIONES INSTRUMENTADAS ============
+    @Override
+    public void insert(HistoriaClinica historia)
+            throws ServiceException, ValidationException, DuplicateEntityException {
+        long inicio = System.nanoTime();
+        try {
+            super.insert(historia);
+        } catch (Exception e) {
+            insertTimer.error();
+            throw e;
+        } finally {
+            insertTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void update(HistoriaClinica historia)
+            throws ServiceException, ValidationException, DuplicateEntityException {
+        long inicio = System.nanoTime();
+        try {
+            super.update(historia);
+        } catch (Exception e) {
+            updateTimer.error();
+            throw e;
+        } finally {
+            updateTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void delete(int id) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            super.delete(id);
+        } catch (Exception e) {
+            deleteTimer.error();
+            throw e;
+        } finally {
+            deleteTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void recover(int id) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            super.recover(id);
+        } catch (Exception e) {
+            recoverTimer.error();
+            throw e;
+        } finally {
+            recoverTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public HistoriaClinica selectById(int id, boolean deleted) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectById(id, deleted);
+        } catch (Exception e) {
+            selectByIdTimer.error();
+            throw e;
+        } finally {
+            selectByIdTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public List<HistoriaClinica> selectAll(boolean deleted) throws ServiceException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectAll(deleted);
+        } catch (Exception e) {
+            selectAllTimer.error();
+            throw e;
+        } finally {
+            selectAllTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public List<HistoriaClinica> searchByFilter(String filter) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            return super.searchByFilter(filter);
+        } catch (Exception e) {
+            searchByFilterTimer.error();
+            throw e;
+        } finally {
+            searchByFilterTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void validateEntity(HistoriaClinica historia) throws ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            super.validateEntity(historia);
+        } catch (Exception e) {
+            validateEntityTimer.error();
+            throw e;
+        } finally {
+            validateEntityTimer.record(inicio);
+        }
+    }
+}
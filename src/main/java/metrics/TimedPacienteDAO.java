@@ -0,0 +1,361 @@
+package metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import dao.PacienteDAO;
+import dao.HistoriaClinicaDAO;
+import dao.Page;
+import dao.SearchResult;
+import models.Paciente;
+import models.PacienteResumen;
+
+/**
+ * {@link PacienteDAO} instrumentado: mide la latencia y los errores de cada
+ * método de {@link dao.GenericDAO} y de las consultas propias que usa
+ * {@link service.PacienteService} (búsquedas, listado resumido, DNI, lotes
+ * por ID). <code>searchByFilter</code> no se mide aparte: delega en
+ * <code>search</code>.
+ * <p>
+ * Cada método delega en el DAO original y registra su duración en un
+ * {@link OperationTimer} (<code>dao.paciente.&lt;método&gt;</code>). Se usa
+ * una subclase (y no un proxy) porque los Servicios dependen de la clase
+ * concreta del DAO. Los métodos de mapeo por fila (<code>mapEntity</code>,
+ * <code>setEntityParameters</code>, <code>setGeneratedId</code>) no se miden:
+ * su costo ya está incluido en la operación que los invoca.
+ * </p>
+ * <p>
+ * Solo se crea con <code>db.metrics.enabled=true</code> (ver
+ * {@link Instrumented}). En <code>streamAllWithStatus</code> se mide la
+ * apertura del cursor, no el consumo del stream.
+ * </p>
+ *
+ * @author alpha team
+ * @see Metrics
+ */
+public class TimedPacienteDAO extends PacienteDAO {
+
+    private final OperationTimer insertTimer = Metrics.timer("dao", "paciente", "insert");
+    private final OperationTimer insertTxTimer = Metrics.timer("dao", "paciente", "insertTx");
+    private final OperationTimer updateTimer = Metrics.timer("dao", "paciente", "update");
+    private final OperationTimer updateTxTimer = Metrics.timer("dao", "paciente", "updateTx");
+    private final OperationTimer insertBatchTimer = Metrics.timer("dao", "paciente", "insertBatch");
+    private final OperationTimer updateBatchTimer = Metrics.timer("dao", "paciente", "updateBatch");
+    private final OperationTimer deleteTimer = Metrics.timer("dao", "paciente", "delete");
+    private final OperationTimer deleteTxTimer = Metrics.timer("dao", "paciente", "deleteTx");
+    private final OperationTimer recoverTimer = Metrics.timer("dao", "paciente", "recover");
+    private final OperationTimer recoverTxTimer = Metrics.timer("dao", "paciente", "recoverTx");
+    private final OperationTimer selectByIdWithStatusTimer = Metrics.timer("dao", "paciente", "selectByIdWithStatus");
+    private final OperationTimer selectAllWithStatusTimer = Metrics.timer("dao", "paciente", "selectAllWithStatus");
+    private final OperationTimer streamAllWithStatusTimer = Metrics.timer("dao", "paciente", "streamAllWithStatus");
+    private final OperationTimer selectPageTimer = Metrics.timer("dao", "paciente", "selectPage");
+    private final OperationTimer insertWithHistoriaTimer = Metrics.timer("dao", "paciente", "insertWithHistoria");
+    private final OperationTimer selectResumenPageTimer = Metrics.timer("dao", "paciente", "selectResumenPage");
+    private final OperationTimer searchTimer = Metrics.timer("dao", "paciente", "search");
+    private final OperationTimer searchResumenTimer = Metrics.timer("dao", "paciente", "searchResumen");
+    private final OperationTimer selectByDniTimer = Metrics.timer("dao", "paciente", "selectByDni");
+    private final OperationTimer selectByIdsTimer = Metrics.timer("dao", "paciente", "selectByIds");
+    private final OperationTimer selectByDnisTimer = Metrics.timer("dao", "paciente", "selectByDnis");
+    private final OperationTimer existsByDniTimer = Metrics.timer("dao", "paciente", "existsByDni");
+
+    /**
+     * Crea el DAO instrumentado.
+     *
+     * @param historiaClinicaDAO El DAO de historias clínicas.
+     */
+    public TimedPacienteDAO(HistoriaClinicaDAO historiaClinicaDAO) {
+        super(historiaClinicaDAO);
+    }
+
+    // ============ OPERACIONES INSTRUMENTADAS ============
+    @Override
+    public void insert(Paciente paciente) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.insert(paciente);
+        } catch (Exception e) {
+            insertTimer.error();
+            throw e;
+        } finally {
+            insertTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void insertTx(Paciente paciente, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.insertTx(paciente, conn);
+        } catch (Exception e) {
+            insertTxTimer.error();
+            throw e;
+        } finally {
+            insertTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void update(Paciente paciente) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.update(paciente);
+        } catch (Exception e) {
+            updateTimer.error();
+            throw e;
+        } finally {
+            updateTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void updateTx(Paciente paciente, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.updateTx(paciente, conn);
+        } catch (Exception e) {
+            updateTxTimer.error();
+            throw e;
+        } finally {
+            updateTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void insertBatch(List<Paciente> entities, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.insertBatch(entities, conn);
+        } catch (Exception e) {
+            insertBatchTimer.error();
+            throw e;
+        } finally {
+            insertBatchTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void updateBatch(List<Paciente> entities, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.updateBatch(entities, conn);
+        } catch (Exception e) {
+            updateBatchTimer.error();
+            throw e;
+        } finally {
+            updateBatchTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.delete(id);
+        } catch (Exception e) {
+            deleteTimer.error();
+            throw e;
+        } finally {
+            deleteTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void deleteTx(int id, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.deleteTx(id, conn);
+        } catch (Exception e) {
+            deleteTxTimer.error();
+            throw e;
+        } finally {
+            deleteTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void recover(int id) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.recover(id);
+        } catch (Exception e) {
+            recoverTimer.error();
+            throw e;
+        } finally {
+            recoverTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void recoverTx(int id, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            super.recoverTx(id, conn);
+        } catch (Exception e) {
+            recoverTxTimer.error();
+            throw e;
+        } finally {
+            recoverTxTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Paciente selectByIdWithStatus(int id, boolean deleted) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectByIdWithStatus(id, deleted);
+        } catch (Exception e) {
+            selectByIdWithStatusTimer.error();
+            throw e;
+        } finally {
+            selectByIdWithStatusTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public List<Paciente> selectAllWithStatus(boolean deleted) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectAllWithStatus(deleted);
+        } catch (Exception e) {
+            selectAllWithStatusTimer.error();
+            throw e;
+        } finally {
+            selectAllWithStatusTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Stream<Paciente> streamAllWithStatus(boolean deleted) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.streamAllWithStatus(deleted);
+        } catch (Exception e) {
+            streamAllWithStatusTimer.error();
+            throw e;
+        } finally {
+            streamAllWithStatusTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Page<Paciente> selectPage(Paciente after, int limit, boolean deleted) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectPage(after, limit, deleted);
+        } catch (Exception e) {
+            selectPageTimer.error();
+            throw e;
+        } finally {
+            selectPageTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public boolean insertWithHistoria(Paciente paciente, Connection conn) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.insertWithHistoria(paciente, conn);
+        } catch (Exception e) {
+            insertWithHistoriaTimer.error();
+            throw e;
+        } finally {
+            insertWithHistoriaTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Page<PacienteResumen> selectResumenPage(PacienteResumen after, int limit, boolean deleted)
+            throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectResumenPage(after, limit, deleted);
+        } catch (Exception e) {
+            selectResumenPageTimer.error();
+            throw e;
+        } finally {
+            selectResumenPageTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public SearchResult<Paciente> search(String filter) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.search(filter);
+        } catch (Exception e) {
+            searchTimer.error();
+            throw e;
+        } finally {
+            searchTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public SearchResult<PacienteResumen> searchResumen(String filter) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.searchResumen(filter);
+        } catch (Exception e) {
+            searchResumenTimer.error();
+            throw e;
+        } finally {
+            searchResumenTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Paciente selectByDni(String dni) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectByDni(dni);
+        } catch (Exception e) {
+            selectByDniTimer.error();
+            throw e;
+        } finally {
+            selectByDniTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Map<Integer, Paciente> selectByIds(Collection<Integer> ids) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectByIds(ids);
+        } catch (Exception e) {
+            selectByIdsTimer.error();
+            throw e;
+        } finally {
+            selectByIdsTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Map<String, Paciente> selectByDnis(Collection<String> dnis) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectByDnis(dnis);
+        } catch (Exception e) {
+            selectByDnisTimer.error();
+            throw e;
+        } finally {
+            selectByDnisTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public boolean existsByDni(String dni) throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            return super.existsByDni(dni);
+        } catch (Exception e) {
+            existsByDniTimer.error();
+            throw e;
+        } finally {
+            existsByDniTimer.record(inicio);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package metrics;
+
+import java.util.List;
+
+import dao.PacienteDAO;
+import exceptions.DuplicateEntityException;
+import exceptions.ServiceException;
+import exceptions.ValidationException;
+import models.Paciente;
+import service.HistoriaClinicaService;
+import service.PacienteService;
+
+/**
+ * {@link PacienteService} instrumentado: mide la latencia y los errores de
+ * cada método de {@link service.GenericService}
+ * (<code>service.paciente.&lt;método&gt;</code>).
+ * <p>
+ * La latencia de un método del Servicio incluye la de las llamadas que hace
+ * al DAO (medidas por separado en {@link TimedPacienteDAO}); la diferencia es
+ * el costo de la validación, la caché y la transacción. Una excepción de
+ * negocio (ej: {@link ValidationException}) también cuenta como error.
+ * </p>
+ *
+ * @author alpha team
+ * @see Metrics
+ */
+public class TimedPacienteService extends PacienteService {
+
+    private final OperationTimer insertTimer = Metrics.timer("service", "paciente", "insert");
+    private final OperationTimer updateTimer = Metrics.timer("service", "paciente", "update");
+    private final OperationTimer deleteTimer = Metrics.timer("service", "paciente", "delete");
+    private final OperationTimer recoverTimer = Metrics.timer("service", "paciente", "recover");
+    private final OperationTimer selectByIdTimer = Metrics.timer("service", "paciente", "selectById");
+    private final OperationTimer selectAllTimer = Metrics.timer("service", "paciente", "selectAll");
+    private final OperationTimer searchByFilterTimer = Metrics.timer("service", "paciente", "searchByFilter");
+    private final OperationTimer validateEntityTimer = Metrics.timer("service", "paciente", "validateEntity");
+
+    /**
+     * Crea el servicio instrumentado.
+     *
+     * @param pacienteDAO            El DAO de pacientes.
+     * @param historiaClinicaService El servicio de historias clínicas.
+     */
+    public TimedPacienteService(PacienteDAO pacienteDAO, HistoriaClinicaService historiaClinicaService) {
+        super(pacienteDAO, historiaClinicaService);
+    }
+
+    // ============ OPERACIONES INSTRUMENTADAS ============
+    @Override
+    public void insert(Paciente paciente)
+            throws ServiceException, ValidationException, DuplicateEntityException {
+        long inicio = System.nanoTime();
+        try {
+            super.insert(paciente);
+        } catch (Exception e) {
+            insertTimer.error();
+            throw e;
+        } finally {
+            insertTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void update(Paciente paciente)
+            throws ServiceException, ValidationException, DuplicateEntityException {
+        long inicio = System.nanoTime();
+        try {
+            super.update(paciente);
+        } catch (Exception e) {
+            updateTimer.error();
+            throw e;
+        } finally {
+            updateTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void delete(int id) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            super.delete(id);
+        } catch (Exception e) {
+            deleteTimer.error();
+            throw e;
+        } finally {
+            deleteTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void recover(int id) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            super.recover(id);
+        } catch (Exception e) {
+            recoverTimer.error();
+            throw e;
+        } finally {
+            recoverTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public Paciente selectById(int id, boolean deleted) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectById(id, deleted);
+        } catch (Exception e) {
+            selectByIdTimer.error();
+            throw e;
+        } finally {
+            selectByIdTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public List<Paciente> selectAll(boolean deleted) throws ServiceException {
+        long inicio = System.nanoTime();
+        try {
+            return super.selectAll(deleted);
+        } catch (Exception e) {
+            selectAllTimer.error();
+            throw e;
+        } finally {
+            selectAllTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public List<Paciente> searchByFilter(String filter) throws ServiceException, ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            return super.searchByFilter(filter);
+        } catch (Exception e) {
+            searchByFilterTimer.error();
+            throw e;
+        } finally {
+            searchByFilterTimer.record(inicio);
+        }
+    }
+
+    @Override
+    public void validateEntity(Paciente paciente) throws ValidationException {
+        long inicio = System.nanoTime();
+        try {
+            super.validateEntity(paciente);
+        } catch (Exception e) {
+            validateEntityTimer.error();
+            throw e;
+        } finally {
+            validateEntityTimer.record(inicio);
+        }
+    }
+}
@@ -84,6 +84,21 @@ public abstract class Base {
         // Valores por defecto (id=0, eliminado=false)
     }
 
+    /**
+     * Constructor de copia para las subclases.
+     * <p>
+     * Asigna los campos directamente (sin los setters, que se pueden
+     * sobrescribir) porque la subclase todavía no está inicializada.
+     * </p>
+     *
+     * @param other La entidad a copiar.
+     */
+    protected Base(Base other) {
+
+        this.id = other.id;
+        this.eliminado = other.eliminado;
+    }
+
     // ============ GETTERS Y SETTERS ============
     /**
      * Obtiene el identificador único (ID) de la entidad.
@@ -34,6 +34,15 @@ package models;
  * ({@link service.HistoriaClinicaService}), no de esta clase .
  * </p>
  *
+ * <h3>Carga diferida de textos:</h3>
+ * <p>
+ * Los campos <code>antecedentes</code>, <code>medicacionActual</code> y
+ * <code>observaciones</code> son columnas <code>TEXT</code>. En los listados,
+ * el DAO puede devolver solo la cabecera (ID, número y grupo) y asociar un
+ * {@link TextLoader} con {@link #deferTexts(TextLoader)}: los textos se leen
+ * la primera vez que se usa alguno de sus getters o setters.
+ * </p>
+ *
  * @author alpha team
  * @see Base
  * @see Paciente
@@ -77,6 +86,44 @@ public class HistoriaClinica extends Base {
      */
     private String observaciones;
 
+    /**
+     * Cargador de los textos pendientes, o <code>null</code> si los textos ya
+     * están en el objeto (el caso normal).
+     */
+    private TextLoader textLoader;
+
+    // ============ CARGA DIFERIDA ============
+    /**
+     * Textos de una historia clínica (las columnas <code>TEXT</code>).
+     *
+     * @param antecedentes     Antecedentes médicos.
+     * @param medicacionActual Medicación actual.
+     * @param observaciones    Observaciones adicionales.
+     */
+    public record Textos(String antecedentes, String medicacionActual, String observaciones) {
+    }
+
+    /**
+     * Obtiene los textos de una historia clínica cuya lectura se difirió.
+     * <p>
+     * Una misma instancia puede atender a todas las historias de un listado
+     * y leer los textos de todas en una sola consulta (ver
+     * <code>dao.HistoriaTextLoader</code>).
+     * </p>
+     */
+    @FunctionalInterface
+    public interface TextLoader {
+
+        /**
+         * Devuelve los textos de la historia clínica indicada.
+         *
+         * @param id El ID de la historia clínica.
+         * @return Sus textos (nunca <code>null</code>).
+         * @throws exceptions.DataAccessException Si falla la lectura.
+         */
+        Textos load(int id);
+    }
+
     // ============ CONSTRUCTORES ============
     /**
      * Constructor completo.
@@ -155,6 +202,24 @@ public class HistoriaClinica extends Base {
         super(); // Llama al constructor por defecto de Base
     }
 
+    /**
+     * Constructor de copia.
+     * Crea una copia independiente de la historia clínica. Usado por la caché
+     * de entidades ({@link cache.EntityCache}).
+     *
+     * @param other La historia clínica a copiar.
+     */
+    public HistoriaClinica(HistoriaClinica other) {
+
+        super(other);
+        other.ensureTextsLoaded(); // La copia es independiente: no comparte el cargador
+        this.numeroHistoria = other.numeroHistoria;
+        this.grupoSanguineo = other.grupoSanguineo;
+        this.antecedentes = other.antecedentes;
+        this.medicacionActual = other.medicacionActual;
+        this.observaciones = other.observaciones;
+    }
+
     // ============ GETTERS Y SETTERS ============
     // Los setters son simples y no contienen lógica de negocio.
     // La validación es responsabilidad de la Capa de Servicio.
@@ -190,6 +255,7 @@ public class HistoriaClinica extends Base {
     }
 
     public String getAntecedentes() {
+        ensureTextsLoaded();
         return antecedentes;
     }
 
@@ -199,10 +265,12 @@ public class HistoriaClinica extends Base {
      * @param antecedentes Texto de antecedentes.
      */
     public void setAntecedentes(String antecedentes) {
+        ensureTextsLoaded(); // Los otros textos deben conservarse
         this.antecedentes = antecedentes;
     }
 
     public String getMedicacionActual() {
+        ensureTextsLoaded();
         return medicacionActual;
     }
 
@@ -212,10 +280,12 @@ public class HistoriaClinica extends Base {
      * @param medicacionActual Texto de medicación.
      */
     public void setMedicacionActual(String medicacionActual) {
+        ensureTextsLoaded(); // Los otros textos deben conservarse
         this.medicacionActual = medicacionActual;
     }
 
     public String getObservaciones() {
+        ensureTextsLoaded();
         return observaciones;
     }
 
@@ -225,9 +295,50 @@ public class HistoriaClinica extends Base {
      * @param observaciones Texto de observaciones.
      */
     public void setObservaciones(String observaciones) {
+        ensureTextsLoaded(); // Los otros textos deben conservarse
         this.observaciones = observaciones;
     }
 
+    /**
+     * Difiere la lectura de los textos: descarta los valores actuales y los
+     * obtiene del <code>loader</code> la primera vez que se usan. La invoca el
+     * DAO al devolver solo la cabecera de la historia.
+     *
+     * @param loader El cargador de los textos.
+     */
+    public void deferTexts(TextLoader loader) {
+        this.antecedentes = null;
+        this.medicacionActual = null;
+        this.observaciones = null;
+        this.textLoader = loader;
+    }
+
+    /**
+     * Indica si los textos ya están en el objeto (es decir, si usar sus
+     * getters no consultará la base de datos).
+     *
+     * @return <code>true</code> si no hay textos pendientes de carga.
+     */
+    public boolean isTextsLoaded() {
+        return textLoader == null;
+    }
+
+    /**
+     * Lee los textos pendientes, si los hay. Si la lectura falla, quedan
+     * pendientes y se reintenta en el próximo acceso. Es sincronizado: una
+     * historia puede leerse desde dos hilos (ej: un SwingWorker y el EDT).
+     */
+    private synchronized void ensureTextsLoaded() {
+        if (textLoader == null) {
+            return;
+        }
+        Textos textos = textLoader.load(getId());
+        this.antecedentes = textos.antecedentes();
+        this.medicacionActual = textos.medicacionActual();
+        this.observaciones = textos.observaciones();
+        this.textLoader = null;
+    }
+
     // ============ OTROS MÉTODOS ============
     /**
      * Devuelve una representación en String del objeto HistoriaClinica.
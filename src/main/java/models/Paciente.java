@@ -26,9 +26,9 @@ import java.util.Objects;
  * son obligatorios. Esta validación es responsabilidad de
  * {@link service.PacienteService}.</li>
  * <li><b>RN-002 (Unicidad):</b> El DNI debe ser único en el sistema.
- * Esta validación se implementa en
- * {@link service.PacienteService#validateDniUnique}
- * y con un <code>UNIQUE constraint</code> en la base de datos.</li>
+ * Se garantiza con un <code>UNIQUE constraint</code> en la base de datos;
+ * {@link service.PacienteService} traduce su violación a
+ * {@link exceptions.DuplicateEntityException}.</li>
  * </ul>
  *
  * @author alpha team
@@ -179,6 +179,25 @@ public class Paciente extends Base {
         super();
     }
 
+    /**
+     * Constructor de copia.
+     * Crea una copia independiente del paciente, incluida una copia de su
+     * Historia Clínica (si tiene). Usado por la caché de entidades
+     * ({@link cache.EntityCache}) para que las modificaciones hechas por la UI
+     * sobre el objeto devuelto no alteren la copia guardada.
+     *
+     * @param other El paciente a copiar.
+     */
+    public Paciente(Paciente other) {
+
+        super(other);
+        this.nombre = other.nombre;
+        this.apellido = other.apellido;
+        this.dni = other.dni;
+        this.fechaNacimiento = other.fechaNacimiento; // LocalDate es inmutable
+        this.historiaClinica = (other.historiaClinica != null) ? new HistoriaClinica(other.historiaClinica) : null;
+    }
+
     // ============ GETTERS Y SETTERS ESPECÍFICOS DE PACIENTE ============
     // Los setters son simples y no contienen lógica de negocio
     // La validación es responsabilidad de la Capa de Servicio.
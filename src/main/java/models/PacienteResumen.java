@@ -0,0 +1,70 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección liviana de un {@link Paciente} para los listados.
+ * <p>
+ * Los listados (paginado, búsqueda por nombre) solo muestran los datos
+ * identificatorios del paciente y el número y grupo de su historia clínica.
+ * Esta proyección se lee con una consulta angosta
+ * ({@link dao.PacienteDAO#selectResumenPage}) que <b>no</b> trae las columnas
+ * <code>TEXT</code> de la historia (antecedentes, medicación, observaciones)
+ * ni construye objetos {@link HistoriaClinica}. La entidad completa se
+ * obtiene solo en la vista de detalle (ej: al actualizar).
+ * </p>
+ *
+ * @param id                ID del paciente.
+ * @param dni               DNI del paciente.
+ * @param nombre            Nombre del paciente.
+ * @param apellido          Apellido del paciente.
+ * @param fechaNacimiento   Fecha de nacimiento (puede ser <code>null</code>).
+ * @param historiaClinicaId ID de la historia clínica, o <code>null</code> si
+ *                          el paciente no tiene.
+ * @param nroHistoria       Número de la historia clínica (o
+ *                          <code>null</code>).
+ * @param grupoSanguineo    Grupo sanguíneo de la historia clínica (o
+ *                          <code>null</code>).
+ * @author alpha team
+ * @see Paciente
+ * @see dao.PacienteDAO
+ */
+public record PacienteResumen(
+        int id,
+        String dni,
+        String nombre,
+        String apellido,
+        LocalDate fechaNacimiento,
+        Integer historiaClinicaId,
+        String nroHistoria,
+        GrupoSanguineo grupoSanguineo) {
+
+    /**
+     * Crea el resumen de una entidad ya cargada (ej: el resultado de una
+     * búsqueda por DNI), para mostrarla con el mismo formato que un listado.
+     *
+     * @param paciente El paciente completo.
+     * @return Su resumen.
+     */
+    public static PacienteResumen of(Paciente paciente) {
+        HistoriaClinica hc = paciente.getHistoriaClinica();
+        return new PacienteResumen(
+                paciente.getId(),
+                paciente.getDni(),
+                paciente.getNombre(),
+                paciente.getApellido(),
+                paciente.getFechaNacimiento(),
+                hc != null ? hc.getId() : null,
+                hc != null ? hc.getNumeroHistoria() : null,
+                hc != null ? hc.getGrupoSanguineo() : null);
+    }
+
+    /**
+     * Indica si el paciente tiene una historia clínica asociada.
+     *
+     * @return <code>true</code> si tiene historia clínica.
+     */
+    public boolean hasHistoriaClinica() {
+        return historiaClinicaId != null;
+    }
+}
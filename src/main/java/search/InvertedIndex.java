@@ -0,0 +1,318 @@
+package search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria: asocia cada <b>término</b> con la lista de
+ * documentos (IDs) que lo contienen.
+ * <p>
+ * Permite responder búsquedas de texto sin recorrer las filas de la base de
+ * datos: la búsqueda devuelve solo los IDs coincidentes, y la BD se usa
+ * únicamente para obtener esos registros.
+ * </p>
+ *
+ * <h3>Estructura:</h3>
+ * <ul>
+ * <li><b>Términos:</b> un <code>TreeMap</code> ordenado, que permite buscar
+ * por <b>prefijo</b> ("hiper" encuentra "hipertension" e
+ * "hipertiroidismo").</li>
+ * <li><b>Postings:</b> cada término guarda sus IDs en un {@link PostingList}
+ * comprimido (delta + varint).</li>
+ * <li><b>Índice directo:</b> los términos de cada documento, para poder
+ * quitarlo o reemplazarlo sin recorrer todo el índice.</li>
+ * </ul>
+ *
+ * <h3>Semántica de búsqueda:</h3>
+ * <p>
+ * Cada término de la consulta se busca por prefijo (unión de los términos
+ * que empiezan con él) y el resultado es la <b>intersección</b>: el documento
+ * debe coincidir con <b>todos</b> los términos de la consulta.
+ * </p>
+ * <p>
+ * Los términos que empiezan con {@link #EXACT_MARKER} (atributos como el
+ * grupo sanguíneo) solo coinciden en forma exacta. Como el tokenizador nunca
+ * produce esa marca, ninguna palabra de la consulta los alcanza por
+ * prefijo.
+ * </p>
+ *
+ * <h3>Concurrencia:</h3>
+ * <p>
+ * Es thread-safe: las búsquedas comparten un <i>read lock</i> y las
+ * actualizaciones toman el <i>write lock</i>.
+ * </p>
+ *
+ * @author alpha team
+ * @see TextNormalizer
+ * @see PostingList
+ */
+public final class InvertedIndex {
+
+    /**
+     * Primer carácter de los términos de coincidencia exacta (ver
+     * {@link #search(Collection)}).
+     */
+    public static final char EXACT_MARKER = '#';
+
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * Término → IDs de los documentos que lo contienen.
+     */
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+
+    /**
+     * ID de documento → sus términos (índice directo).
+     */
+    private final Map<Integer, String[]> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ============ ACTUALIZACIÓN ============
+
+    /**
+     * Indexa un documento, reemplazando sus términos anteriores (si ya estaba
+     * indexado).
+     *
+     * @param id    El ID del documento (mayor a cero).
+     * @param terms Los términos del documento, ya normalizados (ver
+     *              {@link TextNormalizer#tokenize(String)}).
+     */
+    public void put(int id, Collection<String> terms) {
+        String[] nuevos = terms.toArray(new String[0]);
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (nuevos.length == 0) {
+                return;
+            }
+            for (String term : nuevos) {
+                postings.computeIfAbsent(term, t -> new PostingList()).add(id);
+            }
+            documents.put(id, nuevos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un documento del índice.
+     *
+     * @param id El ID del documento.
+     * @return <code>true</code> si el documento estaba indexado.
+     */
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            return removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============ BÚSQUEDA ============
+
+    /**
+     * Busca los documentos que coinciden con <b>todos</b> los términos de la
+     * consulta (cada uno por prefijo, salvo los que empiezan con
+     * {@link #EXACT_MARKER}, que se buscan en forma exacta).
+     *
+     * @param terms Los términos de la consulta, ya normalizados.
+     * @return Los IDs coincidentes, ordenados de menor a mayor (vacío si la
+     *         consulta no tiene términos).
+     */
+    public int[] search(Collection<String> terms) {
+        if (terms.isEmpty()) {
+            return NO_IDS;
+        }
+        lock.readLock().lock();
+        try {
+            int[] resultado = null;
+            for (String term : terms) {
+                int[] ids = term.charAt(0) == EXACT_MARKER ? exactMatch(term) : prefixUnion(term);
+                resultado = (resultado == null) ? ids : intersect(resultado, ids);
+                if (resultado.length == 0) {
+                    break; // Ningún documento puede coincidir
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de documentos indexados.
+     *
+     * @return El total de documentos.
+     */
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve la cantidad de términos distintos del índice.
+     *
+     * @return El total de términos.
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve los bytes que ocupan todas las listas de IDs comprimidas (sin
+     * contar los términos ni el índice directo).
+     *
+     * @return El tamaño de los postings en bytes.
+     */
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (PostingList lista : postings.values()) {
+                total += lista.encodedBytes();
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InvertedIndex{documentos=" + documentCount() + ", términos=" + termCount()
+                + ", bytesPostings=" + postingBytes() + "}";
+    }
+
+    // ============ MÉTODOS PRIVADOS ============
+
+    /**
+     * Quita un documento (requiere el write lock).
+     *
+     * @param id El ID del documento.
+     * @return <code>true</code> si el documento estaba indexado.
+     */
+    private boolean removeInternal(int id) {
+        String[] anteriores = documents.remove(id);
+        if (anteriores == null) {
+            return false;
+        }
+        for (String term : anteriores) {
+            PostingList lista = postings.get(term);
+            if (lista != null && lista.remove(id) && lista.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve los IDs del término exacto (requiere el read lock).
+     *
+     * @param term El término.
+     * @return Los IDs, ordenados.
+     */
+    private int[] exactMatch(String term) {
+        PostingList lista = postings.get(term);
+        return lista != null ? lista.toArray() : NO_IDS;
+    }
+
+    /**
+     * Une los IDs de todos los términos que empiezan con el prefijo (requiere
+     * el read lock). Un prefijo del tokenizador nunca empieza con
+     * {@link #EXACT_MARKER}, por lo que el rango no incluye los términos
+     * exactos.
+     *
+     * @param prefix El prefijo normalizado.
+     * @return Los IDs, ordenados y sin repetidos.
+     */
+    private int[] prefixUnion(String prefix) {
+        Collection<PostingList> listas = postings
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values();
+
+        if (listas.isEmpty()) {
+            return NO_IDS;
+        }
+        if (listas.size() == 1) {
+            return listas.iterator().next().toArray();
+        }
+
+        int total = 0;
+        for (PostingList lista : listas) {
+            total += lista.size();
+        }
+        int[] ids = new int[total];
+        int pos = 0;
+        for (PostingList lista : listas) {
+            int[] parte = lista.toArray();
+            System.arraycopy(parte, 0, ids, pos, parte.length);
+            pos += parte.length;
+        }
+        Arrays.sort(ids);
+
+        // Elimina repetidos (un documento puede tener varios términos con el prefijo)
+        int unicos = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (unicos == 0 || ids[i] != ids[unicos - 1]) {
+                ids[unicos++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, unicos);
+    }
+
+    /**
+     * Intersección de dos arreglos ordenados.
+     *
+     * @param a Primer arreglo (ordenado).
+     * @param b Segundo arreglo (ordenado).
+     * @return Los IDs presentes en ambos, ordenados.
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] comunes = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                comunes[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(comunes, k);
+    }
+}
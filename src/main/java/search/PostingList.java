@@ -0,0 +1,214 @@
+package search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de documentos (IDs) que contienen un término del
+ * {@link InvertedIndex}, almacenada de forma <b>comprimida</b>.
+ * <p>
+ * Los IDs se guardan ordenados y codificados como <b>diferencias</b> (delta)
+ * respecto del anterior, cada una en formato <b>varint</b> (7 bits por byte):
+ * como los IDs son autoincrementales, las diferencias suelen ser pequeñas y
+ * ocupan 1 o 2 bytes en lugar de los 4 de un <code>int</code> (y de los ~16
+ * de un <code>Integer</code> dentro de una colección).
+ * </p>
+ *
+ * <h3>Actualización incremental:</h3>
+ * <ul>
+ * <li>Agregar un ID mayor al último (el caso normal: registros nuevos) se
+ * resuelve agregando bytes al final.</li>
+ * <li>Agregar un ID intermedio o quitar un ID requiere decodificar y
+ * recodificar la lista.</li>
+ * </ul>
+ *
+ * <p>
+ * <b>No es thread-safe:</b> la sincronización es responsabilidad de
+ * {@link InvertedIndex}.
+ * </p>
+ *
+ * @author alpha team
+ * @see InvertedIndex
+ */
+final class PostingList {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * IDs codificados (delta + varint). Solo los primeros {@link #length}
+     * bytes son válidos.
+     */
+    private byte[] data = EMPTY;
+
+    /**
+     * Cantidad de bytes utilizados en {@link #data}.
+     */
+    private int length;
+
+    /**
+     * Cantidad de IDs de la lista.
+     */
+    private int size;
+
+    /**
+     * Último ID (el mayor), o 0 si la lista está vacía.
+     */
+    private int last;
+
+    /**
+     * Agrega un ID a la lista (si no estaba).
+     *
+     * @param id El ID del documento (mayor a cero).
+     */
+    void add(int id) {
+        if (id > last) {
+            append(id);
+            return;
+        }
+        int[] ids = toArray();
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return; // Ya estaba
+        }
+        int insercion = -pos - 1;
+        int[] nuevos = new int[ids.length + 1];
+        System.arraycopy(ids, 0, nuevos, 0, insercion);
+        nuevos[insercion] = id;
+        System.arraycopy(ids, insercion, nuevos, insercion + 1, ids.length - insercion);
+        encode(nuevos, nuevos.length);
+    }
+
+    /**
+     * Quita un ID de la lista.
+     *
+     * @param id El ID del documento.
+     * @return <code>true</code> si el ID estaba en la lista.
+     */
+    boolean remove(int id) {
+        if (id > last || size == 0) {
+            return false;
+        }
+        int[] ids = toArray();
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, ids.length - pos - 1);
+        encode(ids, ids.length - 1);
+        return true;
+    }
+
+    /**
+     * Devuelve la cantidad de IDs de la lista.
+     *
+     * @return El tamaño de la lista.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Indica si la lista está vacía.
+     *
+     * @return <code>true</code> si no contiene IDs.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Decodifica la lista completa.
+     *
+     * @return Los IDs, ordenados de menor a mayor.
+     */
+    int[] toArray() {
+        int[] ids = new int[size];
+        int pos = 0;
+        int anterior = 0;
+        for (int i = 0; i < size; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            anterior += delta;
+            ids[i] = anterior;
+        }
+        return ids;
+    }
+
+    /**
+     * Devuelve la cantidad de bytes que ocupan los IDs codificados.
+     *
+     * @return Los bytes utilizados.
+     */
+    int encodedBytes() {
+        return length;
+    }
+
+    // ============ CODIFICACIÓN ============
+
+    /**
+     * Agrega al final un ID mayor al último.
+     *
+     * @param id El ID a agregar.
+     */
+    private void append(int id) {
+        ensureCapacity(length + 5); // Un int ocupa como máximo 5 bytes en varint
+        length = writeVarint(data, length, id - last);
+        last = id;
+        size++;
+    }
+
+    /**
+     * Reemplaza el contenido por los primeros <code>count</code> IDs
+     * (ordenados) del arreglo.
+     *
+     * @param ids   Los IDs, ordenados y sin repetidos.
+     * @param count Cantidad de IDs a tomar.
+     */
+    private void encode(int[] ids, int count) {
+        byte[] buffer = new byte[count * 5];
+        int pos = 0;
+        int anterior = 0;
+        for (int i = 0; i < count; i++) {
+            pos = writeVarint(buffer, pos, ids[i] - anterior);
+            anterior = ids[i];
+        }
+        data = Arrays.copyOf(buffer, pos);
+        length = pos;
+        size = count;
+        last = anterior;
+    }
+
+    /**
+     * Asegura que {@link #data} tenga al menos la capacidad indicada
+     * (crecimiento de 1.5x).
+     *
+     * @param capacidad La capacidad mínima en bytes.
+     */
+    private void ensureCapacity(int capacidad) {
+        if (capacidad > data.length) {
+            data = Arrays.copyOf(data, Math.max(capacidad, data.length + (data.length >> 1)));
+        }
+    }
+
+    /**
+     * Escribe un entero no negativo en formato varint.
+     *
+     * @param buffer El buffer destino (con espacio suficiente).
+     * @param pos    La posición donde escribir.
+     * @param value  El valor (no negativo).
+     * @return La posición siguiente al último byte escrito.
+     */
+    private static int writeVarint(byte[] buffer, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos++] = (byte) value;
+        return pos;
+    }
+}
@@ -0,0 +1,82 @@
+package search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidad para normalizar y dividir texto en <b>términos</b> (tokens) para
+ * el índice de búsqueda {@link InvertedIndex}.
+ * <p>
+ * El mismo proceso se aplica al texto indexado y al texto buscado, de modo
+ * que "Hipertensión" y "HIPERTENSION" generan el mismo término
+ * <code>"hipertension"</code>.
+ * </p>
+ *
+ * <h3>Proceso:</h3>
+ * <ol>
+ * <li><b>Plegado de acentos:</b> descompone el texto (Unicode NFD) y elimina
+ * las marcas diacríticas (á → a, ñ → n, ü → u).</li>
+ * <li><b>Minúsculas:</b> con <code>Locale.ROOT</code>, independiente de la
+ * configuración regional del sistema.</li>
+ * <li><b>Tokenización:</b> divide en secuencias de letras y dígitos; el
+ * resto de los caracteres (espacios, puntuación, guiones) son
+ * separadores.</li>
+ * </ol>
+ *
+ * @author alpha team
+ * @see InvertedIndex
+ */
+public final class TextNormalizer {
+
+    /**
+     * Marcas diacríticas (acentos, tildes, diéresis) tras la descomposición NFD.
+     */
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Separadores de términos: todo lo que no sea letra o dígito.
+     */
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Constructor privado para prevenir la instanciación.
+     */
+    private TextNormalizer() {
+        throw new UnsupportedOperationException("Esta es una clase utilitaria y no debe ser instanciada");
+    }
+
+    /**
+     * Pliega acentos y pasa a minúsculas, sin dividir el texto.
+     *
+     * @param text El texto original (puede ser <code>null</code>).
+     * @return El texto normalizado, o una cadena vacía si era
+     *         <code>null</code>.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String sinAcentos = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return sinAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normaliza el texto y lo divide en términos únicos.
+     *
+     * @param text El texto original (puede ser <code>null</code>).
+     * @return Los términos distintos, en orden de aparición (vacío si el
+     *         texto no contiene letras ni dígitos).
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String termino : SEPARATORS.split(fold(text))) {
+            if (!termino.isEmpty()) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+}
@@ -0,0 +1,140 @@
+package service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import config.DatabaseConnection;
+
+/**
+ * Ejecutor de llamadas a los servicios en <b>hilos virtuales</b>, con
+ * concurrencia acotada por el tamaño del pool de conexiones.
+ * <p>
+ * Cada llamada se ejecuta en su propio hilo virtual (Java 21): mientras espera
+ * la respuesta de la BD, el hilo virtual libera su hilo de plataforma, por lo
+ * que muchas consultas independientes solapan sus esperas de red en lugar de
+ * ejecutarse una detrás de otra.
+ * </p>
+ *
+ * <h3>Contrapresión:</h3>
+ * <p>
+ * Un {@link Semaphore} con tantos permisos como
+ * <code>db.pool.maxSize</code> limita las llamadas que están usando la BD al
+ * mismo tiempo. Las demás esperan su permiso bloqueando solo su hilo virtual
+ * (sin costo), en lugar de acumularse en la cola del pool y vencer por
+ * <code>db.pool.acquireTimeoutMs</code>.
+ * </p>
+ *
+ * <h3>Errores:</h3>
+ * <p>
+ * Las excepciones de la llamada (ej: {@link exceptions.ValidationException})
+ * completan el <code>CompletableFuture</code> excepcionalmente; al usar
+ * <code>join()</code> llegan envueltas en una {@link CompletionException}
+ * cuya <code>getCause()</code> es la excepción original.
+ * </p>
+ *
+ * @author alpha team
+ * @see AsyncPacienteService
+ * @see AsyncHistoriaClinicaService
+ */
+public final class AsyncExecutor implements AutoCloseable {
+
+    /**
+     * Llamada a un servicio que puede lanzar las excepciones de negocio
+     * (checked) de la capa de Servicio.
+     *
+     * @param <T> Tipo del resultado.
+     */
+    @FunctionalInterface
+    public interface ServiceCall<T> {
+
+        /**
+         * Ejecuta la llamada.
+         *
+         * @return El resultado.
+         * @throws Exception Cualquier excepción del servicio.
+         */
+        T call() throws Exception;
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    /**
+     * Crea un ejecutor con un límite explícito de llamadas simultáneas.
+     *
+     * @param maxConcurrency Máximo de llamadas ejecutándose a la vez.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     */
+    public AsyncExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("La concurrencia máxima debe ser mayor a cero.");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Crea un ejecutor cuya concurrencia es el tamaño máximo del pool de
+     * conexiones (<code>db.pool.maxSize</code>).
+     *
+     * @return El ejecutor.
+     */
+    public static AsyncExecutor forConnectionPool() {
+        return new AsyncExecutor(DatabaseConnection.getPoolMaxSize());
+    }
+
+    /**
+     * Ejecuta la llamada en un hilo virtual, cuando haya un permiso libre.
+     *
+     * @param <T>  Tipo del resultado.
+     * @param call La llamada al servicio.
+     * @return Un <code>CompletableFuture</code> con el resultado de la llamada.
+     */
+    public <T> CompletableFuture<T> supply(ServiceCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Devuelve el máximo de llamadas simultáneas.
+     *
+     * @return El límite de concurrencia.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Devuelve cuántas llamadas están ejecutándose en este momento.
+     *
+     * @return Las llamadas en curso (con permiso adquirido).
+     */
+    public int getActiveCalls() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Deja de aceptar llamadas y espera a que terminen las pendientes.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,87 @@
+package service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import models.HistoriaClinica;
+
+/**
+ * Fachada <b>asíncrona</b> de {@link HistoriaClinicaService}.
+ * <p>
+ * Igual que {@link AsyncPacienteService}: delega en el servicio síncrono
+ * ejecutándolo con un {@link AsyncExecutor} y devuelve un
+ * {@link CompletableFuture}.
+ * </p>
+ *
+ * @author alpha team
+ * @see HistoriaClinicaService
+ * @see AsyncExecutor
+ */
+public class AsyncHistoriaClinicaService {
+
+    private final HistoriaClinicaService historiaClinicaService;
+    private final AsyncExecutor executor;
+
+    /**
+     * Constructor que inyecta las dependencias necesarias.
+     *
+     * @param historiaClinicaService El servicio síncrono.
+     * @param executor               El ejecutor (puede compartirse entre
+     *                               fachadas).
+     * @throws IllegalArgumentException Si alguna dependencia es nula.
+     */
+    public AsyncHistoriaClinicaService(HistoriaClinicaService historiaClinicaService, AsyncExecutor executor) {
+        if (historiaClinicaService == null) {
+            throw new IllegalArgumentException("El servicio de Historia Clínica no puede ser nulo.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo.");
+        }
+        this.historiaClinicaService = historiaClinicaService;
+        this.executor = executor;
+    }
+
+    /**
+     * Versión asíncrona de
+     * {@link HistoriaClinicaService#selectById(int, boolean)} para HC activas.
+     *
+     * @param id El ID de la HC.
+     * @return La HC, o <code>null</code> si no existe.
+     */
+    public CompletableFuture<HistoriaClinica> selectById(int id) {
+        return executor.supply(() -> historiaClinicaService.selectById(id, false));
+    }
+
+    /**
+     * Versión asíncrona de
+     * {@link HistoriaClinicaService#selectByNroHistoria(String)}.
+     *
+     * @param nroHistoria El número de historia.
+     * @return La HC, o <code>null</code> si no existe.
+     */
+    public CompletableFuture<HistoriaClinica> selectByNroHistoria(String nroHistoria) {
+        return executor.supply(() -> historiaClinicaService.selectByNroHistoria(nroHistoria));
+    }
+
+    /**
+     * Versión asíncrona de
+     * {@link HistoriaClinicaService#existsByNroHistoria(String)}.
+     *
+     * @param nroHistoria El número de historia a verificar.
+     * @return <code>true</code> si ya está registrado.
+     */
+    public CompletableFuture<Boolean> existsByNroHistoria(String nroHistoria) {
+        return executor.supply(() -> historiaClinicaService.existsByNroHistoria(nroHistoria));
+    }
+
+    /**
+     * Versión asíncrona de
+     * {@link HistoriaClinicaService#searchByFilter(String)}.
+     *
+     * @param filter El texto a buscar.
+     * @return Las HC encontradas.
+     */
+    public CompletableFuture<List<HistoriaClinica>> searchByFilter(String filter) {
+        return executor.supply(() -> historiaClinicaService.searchByFilter(filter));
+    }
+}
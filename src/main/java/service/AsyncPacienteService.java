@@ -0,0 +1,186 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import exceptions.DuplicateEntityException;
+import exceptions.ValidationException;
+import models.Paciente;
+
+/**
+ * Fachada <b>asíncrona</b> de {@link PacienteService}.
+ * <p>
+ * Cada método delega en el servicio síncrono (mismas validaciones, caché y
+ * transacciones) ejecutándolo con un {@link AsyncExecutor}, y devuelve un
+ * {@link CompletableFuture}. Permite lanzar muchas consultas independientes
+ * a la vez, por ejemplo verificar una lista de DNI.
+ * </p>
+ *
+ * <h3>Ejemplo:</h3>
+ *
+ * <pre>
+ * try (AsyncExecutor executor = AsyncExecutor.forConnectionPool()) {
+ *     AsyncPacienteService async = new AsyncPacienteService(pacienteService, executor);
+ *     Map&lt;String, Boolean&gt; registrados = async.existsByDnis(dnis).join();
+ * }
+ * </pre>
+ *
+ * @author alpha team
+ * @see PacienteService
+ * @see AsyncExecutor
+ */
+public class AsyncPacienteService {
+
+    private final PacienteService pacienteService;
+    private final AsyncExecutor executor;
+
+    /**
+     * Constructor que inyecta las dependencias necesarias.
+     *
+     * @param pacienteService El servicio síncrono.
+     * @param executor        El ejecutor (puede compartirse entre fachadas para
+     *                        respetar un único límite de conexiones).
+     * @throws IllegalArgumentException Si alguna dependencia es nula.
+     */
+    public AsyncPacienteService(PacienteService pacienteService, AsyncExecutor executor) {
+        if (pacienteService == null) {
+            throw new IllegalArgumentException("El servicio de Paciente no puede ser nulo.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo.");
+        }
+        this.pacienteService = pacienteService;
+        this.executor = executor;
+    }
+
+    // =============================================================
+    // MÉTODOS ASÍNCRONOS (Delegación)
+    // =============================================================
+
+    /**
+     * Versión asíncrona de {@link PacienteService#selectById(int, boolean)}
+     * para pacientes activos.
+     *
+     * @param id El ID del paciente.
+     * @return El paciente, o <code>null</code> si no existe.
+     */
+    public CompletableFuture<Paciente> selectById(int id) {
+        return executor.supply(() -> pacienteService.selectById(id, false));
+    }
+
+    /**
+     * Versión asíncrona de {@link PacienteService#selectByDni(String)}.
+     *
+     * @param dni El DNI del paciente.
+     * @return El paciente, o <code>null</code> si no existe.
+     */
+    public CompletableFuture<Paciente> selectByDni(String dni) {
+        return executor.supply(() -> pacienteService.selectByDni(dni));
+    }
+
+    /**
+     * Versión asíncrona de {@link PacienteService#existsByDni(String)}.
+     *
+     * @param dni El DNI a verificar.
+     * @return <code>true</code> si el DNI ya está registrado.
+     */
+    public CompletableFuture<Boolean> existsByDni(String dni) {
+        return executor.supply(() -> pacienteService.existsByDni(dni));
+    }
+
+    /**
+     * Versión asíncrona de {@link PacienteService#insert(Paciente)}.
+     *
+     * @param paciente El paciente a insertar.
+     * @return El mismo paciente, con su ID asignado.
+     */
+    public CompletableFuture<Paciente> insert(Paciente paciente) {
+        return executor.supply(() -> {
+            pacienteService.insert(paciente);
+            return paciente;
+        });
+    }
+
+    // =============================================================
+    // OPERACIONES MÚLTIPLES (Consultas en paralelo)
+    // =============================================================
+
+    /**
+     * Verifica varios DNI a la vez: lanza una consulta por DNI y las espera en
+     * conjunto.
+     *
+     * @param dnis Los DNI a verificar (los repetidos se consultan una vez).
+     * @return Un mapa DNI → registrado, en el orden recibido. Falla si alguna
+     *         consulta falla.
+     */
+    public CompletableFuture<Map<String, Boolean>> existsByDnis(Collection<String> dnis) {
+        Map<String, CompletableFuture<Boolean>> consultas = new LinkedHashMap<>();
+        for (String dni : dnis) {
+            consultas.computeIfAbsent(dni, this::existsByDni);
+        }
+
+        return CompletableFuture.allOf(consultas.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignorado -> {
+                    Map<String, Boolean> resultado = new LinkedHashMap<>();
+                    consultas.forEach((dni, consulta) -> resultado.put(dni, consulta.join()));
+                    return resultado;
+                });
+    }
+
+    /**
+     * Valida una lista de pacientes antes de una carga: aplica
+     * {@link PacienteService#validateEntity(Paciente)} y verifica en paralelo
+     * que cada DNI no esté registrado.
+     *
+     * @param pacientes Los pacientes a validar.
+     * @return Los pacientes rechazados (posición, DNI y motivo), ordenados por
+     *         posición. Una lista vacía indica que todos son válidos.
+     */
+    public CompletableFuture<List<BulkInsertResult.Rejected>> validateBatch(List<Paciente> pacientes) {
+        List<CompletableFuture<BulkInsertResult.Rejected>> validaciones = new ArrayList<>(pacientes.size());
+        for (int i = 0; i < pacientes.size(); i++) {
+            int indice = i;
+            Paciente paciente = pacientes.get(i);
+            validaciones.add(executor.supply(() -> validateOne(indice, paciente)));
+        }
+
+        return CompletableFuture.allOf(validaciones.toArray(CompletableFuture[]::new))
+                .thenApply(ignorado -> {
+                    List<BulkInsertResult.Rejected> rechazados = new ArrayList<>();
+                    for (CompletableFuture<BulkInsertResult.Rejected> validacion : validaciones) {
+                        BulkInsertResult.Rejected rechazo = validacion.join();
+                        if (rechazo != null) {
+                            rechazados.add(rechazo);
+                        }
+                    }
+                    return rechazados;
+                });
+    }
+
+    /**
+     * Valida un paciente de la carga.
+     *
+     * @param indice   Su posición en la lista.
+     * @param paciente El paciente.
+     * @return El rechazo, o <code>null</code> si es válido.
+     * @throws Exception Si falla el acceso a datos.
+     */
+    private BulkInsertResult.Rejected validateOne(int indice, Paciente paciente) throws Exception {
+        try {
+            pacienteService.validateEntity(paciente);
+            if (pacienteService.existsByDni(paciente.getDni())) {
+                throw new DuplicateEntityException(
+                        "Ya existe un paciente registrado con el DNI " + paciente.getDni() + ".");
+            }
+            return null;
+
+        } catch (ValidationException | DuplicateEntityException e) {
+            return new BulkInsertResult.Rejected(indice, paciente != null ? paciente.getDni() : null,
+                    e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package service;
+
+import java.util.List;
+
+/**
+ * Resultado inmutable de una carga masiva de pacientes.
+ * <p>
+ * La carga masiva ({@link PacienteService#insertBatch(List)}) no se detiene
+ * ante filas inválidas: las descarta, continúa con el resto y las informa en
+ * {@link #rejected()} junto con el motivo.
+ * </p>
+ *
+ * @param total    Cantidad de pacientes recibidos.
+ * @param inserted Cantidad de pacientes insertados (confirmados con commit).
+ * @param rejected Filas rechazadas, ordenadas por su posición en la lista de
+ *                 entrada.
+ * @author alpha team
+ * @see PacienteService#insertBatch(List)
+ */
+public record BulkInsertResult(int total, int inserted, List<Rejected> rejected) {
+
+    /**
+     * Fila rechazada durante la carga masiva.
+     *
+     * @param index  Posición (base 0) del paciente en la lista de entrada.
+     * @param dni    DNI del paciente (puede ser <code>null</code>).
+     * @param reason Motivo del rechazo (validación, duplicado o error de BD).
+     */
+    public record Rejected(int index, String dni, String reason) {
+    }
+
+    /**
+     * Devuelve la cantidad de filas rechazadas.
+     *
+     * @return El total de rechazos.
+     */
+    public int rejectedCount() {
+        return rejected.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Carga masiva: " + inserted + " de " + total + " pacientes insertados, "
+                + rejected.size() + " rechazados.";
+    }
+}
@@ -174,9 +174,11 @@ public interface GenericService<T> {
      * <li>Campos obligatorios (ej: DNI no puede ser <code>null</code> o
      * vacío).</li>
      * <li>Formatos (ej: <code>nroHistoria</code> debe ser "HC-XXXX").</li>
-     * <li>Unicidad (ej: DNI debe ser único, llamando a un método
-     * <code>validateDniUnique</code>).</li>
      * </ul>
+     * <p>
+     * La unicidad (ej: DNI) <b>no</b> se valida aquí: la garantiza la
+     * restricción <code>UNIQUE</code> de la BD al escribir.
+     * </p>
      *
      * @param entity La entidad a validar.
      * @throws IllegalArgumentException Si alguna regla de negocio es violada.
@@ -1,9 +1,31 @@
 package service;
 
+import cache.CacheStats;
+import cache.EntityCache;
+import config.TransactionManager;
+import dao.ConstraintViolations;
 import dao.HistoriaClinicaDAO;
+import dao.Page;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import models.GrupoSanguineo;
 import models.HistoriaClinica;
+import search.InvertedIndex;
+import search.TextNormalizer;
+import exceptions.DataAccessException;
 import exceptions.ServiceException;
 import exceptions.ValidationException;
 import exceptions.DuplicateEntityException;
@@ -22,13 +44,20 @@ import exceptions.DuplicateEntityException;
  * <ul>
  * <li><b>Validación de Reglas de Negocio (RN):</b> Es la <b>responsabilidad
  * principal</b>. Llama a {@link #validateEntity(HistoriaClinica)} (RN-016,
- * RN-017) y {@link #validateNroHistoriaUnique} (RN-015) antes de cualquier
- * operación de escritura.</li>
+ * RN-017) antes de cualquier operación de escritura.</li>
+ * <li><b>Unicidad (RN-015):</b> escribe de forma <b>optimista</b> y traduce
+ * la violación de la restricción <code>UNIQUE</code> de
+ * <code>nro_historia</code> a {@link DuplicateEntityException}, sin consultar
+ * la BD antes de cada escritura.</li>
  * <li><b>Abstracción del DAO:</b> Actúa como intermediario, ocultando los
  * detalles de la persistencia.</li>
  * <li><b>NO coordina</b> con otros servicios (a diferencia de
  * <code>PacienteService</code>), ya que es la entidad "pasiva" en la relación
  * 1-a-1.</li>
+ * <li><b>Búsqueda de texto:</b> mantiene un {@link InvertedIndex} en memoria
+ * sobre los campos de texto de las HC activas, que se construye en la
+ * primera búsqueda y se actualiza con cada escritura hecha a través de este
+ * servicio (ver {@link #searchByFilter(String)}).</li>
  * </ul>
  *
  * @author alpha
@@ -39,11 +68,55 @@ import exceptions.DuplicateEntityException;
  */
 public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
 
+    /**
+     * Tamaño máximo de página permitido en {@link #selectPage}.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
     /**
      * DAO para acceso a datos de Historias Clínicas.
      */
     private final HistoriaClinicaDAO historiaClinicaDAO;
 
+    /**
+     * Índice de búsqueda en memoria sobre las HC activas. Es
+     * <code>null</code> hasta la primera búsqueda (construcción perezosa).
+     */
+    private volatile InvertedIndex searchIndex;
+
+    /**
+     * Protege el reemplazo del índice y la lista de actualizaciones de la
+     * construcción en curso. Nunca se mantiene durante la lectura de la BD (un
+     * <code>ReentrantLock</code> y no <code>synchronized</code>: no fija el
+     * hilo portador de un hilo virtual).
+     */
+    private final ReentrantLock searchIndexLock = new ReentrantLock();
+
+    /**
+     * Construcción del índice en curso, o <code>null</code> (protegida por
+     * {@link #searchIndexLock}).
+     */
+    private IndexBuild searchIndexBuild;
+
+    /**
+     * Se incrementa al invalidar el índice: una construcción que empezó antes
+     * no se publica (protegida por {@link #searchIndexLock}).
+     */
+    private long searchIndexGeneration;
+
+    /**
+     * Caché de lectura de HC <b>activas</b> (por ID y por número de historia).
+     */
+    private final EntityCache<HistoriaClinica> historiaCache = EntityCache.fromConfig("HistoriaClinica",
+            HistoriaClinica::getNumeroHistoria, HistoriaClinica::new);
+
+    /**
+     * Interesados en los cambios de HC (ej: la caché de
+     * {@link PacienteService}, cuyos pacientes contienen su HC). Reciben el
+     * ID de la HC modificada, eliminada o recuperada.
+     */
+    private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Constructor que inyecta la dependencia del DAO.
      *
@@ -66,13 +139,14 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
             throws ServiceException, ValidationException, DuplicateEntityException {
         try {
             validateEntity(historia);
-            validateNroHistoriaUnique(historia.getNumeroHistoria(), null); // INSERT
-            historiaClinicaDAO.insert(historia);
-        } catch (DuplicateEntityException e) {
-            throw e;
+            historiaClinicaDAO.insert(historia); // La BD garantiza la unicidad (RN-015)
+            indexHistoria(historia);
         } catch (ValidationException e) {
             throw e;
         } catch (SQLException e) {
+            if (ConstraintViolations.isDuplicateKey(e)) {
+                throw duplicateNroHistoria(historia.getNumeroHistoria(), e);
+            }
             throw new ServiceException("Error al insertar la historia clínica: " + e.getMessage(), e);
         } catch (Exception e) {
             throw new ServiceException("Error inesperado al insertar historia clínica: " + e.getMessage(), e);
@@ -88,13 +162,15 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
 
         try {
             validateEntity(historia);
-            validateNroHistoriaUnique(historia.getNumeroHistoria(), historia.getId()); // UPDATE
-            historiaClinicaDAO.update(historia);
-        } catch (DuplicateEntityException e) {
-            throw e;
+            historiaClinicaDAO.update(historia); // La BD garantiza la unicidad (RN-015)
+            indexHistoria(historia);
+            notifyChanged(historia.getId());
         } catch (ValidationException e) {
             throw e;
         } catch (SQLException e) {
+            if (ConstraintViolations.isDuplicateKey(e)) {
+                throw duplicateNroHistoria(historia.getNumeroHistoria(), e);
+            }
             throw new ServiceException("Error al actualizar la historia clínica: " + e.getMessage(), e);
         } catch (Exception e) {
             throw new ServiceException("Error inesperado al actualizar historia clínica: " + e.getMessage(), e);
@@ -108,6 +184,8 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
         }
         try {
             historiaClinicaDAO.delete(id);
+            unindexHistoria(id);
+            notifyChanged(id);
         } catch (SQLException e) {
             throw new ServiceException("Error al eliminar la historia clínica: " + e.getMessage(), e);
         }
@@ -120,11 +198,128 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
         }
         try {
             historiaClinicaDAO.recover(id);
+            if (isSearchIndexInUse()) {
+                indexHistoria(historiaClinicaDAO.selectByIdWithStatus(id, false));
+            }
+            notifyChanged(id);
         } catch (SQLException e) {
             throw new ServiceException("Error al recuperar la historia clínica: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Inserta historias clínicas <b>nuevas y ya validadas</b> por lotes, dentro
+     * de una transacción existente.
+     * <p>
+     * Usado por la carga masiva de {@link PacienteService}, que valida cada HC
+     * con {@link #validateEntity(HistoriaClinica)} y controla la unicidad del
+     * número de historia dentro del lote antes de llamar a este método. No hace
+     * commit ni rollback: la indexación queda registrada para después del
+     * <code>commit</code>.
+     * </p>
+     *
+     * @param historias Las historias clínicas a insertar (con <code>id=0</code>).
+     * @param tx        La transacción en curso.
+     * @throws SQLException Si falla algún lote (ej: número de historia duplicado
+     *                      en la BD).
+     */
+    public void insertBatchTx(List<HistoriaClinica> historias, TransactionManager tx) throws SQLException {
+        historiaClinicaDAO.insertBatch(historias, tx.getConnection());
+        if (!historias.isEmpty()) {
+            tx.afterCommit(() -> indexCommitted(historias));
+        }
+    }
+
+    /**
+     * Informa al índice de búsqueda las historias clínicas insertadas fuera
+     * de un {@link TransactionManager} (ej: con un único <code>CALL</code>)
+     * una vez confirmadas.
+     *
+     * @param historias Las historias clínicas confirmadas.
+     */
+    public void indexCommitted(List<HistoriaClinica> historias) {
+        historias.forEach(this::indexHistoria);
+    }
+
+    // =============================================================
+    // MÉTODOS TRANSACCIONALES (Unidad de trabajo)
+    // =============================================================
+
+    /**
+     * Inserta una historia clínica <b>nueva y ya validada</b> dentro de una
+     * transacción existente (ver {@link TransactionManager#begin()}).
+     * <p>
+     * Usado por {@link PacienteService} para que la HC y el Paciente se
+     * escriban con la misma conexión y un único <code>commit</code>. No hace
+     * commit ni rollback: la indexación queda registrada para después del
+     * <code>commit</code>.
+     * </p>
+     *
+     * @param historia La historia clínica a insertar (con <code>id=0</code>),
+     *                 validada con {@link #validateEntity(HistoriaClinica)}.
+     * @param tx       La transacción en curso.
+     * @throws SQLException Si falla la inserción (ej: número de historia
+     *                      duplicado).
+     */
+    public void insertTx(HistoriaClinica historia, TransactionManager tx) throws SQLException {
+        historiaClinicaDAO.insertTx(historia, tx.getConnection());
+        tx.afterCommit(() -> indexHistoria(historia));
+    }
+
+    /**
+     * Actualiza una historia clínica <b>ya validada</b> dentro de una
+     * transacción existente. La reindexación y la invalidación de cachés se
+     * hacen después del <code>commit</code>.
+     *
+     * @param historia La historia clínica a actualizar (con
+     *                 <code>id &gt; 0</code>).
+     * @param tx       La transacción en curso.
+     * @throws SQLException Si la HC no existe o falla la actualización.
+     */
+    public void updateTx(HistoriaClinica historia, TransactionManager tx) throws SQLException {
+        historiaClinicaDAO.updateTx(historia, tx.getConnection());
+        tx.afterCommit(() -> {
+            indexHistoria(historia);
+            notifyChanged(historia.getId());
+        });
+    }
+
+    /**
+     * Elimina lógicamente una historia clínica dentro de una transacción
+     * existente (cascada de RN-013).
+     *
+     * @param id El ID de la HC.
+     * @param tx La transacción en curso.
+     * @throws SQLException Si la HC no existe o falla la actualización.
+     */
+    public void deleteTx(int id, TransactionManager tx) throws SQLException {
+        historiaClinicaDAO.deleteTx(id, tx.getConnection());
+        tx.afterCommit(() -> {
+            unindexHistoria(id);
+            notifyChanged(id);
+        });
+    }
+
+    /**
+     * Recupera una historia clínica eliminada dentro de una transacción
+     * existente (cascada de RN-031).
+     * <p>
+     * Recibe la HC ya leída por el llamador, para reindexarla sin volver a
+     * consultar la BD.
+     * </p>
+     *
+     * @param historia La HC eliminada a recuperar.
+     * @param tx       La transacción en curso.
+     * @throws SQLException Si la HC no existe o falla la actualización.
+     */
+    public void recoverTx(HistoriaClinica historia, TransactionManager tx) throws SQLException {
+        historiaClinicaDAO.recoverTx(historia.getId(), tx.getConnection());
+        tx.afterCommit(() -> {
+            indexHistoria(historia);
+            notifyChanged(historia.getId());
+        });
+    }
+
     // =============================================================
     // MÉTODOS SELECT (Lectura)
     // =============================================================
@@ -136,7 +331,10 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
             throw new ValidationException("El ID de la historia clínica debe ser mayor a cero.");
         }
         try {
-            return historiaClinicaDAO.selectByIdWithStatus(id, deleted);
+            if (deleted) {
+                return historiaClinicaDAO.selectByIdWithStatus(id, true); // Las eliminadas no se guardan en caché
+            }
+            return historiaCache.getById(id, () -> historiaClinicaDAO.selectByIdWithStatus(id, false));
         } catch (SQLException e) {
             throw new ServiceException("Error al obtener historia clínica por ID: " + e.getMessage(), e);
         }
@@ -151,6 +349,70 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
         }
     }
 
+    /**
+     * Variante de <i>streaming</i> de {@link #selectAll(boolean)} para
+     * recorrer tablas grandes con memoria constante.
+     * <p>
+     * El <code>Stream</code> devuelto mantiene una conexión abierta: debe
+     * cerrarse (<code>try-with-resources</code>). Los errores de BD durante el
+     * recorrido se lanzan como {@link exceptions.DataAccessException}.
+     * </p>
+     *
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @return Un <code>Stream</code> perezoso que debe cerrarse.
+     * @throws ServiceException Si falla la apertura de la consulta.
+     */
+    public Stream<HistoriaClinica> streamAll(boolean deleted) throws ServiceException {
+        try {
+            return historiaClinicaDAO.streamAllWithStatus(deleted);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al recorrer todas las historias clínicas: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene una página del listado usando paginación por clave (ver
+     * {@link dao.GenericDAO#selectPage(Object, int, boolean)}).
+     *
+     * @param after   El último elemento de la página anterior, o
+     *                <code>null</code> para la primera página.
+     * @param limit   Tamaño de página (entre 1 y {@link #MAX_PAGE_SIZE}).
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @return La página solicitada.
+     * @throws ValidationException Si el tamaño de página está fuera de rango.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public Page<HistoriaClinica> selectPage(HistoriaClinica after, int limit, boolean deleted)
+            throws ServiceException, ValidationException {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        try {
+            return historiaClinicaDAO.selectPage(after, limit, deleted);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al obtener la página de historias clínicas: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Se resuelve con el índice invertido en memoria (sin recorrer la tabla):
+     * el filtro se normaliza (sin acentos ni mayúsculas), se divide en
+     * palabras y cada palabra se busca como <b>prefijo</b> de las palabras de
+     * <code>nro_historia</code>, <code>antecedentes</code>,
+     * <code>medicacion_actual</code> y <code>observaciones</code>. La HC debe
+     * contener <b>todas</b> las palabras. Un grupo sanguíneo (ej: "A+") busca
+     * por grupo. La BD solo se consulta para obtener las HC encontradas.
+     * </p>
+     *
+     * @param filter El texto a buscar.
+     * @return Las HC activas encontradas, ordenadas por número de historia.
+     * @throws ValidationException Si el filtro está vacío.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
     @Override
     public List<HistoriaClinica> searchByFilter(String filter)
             throws ServiceException, ValidationException {
@@ -158,7 +420,11 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
             throw new ValidationException("El filtro de búsqueda no puede estar vacío.");
         }
         try {
-            return historiaClinicaDAO.searchByFilter(filter);
+            int[] ids = ensureSearchIndex().search(queryTerms(filter));
+            List<HistoriaClinica> historias = new ArrayList<>(
+                    historiaClinicaDAO.selectByIds(Arrays.stream(ids).boxed().toList()).values());
+            historias.sort(Comparator.comparing(HistoriaClinica::getNumeroHistoria));
+            return historias;
         } catch (SQLException e) {
             throw new ServiceException("Error al buscar historias clínicas: " + e.getMessage(), e);
         }
@@ -170,12 +436,327 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
             throw new ValidationException("El Nro. de Historia no puede ser nulo o vacío.");
         }
         try {
-            return historiaClinicaDAO.selectByNroHistoria(nroHistoria);
+            return historiaCache.getBySecondaryKey(nroHistoria,
+                    () -> historiaClinicaDAO.selectByNroHistoria(nroHistoria));
         } catch (SQLException e) {
             throw new ServiceException("Error al obtener la HC por número: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Obtiene muchas HC activas por ID. Las que están en la caché no se
+     * consultan; el resto se lee con consultas <code>IN</code> por bloques
+     * (ver {@link HistoriaClinicaDAO#selectByIds(Collection)}).
+     *
+     * @param ids Los IDs a buscar.
+     * @return Las HC encontradas por ID, en el orden de <code>ids</code> (los
+     *         IDs inexistentes se omiten).
+     * @throws ValidationException Si la colección es null.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public Map<Integer, HistoriaClinica> selectByIds(Collection<Integer> ids)
+            throws ServiceException, ValidationException {
+        if (ids == null) {
+            throw new ValidationException("La lista de IDs no puede ser nula.");
+        }
+        try {
+            return historiaCache.getAllById(ids, historiaClinicaDAO::selectByIds);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al obtener HC por ID: " + e.getMessage(), e);
+        }
+    }
+
+    // =============================================================
+    // CACHÉ Y NOTIFICACIÓN DE CAMBIOS
+    // =============================================================
+
+    /**
+     * Registra un interesado en los cambios de HC hechos por este servicio
+     * (actualización, eliminación y recuperación).
+     *
+     * @param listener Recibe el ID de la HC modificada.
+     */
+    public void addChangeListener(IntConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Devuelve los contadores de la caché de historias clínicas (aciertos,
+     * fallos, desalojos).
+     *
+     * @return Las estadísticas de la caché.
+     */
+    public CacheStats getCacheStats() {
+        return historiaCache.stats();
+    }
+
+    /**
+     * Invalida la HC en la caché propia y avisa a los interesados.
+     *
+     * @param id El ID de la HC modificada.
+     */
+    private void notifyChanged(int id) {
+        historiaCache.invalidate(id);
+        changeListeners.forEach(listener -> listener.accept(id));
+    }
+
+    // =============================================================
+    // ÍNDICE DE BÚSQUEDA (en memoria)
+    // =============================================================
+
+    /**
+     * Descarta el índice de búsqueda y lo vuelve a construir desde la BD.
+     * <p>
+     * El índice solo ve las escrituras hechas a través de este servicio: si la
+     * BD se modifica por otro medio (otra instancia de la aplicación, scripts
+     * SQL), este método lo sincroniza.
+     * </p>
+     *
+     * @throws ServiceException Si falla la lectura de la BD.
+     */
+    public void rebuildSearchIndex() throws ServiceException {
+        invalidateSearchIndex();
+        ensureSearchIndex();
+    }
+
+    /**
+     * Descarta el índice de búsqueda sin reconstruirlo: se vuelve a construir
+     * en la próxima búsqueda. Es la alternativa liviana a
+     * {@link #rebuildSearchIndex()} luego de una carga masiva que no pasó por
+     * este servicio.
+     */
+    public void invalidateSearchIndex() {
+        searchIndexLock.lock();
+        try {
+            searchIndex = null;
+            searchIndexGeneration++;
+        } finally {
+            searchIndexLock.unlock();
+        }
+    }
+
+    /**
+     * Construcción del índice en curso: las búsquedas concurrentes esperan su
+     * resultado, y las escrituras confirmadas mientras tanto se registran en
+     * <code>updates</code> para aplicarlas al índice nuevo antes de
+     * publicarlo.
+     */
+    private static final class IndexBuild {
+
+        private final long generation;
+        private final CompletableFuture<InvertedIndex> result = new CompletableFuture<>();
+        private final List<Consumer<InvertedIndex>> updates = new ArrayList<>();
+
+        private IndexBuild(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Devuelve el índice de búsqueda, construyéndolo en el primer uso a
+     * partir de todas las HC activas (recorridas en <i>streaming</i>).
+     * <p>
+     * La lectura de la BD se hace sin {@link #searchIndexLock}: las
+     * escrituras concurrentes no esperan a la construcción, y las búsquedas
+     * concurrentes esperan a la construcción en curso en lugar de empezar
+     * otra.
+     * </p>
+     *
+     * @return El índice de búsqueda.
+     * @throws ServiceException Si falla la lectura de la BD.
+     */
+    private InvertedIndex ensureSearchIndex() throws ServiceException {
+        while (true) {
+            InvertedIndex index = searchIndex;
+            if (index != null) {
+                return index;
+            }
+            IndexBuild propia = null;
+            IndexBuild enCurso;
+            searchIndexLock.lock();
+            try {
+                if (searchIndex != null) {
+                    return searchIndex;
+                }
+                enCurso = searchIndexBuild;
+                if (enCurso == null) {
+                    propia = new IndexBuild(searchIndexGeneration);
+                    searchIndexBuild = propia;
+                }
+            } finally {
+                searchIndexLock.unlock();
+            }
+            if (propia != null) {
+                return buildSearchIndex(propia);
+            }
+            // Si el índice se invalidó durante esa construcción, no se publicó: se vuelve a intentar
+            awaitSearchIndex(enCurso);
+        }
+    }
+
+    /**
+     * Lee todas las HC activas, aplica las escrituras confirmadas durante la
+     * lectura y publica el índice (si no se invalidó mientras tanto).
+     *
+     * @param build La construcción registrada en {@link #searchIndexBuild}.
+     * @return El índice construido.
+     * @throws ServiceException Si falla la lectura de la BD.
+     */
+    private InvertedIndex buildSearchIndex(IndexBuild build) throws ServiceException {
+        InvertedIndex nuevo = new InvertedIndex();
+        try (Stream<HistoriaClinica> historias = streamAll(false)) {
+            historias.forEach(hc -> nuevo.put(hc.getId(), indexTerms(hc)));
+        } catch (ServiceException | RuntimeException e) {
+            searchIndexLock.lock();
+            try {
+                searchIndexBuild = null;
+            } finally {
+                searchIndexLock.unlock();
+            }
+            build.result.completeExceptionally(e);
+            if (e instanceof DataAccessException) {
+                throw new ServiceException("Error al construir el índice de búsqueda: " + e.getMessage(), e);
+            }
+            throw e;
+        }
+
+        searchIndexLock.lock();
+        try {
+            build.updates.forEach(actualizacion -> actualizacion.accept(nuevo));
+            searchIndexBuild = null;
+            if (build.generation == searchIndexGeneration) {
+                searchIndex = nuevo;
+            }
+        } finally {
+            searchIndexLock.unlock();
+        }
+        build.result.complete(nuevo);
+        return nuevo;
+    }
+
+    /**
+     * Espera a que termine una construcción del índice iniciada por otro
+     * hilo.
+     *
+     * @param build La construcción en curso.
+     * @throws ServiceException Si la construcción falló.
+     */
+    private static void awaitSearchIndex(IndexBuild build) throws ServiceException {
+        try {
+            build.result.join();
+        } catch (CompletionException e) {
+            throw new ServiceException("Error al construir el índice de búsqueda: " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Indica si hay un índice construido o en construcción (es decir, si las
+     * escrituras deben actualizarlo).
+     */
+    private boolean isSearchIndexInUse() {
+        searchIndexLock.lock();
+        try {
+            return searchIndex != null || searchIndexBuild != null;
+        } finally {
+            searchIndexLock.unlock();
+        }
+    }
+
+    /**
+     * Indexa (o reindexa) una HC activa, si el índice ya fue construido o se
+     * está construyendo.
+     *
+     * @param historia La HC confirmada en la BD.
+     */
+    private void indexHistoria(HistoriaClinica historia) {
+        if (historia == null || historia.getId() <= 0) {
+            return;
+        }
+        int id = historia.getId();
+        Set<String> terminos = indexTerms(historia);
+        updateSearchIndex(index -> index.put(id, terminos));
+    }
+
+    /**
+     * Quita una HC del índice, si el índice ya fue construido o se está
+     * construyendo.
+     *
+     * @param id El ID de la HC eliminada.
+     */
+    private void unindexHistoria(int id) {
+        updateSearchIndex(index -> index.remove(id));
+    }
+
+    /**
+     * Aplica una actualización al índice publicado y la registra para la
+     * construcción en curso, si la hay.
+     *
+     * @param actualizacion La actualización.
+     */
+    private void updateSearchIndex(Consumer<InvertedIndex> actualizacion) {
+        searchIndexLock.lock();
+        try {
+            if (searchIndex != null) {
+                actualizacion.accept(searchIndex);
+            }
+            if (searchIndexBuild != null) {
+                searchIndexBuild.updates.add(actualizacion);
+            }
+        } finally {
+            searchIndexLock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene los términos a indexar de una HC: las palabras de sus campos de
+     * texto y un término para su grupo sanguíneo (ej: <code>"#a_plus"</code>).
+     *
+     * @param historia La HC.
+     * @return Los términos normalizados.
+     */
+    private static Set<String> indexTerms(HistoriaClinica historia) {
+        Set<String> terminos = TextNormalizer.tokenize(historia.getNumeroHistoria());
+        terminos.addAll(TextNormalizer.tokenize(historia.getAntecedentes()));
+        terminos.addAll(TextNormalizer.tokenize(historia.getMedicacionActual()));
+        terminos.addAll(TextNormalizer.tokenize(historia.getObservaciones()));
+        if (historia.getGrupoSanguineo() != null) {
+            terminos.add(bloodGroupTerm(historia.getGrupoSanguineo()));
+        }
+        return terminos;
+    }
+
+    /**
+     * Traduce el filtro del usuario a términos de consulta. Si el filtro es
+     * un grupo sanguíneo (ej: "A+" o "a_plus"), busca ese grupo; si no,
+     * busca sus palabras.
+     *
+     * @param filter El filtro ingresado por el usuario.
+     * @return Los términos de consulta normalizados.
+     */
+    private static Set<String> queryTerms(String filter) {
+        String limpio = filter.trim();
+        for (GrupoSanguineo grupo : GrupoSanguineo.values()) {
+            if (grupo.toString().equalsIgnoreCase(limpio) || grupo.name().equalsIgnoreCase(limpio)) {
+                return Set.of(bloodGroupTerm(grupo));
+            }
+        }
+        return TextNormalizer.tokenize(limpio);
+    }
+
+    /**
+     * Término del índice para un grupo sanguíneo. Empieza con
+     * {@link InvertedIndex#EXACT_MARKER}: solo coincide con una búsqueda del
+     * mismo grupo, nunca por prefijo (buscar "a" u "o" no devuelve todas las
+     * HC de esos grupos).
+     *
+     * @param grupo El grupo sanguíneo.
+     * @return El término (ej: <code>"#a_plus"</code>).
+     */
+    private static String bloodGroupTerm(GrupoSanguineo grupo) {
+        return InvertedIndex.EXACT_MARKER + TextNormalizer.fold(grupo.name());
+    }
+
     // =============================================================
     // VALIDACIONES DE NEGOCIO
     // =============================================================
@@ -199,18 +780,39 @@ public class HistoriaClinicaService implements GenericService<HistoriaClinica> {
         }
     }
 
-    private void validateNroHistoriaUnique(String nroHistoria, Integer historiaId)
-            throws DuplicateEntityException, ServiceException {
+    /**
+     * Verificación liviana (<code>SELECT 1</code>) de si un número de historia
+     * ya está registrado, para que la UI avise antes de guardar. No reemplaza
+     * a la restricción <code>UNIQUE</code>: las escrituras siguen pudiendo
+     * lanzar {@link DuplicateEntityException}.
+     *
+     * @param nroHistoria El número de historia.
+     * @return <code>true</code> si ya existe una HC (activa o eliminada) con
+     *         ese número.
+     * @throws ValidationException Si el número está vacío.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public boolean existsByNroHistoria(String nroHistoria) throws ServiceException, ValidationException {
+        if (nroHistoria == null || nroHistoria.trim().isEmpty()) {
+            throw new ValidationException("El Nro. de Historia no puede ser nulo o vacío.");
+        }
         try {
-            HistoriaClinica existente = historiaClinicaDAO.selectByNroHistoria(nroHistoria);
-            if (existente != null) {
-                if (historiaId == null || existente.getId() != historiaId) {
-                    throw new DuplicateEntityException(
-                            "Ya existe una Historia Clínica con el número: " + nroHistoria);
-                }
-            }
+            return historiaClinicaDAO.existsByNroHistoria(nroHistoria.trim());
         } catch (SQLException e) {
-            throw new ServiceException("Error al validar unicidad de número de historia: " + e.getMessage(), e);
+            throw new ServiceException("Error al verificar el número de historia: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Crea la excepción de negocio para un número de historia duplicado
+     * (violación de la restricción <code>UNIQUE</code> de
+     * <code>nro_historia</code>).
+     *
+     * @param nroHistoria El número de historia rechazado.
+     * @param cause       La excepción original de la BD.
+     * @return La excepción a lanzar.
+     */
+    private static DuplicateEntityException duplicateNroHistoria(String nroHistoria, SQLException cause) {
+        return new DuplicateEntityException("Ya existe una Historia Clínica con el número: " + nroHistoria, cause);
+    }
 }
@@ -4,14 +4,32 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.Set;
 
+import cache.CacheStats;
+import cache.EntityCache;
 import config.DatabaseConnection;
+import config.RoundTripCounter;
+import config.TransactionManager;
+import dao.ConstraintViolations;
+import dao.Page;
 import dao.PacienteDAO;
+import dao.SearchMode;
+import dao.SearchResult;
 import exceptions.DuplicateEntityException;
 import exceptions.ServiceException;
 import exceptions.ValidationException;
+import models.HistoriaClinica;
 import models.Paciente;
+import models.PacienteResumen;
 
 /**
  * Implementación del servicio de negocio para la entidad Paciente (Entidad
@@ -28,8 +46,12 @@ import models.Paciente;
  * {@link #validateEntity(Paciente)} antes de cualquier <code>insert</code> o
  * <code>update</code> para asegurar la integridad de los datos (campos
  * obligatorios, formatos, rangos).</li>
- * <li><b>Garantizar Unicidad:</b> Llama a {@link #validateDniUnique} para
- * asegurar que no existan DNI duplicados (RN-002).</li>
+ * <li><b>Garantizar Unicidad (RN-002):</b> escribe de forma
+ * <b>optimista</b> y traduce la violación de la restricción
+ * <code>UNIQUE</code> de <code>dni</code> a
+ * {@link DuplicateEntityException}, sin consultar la BD antes de cada
+ * escritura. Para la UI, {@link #existsByDni(String)} ofrece una verificación
+ * previa liviana.</li>
  * <li><b>Orquestación de Entidades:</b> Coordina operaciones que involucran a
  * más de una entidad. Por ejemplo, en <code>insert</code>, se asegura de que
  * <code>HistoriaClinica</code> se inserte <b>antes</b> que
@@ -45,13 +67,23 @@ import models.Paciente;
  *
  * <h3>Transacciones:</h3>
  * <p>
- * Ahora implementa manejo de transacciones reales:
+ * Cada operación de escritura es una <b>unidad de trabajo</b>
+ * ({@link TransactionManager#begin()}):
  * <ul>
- * <li>Ambas entidades (Paciente y su HistoriaClinica) se insertan/actualizan en
- * una misma conexión con <b>commit/rollback</b>.</li>
+ * <li>Ambas entidades (Paciente y su HistoriaClinica) se escriben con los
+ * métodos <code>*Tx</code> de los DAOs sobre <b>una sola conexión</b> y con
+ * un único <b>commit/rollback</b>. Crear un paciente con su HC nueva son dos
+ * <code>INSERT</code> y un <code>commit</code>.</li>
  * <li>Si alguna operación falla, se revierte todo (atomicidad
  * garantizada).</li>
+ * <li>Las cachés y el índice de búsqueda se actualizan recién después del
+ * <code>commit</code> ({@link TransactionManager#afterCommit(Runnable)}).</li>
+ * <li>Con <code>db.write.mode=pipeline</code> ({@link WriteMode#PIPELINE}),
+ * el alta de un paciente con su HC nueva es un único <code>CALL</code> a un
+ * procedimiento almacenado (un viaje a la BD).</li>
  * </ul>
+ * Los viajes a la BD de cada operación se informan en
+ * {@link #getRoundTripStats()}.
  * </p>
  *
  * @author alpha
@@ -62,6 +94,11 @@ import models.Paciente;
  */
 public class PacienteService implements GenericService<Paciente> {
 
+    /**
+     * Tamaño máximo de página permitido en {@link #selectPage}.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
     /**
      * DAO para acceso a datos de pacientes.
      * Inyectado en el constructor (Dependency Injection).
@@ -85,6 +122,24 @@ public class PacienteService implements GenericService<Paciente> {
      */
     private final HistoriaClinicaService historiaClinicaService;
 
+    /**
+     * Caché de lectura de pacientes <b>activos</b> (por ID y por DNI). Se
+     * invalida con cada escritura de este servicio y con cada cambio de una
+     * HC informado por {@link HistoriaClinicaService}.
+     */
+    private final EntityCache<Paciente> pacienteCache = EntityCache.fromConfig("Paciente", Paciente::getDni,
+            Paciente::new);
+
+    /**
+     * Estrategia de envío de las altas (<code>db.write.mode</code>).
+     */
+    private final WriteMode writeMode = WriteMode.fromConfig();
+
+    /**
+     * Viajes a la BD acumulados por operación de escritura.
+     */
+    private final Map<String, RoundTripStats> roundTrips = new ConcurrentHashMap<>();
+
     /**
      * Constructor que inyecta las dependencias necesarias.
      * <p>
@@ -107,6 +162,10 @@ public class PacienteService implements GenericService<Paciente> {
         }
         this.pacienteDAO = pacienteDAO;
         this.historiaClinicaService = historiaClinicaService;
+
+        // Un paciente en caché contiene su HC: si la HC cambia, se descarta
+        this.historiaClinicaService.addChangeListener(historiaId -> pacienteCache.invalidateIf(
+                p -> p.getHistoriaClinica() != null && p.getHistoriaClinica().getId() == historiaId));
     }
 
     // =============================================================
@@ -117,36 +176,39 @@ public class PacienteService implements GenericService<Paciente> {
      * {@inheritDoc}
      * <p>
      * Inserta un nuevo paciente, asegurando validaciones,
-     * unicidad de DNI y atomicidad con su historia clínica.
+     * unicidad de DNI y atomicidad con su historia clínica: la HC (nueva o
+     * existente) y el paciente se escriben en la misma transacción (o en un
+     * único <code>CALL</code>, según el {@link WriteMode}).
      * </p>
      */
     @Override
     public void insert(Paciente paciente)
             throws ServiceException, ValidationException, DuplicateEntityException {
         validateEntity(paciente);
-        validateDniUnique(paciente.getDni(), null);
+        HistoriaClinica historia = paciente.getHistoriaClinica();
+        validateHistoria(historia);
+        boolean historiaNueva = historia != null && historia.getId() == 0;
+        RoundTripCounter viajes = new RoundTripCounter();
 
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false);
-            try {
-                if (paciente.getHistoriaClinica() != null) {
-                    if (paciente.getHistoriaClinica().getId() == 0) {
-                        historiaClinicaService.insert(paciente.getHistoriaClinica());
-                    } else {
-                        historiaClinicaService.update(paciente.getHistoriaClinica());
-                    }
+        try {
+            if (writeMode != WriteMode.PIPELINE || !insertPipelined(paciente, viajes)) {
+                try (TransactionManager tx = TransactionManager.begin(viajes)) {
+                    writeHistoriaTx(historia, tx);
+                    pacienteDAO.insertTx(paciente, tx.getConnection()); // La BD garantiza la unicidad (RN-002)
+                    tx.commit();
                 }
-                pacienteDAO.insertTx(paciente, conn);
-                conn.commit();
-
-            } catch (Exception ex) {
-                conn.rollback();
-                throw new ServiceException("Error transaccional al insertar Paciente+HC: " + ex.getMessage(), ex);
-            } finally {
-                conn.setAutoCommit(true);
             }
+            recordRoundTrips("insert", viajes);
+
         } catch (SQLException e) {
-            throw new ServiceException("Error al insertar el paciente: " + e.getMessage(), e);
+            paciente.setId(0); // El rollback descartó los IDs generados
+            if (historiaNueva) {
+                historia.setId(0);
+            }
+            if (ConstraintViolations.isDuplicateKey(e)) {
+                throw duplicatePaciente(paciente, e);
+            }
+            throw new ServiceException("Error transaccional al insertar Paciente+HC: " + e.getMessage(), e);
         }
     }
 
@@ -164,30 +226,110 @@ public class PacienteService implements GenericService<Paciente> {
         }
 
         validateEntity(paciente);
-        validateDniUnique(paciente.getDni(), paciente.getId());
+        HistoriaClinica historia = paciente.getHistoriaClinica();
+        validateHistoria(historia);
+        boolean historiaNueva = historia != null && historia.getId() == 0;
+        RoundTripCounter viajes = new RoundTripCounter();
+
+        try {
+            try (TransactionManager tx = TransactionManager.begin(viajes)) {
+                writeHistoriaTx(historia, tx);
+                pacienteDAO.updateTx(paciente, tx.getConnection()); // La BD garantiza la unicidad (RN-002)
+                tx.afterCommit(() -> pacienteCache.invalidate(paciente.getId()));
+                tx.commit();
+            }
+            recordRoundTrips("update", viajes);
 
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            if (historiaNueva) {
+                historia.setId(0); // El rollback descartó el ID generado
+            }
+            if (ConstraintViolations.isDuplicateKey(e)) {
+                throw duplicatePaciente(paciente, e);
+            }
+            throw new ServiceException("Error transaccional al actualizar Paciente+HC: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Carga masiva de pacientes (con sus historias clínicas nuevas) usando
+     * <b>JDBC Batch</b>.
+     * <p>
+     * Flujo:
+     * </p>
+     * <ol>
+     * <li>Valida cada paciente (y su HC nueva, si tiene) con las mismas reglas
+     * que {@link #insert(Paciente)}.</li>
+     * <li>Descarta en memoria los DNI y números de historia repetidos dentro de
+     * la misma lista (se conserva la primera aparición).</li>
+     * <li>Inserta en bloques de <code>db.batch.size</code> filas: primero las HC
+     * nuevas del bloque (para obtener sus IDs) y luego los pacientes, con una
+     * <b>unidad de trabajo por bloque</b> ({@link TransactionManager#begin()}).
+     * Las HC se indexan después de cada <code>commit</code>.</li>
+     * <li>Si un bloque falla (ej: DNI ya existente en la BD), se hace rollback
+     * de ese bloque y se reintenta fila por fila para aislar las filas
+     * problemáticas, que se informan como rechazadas.</li>
+     * </ol>
+     * <p>
+     * Las HC que ya tienen ID se asocian al paciente sin modificarse.
+     * </p>
+     *
+     * @param pacientes Los pacientes a insertar (con <code>id=0</code>).
+     * @return El resultado de la carga (insertados y rechazados con su motivo).
+     * @throws ValidationException Si la lista es <code>null</code>.
+     * @throws ServiceException    Si se pierde la conexión con la base de datos.
+     */
+    public BulkInsertResult insertBatch(List<Paciente> pacientes)
+            throws ServiceException, ValidationException {
+        if (pacientes == null) {
+            throw new ValidationException("La lista de pacientes no puede ser nula.");
+        }
+
+        List<BulkInsertResult.Rejected> rechazados = new ArrayList<>();
+        List<Integer> validos = new ArrayList<>();
+        Set<String> dnis = new HashSet<>();
+        Set<String> nrosHistoria = new HashSet<>();
+
+        // 1. Validación y de-duplicación en memoria (sin consultas a la BD)
+        for (int i = 0; i < pacientes.size(); i++) {
+            Paciente paciente = pacientes.get(i);
             try {
-                if (paciente.getHistoriaClinica() != null) {
-                    if (paciente.getHistoriaClinica().getId() == 0) {
-                        historiaClinicaService.insert(paciente.getHistoriaClinica());
-                    } else {
-                        historiaClinicaService.update(paciente.getHistoriaClinica());
-                    }
+                validateEntity(paciente);
+                HistoriaClinica hc = paciente.getHistoriaClinica();
+                if (hc != null && hc.getId() == 0) {
+                    historiaClinicaService.validateEntity(hc);
+                }
+
+                if (!dnis.add(paciente.getDni())) {
+                    throw new ValidationException("DNI " + paciente.getDni() + " repetido en la carga.");
+                }
+                if (hc != null && hc.getId() == 0 && !nrosHistoria.add(hc.getNumeroHistoria())) {
+                    throw new ValidationException(
+                            "Número de historia " + hc.getNumeroHistoria() + " repetido en la carga.");
                 }
-                pacienteDAO.updateTx(paciente, conn);
-                conn.commit();
-
-            } catch (Exception ex) {
-                conn.rollback();
-                throw new ServiceException("Error transaccional al actualizar Paciente+HC: " + ex.getMessage(), ex);
-            } finally {
-                conn.setAutoCommit(true);
+                validos.add(i);
+
+            } catch (ValidationException e) {
+                rechazados.add(new BulkInsertResult.Rejected(i,
+                        paciente != null ? paciente.getDni() : null, e.getMessage()));
+            }
+        }
+
+        // 2. Inserción por bloques, una transacción por bloque
+        int insertados = 0;
+        int batchSize = DatabaseConnection.getBatchSize();
+
+        try {
+            for (int desde = 0; desde < validos.size(); desde += batchSize) {
+                List<Integer> bloque = validos.subList(desde, Math.min(desde + batchSize, validos.size()));
+                insertados += insertChunk(pacientes, bloque, rechazados);
             }
         } catch (SQLException e) {
-            throw new ServiceException("Error al actualizar el paciente: " + e.getMessage(), e);
+            throw new ServiceException("Error en la carga masiva de pacientes: " + e.getMessage(), e);
         }
+
+        rechazados.sort(Comparator.comparingInt(BulkInsertResult.Rejected::index));
+        return new BulkInsertResult(pacientes.size(), insertados, List.copyOf(rechazados));
     }
 
     // =============================================================
@@ -197,7 +339,8 @@ public class PacienteService implements GenericService<Paciente> {
     /**
      * {@inheritDoc}
      * <p>
-     * Lógica de Cascada (RN-013): elimina paciente y su HC asociada.
+     * Lógica de Cascada (RN-013): elimina paciente y su HC asociada en una
+     * misma transacción.
      * </p>
      */
     @Override
@@ -206,14 +349,21 @@ public class PacienteService implements GenericService<Paciente> {
             throw new ValidationException("El ID del paciente debe ser mayor a cero.");
         }
         try {
+            RoundTripCounter viajes = new RoundTripCounter();
             Paciente paciente = pacienteDAO.selectByIdWithStatus(id, false);
+            viajes.add(1); // La lectura previa usa su propia conexión
             if (paciente == null)
                 return;
 
-            if (paciente.getHistoriaClinica() != null) {
-                historiaClinicaService.delete(paciente.getHistoriaClinica().getId());
+            try (TransactionManager tx = TransactionManager.begin(viajes)) {
+                if (paciente.getHistoriaClinica() != null) {
+                    historiaClinicaService.deleteTx(paciente.getHistoriaClinica().getId(), tx);
+                }
+                pacienteDAO.deleteTx(id, tx.getConnection());
+                tx.afterCommit(() -> pacienteCache.invalidate(id));
+                tx.commit();
             }
-            pacienteDAO.delete(id);
+            recordRoundTrips("delete", viajes);
         } catch (SQLException e) {
             throw new ServiceException("Error al eliminar el paciente: " + e.getMessage(), e);
         }
@@ -222,7 +372,8 @@ public class PacienteService implements GenericService<Paciente> {
     /**
      * {@inheritDoc}
      * <p>
-     * Lógica de Cascada (RN-031): recupera paciente y su HC asociada.
+     * Lógica de Cascada (RN-031): recupera paciente y su HC asociada en una
+     * misma transacción.
      * </p>
      */
     @Override
@@ -231,14 +382,21 @@ public class PacienteService implements GenericService<Paciente> {
             throw new ValidationException("El ID del paciente debe ser mayor a cero.");
         }
         try {
+            RoundTripCounter viajes = new RoundTripCounter();
             Paciente paciente = pacienteDAO.selectByIdWithStatus(id, true);
+            viajes.add(1); // La lectura previa usa su propia conexión
             if (paciente == null)
                 return;
 
-            if (paciente.getHistoriaClinica() != null) {
-                historiaClinicaService.recover(paciente.getHistoriaClinica().getId());
+            try (TransactionManager tx = TransactionManager.begin(viajes)) {
+                if (paciente.getHistoriaClinica() != null) {
+                    historiaClinicaService.recoverTx(paciente.getHistoriaClinica(), tx);
+                }
+                pacienteDAO.recoverTx(id, tx.getConnection());
+                tx.afterCommit(() -> pacienteCache.invalidate(id));
+                tx.commit();
             }
-            pacienteDAO.recover(id);
+            recordRoundTrips("recover", viajes);
         } catch (SQLException e) {
             throw new ServiceException("Error al recuperar el paciente: " + e.getMessage(), e);
         }
@@ -255,7 +413,10 @@ public class PacienteService implements GenericService<Paciente> {
             throw new ValidationException("El ID del paciente debe ser mayor a cero.");
         }
         try {
-            return pacienteDAO.selectByIdWithStatus(id, deleted);
+            if (deleted) {
+                return pacienteDAO.selectByIdWithStatus(id, true); // Los eliminados no se guardan en caché
+            }
+            return pacienteCache.getById(id, () -> pacienteDAO.selectByIdWithStatus(id, false));
         } catch (SQLException e) {
             throw new ServiceException("Error al obtener paciente por ID: " + e.getMessage(), e);
         }
@@ -270,14 +431,124 @@ public class PacienteService implements GenericService<Paciente> {
         }
     }
 
+    /**
+     * Variante de <i>streaming</i> de {@link #selectAll(boolean)} para
+     * recorrer tablas grandes con memoria constante.
+     * <p>
+     * El <code>Stream</code> devuelto mantiene una conexión abierta: debe
+     * cerrarse (<code>try-with-resources</code>). Los errores de BD durante el
+     * recorrido se lanzan como {@link exceptions.DataAccessException}.
+     * </p>
+     *
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @return Un <code>Stream</code> perezoso que debe cerrarse.
+     * @throws ServiceException Si falla la apertura de la consulta.
+     */
+    public Stream<Paciente> streamAll(boolean deleted) throws ServiceException {
+        try {
+            return pacienteDAO.streamAllWithStatus(deleted);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al recorrer todos los pacientes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene una página del listado usando paginación por clave (ver
+     * {@link dao.GenericDAO#selectPage(Object, int, boolean)}).
+     *
+     * @param after   El último elemento de la página anterior, o
+     *                <code>null</code> para la primera página.
+     * @param limit   Tamaño de página (entre 1 y {@link #MAX_PAGE_SIZE}).
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @return La página solicitada.
+     * @throws ValidationException Si el tamaño de página está fuera de rango.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public Page<Paciente> selectPage(Paciente after, int limit, boolean deleted)
+            throws ServiceException, ValidationException {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        try {
+            return pacienteDAO.selectPage(after, limit, deleted);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al obtener la página de pacientes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene una página del listado como {@link PacienteResumen} (sin los
+     * textos de la historia clínica), con la misma paginación por clave que
+     * {@link #selectPage(Paciente, int, boolean)}. La usan las pantallas de
+     * listado.
+     *
+     * @param after   El último resumen de la página anterior, o
+     *                <code>null</code> para la primera página.
+     * @param limit   Tamaño de página (entre 1 y {@link #MAX_PAGE_SIZE}).
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @return La página solicitada.
+     * @throws ValidationException Si el tamaño de página está fuera de rango.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public Page<PacienteResumen> selectResumenPage(PacienteResumen after, int limit, boolean deleted)
+            throws ServiceException, ValidationException {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        try {
+            return pacienteDAO.selectResumenPage(after, limit, deleted);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al obtener la página de pacientes: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public List<Paciente> searchByFilter(String filter)
             throws ServiceException, ValidationException {
-        if (filter == null || filter.trim().isEmpty()) {
-            throw new ValidationException("El filtro de búsqueda no puede estar vacío.");
+        return search(filter).items();
+    }
+
+    /**
+     * Busca pacientes activos por nombre o apellido e informa el camino de
+     * acceso utilizado (ver {@link PacienteDAO#search(String)}).
+     * <p>
+     * Un filtro terminado en <code>*</code> (ej: "Gonz*") busca por prefijo;
+     * cualquier otro busca el texto en cualquier posición.
+     * </p>
+     *
+     * @param filter El texto a buscar.
+     * @return Los pacientes encontrados y el modo de búsqueda utilizado.
+     * @throws ValidationException Si el filtro está vacío.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public SearchResult<Paciente> search(String filter)
+            throws ServiceException, ValidationException {
+        validateFilter(filter);
+        try {
+            return pacienteDAO.search(filter);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al buscar pacientes: " + e.getMessage(), e);
         }
+    }
+
+    /**
+     * Igual que {@link #search(String)}, pero devuelve cada paciente como
+     * {@link PacienteResumen} (sin los textos de la historia clínica). La usan
+     * las pantallas de listado.
+     *
+     * @param filter El texto a buscar.
+     * @return Los resúmenes encontrados y el modo de búsqueda utilizado.
+     * @throws ValidationException Si el filtro está vacío.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public SearchResult<PacienteResumen> searchResumen(String filter)
+            throws ServiceException, ValidationException {
+        validateFilter(filter);
         try {
-            return pacienteDAO.searchByFilter(filter);
+            return pacienteDAO.searchResumen(filter);
         } catch (SQLException e) {
             throw new ServiceException("Error al buscar pacientes: " + e.getMessage(), e);
         }
@@ -288,13 +559,101 @@ public class PacienteService implements GenericService<Paciente> {
         if (dni == null || dni.trim().isEmpty()) {
             throw new ValidationException("El DNI no puede ser nulo o vacío.");
         }
+        String normalizado = normalizeDni(dni);
         try {
-            return pacienteDAO.selectByDni(dni);
+            return pacienteCache.getBySecondaryKey(normalizado, () -> pacienteDAO.selectByDni(normalizado));
         } catch (SQLException e) {
             throw new ServiceException("Error al obtener paciente por DNI: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Obtiene muchos pacientes activos por ID. Los que están en la caché no
+     * se consultan; el resto se lee con consultas <code>IN</code> por bloques
+     * (ver {@link PacienteDAO#selectByIds(Collection)}).
+     *
+     * @param ids Los IDs a buscar.
+     * @return Los pacientes encontrados por ID, en el orden de
+     *         <code>ids</code> (los IDs inexistentes se omiten).
+     * @throws ValidationException Si la colección es null.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public Map<Integer, Paciente> selectByIds(Collection<Integer> ids)
+            throws ServiceException, ValidationException {
+        if (ids == null) {
+            throw new ValidationException("La lista de IDs no puede ser nula.");
+        }
+        try {
+            return pacienteCache.getAllById(ids, pacienteDAO::selectByIds);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al obtener pacientes por ID: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene muchos pacientes activos por DNI, con el mismo criterio que
+     * {@link #selectByIds(Collection)}.
+     *
+     * @param dnis Los DNIs a buscar (se normalizan como en
+     *             {@link #selectByDni(String)}).
+     * @return Los pacientes encontrados por DNI normalizado, en el orden de
+     *         <code>dnis</code> (los DNIs inexistentes se omiten).
+     * @throws ValidationException Si la colección es null o algún DNI está
+     *                             vacío.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public Map<String, Paciente> selectByDnis(Collection<String> dnis)
+            throws ServiceException, ValidationException {
+        if (dnis == null) {
+            throw new ValidationException("La lista de DNIs no puede ser nula.");
+        }
+        List<String> normalizados = new ArrayList<>(dnis.size());
+        for (String dni : dnis) {
+            if (dni == null || dni.trim().isEmpty()) {
+                throw new ValidationException("El DNI no puede ser nulo o vacío.");
+            }
+            normalizados.add(normalizeDni(dni));
+        }
+        try {
+            return pacienteCache.getAllBySecondaryKey(normalizados, pacienteDAO::selectByDnis);
+        } catch (SQLException e) {
+            throw new ServiceException("Error al obtener pacientes por DNI: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Devuelve los contadores de la caché de pacientes (aciertos, fallos,
+     * desalojos).
+     *
+     * @return Las estadísticas de la caché.
+     */
+    public CacheStats getCacheStats() {
+        return pacienteCache.stats();
+    }
+
+    /**
+     * Devuelve el modo de escritura configurado para las altas.
+     *
+     * @return El {@link WriteMode} en uso.
+     */
+    public WriteMode getWriteMode() {
+        return writeMode;
+    }
+
+    /**
+     * Devuelve los viajes a la BD acumulados por cada operación de escritura
+     * (<code>insert</code>, <code>update</code>, <code>delete</code>,
+     * <code>recover</code>, <code>deleteHistoriaClinica</code>), ordenados por
+     * nombre de operación. Solo se cuentan las operaciones confirmadas.
+     *
+     * @return Las estadísticas de viajes por operación.
+     */
+    public List<RoundTripStats> getRoundTripStats() {
+        return roundTrips.values().stream()
+                .sorted(Comparator.comparing(RoundTripStats::operation))
+                .toList();
+    }
+
     // =============================================================
     // VALIDACIONES DE NEGOCIO
     // =============================================================
@@ -326,7 +685,7 @@ public class PacienteService implements GenericService<Paciente> {
         if (dni == null || dni.trim().isEmpty()) {
             throw new ValidationException("El DNI no puede estar vacío.");
         }
-        dni = dni.replaceAll("[ .-]", "");
+        dni = normalizeDni(dni);
         if (!dni.matches("^[0-9]{7,15}$")) {
             throw new ValidationException(
                     "El DNI debe tener solo números (7–15 dígitos), sin puntos ni guiones (ej: 36200193).");
@@ -347,18 +706,259 @@ public class PacienteService implements GenericService<Paciente> {
         }
     }
 
-    private void validateDniUnique(String dni, Integer pacienteId)
-            throws DuplicateEntityException, ServiceException {
+    /**
+     * Verificación liviana (<code>SELECT 1</code>) de si un DNI ya está
+     * registrado, para que la UI avise <b>antes</b> de pedir el resto de los
+     * datos. No reemplaza a la restricción <code>UNIQUE</code>: las escrituras
+     * siguen pudiendo lanzar {@link DuplicateEntityException}.
+     *
+     * @param dni El DNI (se normaliza quitando espacios, puntos y guiones).
+     * @return <code>true</code> si ya existe un paciente (activo o eliminado)
+     *         con ese DNI.
+     * @throws ValidationException Si el DNI está vacío.
+     * @throws ServiceException    Si ocurre un error de acceso a datos.
+     */
+    public boolean existsByDni(String dni) throws ServiceException, ValidationException {
+        if (dni == null || dni.trim().isEmpty()) {
+            throw new ValidationException("El DNI no puede ser nulo o vacío.");
+        }
         try {
-            Paciente existente = pacienteDAO.selectByDni(dni);
-            if (existente != null) {
-                if (pacienteId == null || existente.getId() != pacienteId) {
-                    throw new DuplicateEntityException("Ya existe un paciente registrado con el DNI " + dni + ".");
+            return pacienteDAO.existsByDni(normalizeDni(dni));
+        } catch (SQLException e) {
+            throw new ServiceException("Error al verificar el DNI: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Alta en modo {@link WriteMode#PIPELINE}: un paciente con su HC nueva se
+     * inserta con un único <code>CALL</code>; un paciente sin HC, con un único
+     * <code>INSERT</code> en <code>autoCommit</code>.
+     *
+     * @param paciente El paciente validado.
+     * @param viajes   El contador de viajes de la operación.
+     * @return <code>true</code> si se insertó; <code>false</code> si el alta
+     *         debe hacerse con una transacción (HC existente o procedimiento
+     *         no disponible en la BD).
+     * @throws SQLException Si falla la inserción.
+     */
+    private boolean insertPipelined(Paciente paciente, RoundTripCounter viajes) throws SQLException {
+        HistoriaClinica historia = paciente.getHistoriaClinica();
+        if (historia != null && historia.getId() != 0) {
+            return false;
+        }
+
+        try (Connection conn = viajes.wrap(DatabaseConnection.getConnection())) {
+            if (historia == null) {
+                pacienteDAO.insertTx(paciente, conn); // Una sola sentencia: autoCommit es atómico
+                return true;
+            }
+            if (pacienteDAO.insertWithHistoria(paciente, conn)) {
+                historiaClinicaService.indexCommitted(List.of(historia));
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Acumula los viajes a la BD de una operación completada.
+     *
+     * @param operation El nombre de la operación.
+     * @param viajes    El contador de la operación.
+     */
+    private void recordRoundTrips(String operation, RoundTripCounter viajes) {
+        roundTrips.merge(operation, new RoundTripStats(operation, 1, viajes.get(), viajes.get()),
+                RoundTripStats::plus);
+    }
+
+    /**
+     * Valida el filtro de búsqueda por nombre o apellido.
+     *
+     * @param filter El texto a buscar.
+     * @throws ValidationException Si el filtro está vacío (o es solo el
+     *                             comodín de prefijo).
+     */
+    private void validateFilter(String filter) throws ValidationException {
+        if (filter == null || filter.replace(SearchMode.PREFIX_WILDCARD, "").trim().isEmpty()) {
+            throw new ValidationException("El filtro de búsqueda no puede estar vacío.");
+        }
+    }
+
+    /**
+     * Valida la HC que se escribirá junto con el paciente, antes de abrir la
+     * transacción (una HC inválida no llega a ocupar una conexión).
+     *
+     * @param historia La HC del paciente (puede ser <code>null</code>).
+     * @throws ValidationException Si la HC no cumple las reglas de negocio.
+     */
+    private void validateHistoria(HistoriaClinica historia) throws ValidationException {
+        if (historia != null) {
+            historiaClinicaService.validateEntity(historia);
+        }
+    }
+
+    /**
+     * Escribe la HC del paciente dentro de la transacción: la inserta si es
+     * nueva (<code>id=0</code>, para obtener la FK) o la actualiza si ya
+     * existe.
+     *
+     * @param historia La HC ya validada (puede ser <code>null</code>).
+     * @param tx       La transacción en curso.
+     * @throws SQLException Si falla la escritura.
+     */
+    private void writeHistoriaTx(HistoriaClinica historia, TransactionManager tx) throws SQLException {
+        if (historia == null) {
+            return;
+        }
+        if (historia.getId() == 0) {
+            historiaClinicaService.insertTx(historia, tx);
+        } else {
+            historiaClinicaService.updateTx(historia, tx);
+        }
+    }
+
+    /**
+     * Traduce la violación de una restricción <code>UNIQUE</code> al
+     * escribir un paciente (y su HC nueva) a la excepción de negocio
+     * correspondiente.
+     *
+     * @param paciente El paciente rechazado.
+     * @param cause    La excepción original de la BD.
+     * @return La excepción a lanzar.
+     */
+    private static DuplicateEntityException duplicatePaciente(Paciente paciente, Exception cause) {
+        String key = ConstraintViolations.violatedKey(cause);
+        if ("historia_clinica_id".equals(key)) {
+            return new DuplicateEntityException("La Historia Clínica ya está asignada a otro paciente.", cause);
+        }
+        if ("nro_historia".equals(key) && paciente.getHistoriaClinica() != null) {
+            return new DuplicateEntityException("Ya existe una Historia Clínica con el número: "
+                    + paciente.getHistoriaClinica().getNumeroHistoria(), cause);
+        }
+        return new DuplicateEntityException(
+                "Ya existe un paciente registrado con el DNI " + paciente.getDni() + ".", cause);
+    }
+
+    // =============================================================
+    // MÉTODOS HELPER (Carga masiva)
+    // =============================================================
+
+    /**
+     * Inserta un bloque de pacientes (HC nuevas primero) en una unidad de
+     * trabajo ({@link TransactionManager#begin()}). Si el bloque falla, se
+     * revierte y se reintenta fila por fila, con una unidad de trabajo por
+     * fila.
+     *
+     * @param pacientes  La lista de entrada completa.
+     * @param indices    Las posiciones (en <code>pacientes</code>) del bloque.
+     * @param rechazados Lista donde se registran las filas rechazadas.
+     * @return La cantidad de pacientes insertados.
+     * @throws SQLException Si no se puede obtener una conexión o se pierde la
+     *                      comunicación con la BD.
+     */
+    private int insertChunk(List<Paciente> pacientes, List<Integer> indices,
+            List<BulkInsertResult.Rejected> rechazados) throws SQLException {
+
+        List<Paciente> bloque = new ArrayList<>(indices.size());
+        for (int indice : indices) {
+            bloque.add(pacientes.get(indice));
+        }
+        List<HistoriaClinica> historiasNuevas = newHistorias(bloque);
+
+        try (TransactionManager tx = TransactionManager.begin()) {
+            try {
+                historiaClinicaService.insertBatchTx(historiasNuevas, tx);
+                pacienteDAO.insertBatch(bloque, tx.getConnection());
+                tx.commit();
+                return bloque.size();
+
+            } catch (SQLException e) {
+                tx.rollback();
+                resetIds(bloque, historiasNuevas);
+                if (isConnectionLost(e)) {
+                    throw e; // El reintento fila por fila fallaría igual
+                }
+            }
+        }
+
+        // Reintento fila por fila para aislar las filas que violan restricciones
+        int insertados = 0;
+        for (int indice : indices) {
+            Paciente paciente = pacientes.get(indice);
+            List<HistoriaClinica> historiaNueva = newHistorias(List.of(paciente));
+            try (TransactionManager tx = TransactionManager.begin()) {
+                try {
+                    historiaClinicaService.insertBatchTx(historiaNueva, tx);
+                    pacienteDAO.insertTx(paciente, tx.getConnection());
+                    tx.commit();
+                    insertados++;
+
+                } catch (SQLException e) {
+                    tx.rollback();
+                    resetIds(List.of(paciente), historiaNueva);
+                    if (isConnectionLost(e)) {
+                        throw e;
+                    }
+                    String motivo = ConstraintViolations.isDuplicateKey(e)
+                            ? duplicatePaciente(paciente, e).getMessage()
+                            : e.getMessage();
+                    rechazados.add(new BulkInsertResult.Rejected(indice, paciente.getDni(), motivo));
                 }
             }
-        } catch (SQLException e) {
-            throw new ServiceException("Error al validar unicidad de DNI: " + e.getMessage(), e);
         }
+        return insertados;
+    }
+
+    /**
+     * Normaliza un DNI como se guarda en la BD: sin espacios, puntos ni
+     * guiones (ej: <code>"36.200.193"</code> → <code>"36200193"</code>).
+     *
+     * @param dni El DNI ingresado (no nulo).
+     * @return El DNI normalizado.
+     */
+    private static String normalizeDni(String dni) {
+        return dni.replaceAll("[ .-]", "");
+    }
+
+    /**
+     * Indica si el error es de comunicación con la BD (SQLState 08xxx), en
+     * cuyo caso la carga masiva se interrumpe en lugar de rechazar la fila.
+     *
+     * @param e La excepción de la BD.
+     * @return <code>true</code> si se perdió la conexión.
+     */
+    private static boolean isConnectionLost(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("08");
+    }
+
+    /**
+     * Devuelve las historias clínicas nuevas (<code>id=0</code>) de los
+     * pacientes recibidos.
+     *
+     * @param pacientes Los pacientes.
+     * @return Las HC que deben insertarse.
+     */
+    private static List<HistoriaClinica> newHistorias(List<Paciente> pacientes) {
+        List<HistoriaClinica> historias = new ArrayList<>();
+        for (Paciente paciente : pacientes) {
+            HistoriaClinica hc = paciente.getHistoriaClinica();
+            if (hc != null && hc.getId() == 0) {
+                historias.add(hc);
+            }
+        }
+        return historias;
+    }
+
+    /**
+     * Vuelve a <code>id=0</code> las entidades de un bloque revertido (sus IDs
+     * generados dejaron de existir en la BD tras el rollback).
+     *
+     * @param pacientes Los pacientes del bloque.
+     * @param historias Las HC nuevas del bloque.
+     */
+    private static void resetIds(List<Paciente> pacientes, List<HistoriaClinica> historias) {
+        pacientes.forEach(paciente -> paciente.setId(0));
+        historias.forEach(hc -> hc.setId(0));
     }
 
     // =============================================================
@@ -382,8 +982,15 @@ public class PacienteService implements GenericService<Paciente> {
             }
 
             paciente.setHistoriaClinica(null);
-            pacienteDAO.update(paciente);
-            historiaClinicaService.delete(historiaClinicaId);
+            RoundTripCounter viajes = new RoundTripCounter();
+            viajes.add(1); // La lectura previa usa su propia conexión
+            try (TransactionManager tx = TransactionManager.begin(viajes)) {
+                pacienteDAO.updateTx(paciente, tx.getConnection());
+                historiaClinicaService.deleteTx(historiaClinicaId, tx);
+                tx.afterCommit(() -> pacienteCache.invalidate(pacienteId));
+                tx.commit();
+            }
+            recordRoundTrips("deleteHistoriaClinica", viajes);
 
         } catch (SQLException e) {
             throw new ServiceException("Error al eliminar historia clínica de forma segura: " + e.getMessage(), e);
@@ -0,0 +1,46 @@
+package service;
+
+/**
+ * Viajes a la base de datos acumulados por una operación de escritura de un
+ * servicio (ej: <code>"insert"</code>).
+ * <p>
+ * Cada operación cuenta los viajes de su unidad de trabajo con un
+ * {@link config.RoundTripCounter}; esta instantánea permite comparar los
+ * modos de escritura ({@link WriteMode}) por su costo en viajes de red.
+ * </p>
+ *
+ * @param operation      Nombre de la operación.
+ * @param calls          Cantidad de operaciones completadas.
+ * @param roundTrips     Total de viajes de esas operaciones.
+ * @param lastRoundTrips Viajes de la última operación completada.
+ * @author alpha team
+ * @see PacienteService#getRoundTripStats()
+ */
+public record RoundTripStats(String operation, long calls, long roundTrips, int lastRoundTrips) {
+
+    /**
+     * Devuelve el promedio de viajes por operación.
+     *
+     * @return Viajes por llamada (0 si no hubo llamadas).
+     */
+    public double averageRoundTrips() {
+        return calls == 0 ? 0 : (double) roundTrips / calls;
+    }
+
+    /**
+     * Acumula una nueva medición (usado con <code>Map.merge</code>).
+     *
+     * @param other La medición de una operación.
+     * @return Las estadísticas acumuladas.
+     */
+    RoundTripStats plus(RoundTripStats other) {
+        return new RoundTripStats(operation, calls + other.calls, roundTrips + other.roundTrips,
+                other.lastRoundTrips);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d operaciones, %.1f viajes promedio (última: %d)",
+                operation, calls, averageRoundTrips(), lastRoundTrips);
+    }
+}
@@ -0,0 +1,69 @@
+package service;
+
+import config.DatabaseConnection;
+
+/**
+ * Estrategia usada por {@link PacienteService} para enviar a la BD el alta de
+ * un paciente.
+ * <p>
+ * Se configura con la clave <code>db.write.mode</code> de
+ * <code>db.properties</code> (<code>transaction</code> por defecto).
+ * </p>
+ *
+ * <h3>Modos:</h3>
+ * <ul>
+ * <li>{@link #TRANSACTION}: una transacción JDBC con una sentencia por viaje
+ * (<code>SET autocommit</code>, <code>INSERT</code> HC, <code>INSERT</code>
+ * Paciente, <code>COMMIT</code>, <code>SET autocommit</code>).</li>
+ * <li>{@link #PIPELINE}: el alta de un paciente con su HC nueva se envía como
+ * un único <code>CALL</code> al procedimiento
+ * <code>sp_insertar_paciente_con_historia</code>, que encadena los
+ * <code>INSERT</code> con <code>LAST_INSERT_ID()</code> del lado del servidor
+ * (un viaje). Un paciente sin HC se inserta con un único <code>INSERT</code>
+ * en <code>autoCommit</code>. Si la BD no tiene el procedimiento, se usa
+ * {@link #TRANSACTION}.</li>
+ * </ul>
+ *
+ * @author alpha team
+ * @see RoundTripStats
+ * @see dao.PacienteDAO#insertWithHistoria(models.Paciente, java.sql.Connection)
+ */
+public enum WriteMode {
+
+    TRANSACTION("transacción JDBC (una sentencia por viaje)"),
+    PIPELINE("procedimiento almacenado (un viaje por alta)");
+
+    private final String descripcion;
+
+    WriteMode(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Lee el modo configurado en <code>db.write.mode</code>
+     * (<code>transaction</code> o <code>pipeline</code>, sin distinguir
+     * mayúsculas).
+     *
+     * @return El modo configurado.
+     * @throws IllegalArgumentException Si el valor no es un modo válido.
+     */
+    public static WriteMode fromConfig() {
+        String valor = DatabaseConnection.getProperty("db.write.mode", "transaction").trim();
+        for (WriteMode modo : values()) {
+            if (modo.name().equalsIgnoreCase(valor)) {
+                return modo;
+            }
+        }
+        throw new IllegalArgumentException("db.write.mode inválido: " + valor
+                + " (valores posibles: transaction, pipeline).");
+    }
+
+    /**
+     * Devuelve la descripción legible del modo.
+     *
+     * @return La descripción.
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -1,8 +1,10 @@
 package views;
 
+import dao.GrupoSanguineoCatalog;
 import dao.HistoriaClinicaDAO;
 import dao.PacienteDAO;
 import java.util.Scanner;
+import metrics.Instrumented;
 import service.HistoriaClinicaService;
 import service.PacienteService;
 import views.historias.HistoriaMenu;
@@ -82,15 +84,20 @@ public class AppMenu {
         this.running = true;
 
         // 2. Crear Capa DAO (Acceso a Datos)
-        HistoriaClinicaDAO historiaClinicaDAO = new HistoriaClinicaDAO();
+        HistoriaClinicaDAO historiaClinicaDAO = Instrumented.historiaClinicaDAO();
         // PacienteDAO depende de HistoriaClinicaDAO
-        PacienteDAO pacienteDAO = new PacienteDAO(historiaClinicaDAO);
+        PacienteDAO pacienteDAO = Instrumented.pacienteDAO(historiaClinicaDAO);
+        // El catálogo de Grupos Sanguíneos se carga una sola vez (Enum -> ID);
+        // el backend en memoria no usa la tabla GrupoSanguineo
+        if (!Instrumented.isMemoryBackend()) {
+            GrupoSanguineoCatalog.shared().preload();
+        }
 
         // 3. Crear Capa Service (Lógica de Negocio)
         // HistoriaClinicaService depende de HistoriaClinicaDAO
-        HistoriaClinicaService historiaClinicaService = new HistoriaClinicaService(historiaClinicaDAO);
+        HistoriaClinicaService historiaClinicaService = Instrumented.historiaClinicaService(historiaClinicaDAO);
         // PacienteService depende de PacienteDAO y HistoriaClinicaService
-        PacienteService pacienteService = new PacienteService(pacienteDAO, historiaClinicaService);
+        PacienteService pacienteService = Instrumented.pacienteService(pacienteDAO, historiaClinicaService);
 
         // 4. Crear Capa de Vistas (Clases "Tontas" - I/O)
         // Las vistas solo saben cómo imprimir y escanear
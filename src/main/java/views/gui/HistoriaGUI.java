@@ -9,6 +9,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 
+import dao.Page;
 import exceptions.DuplicateEntityException;
 import exceptions.ServiceException;
 import exceptions.ValidationException;
@@ -49,6 +50,11 @@ public class HistoriaGUI {
     private final PacienteService pacienteService;
     private final JFrame parentFrame;
 
+    /**
+     * Cantidad de historias clínicas que se muestran por página en los listados.
+     */
+    private static final int PAGE_SIZE = 50;
+
     /**
      * Constructor que inyecta las dependencias de servicio necesarias.
      * <p>
@@ -104,8 +110,7 @@ public class HistoriaGUI {
 
             switch (choice) {
                 case 0: // Listar Todas
-                    historias = historiaClinicaService.selectAll(false); // false = NO eliminadas
-                    mostrarHistoriasGUI(historias, "Listado de Historias Clínicas Activas");
+                    listarPaginadoGUI(false, "Listado de Historias Clínicas Activas"); // false = NO eliminadas
                     break;
                 case 1: // Buscar por ID
                     Integer id = this.solicitarIdHistoriaGUI("buscar");
@@ -305,8 +310,8 @@ public class HistoriaGUI {
                 HistoriaClinica hcParaAsignar = null;
 
                 switch (choice) {
-                    case 0: // Crear Nueva
-                        hcParaAsignar = this.handleCrearHistoria();
+                    case 0: // Crear Nueva (se inserta junto con la FK del paciente)
+                        hcParaAsignar = this.solicitarNuevaHistoria();
                         break;
                     case 1: // Asignar Existente
                         Integer hcId = this.solicitarIdHistoriaGUI("asignar");
@@ -379,8 +384,7 @@ public class HistoriaGUI {
      */
     public void handleListarHistoriasEliminadas() {
         try {
-            List<HistoriaClinica> historias = historiaClinicaService.selectAll(true); // true = SÍ eliminadas
-            mostrarHistoriasGUI(historias, "Listado de Historias Clínicas Eliminadas");
+            listarPaginadoGUI(true, "Listado de Historias Clínicas Eliminadas"); // true = SÍ eliminadas
         } catch (Exception e) {
             mostrarError("Error al listar HCs eliminadas: " + e.getMessage());
         }
@@ -409,8 +413,8 @@ public class HistoriaGUI {
     /**
      * Método helper reutilizable para crear una Historia Clínica.
      * <p>
-     * Es llamado internamente (Opción 6, 9) y externamente por
-     * {@link PacienteGUI} (Opción 2, 3).
+     * Es llamado internamente (Opción 6). Para una HC que se guarda junto con
+     * un paciente, ver {@link #solicitarNuevaHistoria()}.
      * </p>
      * <p>
      * <b>Flujo:</b>
@@ -446,6 +450,35 @@ public class HistoriaGUI {
         return nuevaHc;
     }
 
+    /**
+     * Método helper reutilizable para pedir una Historia Clínica <b>nueva</b>
+     * que se guardará junto con un paciente.
+     * <p>
+     * Es llamado internamente (Opción 9) y externamente por
+     * {@link PacienteGUI} (Opción 2, 3). A diferencia de
+     * {@link #handleCrearHistoria()}, <b>no</b> persiste la HC: solo la
+     * valida. <code>PacienteService</code> la inserta en la misma transacción
+     * que el paciente.
+     * </p>
+     *
+     * @return La {@link HistoriaClinica} validada (con <code>id=0</code>), o
+     *         <code>null</code> si el usuario canceló la operación.
+     * @throws ValidationException Si la HC no cumple las RN.
+     */
+    public HistoriaClinica solicitarNuevaHistoria() throws ValidationException {
+
+        // 1. Vista: Obtener datos "crudos"
+        HistoriaClinica nuevaHc = this.solicitarDatosHistoriaGUI();
+
+        if (nuevaHc == null) {
+            return null; // Usuario canceló
+        }
+
+        // 2. Servicio: Validar (RN) sin persistir
+        historiaClinicaService.validateEntity(nuevaHc);
+        return nuevaHc;
+    }
+
     // ============ MÉTODOS HELPER (Vistas de GUI) ============
 
     /**
@@ -455,9 +488,46 @@ public class HistoriaGUI {
      * @param titulo    El título de la ventana.
      */
     private void mostrarHistoriasGUI(List<HistoriaClinica> historias, String titulo) {
+        mostrarHistoriasGUI(historias, titulo, false);
+    }
+
+    /**
+     * Muestra el listado de historias clínicas página por página, pidiendo cada
+     * página al servicio solo cuando el usuario presiona "Página siguiente".
+     *
+     * @param deleted <code>false</code> para activas, <code>true</code> para
+     *                eliminadas.
+     * @param titulo  El título base de la ventana.
+     * @throws Exception Si el servicio falla.
+     */
+    private void listarPaginadoGUI(boolean deleted, String titulo) throws Exception {
+        HistoriaClinica ultima = null;
+        int nroPagina = 1;
+        boolean siguiente;
+
+        do {
+            Page<HistoriaClinica> pagina = historiaClinicaService.selectPage(ultima, PAGE_SIZE, deleted);
+            siguiente = mostrarHistoriasGUI(pagina.items(), titulo + " (página " + nroPagina + ")",
+                    pagina.hasNext());
+            ultima = pagina.last();
+            nroPagina++;
+        } while (siguiente);
+    }
+
+    /**
+     * Muestra una lista de historias clínicas y, si hay más resultados, ofrece
+     * pasar a la página siguiente.
+     *
+     * @param historias    La lista de historias a mostrar.
+     * @param titulo       El título de la ventana.
+     * @param haySiguiente <code>true</code> para mostrar el botón "Página
+     *                     siguiente".
+     * @return <code>true</code> si el usuario pidió la página siguiente.
+     */
+    private boolean mostrarHistoriasGUI(List<HistoriaClinica> historias, String titulo, boolean haySiguiente) {
         if (historias == null || historias.isEmpty()) {
             mostrarExito("No se encontraron historias clínicas.");
-            return;
+            return false;
         }
 
         StringBuilder sb = new StringBuilder();
@@ -475,11 +545,24 @@ public class HistoriaGUI {
         JScrollPane scrollPane = new JScrollPane(textArea);
         scrollPane.setPreferredSize(new Dimension(500, 300));
 
-        JOptionPane.showMessageDialog(
+        if (!haySiguiente) {
+            JOptionPane.showMessageDialog(
+                    this.parentFrame, // JFrame padre
+                    scrollPane,
+                    titulo,
+                    JOptionPane.INFORMATION_MESSAGE);
+            return false;
+        }
+
+        Object[] options = { "Página siguiente", "Cerrar" };
+        int choice = JOptionPane.showOptionDialog(
                 this.parentFrame, // JFrame padre
                 scrollPane,
                 titulo,
-                JOptionPane.INFORMATION_MESSAGE);
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.INFORMATION_MESSAGE,
+                null, options, options[0]);
+        return choice == 0;
     }
 
     /**
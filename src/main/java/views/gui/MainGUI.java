@@ -3,8 +3,10 @@ package views.gui;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 
+import dao.GrupoSanguineoCatalog;
 import dao.HistoriaClinicaDAO;
 import dao.PacienteDAO;
+import metrics.Instrumented;
 import service.HistoriaClinicaService; // Necesario para el JOptionPane
 import service.PacienteService; // Necesario para el JScrollPane
 
@@ -60,13 +62,18 @@ public class MainGUI {
         this.parentFrame = parentFrame;
 
         // 1. Crear Capa DAO
-        HistoriaClinicaDAO historiaClinicaDAO = new HistoriaClinicaDAO();
-        PacienteDAO pacienteDAO = new PacienteDAO(historiaClinicaDAO);
+        HistoriaClinicaDAO historiaClinicaDAO = Instrumented.historiaClinicaDAO();
+        PacienteDAO pacienteDAO = Instrumented.pacienteDAO(historiaClinicaDAO);
+        // El catálogo de Grupos Sanguíneos se carga una sola vez (Enum -> ID);
+        // el backend en memoria no usa la tabla GrupoSanguineo
+        if (!Instrumented.isMemoryBackend()) {
+            GrupoSanguineoCatalog.shared().preload();
+        }
 
         // 2. Crear Capa Service
-        HistoriaClinicaService historiaClinicaService = new HistoriaClinicaService(historiaClinicaDAO);
+        HistoriaClinicaService historiaClinicaService = Instrumented.historiaClinicaService(historiaClinicaDAO);
         // PacienteService necesita ambos servicios para la coordinación
-        PacienteService pacienteService = new PacienteService(pacienteDAO, historiaClinicaService);
+        PacienteService pacienteService = Instrumented.pacienteService(pacienteDAO, historiaClinicaService);
 
         // 3. Crear Handlers de GUI
         // Inyectar servicios
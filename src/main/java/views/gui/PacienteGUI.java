@@ -12,11 +12,14 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextArea; // Necesario para el JScrollPane
 import javax.swing.JTextField;
 
+import dao.Page;
+import dao.SearchResult;
 import exceptions.DuplicateEntityException;
 import exceptions.ServiceException;
 import exceptions.ValidationException;
 import models.HistoriaClinica;
 import models.Paciente;
+import models.PacienteResumen;
 import service.PacienteService;
 
 /**
@@ -49,6 +52,11 @@ public class PacienteGUI {
     private final HistoriaGUI historiaGUI; // Dependencia para HU-001 y HU-003
     private final JFrame parentFrame;
 
+    /**
+     * Cantidad de pacientes que se muestran por página en los listados.
+     */
+    private static final int PAGE_SIZE = 50;
+
     /**
      * Constructor que inyecta las dependencias necesarias.
      *
@@ -130,9 +138,12 @@ public class PacienteGUI {
      * <ol>
      * <li>Llama a <code>solicitarDatosPacienteGUI()</code>.</li>
      * <li>Si el usuario cancela, la operación termina.</li>
+     * <li>Verifica con <code>pacienteService.existsByDni()</code> que el DNI
+     * no esté registrado, para no crear una HC para un paciente que será
+     * rechazado.</li>
      * <li>Llama a <code>solicitarConfirmacionGUI()</code> para "Agregar HC".</li>
-     * <li>Si confirma, delega a <code>historiaGUI.handleCrearHistoria()</code>
-     * para crear la HC y la asocia al paciente.</li>
+     * <li>Si confirma, delega a <code>historiaGUI.solicitarNuevaHistoria()</code>
+     * para pedir la HC y la asocia al paciente.</li>
      * <li>Llama a <code>pacienteService.insert()</code>.</li>
      * <li>Muestra éxito o error.</li>
      * </ol>
@@ -147,13 +158,19 @@ public class PacienteGUI {
                 return;
             }
 
+            // Aviso temprano de DNI repetido (la garantía es la restricción UNIQUE)
+            if (pacienteService.existsByDni(nuevoPaciente.getDni())) {
+                mostrarError("Ya existe un paciente registrado con el DNI " + nuevoPaciente.getDni() + ".");
+                return;
+            }
+
             // 2. Vista: Confirmar si se agrega HC
             if (this.solicitarConfirmacionGUI("¿Desea agregar una Historia Clínica ahora?")) {
                 // 3. Delegar creación de HC al sub-controlador de Historias
-                HistoriaClinica nuevaHc = historiaGUI.handleCrearHistoria();
+                // La HC se devuelve sin persistir: se inserta junto con el paciente
+                HistoriaClinica nuevaHc = historiaGUI.solicitarNuevaHistoria();
                 if (nuevaHc != null) {
                     nuevoPaciente.setHistoriaClinica(nuevaHc);
-                    mostrarExito("Historia Clínica (ID: " + nuevaHc.getId() + ") creada y lista para asociar.");
                 } else {
                     mostrarError("Creación de HC cancelada. Se creará el paciente sin HC.");
                 }
@@ -194,26 +211,25 @@ public class PacienteGUI {
                     JOptionPane.QUESTION_MESSAGE,
                     null, options, options[0]);
 
-            List<Paciente> pacientes;
-
             switch (choice) {
                 case 0: // Listar Todos
-                    pacientes = pacienteService.selectAll(false); // false = NO eliminados
-                    mostrarPacientesGUI(pacientes, "Listado de Pacientes Activos");
+                    listarPaginadoGUI(false, "Listado de Pacientes Activos"); // false = NO eliminados
                     break;
                 case 1: // Buscar por DNI
                     String dni = this.solicitarDniGUI();
                     if (dni == null)
                         return; // Cancelado
                     Paciente p = pacienteService.selectByDni(dni);
-                    mostrarPacientesGUI(p != null ? List.of(p) : List.of(), "Resultado de Búsqueda por DNI");
+                    mostrarPacientesGUI(p != null ? List.of(PacienteResumen.of(p)) : List.of(),
+                            "Resultado de Búsqueda por DNI");
                     break;
                 case 2: // Buscar por Filtro
                     String filtro = this.solicitarFiltroBusquedaGUI();
                     if (filtro == null)
                         return; // Cancelado
-                    pacientes = pacienteService.searchByFilter(filtro);
-                    mostrarPacientesGUI(pacientes, "Resultado de Búsqueda por Filtro");
+                    SearchResult<PacienteResumen> resultado = pacienteService.searchResumen(filtro);
+                    mostrarPacientesGUI(resultado.items(),
+                            "Resultado de Búsqueda por Filtro (" + resultado.mode().getDescripcion() + ")");
                     break;
                 case 3: // Cancelar
                 default:
@@ -234,7 +250,7 @@ public class PacienteGUI {
      * <li>Muestra los datos actuales y pide los nuevos
      * (<code>solicitarDatosActualizacionGUI</code>).</li>
      * <li>Si el paciente no tiene HC, pregunta si se desea agregar una
-     * (reutilizando <code>historiaGUI.handleCrearHistoria()</code>).</li>
+     * (reutilizando <code>historiaGUI.solicitarNuevaHistoria()</code>).</li>
      * <li>Llama a <code>pacienteService.update()</code>.</li>
      * </ol>
      * </p>
@@ -263,10 +279,9 @@ public class PacienteGUI {
             // 4. Lógica de HU-003: Agregar HC si no tiene
             if (pacienteActualizado.getHistoriaClinica() == null) {
                 if (this.solicitarConfirmacionGUI("Este paciente no tiene HC. ¿Desea agregar una ahora?")) {
-                    HistoriaClinica nuevaHc = historiaGUI.handleCrearHistoria();
+                    HistoriaClinica nuevaHc = historiaGUI.solicitarNuevaHistoria();
                     if (nuevaHc != null) {
-                        pacienteActualizado.setHistoriaClinica(nuevaHc);
-                        mostrarExito("Nueva Historia Clínica (ID: " + nuevaHc.getId() + ") asignada.");
+                        pacienteActualizado.setHistoriaClinica(nuevaHc); // Se inserta junto con la actualización
                     }
                 }
             }
@@ -320,8 +335,7 @@ public class PacienteGUI {
      */
     public void handleListarPacientesEliminados() {
         try {
-            List<Paciente> pacientes = pacienteService.selectAll(true); // true = SÍ eliminados
-            mostrarPacientesGUI(pacientes, "Listado de Pacientes Eliminados");
+            listarPaginadoGUI(true, "Listado de Pacientes Eliminados"); // true = SÍ eliminados
         } catch (Exception e) {
             mostrarError("Error al listar pacientes eliminados: " + e.getMessage());
         }
@@ -360,27 +374,64 @@ public class PacienteGUI {
      * @param pacientes La lista de pacientes a mostrar.
      * @param titulo    El título de la ventana.
      */
-    private void mostrarPacientesGUI(List<Paciente> pacientes, String titulo) {
+    private void mostrarPacientesGUI(List<PacienteResumen> pacientes, String titulo) {
+        mostrarPacientesGUI(pacientes, titulo, false);
+    }
+
+    /**
+     * Muestra el listado de pacientes página por página, pidiendo cada página
+     * al servicio solo cuando el usuario presiona "Página siguiente"
+     * (paginación por clave: cada página cuesta lo mismo que la primera).
+     *
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @param titulo  El título base de la ventana.
+     * @throws Exception Si el servicio falla.
+     */
+    private void listarPaginadoGUI(boolean deleted, String titulo) throws Exception {
+        PacienteResumen ultimo = null;
+        int nroPagina = 1;
+        boolean siguiente;
+
+        do {
+            Page<PacienteResumen> pagina = pacienteService.selectResumenPage(ultimo, PAGE_SIZE, deleted);
+            siguiente = mostrarPacientesGUI(pagina.items(), titulo + " (página " + nroPagina + ")",
+                    pagina.hasNext());
+            ultimo = pagina.last();
+            nroPagina++;
+        } while (siguiente);
+    }
+
+    /**
+     * Muestra una lista de pacientes y, si hay más resultados, ofrece pasar a
+     * la página siguiente.
+     *
+     * @param pacientes    La lista de pacientes a mostrar.
+     * @param titulo       El título de la ventana.
+     * @param haySiguiente <code>true</code> para mostrar el botón "Página
+     *                     siguiente".
+     * @return <code>true</code> si el usuario pidió la página siguiente.
+     */
+    private boolean mostrarPacientesGUI(List<PacienteResumen> pacientes, String titulo, boolean haySiguiente) {
         if (pacientes == null || pacientes.isEmpty()) {
             mostrarExito("No se encontraron pacientes.");
-            return;
+            return false;
         }
 
         // Construir un String largo con todos los datos
         StringBuilder sb = new StringBuilder();
-        for (Paciente p : pacientes) {
-            sb.append(String.format("ID: %d | DNI: %s\n", p.getId(), p.getDni()));
-            sb.append(String.format("Nombre: %s, %s\n", p.getApellido(), p.getNombre()));
+        for (PacienteResumen p : pacientes) {
+            sb.append(String.format("ID: %d | DNI: %s\n", p.id(), p.dni()));
+            sb.append(String.format("Nombre: %s, %s\n", p.apellido(), p.nombre()));
 
-            if (p.getFechaNacimiento() != null) {
-                int edad = Period.between(p.getFechaNacimiento(), LocalDate.now()).getYears();
-                sb.append(String.format("Fecha Nac: %s (%d años)\n", p.getFechaNacimiento(), edad));
+            if (p.fechaNacimiento() != null) {
+                int edad = Period.between(p.fechaNacimiento(), LocalDate.now()).getYears();
+                sb.append(String.format("Fecha Nac: %s (%d años)\n", p.fechaNacimiento(), edad));
             }
 
-            HistoriaClinica hc = p.getHistoriaClinica();
-            if (hc != null) {
-                sb.append(String.format("  HC Nro: %s (ID: %d)\n", hc.getNumeroHistoria(), hc.getId()));
-                sb.append(String.format("  Grupo: %s\n", hc.getGrupoSanguineo()));
+            if (p.hasHistoriaClinica()) {
+                sb.append(String.format("  HC Nro: %s (ID: %d)\n", p.nroHistoria(), p.historiaClinicaId()));
+                sb.append(String.format("  Grupo: %s\n", p.grupoSanguineo()));
             } else {
                 sb.append("  HC: Sin Historia Clínica\n");
             }
@@ -394,11 +445,24 @@ public class PacienteGUI {
         scrollPane.setPreferredSize(new Dimension(500, 300));
 
         // Mostrar el JScrollPane dentro de un JOptionPane
-        JOptionPane.showMessageDialog(
+        if (!haySiguiente) {
+            JOptionPane.showMessageDialog(
+                    this.parentFrame, // JFrame padre
+                    scrollPane,
+                    titulo,
+                    JOptionPane.INFORMATION_MESSAGE);
+            return false;
+        }
+
+        Object[] options = { "Página siguiente", "Cerrar" };
+        int choice = JOptionPane.showOptionDialog(
                 this.parentFrame, // JFrame padre
                 scrollPane,
                 titulo,
-                JOptionPane.INFORMATION_MESSAGE);
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.INFORMATION_MESSAGE,
+                null, options, options[0]);
+        return choice == 0;
     }
 
     /**
@@ -521,7 +585,7 @@ public class PacienteGUI {
     private String solicitarFiltroBusquedaGUI() {
         String filtro = JOptionPane.showInputDialog(
                 this.parentFrame, // JFrame padre
-                "Ingrese el texto a buscar (por nombre o apellido):",
+                "Ingrese el texto a buscar (por nombre o apellido).\nTermine en * para buscar por prefijo (ej: Gonz*):",
                 "Buscar por Filtro",
                 JOptionPane.QUESTION_MESSAGE);
         return (filtro != null) ? filtro.trim() : null;
@@ -1,6 +1,8 @@
 package views.historias;
 
 import java.util.List;
+
+import dao.Page;
 import models.HistoriaClinica;
 import models.Paciente;
 import service.HistoriaClinicaService;
@@ -39,6 +41,11 @@ public class HistoriaMenu {
     private final HistoriaClinicaService historiaClinicaService;
     private final PacienteService pacienteService; // Necesario para asignar/gestionar HC de pacientes
 
+    /**
+     * Cantidad de historias clínicas que se muestran por página en los listados.
+     */
+    private static final int PAGE_SIZE = 20;
+
     /**
      * Constructor que inyecta las dependencias necesarias.
      * <p>
@@ -97,9 +104,8 @@ public class HistoriaMenu {
 
             switch (subopcion) {
                 case 1 -> {
-                    // Listar todas
-                    historias = historiaClinicaService.selectAll(false); // false = NO eliminadas
-                    historiaView.mostrarHistorias(historias);
+                    // Listar todas (paginado)
+                    listarPaginado(false); // false = NO eliminadas
                 }
                 case 2 -> {
                     // Buscar por ID
@@ -249,7 +255,7 @@ public class HistoriaMenu {
      * <li><b>Caso 2: Paciente NO TIENE HC.</b>
      * <ul>
      * <li>Muestra submenú: "1. Crear Nueva" o "2. Asignar Existente".</li>
-     * <li><b>Caso 2.1:</b> Llama a <code>handleCrearHistoria()</code>
+     * <li><b>Caso 2.1:</b> Llama a <code>solicitarNuevaHistoria()</code>
      * y asigna la nueva HC al paciente.</li>
      * <li><b>Caso 2.2:</b> Pide ID de HC, la busca con
      * <code>historiaClinicaService.selectById()</code> y la asigna.</li>
@@ -298,7 +304,8 @@ public class HistoriaMenu {
 
                 if (subopcion == 1) {
                     // 2.1: Crear Nueva
-                    hcParaAsignar = this.handleCrearHistoria(); // Llama al método reutilizable
+                    // La HC se inserta junto con la FK del paciente (una transacción)
+                    hcParaAsignar = this.solicitarNuevaHistoria();
                 } else if (subopcion == 2) {
                     // 2.2: Asignar Existente
                     int hcId = historiaView.solicitarIdHistoria("asignar");
@@ -378,15 +385,40 @@ public class HistoriaMenu {
      */
     public void handleListarHistoriasEliminadas() {
         try {
-            // 1. Servicio: Llamar a selectAll(true)
-            List<HistoriaClinica> historias = historiaClinicaService.selectAll(true); // true = SÍ eliminadas
-            // 2. Vista: Mostrar la lista
-            historiaView.mostrarHistorias(historias);
+            // Servicio + Vista: mostrar página por página
+            listarPaginado(true); // true = SÍ eliminadas
         } catch (Exception e) {
             historiaView.mostrarError(e.getMessage());
         }
     }
 
+    /**
+     * Muestra el listado de historias clínicas de a {@value #PAGE_SIZE} por
+     * vez, pidiendo cada página al servicio solo cuando el usuario la solicita.
+     *
+     * @param deleted <code>false</code> para activas, <code>true</code> para
+     *                eliminadas.
+     * @throws Exception Si el servicio falla.
+     */
+    private void listarPaginado(boolean deleted) throws Exception {
+        HistoriaClinica ultima = null;
+        int nroPagina = 1;
+
+        while (true) {
+            Page<HistoriaClinica> pagina = historiaClinicaService.selectPage(ultima, PAGE_SIZE, deleted);
+            if (nroPagina > 1 || !pagina.isEmpty()) {
+                System.out.println("\n--- Página " + nroPagina + " ---\n");
+            }
+            historiaView.mostrarHistorias(pagina.items());
+
+            if (!pagina.hasNext() || !historiaView.solicitarConfirmacion("¿Ver la página siguiente?")) {
+                return;
+            }
+            ultima = pagina.last();
+            nroPagina++;
+        }
+    }
+
     /**
      * Orquesta la recuperación (lógica) de una HC (Opción 11.4).
      *
@@ -413,9 +445,9 @@ public class HistoriaMenu {
      * Este método es llamado por:
      * <ul>
      * <li><code>handleCrearHistoriaIndependiente()</code> (Opción 6)</li>
-     * <li><code>PacienteMenu.handleCrearPaciente()</code> (Opción 2)</li>
-     * <li><code>handleGestionarHistoriaPorPaciente()</code> (Opción 9.1)</li>
      * </ul>
+     * Para una HC que se guarda junto con un paciente, ver
+     * {@link #solicitarNuevaHistoria()}.
      * </p>
      * <p>
      * <b>Flujo:</b>
@@ -450,4 +482,40 @@ public class HistoriaMenu {
             return null; // Indicar que la creación falló
         }
     }
+
+    /**
+     * Método helper reutilizable para pedir una Historia Clínica <b>nueva</b>
+     * que se guardará junto con un paciente.
+     * <p>
+     * Este método es llamado por:
+     * <ul>
+     * <li><code>PacienteMenu.handleCrearPaciente()</code> (Opción 2)</li>
+     * <li><code>PacienteMenu.handleActualizarPaciente()</code> (Opción 3)</li>
+     * <li><code>handleGestionarHistoriaPorPaciente()</code> (Opción 9.1)</li>
+     * </ul>
+     * </p>
+     * <p>
+     * A diferencia de {@link #handleCrearHistoria()}, <b>no</b> persiste la
+     * HC: solo la valida (RN-016, RN-017). <code>PacienteService</code> la
+     * inserta en la misma transacción que el paciente, de modo que no quedan
+     * HC huérfanas si el paciente es rechazado.
+     * </p>
+     *
+     * @return La {@link HistoriaClinica} validada (con <code>id=0</code>), o
+     *         <code>null</code> si los datos no son válidos.
+     */
+    public HistoriaClinica solicitarNuevaHistoria() {
+        try {
+            // 1. Vista: Obtener datos "crudos"
+            HistoriaClinica nuevaHc = historiaView.solicitarDatosHistoria();
+
+            // 2. Servicio: Validar (RN-016, RN-017) sin persistir
+            historiaClinicaService.validateEntity(nuevaHc);
+            return nuevaHc;
+
+        } catch (Exception e) {
+            historiaView.mostrarError(e.getMessage());
+            return null; // Indicar que la carga de datos falló
+        }
+    }
 }
\ No newline at end of file
@@ -257,6 +257,18 @@ public class HistoriaView {
         return scanner.nextLine().trim();
     }
 
+    /**
+     * Muestra un mensaje de confirmación genérico (Si/No).
+     *
+     * @param mensaje La pregunta a confirmar (ej: "¿Ver la página siguiente?").
+     * @return <code>true</code> si el usuario responde "s" o "S",
+     *         <code>false</code> en cualquier otro caso.
+     */
+    public boolean solicitarConfirmacion(String mensaje) {
+        System.out.printf("%s (s/n) -> ", mensaje);
+        return scanner.nextLine().trim().equalsIgnoreCase("s");
+    }
+
     /**
      * Muestra un mensaje de error al usuario.
      * Imprime en <code>System.err</code>.
@@ -2,8 +2,12 @@ package views.pacientes;
 
 import java.util.List;
 import java.util.Scanner;
+
+import dao.Page;
+import dao.SearchResult;
 import models.HistoriaClinica;
 import models.Paciente; // Se necesita para la lógica de "agregar HC"
+import models.PacienteResumen;
 import service.PacienteService;
 import views.historias.HistoriaMenu;
 
@@ -41,6 +45,11 @@ public class PacienteMenu {
     private final PacienteView pacienteView;
     private final HistoriaMenu historiaMenu; // Necesario para HU-003
 
+    /**
+     * Cantidad de pacientes que se muestran por página en los listados.
+     */
+    private static final int PAGE_SIZE = 20;
+
     /**
      * Constructor que inyecta las dependencias necesarias.
      *
@@ -82,13 +91,17 @@ public class PacienteMenu {
      * <ol>
      * <li>Llama a <code>pacienteView.solicitarDatosPaciente()</code> para
      * obtener un objeto Paciente "crudo".</li>
+     * <li>Verifica con <code>pacienteService.existsByDni()</code> que el DNI
+     * no esté registrado, para no crear una HC para un paciente que será
+     * rechazado.</li>
      * <li>Pregunta (usando <code>pacienteView</code>) si se desea
      * agregar una HC.</li>
      * <li>Si la respuesta es "s", delega a
-     * <code>historiaMenu.handleCrearHistoria()</code> para crear la HC
-     * y la asocia al paciente.</li>
+     * <code>historiaMenu.solicitarNuevaHistoria()</code> para pedir los datos
+     * de la HC y la asocia al paciente.</li>
      * <li>Llama a <code>pacienteService.insert()</code> con el objeto
-     * Paciente (que puede tener o no una HC).</li>
+     * Paciente (que puede tener o no una HC): ambos se insertan en una misma
+     * transacción.</li>
      * <li>Muestra éxito o error usando <code>pacienteView</code>.</li>
      * </ol>
      * </p>
@@ -98,14 +111,19 @@ public class PacienteMenu {
             // 1. Vista: Obtener datos "crudos" del Paciente
             Paciente nuevoPaciente = pacienteView.solicitarDatosPaciente();
 
+            // Aviso temprano de DNI repetido (la garantía es la restricción UNIQUE)
+            if (pacienteService.existsByDni(nuevoPaciente.getDni())) {
+                pacienteView.mostrarError("Ya existe un paciente registrado con el DNI " + nuevoPaciente.getDni() + ".");
+                return;
+            }
+
             // 2. Vista: Confirmar si se agrega HC
             if (pacienteView.solicitarConfirmacion("¿Desea agregar una Historia Clínica ahora?")) {
                 // 3. Delegar creación de HC al sub-controlador de Historias
-                // El método 'handleCrearHistoria' crea la HC y la devuelve
-                HistoriaClinica nuevaHc = historiaMenu.handleCrearHistoria();
+                // La HC se devuelve sin persistir: se inserta junto con el paciente
+                HistoriaClinica nuevaHc = historiaMenu.solicitarNuevaHistoria();
                 if (nuevaHc != null) {
                     nuevoPaciente.setHistoriaClinica(nuevaHc);
-                    pacienteView.mostrarExito("\nNueva Historia Clínica (ID: " + nuevaHc.getId() + ") creada.");
                 } else {
                     pacienteView.mostrarError("La creación de la Historia Clínica fue cancelada.");
                 }
@@ -132,9 +150,11 @@ public class PacienteMenu {
      * <li>Muestra un submenú (Listar todos, Buscar por DNI, Buscar por
      * Filtro).</li>
      * <li>Según la opción:</li>
-     * <li>a. Llama a <code>pacienteService.selectAll(false)</code>.</li>
+     * <li>a. Pide páginas con <code>pacienteService.selectResumenPage()</code>
+     * a medida que el usuario las solicita.</li>
      * <li>b. Llama a <code>pacienteService.selectByDni()</code>.</li>
-     * <li>c. Llama a <code>pacienteService.searchByFilter()</code>.</li>
+     * <li>c. Llama a <code>pacienteService.searchResumen()</code> e informa el
+     * modo de búsqueda utilizado.</li>
      * <li>Pasa la lista resultante (o el paciente único) a
      * <code>pacienteView.mostrarPacientes()</code>.</li>
      * <li>Maneja excepciones y muestra errores con
@@ -152,26 +172,25 @@ public class PacienteMenu {
             System.out.print("\nIngrese una opción -> ");
 
             int subopcion = Integer.parseInt(pacienteView.getScanner().nextLine().trim());
-            List<Paciente> pacientes;
 
             switch (subopcion) {
                 case 1 -> {
-                    // Listar todos
-                    pacientes = pacienteService.selectAll(false); // false = NO eliminados
-                    pacienteView.mostrarPacientes(pacientes);
+                    // Listar todos (paginado)
+                    listarPaginado(false); // false = NO eliminados
                 }
                 case 2 -> {
                     // Buscar por DNI
                     System.out.print("\nIngrese el DNI a buscar -> ");
                     String dni = pacienteView.getScanner().nextLine().trim();
                     Paciente p = pacienteService.selectByDni(dni);
-                    pacienteView.mostrarPacientes(p != null ? List.of(p) : List.of());
+                    pacienteView.mostrarPacientes(p != null ? List.of(PacienteResumen.of(p)) : List.of());
                 }
                 case 3 -> {
                     // Buscar por Filtro
                     String filtro = pacienteView.solicitarFiltroBusqueda();
-                    pacientes = pacienteService.searchByFilter(filtro);
-                    pacienteView.mostrarPacientes(pacientes);
+                    SearchResult<PacienteResumen> resultado = pacienteService.searchResumen(filtro);
+                    System.out.println("Búsqueda por " + resultado.mode().getDescripcion() + ".");
+                    pacienteView.mostrarPacientes(resultado.items());
                 }
                 case 0 -> {
                 }
@@ -196,7 +215,7 @@ public class PacienteMenu {
      * (patrón "Enter para mantener").</li>
      * <li>Si el paciente <b>no</b> tiene HC, pregunta si desea agregar una
      * (lógica de HU-003) y delega a
-     * <code>historiaMenu.handleCrearHistoria()</code>.</li>
+     * <code>historiaMenu.solicitarNuevaHistoria()</code>.</li>
      * <li>Llama a <code>pacienteService.update()</code>.</li>
      * <li>Muestra éxito o error.</li>
      * </ol>
@@ -222,10 +241,9 @@ public class PacienteMenu {
             if (paciente.getHistoriaClinica() == null) {
                 if (pacienteView.solicitarConfirmacion("Este paciente no tiene HC. ¿Desea agregar una ahora?")) {
                     // Reutilizar el sub-controlador de Historias
-                    HistoriaClinica nuevaHc = historiaMenu.handleCrearHistoria();
+                    HistoriaClinica nuevaHc = historiaMenu.solicitarNuevaHistoria();
                     if (nuevaHc != null) {
-                        paciente.setHistoriaClinica(nuevaHc);
-                        pacienteView.mostrarExito("Nueva Historia Clínica (ID: " + nuevaHc.getId() + ") asignada.");
+                        paciente.setHistoriaClinica(nuevaHc); // Se inserta junto con la actualización
                     } else {
                         pacienteView.mostrarError("Creación de HC cancelada. Paciente no actualizado.");
                         return; // Cancela la actualización del paciente
@@ -288,15 +306,41 @@ public class PacienteMenu {
      */
     public void handleListarPacientesEliminados() {
         try {
-            // 1. Servicio: Llamar a selectAll(true)
-            List<Paciente> pacientes = pacienteService.selectAll(true); // true = SÍ eliminados
-            // 2. Vista: Mostrar la lista
-            pacienteView.mostrarPacientes(pacientes);
+            // Servicio + Vista: mostrar página por página
+            listarPaginado(true); // true = SÍ eliminados
         } catch (Exception e) {
             pacienteView.mostrarError(e.getMessage());
         }
     }
 
+    /**
+     * Muestra el listado de pacientes de a {@value #PAGE_SIZE} por vez,
+     * pidiendo cada página al servicio solo cuando el usuario la solicita
+     * (paginación por clave: cada página cuesta lo mismo que la primera).
+     *
+     * @param deleted <code>false</code> para activos, <code>true</code> para
+     *                eliminados.
+     * @throws Exception Si el servicio falla.
+     */
+    private void listarPaginado(boolean deleted) throws Exception {
+        PacienteResumen ultimo = null;
+        int nroPagina = 1;
+
+        while (true) {
+            Page<PacienteResumen> pagina = pacienteService.selectResumenPage(ultimo, PAGE_SIZE, deleted);
+            if (nroPagina > 1 || !pagina.isEmpty()) {
+                System.out.println("\n--- Página " + nroPagina + " ---\n");
+            }
+            pacienteView.mostrarPacientes(pagina.items());
+
+            if (!pagina.hasNext() || !pacienteView.solicitarConfirmacion("¿Ver la página siguiente?")) {
+                return;
+            }
+            ultimo = pagina.last();
+            nroPagina++;
+        }
+    }
+
     /**
      * Orquesta la recuperación (lógica) de un Paciente (Opción 11.2).
      * <p>
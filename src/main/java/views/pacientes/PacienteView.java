@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Scanner;
 import models.HistoriaClinica;
 import models.Paciente;
+import models.PacienteResumen;
 
 /**
  * Clase de Vista (View) específica para la entidad Paciente.
@@ -77,24 +78,47 @@ public class PacienteView {
      * <p>
      * Si la lista está vacía, muestra un mensaje "No se encontraron...".
      * Si no, itera sobre la lista y llama a
-     * {@link #mostrarPacienteDetalle(Paciente)}
+     * {@link #mostrarPacienteResumen(PacienteResumen)}
      * para cada uno.
      * </p>
      *
-     * @param pacientes La {@link List} de {@link Paciente}s a mostrar.
+     * @param pacientes La {@link List} de {@link PacienteResumen}s a mostrar.
      */
-    public void mostrarPacientes(List<Paciente> pacientes) {
+    public void mostrarPacientes(List<PacienteResumen> pacientes) {
         if (pacientes == null || pacientes.isEmpty()) {
             System.out.println("No se encontraron pacientes que coincidan con los criterios.");
             return;
         }
 
-        for (Paciente p : pacientes) {
-            mostrarPacienteDetalle(p);
+        for (PacienteResumen p : pacientes) {
+            mostrarPacienteResumen(p);
             System.out.println("------------------------------");
         }
     }
 
+    /**
+     * Imprime la línea de listado de un paciente: sus datos identificatorios
+     * y el número y grupo de su HC (sin antecedentes, que solo se muestran en
+     * {@link #mostrarPacienteDetalle(Paciente)}).
+     *
+     * @param paciente El {@link PacienteResumen} a mostrar.
+     */
+    public void mostrarPacienteResumen(PacienteResumen paciente) {
+        System.out.printf("ID: %d | DNI: %s\n", paciente.id(), paciente.dni());
+        System.out.printf("Nombre: %s, %s\n", paciente.apellido(), paciente.nombre());
+        if (paciente.fechaNacimiento() != null) {
+            int edad = Period.between(paciente.fechaNacimiento(), LocalDate.now()).getYears();
+            System.out.printf("Fecha Nac: %s (%d años)\n", paciente.fechaNacimiento(), edad);
+        }
+
+        if (paciente.hasHistoriaClinica()) {
+            System.out.printf("  HC Nro: %s (ID: %d)\n", paciente.nroHistoria(), paciente.historiaClinicaId());
+            System.out.printf("  Grupo Sang.: %s\n", paciente.grupoSanguineo());
+        } else {
+            System.out.println("  HC: Sin Historia Clínica asignada.");
+        }
+    }
+
     /**
      * Imprime los detalles de un único objeto Paciente en un formato legible.
      * <p>
@@ -238,7 +262,7 @@ public class PacienteView {
      * @return El <code>String</code> del filtro (ya "trimeado").
      */
     public String solicitarFiltroBusqueda() {
-        System.out.print("\nIngrese el texto a buscar (por nombre o apellido) -> ");
+        System.out.print("\nIngrese el texto a buscar (por nombre o apellido; termine en * para buscar por prefijo) -> ");
         return scanner.nextLine().trim();
     }
 